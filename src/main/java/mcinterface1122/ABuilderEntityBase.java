@@ -72,7 +72,7 @@ public abstract class ABuilderEntityBase extends Entity{
     		if(!playersRequestingData.isEmpty()){
 	    		for(IWrapperPlayer player : playersRequestingData){
 	    			IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
-	    			writeToNBT(((WrapperNBT) data).tag);
+	    			writeToHandshakeNBT(((WrapperNBT) data).tag);
 	    			player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
 	    		}
 	    		playersRequestingData.clear();
@@ -85,6 +85,14 @@ public abstract class ABuilderEntityBase extends Entity{
 		}
     }
 	
+	/**
+	 *  Writes the data to send to clients that request it.  This is normally the same as what gets saved,
+	 *  but builders may add data that is only valid for the current session.
+	 */
+	protected void writeToHandshakeNBT(NBTTagCompound tag){
+		writeToNBT(tag);
+	}
+	
     @Override
     public void setPositionAndRotationDirect(double posX, double posY, double posZ, float yaw, float pitch, int posRotationIncrements, boolean teleport){
     	//Overridden due to stupid tracker behavior.
@@ -0,0 +1,188 @@
+package mcinterface1122;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+
+/**Cache of block collision shapes for a world.  Getting collision boxes from MC requires a block state
+ * lookup and a list allocation per block, and vehicles check the same blocks multiple times a tick.
+ * This cache stores the boxes for each block as a flat array of doubles, grouped by chunk so
+ * whole chunks can be dropped when they unload.  Entries are removed when MC tells us a block changed,
+ * along with the blocks around it, as things like fences change shape when their neighbors do.
+ * Blocks with tile entities are never cached, as their shape may depend on data we won't hear about.
+ *
+ * @author don_bruce
+ */
+class BlockCollisionCache implements IWorldEventListener{
+	/**Shape for blocks with no collision and no liquid.  Shared to save memory, as most blocks are this.**/
+	private static final BlockShape EMPTY_SHAPE = new BlockShape(new double[0], null);
+
+	private final World world;
+	private final Long2ObjectMap<Long2ObjectMap<BlockShape>> chunkShapes = new Long2ObjectOpenHashMap<Long2ObjectMap<BlockShape>>();
+	private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<AxisAlignedBB>();
+
+	BlockCollisionCache(World world){
+		this.world = world;
+		world.addEventListener(this);
+	}
+
+	/**
+	 *  Returns the shape of the block at the passed-in position, or null if the block isn't loaded.
+	 *  The position may be mutable, as it is not stored.
+	 */
+	BlockShape getShape(BlockPos pos){
+		if(pos.getY() < 0 || pos.getY() >= world.getHeight()){
+			return null;
+		}
+
+		//If we have shapes for the chunk, it's loaded, so we don't need to ask the world.
+		long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+		Long2ObjectMap<BlockShape> shapes = chunkShapes.get(chunkKey);
+		if(shapes == null){
+			if(!world.isBlockLoaded(pos)){
+				return null;
+			}
+			shapes = new Long2ObjectOpenHashMap<BlockShape>();
+			chunkShapes.put(chunkKey, shapes);
+		}
+
+		long posKey = pos.toLong();
+		BlockShape shape = shapes.get(posKey);
+		if(shape == null){
+			IBlockState state = world.getBlockState(pos);
+			shape = createShape(state, pos.toImmutable());
+			if(!state.getBlock().hasTileEntity(state)){
+				shapes.put(posKey, shape);
+			}
+		}
+		return shape;
+	}
+
+	/**
+	 *  Creates the shape for the passed-in block.
+	 */
+	private BlockShape createShape(IBlockState state, BlockPos pos){
+		double[] collisionBoxes = EMPTY_SHAPE.collisionBoxes;
+		if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
+			//Get all boxes that could touch the block space.  Some blocks, like fences, go outside it.
+			mutableCollidingAABBs.clear();
+			state.addCollisionBoxToList(world, pos, new AxisAlignedBB(pos).grow(1), mutableCollidingAABBs, null, false);
+			if(!mutableCollidingAABBs.isEmpty()){
+				collisionBoxes = new double[mutableCollidingAABBs.size()*6];
+				int index = 0;
+				for(AxisAlignedBB colBox : mutableCollidingAABBs){
+					collisionBoxes[index++] = colBox.minX;
+					collisionBoxes[index++] = colBox.minY;
+					collisionBoxes[index++] = colBox.minZ;
+					collisionBoxes[index++] = colBox.maxX;
+					collisionBoxes[index++] = colBox.maxY;
+					collisionBoxes[index++] = colBox.maxZ;
+				}
+			}
+		}
+
+		double[] liquidBox = null;
+		if(state.getMaterial().isLiquid()){
+			AxisAlignedBB stateBox = state.getBoundingBox(world, pos).offset(pos);
+			liquidBox = new double[]{stateBox.minX, stateBox.minY, stateBox.minZ, stateBox.maxX, stateBox.maxY, stateBox.maxZ};
+		}
+		return collisionBoxes.length == 0 && liquidBox == null ? EMPTY_SHAPE : new BlockShape(collisionBoxes, liquidBox);
+	}
+
+	/**
+	 *  Removes the cached shape for the block at the passed-in position, and the blocks next to it.
+	 */
+	private void invalidateBlock(BlockPos pos){
+		for(int i=-1; i<=1; ++i){
+			for(int j=-1; j<=1; ++j){
+				for(int k=-1; k<=1; ++k){
+					int x = pos.getX() + i;
+					int z = pos.getZ() + k;
+					Long2ObjectMap<BlockShape> shapes = chunkShapes.get(ChunkPos.asLong(x >> 4, z >> 4));
+					if(shapes != null){
+						shapes.remove(BlockPos.toLong(x, pos.getY() + j, z));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Removes all cached shapes for the chunk.  Call when the chunk is loaded or unloaded.
+	 */
+	void invalidateChunk(int chunkX, int chunkZ){
+		chunkShapes.remove(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	@Override
+	public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags){
+		invalidateBlock(pos);
+	}
+
+	@Override
+	public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2){
+		//This is called when clients get full chunk data, so just clear out all chunks in the range.
+		for(int chunkX=(x1 - 1) >> 4; chunkX<=(x2 + 1) >> 4; ++chunkX){
+			for(int chunkZ=(z1 - 1) >> 4; chunkZ<=(z2 + 1) >> 4; ++chunkZ){
+				invalidateChunk(chunkX, chunkZ);
+			}
+		}
+	}
+
+	@Override
+	public void notifyLightSet(BlockPos pos){}
+
+	@Override
+	public void playSoundToAllNearExcept(EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch){}
+
+	@Override
+	public void playRecord(SoundEvent soundIn, BlockPos pos){}
+
+	@Override
+	public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+
+	@Override
+	public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters){}
+
+	@Override
+	public void onEntityAdded(Entity entityIn){}
+
+	@Override
+	public void onEntityRemoved(Entity entityIn){}
+
+	@Override
+	public void broadcastSound(int soundID, BlockPos pos, int data){}
+
+	@Override
+	public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data){}
+
+	@Override
+	public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress){}
+
+	/**
+	 *  The collision shape of a block.  Boxes are in world coordinates, stored as
+	 *  minX, minY, minZ, maxX, maxY, maxZ for each box.
+	 */
+	static class BlockShape{
+		final double[] collisionBoxes;
+		/**The liquid box for this block, or null if it isn't a liquid.**/
+		final double[] liquidBox;
+
+		private BlockShape(double[] collisionBoxes, double[] liquidBox){
+			this.collisionBoxes = collisionBoxes;
+			this.liquidBox = liquidBox;
+		}
+	}
+}
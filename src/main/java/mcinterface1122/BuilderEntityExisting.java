@@ -1,13 +1,18 @@
 package mcinterface1122;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
@@ -21,6 +26,7 @@ import minecrafttransportsimulator.systems.ConfigSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.DamageSource;
@@ -58,6 +64,10 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 	private WrapperAABBCollective interactionBoxes;
 	/**Collective for collision boxes.  These are used by this entity to make things collide with it.**/
 	private WrapperAABBCollective collisionBoxes;
+	/**Name of the profiling section for this builder.  Cached as making it every tick makes garbage.**/
+	private String profilingName;
+	/**Players that MC has told us are tracking this builder.  Used to only send entity packets to clients that have us loaded.**/
+	private final Set<EntityPlayerMP> trackingPlayers = new HashSet<EntityPlayerMP>();
 	
 	public BuilderEntityExisting(World world){
 		super(world);
@@ -74,7 +84,10 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
     			setDead();
     		}else{
     			//Start master profiling section.
-    			entity.world.beginProfiling("MTSEntity_" + getEntityId(), true);
+    			if(profilingName == null){
+    				profilingName = "MTSEntity_" + getEntityId();
+    			}
+    			entity.world.beginProfiling(profilingName, true);
     			entity.world.beginProfiling("Main_Execution", true);
     			
 	    		//Forward the update call.
@@ -106,8 +119,8 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 	        		//on that first tick that would cause bad maths.
 	        		//We also do this only every second, as it prevents excess checks.
 	    			entity.world.beginProfiling("CollisionOverhead", false);
-	    			interactionBoxes = new WrapperAABBCollective(interactable.encompassingBox, interactable.getInteractionBoxes());
-	        		collisionBoxes = new WrapperAABBCollective(interactable.encompassingBox, interactable.getCollisionBoxes());
+	    			interactionBoxes = WrapperAABBCollective.update(interactionBoxes, interactable.encompassingBox, interactable.getInteractionBoxes());
+	        		collisionBoxes = WrapperAABBCollective.update(collisionBoxes, interactable.encompassingBox, interactable.getCollisionBoxes());
 	        		if(interactable.ticksExisted > 1 && interactable.ticksExisted%20 == 0){
         				setSize((float) Math.max(interactable.encompassingBox.widthRadius*2F, interactable.encompassingBox.depthRadius*2F), (float) interactable.encompassingBox.heightRadius*2F);
         				//Make sure the collision bounds for MC are big enough to collide with this entity.
@@ -126,6 +139,9 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 				try{
 					entity = entityMap.get(lastLoadedNBT.getString("entityid")).createEntity(worldWrapper, null, new WrapperNBT(lastLoadedNBT));
 					entity.world.addEntity(entity);
+					if(!world.isRemote){
+						InterfacePacket.setWatchers(entity, trackingPlayers);
+					}
 					loadedFromSavedNBT = true;
 					lastLoadedNBT = null;
 				}catch(Exception e){
@@ -143,8 +159,34 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 		//Notify internal entity of it being invalid.
 		if(entity != null){
 			entity.remove();
+			if(!world.isRemote){
+				InterfacePacket.removeWatchers(entity);
+			}
 		}
 	}
+	
+	/**
+	 *  Sets the entity for this builder.  Used when spawning new entities on the server,
+	 *  rather than loading them from NBT.
+	 */
+	protected void setEntity(AEntityB_Existing entity){
+		this.entity = entity;
+		if(!world.isRemote){
+			InterfacePacket.setWatchers(entity, trackingPlayers);
+		}
+	}
+	
+	@Override
+	public void addTrackingPlayer(EntityPlayerMP player){
+		super.addTrackingPlayer(player);
+		trackingPlayers.add(player);
+	}
+	
+	@Override
+	public void removeTrackingPlayer(EntityPlayerMP player){
+		super.removeTrackingPlayer(player);
+		trackingPlayers.remove(player);
+	}
     
     @Override
     public boolean attackEntityFrom(DamageSource source, float amount){
@@ -158,10 +200,10 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 				//it's a player firing a gun that had a bullet, or a random TNT lighting in the world.
 				//Explosions, unlike other damage sources, can hit multiple collision boxes on an entity at once.
 				BoundingBox explosiveBounds = new BoundingBox(lastExplosionPosition, amount, amount, amount);
-				for(BoundingBox box : interactionBoxes.boxes){
-					if(box.intersects(explosiveBounds)){
-						interactable.attack(new Damage(amount, box, null, playerSource, null).setExplosive());
-					}
+				List<BoundingBox> hitBoxes = new ArrayList<BoundingBox>();
+				interactable.getIntersectingInteractionBoxes(explosiveBounds, hitBoxes);
+				for(BoundingBox box : hitBoxes){
+					interactable.attack(new Damage(amount, box, null, playerSource, null).setExplosive());
 				}
 				lastExplosionPosition = null;
 			}else if(attacker != null){
@@ -244,6 +286,14 @@ public class BuilderEntityExisting extends ABuilderEntityBase{
 		return tag;
 	}
 	
+	@Override
+	protected void writeToHandshakeNBT(NBTTagCompound tag){
+		super.writeToHandshakeNBT(tag);
+		if(entity != null){
+			tag.setInteger(AEntityA_Base.SYNC_ID_KEY, entity.syncID);
+		}
+	}
+	
 	/**
 	 * We need to use explosion events here as we don't know where explosions occur in the world.
 	 * This results in them being position-less, so we can't get the collision box they hit for damage.
@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.components.ABlockBaseTileEntity;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBase;
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
@@ -102,6 +103,9 @@ public class BuilderTileEntity<TileEntityType extends ATileEntityBase<?>> extend
 		    		for(IWrapperPlayer player : playersRequestingData){
 		    			IWrapperNBT data = InterfaceManager.coreInterface.getNewNBTWrapper();
 		    			writeToNBT(((WrapperNBT) data).tag);
+		    			if(tileEntity != null){
+		    				data.setInteger(AEntityA_Base.SYNC_ID_KEY, tileEntity.syncID);
+		    			}
 		    			player.sendPacket(new PacketEntityCSHandshakeServer(this, data));
 		    		}
 		    		playersRequestingData.clear();
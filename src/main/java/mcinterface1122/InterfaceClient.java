@@ -7,7 +7,6 @@ import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.guis.components.AGUIBase;
 import minecrafttransportsimulator.guis.instances.GUIPackMissing;
@@ -18,6 +17,7 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.ControlSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
+import minecrafttransportsimulator.systems.ParticleSystem;
 import net.minecraft.block.SoundType;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.ScaledResolution;
@@ -228,9 +228,7 @@ public class InterfaceClient implements IInterfaceClient{
 					bullet.update();
 				}
 				clientWorld.beginProfiling("MTS_ParticleUpdates", false);
-				for(EntityParticle particle : clientWorld.getEntitiesOfType(EntityParticle.class)){
-					particle.update();
-				}
+				ParticleSystem.update(clientWorld);
 				clientWorld.endProfiling();
 				
 				IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
@@ -25,6 +25,11 @@ class InterfaceCore implements IInterfaceCore{
 		return Loader.instance().getMCVersionString().substring("Minecraft ".length());
 	}
 	
+	@Override
+	public String getModVersion(){
+		return InterfaceLoader.MODVER;
+	}
+	
 	@Override
 	public boolean isModPresent(String modID){
 		return Loader.isModLoaded(modID);
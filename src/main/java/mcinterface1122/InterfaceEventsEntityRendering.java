@@ -2,15 +2,18 @@ package mcinterface1122;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.lwjgl.input.Mouse;
 import org.lwjgl.opengl.GL11;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.instances.EntityPlayerGun;
@@ -25,6 +28,7 @@ import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.client.model.ModelPlayer;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.entity.RenderLivingBase;
 import net.minecraft.client.renderer.entity.RenderManager;
 import net.minecraft.client.renderer.entity.RenderPlayer;
@@ -61,6 +65,12 @@ public class InterfaceEventsEntityRendering{
 	private static RotationMatrix riderBodyOrientation = new RotationMatrix();
 	private static RotationMatrix riderHeadOrientation = new RotationMatrix();
 	private static TransformationMatrix riderTotalTransformation = new TransformationMatrix();
+	private static final List<BuilderEntityRenderForwarder> forwarders = new ArrayList<BuilderEntityRenderForwarder>();
+	/**Entities that passed culling for the current frame.**/
+	protected static final List<AEntityC_Renderable> visibleEntities = new ArrayList<AEntityC_Renderable>();
+	/**Entities that failed culling for the current frame.  These still need their sounds updated.**/
+	protected static final List<AEntityC_Renderable> culledEntities = new ArrayList<AEntityC_Renderable>();
+	private static final Map<Class<?>, Double> classRenderDistances = new HashMap<Class<?>, Double>();
 	
 	/**
 	 *  World last event.  This occurs at the end of rendering in a special pass of -1.
@@ -78,6 +88,14 @@ public class InterfaceEventsEntityRendering{
     	//Minecraft.getMinecraft().entityRenderer.enableLightmap();
     	InterfaceManager.renderingInterface.setLightingState(true);
     	
+    	//Find the forwarders once, rather than checking all entities on both passes.
+    	forwarders.clear();
+    	for(Entity entity : Minecraft.getMinecraft().world.loadedEntityList){
+            if(entity instanceof BuilderEntityRenderForwarder){
+            	forwarders.add((BuilderEntityRenderForwarder) entity);
+            }
+		}
+    	
     	//Render pass 0 and 1 here manually.
     	for(int pass=0; pass<2; ++pass){
     		if(pass == 1){
@@ -85,11 +103,8 @@ public class InterfaceEventsEntityRendering{
     			GlStateManager.depthMask(false);
     		}
     		
-    		for(Entity entity : Minecraft.getMinecraft().world.loadedEntityList){
-	            if(entity instanceof BuilderEntityRenderForwarder){
-	            	BuilderEntityRenderForwarder forwarder = (BuilderEntityRenderForwarder) entity;
-	    			Minecraft.getMinecraft().getRenderManager().getEntityRenderObject(forwarder).doRender(forwarder, 0, 0, 0, 0, partialTicks);
-	            }
+    		for(BuilderEntityRenderForwarder forwarder : forwarders){
+    			Minecraft.getMinecraft().getRenderManager().getEntityRenderObject(forwarder).doRender(forwarder, 0, 0, 0, 0, partialTicks);
     		}
 			
 			if(pass == 1){
@@ -103,6 +118,79 @@ public class InterfaceEventsEntityRendering{
 		InterfaceManager.renderingInterface.setLightingState(false);
     }
     
+    /**
+	 *  Culling stage for entity rendering.  Sorts the renderable entities in the passed-in world into ones that
+	 *  should render this frame, and ones that shouldn't.  Entities are culled if they are outside the camera
+	 *  frustum, or further from the camera than the max render distance for their class in the config.
+	 *  If rebuild is false, the lists from the last call are left as-is.  This lets the solid and blended
+	 *  passes share the same lists, rather than culling twice.  Note that this must be called while the
+	 *  OpenGL matrices are set to the camera, as the frustum is made from them.
+	 */
+    protected static void cullEntities(WrapperWorld world, float partialTicks, boolean rebuild){
+    	if(rebuild){
+    		visibleEntities.clear();
+    		culledEntities.clear();
+    		Entity camera = Minecraft.getMinecraft().getRenderViewEntity();
+    		double cameraX = camera.lastTickPosX + (camera.posX - camera.lastTickPosX)*partialTicks;
+    		double cameraY = camera.lastTickPosY + (camera.posY - camera.lastTickPosY)*partialTicks;
+    		double cameraZ = camera.lastTickPosZ + (camera.posZ - camera.lastTickPosZ)*partialTicks;
+    		Frustum frustum = new Frustum();
+    		frustum.setPosition(cameraX, cameraY, cameraZ);
+    		
+    		for(AEntityC_Renderable entity : world.renderableEntities){
+    			//Use the larger of the encompassing and normal box.  Entities without collisions have an empty encompassing box.
+    			BoundingBox box = entity.boundingBox;
+    			double widthRadius = box.widthRadius;
+    			double heightRadius = box.heightRadius;
+    			double depthRadius = box.depthRadius;
+    			if(entity instanceof AEntityE_Interactable){
+    				box = ((AEntityE_Interactable<?>) entity).encompassingBox;
+    				widthRadius = Math.max(widthRadius, box.widthRadius);
+    				heightRadius = Math.max(heightRadius, box.heightRadius);
+    				depthRadius = Math.max(depthRadius, box.depthRadius);
+    			}
+    			
+    			//Boxes are at the entity's current position, but we render between that and the prior one.
+    			if(entity.changesPosition()){
+    				double movement = entity.position.distanceTo(entity.prevPosition);
+    				widthRadius += movement;
+    				heightRadius += movement;
+    				depthRadius += movement;
+    			}
+    			
+    			double deltaX = box.globalCenter.x - cameraX;
+    			double deltaY = box.globalCenter.y - cameraY;
+    			double deltaZ = box.globalCenter.z - cameraZ;
+    			double maxDistance = getRenderDistance(entity.getClass());
+    			if((maxDistance == 0 || deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ < maxDistance*maxDistance) && frustum.isBoxInFrustum(box.globalCenter.x - widthRadius, box.globalCenter.y - heightRadius, box.globalCenter.z - depthRadius, box.globalCenter.x + widthRadius, box.globalCenter.y + heightRadius, box.globalCenter.z + depthRadius)){
+    				visibleEntities.add(entity);
+    			}else{
+    				culledEntities.add(entity);
+    			}
+    		}
+    	}
+    }
+    
+    /**
+	 *  Returns the max render distance for the passed-in class from the config, or 0 if there is no max.
+	 *  Looks up the class hierarchy until it finds a class in the config.  Cached as this is done every frame.
+	 */
+    private static double getRenderDistance(Class<?> entityClass){
+    	Double distance = classRenderDistances.get(entityClass);
+    	if(distance == null){
+    		distance = 0D;
+    		for(Class<?> testClass = entityClass; testClass != null; testClass = testClass.getSuperclass()){
+    			Integer configDistance = ConfigSystem.client.renderingSettings.renderDistances.value.get(testClass.getSimpleName());
+    			if(configDistance != null){
+    				distance = configDistance.doubleValue();
+    				break;
+    			}
+    		}
+    		classRenderDistances.put(entityClass, distance);
+    	}
+    	return distance;
+    }
+    
     private static int lastScreenWidth;
 	private static int lastScreenHeight;
     
@@ -23,6 +23,7 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packloading.PackResourceLoader;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ResourceType;
 import minecrafttransportsimulator.systems.PackParserSystem;
+import minecrafttransportsimulator.systems.ParticleSystem;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.block.model.ModelResourceLocation;
@@ -96,12 +97,43 @@ public class InterfaceEventsModelLoader{
 							//This prevents bad lighting.
 							GlStateManager.enableRescaleNormal();
 							
+							//Upload any online textures that finished loading.  Only do this once a frame.
+							if(!blendingEnabled){
+								InterfaceRender.uploadOnlineTextures();
+							}
+							
+							//Cull on the solid pass, and re-use the results on the blended pass.
+							world.beginProfiling("MTSCulling", true);
+							InterfaceEventsEntityRendering.cullEntities(world, partialTicks, !blendingEnabled);
+							world.endProfiling();
+							
 							//Start master profiling section.
-							for(AEntityC_Renderable entity : allEntities){
+							//Cached models are queued while rendering, and drawn together after all entities are done.
+							RenderQueue.begin(blendingEnabled);
+							for(AEntityC_Renderable entity : InterfaceEventsEntityRendering.visibleEntities){
 								world.beginProfiling("MTSRendering", true);
 								entity.getRenderer().render(entity, blendingEnabled, partialTicks);
 								world.endProfiling();
 							}
+							world.beginProfiling("MTSRenderQueue", true);
+							RenderQueue.end();
+							world.endProfiling();
+							
+							//Particles are all translucent, so render them after everything else on the blended pass.
+							if(blendingEnabled){
+								world.beginProfiling("MTSParticles", true);
+								ParticleSystem.render(partialTicks);
+								world.endProfiling();
+							}
+							
+							//Culled entities don't render, but still need their sounds to follow them.
+							if(!blendingEnabled){
+								for(AEntityC_Renderable entity : InterfaceEventsEntityRendering.culledEntities){
+									if(entity.ticksExisted != 0){
+										entity.updateSounds(partialTicks);
+									}
+								}
+							}
 							
 							//Reset states.
 							GL11.glShadeModel(GL11.GL_FLAT);
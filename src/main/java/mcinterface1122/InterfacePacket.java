@@ -1,30 +1,61 @@
 package mcinterface1122;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
 
-class InterfacePacket implements IInterfacePacket{
+@EventBusSubscriber
+public class InterfacePacket implements IInterfacePacket{
 	private static final SimpleNetworkWrapper network = NetworkRegistry.INSTANCE.newSimpleChannel(InterfaceLoader.MODID);
 	private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+	/**Players tracking each entity.  Populated by the builders for entities that MC tracks for us.**/
+	private static final Map<AEntityA_Base, Set<EntityPlayerMP>> entityWatchers = new ConcurrentHashMap<AEntityA_Base, Set<EntityPlayerMP>>();
+	/**Packets waiting to be sent to each player at the end of the server tick.**/
+	private static final Map<EntityPlayerMP, List<QueuedPacket>> playerQueues = new HashMap<EntityPlayerMP, List<QueuedPacket>>();
+	/**Packets waiting to be sent to the server at the end of the client tick.**/
+	private static final List<QueuedPacket> serverQueue = new ArrayList<QueuedPacket>();
+	/**Max size of a batch of packets.  Client-to-server packets can't be larger than 32767 bytes, so we stay under that.**/
+	private static final int MAX_BATCH_SIZE = 30000;
 	
 	/**
 	 *  Called to init this network.  Needs to be done after networking is ready.
@@ -54,17 +85,216 @@ class InterfacePacket implements IInterfacePacket{
 	
 	@Override
 	public void sendToServer(APacketBase packet){
-		network.sendToServer(new WrapperPacket(packet));
+		if(packet.runOnMainThread()){
+			synchronized(serverQueue){
+				queuePacket(serverQueue, new QueuedPacket(packet));
+			}
+		}else{
+			network.sendToServer(new WrapperPacket(packet));
+		}
 	}
 	
 	@Override
 	public void sendToAllClients(APacketBase packet){
-		network.sendToAll(new WrapperPacket(packet));
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if(server != null){
+			sendToPlayers(packet, server.getPlayerList().getPlayers());
+		}
+	}
+	
+	@Override
+	public void sendToAllTracking(APacketBase packet, AEntityA_Base entity){
+		//Parts aren't tracked themselves, the entity they are on is.
+		AEntityA_Base trackedEntity = entity;
+		while(trackedEntity instanceof APart){
+			trackedEntity = ((APart) trackedEntity).entityOn;
+		}
+		Set<EntityPlayerMP> watchers = entityWatchers.get(trackedEntity);
+		if(watchers != null){
+			if(!watchers.isEmpty()){
+				sendToPlayers(packet, watchers);
+			}
+		}else if(trackedEntity instanceof AEntityB_Existing){
+			//Not tracked by a builder, like tile entities.  Send to players that could have the chunk loaded.
+			WorldServer world = (WorldServer) ((WrapperWorld) trackedEntity.world).world;
+			sendToAllNear(packet, trackedEntity.world, ((AEntityB_Existing) trackedEntity).position, world.getMinecraftServer().getPlayerList().getViewDistance()*16);
+		}else{
+			//No position to go off of, so we need to send to everyone.
+			sendToAllClients(packet);
+		}
+	}
+	
+	@Override
+	public void sendToAllNear(APacketBase packet, AWrapperWorld world, Point3D position, double radius){
+		if(packet.runOnMainThread()){
+			List<EntityPlayerMP> nearbyPlayers = new ArrayList<EntityPlayerMP>();
+			for(EntityPlayer player : ((WrapperWorld) world).world.playerEntities){
+				if(player instanceof EntityPlayerMP && player.getDistanceSq(position.x, position.y, position.z) < radius*radius){
+					nearbyPlayers.add((EntityPlayerMP) player);
+				}
+			}
+			if(!nearbyPlayers.isEmpty()){
+				sendToPlayers(packet, nearbyPlayers);
+			}
+		}else{
+			network.sendToAllAround(new WrapperPacket(packet), new TargetPoint(((WrapperWorld) world).world.provider.getDimension(), position.x, position.y, position.z, radius));
+		}
+	}
+	
+	/**
+	 *  Sets the players watching the passed-in entity.  The set is owned by the caller, and is
+	 *  used directly so changes to it are reflected without further calls.
+	 */
+	protected static void setWatchers(AEntityA_Base entity, Set<EntityPlayerMP> watchers){
+		entityWatchers.put(entity, watchers);
+	}
+	
+	/**
+	 *  Removes the players watching the passed-in entity.  Call when the entity is removed.
+	 */
+	protected static void removeWatchers(AEntityA_Base entity){
+		entityWatchers.remove(entity);
 	}
 	
 	@Override
 	public void sendToPlayer(APacketBase packet, IWrapperPlayer player){
-		network.sendTo(new WrapperPacket(packet), (EntityPlayerMP) ((WrapperPlayer) player).player);
+		EntityPlayerMP mcPlayer = (EntityPlayerMP) ((WrapperPlayer) player).player;
+		if(packet.runOnMainThread()){
+			synchronized(playerQueues){
+				queuePacket(getPlayerQueue(mcPlayer), new QueuedPacket(packet));
+			}
+		}else{
+			network.sendTo(new WrapperPacket(packet), mcPlayer);
+		}
+	}
+	
+	/**
+	 *  Queues the packet for all passed-in players.  The packet is only encoded once, and that
+	 *  encoding is shared between all players it goes to.  Packets that don't run on the main
+	 *  thread are sent right away, as they are normally handshakes done on the network thread.
+	 */
+	private static void sendToPlayers(APacketBase packet, Iterable<EntityPlayerMP> players){
+		if(packet.runOnMainThread()){
+			QueuedPacket queuedPacket = new QueuedPacket(packet);
+			synchronized(playerQueues){
+				for(EntityPlayerMP player : players){
+					queuePacket(getPlayerQueue(player), queuedPacket);
+				}
+			}
+		}else{
+			WrapperPacket wrapper = new WrapperPacket(packet);
+			for(EntityPlayerMP player : players){
+				network.sendTo(wrapper, player);
+			}
+		}
+	}
+	
+	/**
+	 *  Helper method to get the queue for a player, creating it if it doesn't exist.
+	 */
+	private static List<QueuedPacket> getPlayerQueue(EntityPlayerMP player){
+		List<QueuedPacket> queue = playerQueues.get(player);
+		if(queue == null){
+			queue = new ArrayList<QueuedPacket>();
+			playerQueues.put(player, queue);
+		}
+		return queue;
+	}
+	
+	/**
+	 *  Adds the packet to the passed-in queue.  If the packet changes a variable that an earlier
+	 *  packet in the queue also changes, the two are merged, if possible.  The earlier packet is
+	 *  then nulled out and the merged packet added to the end so packet order is maintained.
+	 */
+	private static void queuePacket(List<QueuedPacket> queue, QueuedPacket queuedPacket){
+		if(queuedPacket.packet instanceof APacketEntityVariable){
+			APacketEntityVariable variablePacket = (APacketEntityVariable) queuedPacket.packet;
+			for(int i=queue.size()-1; i>=0; --i){
+				QueuedPacket earlierPacket = queue.get(i);
+				if(earlierPacket != null && earlierPacket.packet instanceof APacketEntityVariable && variablePacket.isSameVariable((APacketEntityVariable) earlierPacket.packet)){
+					APacketEntityVariable mergedPacket = variablePacket.mergeWithEarlier((APacketEntityVariable) earlierPacket.packet);
+					if(mergedPacket != null){
+						queue.set(i, null);
+						queuedPacket = mergedPacket == variablePacket ? queuedPacket : new QueuedPacket(mergedPacket);
+					}
+					break;
+				}
+			}
+		}
+		queue.add(queuedPacket);
+	}
+	
+	/**
+	 *  Sends all packets in the passed-in queue, packed into as few {@link WrapperPacket}s as possible.
+	 *  Returns once all packets have been handed off to the sender, and clears the queue.
+	 */
+	private static void flushQueue(List<QueuedPacket> queue, EntityPlayerMP player){
+		ByteBuf batchData = null;
+		int batchCount = 0;
+		for(QueuedPacket queuedPacket : queue){
+			if(queuedPacket != null){
+				int packetSize = queuedPacket.data.readableBytes();
+				if(batchData != null && batchData.readableBytes() + packetSize > MAX_BATCH_SIZE){
+					sendBatch(new WrapperPacket(batchData, batchCount), player);
+					batchData = null;
+				}
+				if(batchData == null){
+					batchData = Unpooled.buffer();
+					batchCount = 0;
+				}
+				batchData.writeBytes(queuedPacket.data, queuedPacket.data.readerIndex(), packetSize);
+				++batchCount;
+			}
+		}
+		if(batchData != null){
+			sendBatch(new WrapperPacket(batchData, batchCount), player);
+		}
+		queue.clear();
+	}
+	
+	/**
+	 *  Sends the batch to the player, or the server if the player is null.
+	 */
+	private static void sendBatch(WrapperPacket batch, EntityPlayerMP player){
+		if(player != null){
+			network.sendTo(batch, player);
+		}else{
+			network.sendToServer(batch);
+		}
+	}
+	
+	/**
+	 *  Sends all queued packets to the clients.  This is done at the end of the server tick,
+	 *  after everything that could send packets has had its chance to.
+	 */
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void on(TickEvent.ServerTickEvent event){
+		if(event.phase.equals(Phase.END)){
+			synchronized(playerQueues){
+				for(Entry<EntityPlayerMP, List<QueuedPacket>> queueEntry : playerQueues.entrySet()){
+					//Players that left during the tick don't need their packets.
+					if(!queueEntry.getKey().hasDisconnected()){
+						flushQueue(queueEntry.getValue(), queueEntry.getKey());
+					}
+				}
+				playerQueues.clear();
+			}
+		}
+	}
+	
+	/**
+	 *  Sends all queued packets to the server.  This is done at the end of the client tick,
+	 *  after controls and GUIs have had their chance to send packets.
+	 */
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void on(TickEvent.ClientTickEvent event){
+		if(event.phase.equals(Phase.END)){
+			synchronized(serverQueue){
+				if(!serverQueue.isEmpty()){
+					flushQueue(serverQueue, null);
+				}
+			}
+		}
 	}
 	
 	/**
@@ -93,15 +323,34 @@ class InterfacePacket implements IInterfacePacket{
 	}
 	
 	
+	/**
+	 *  A packet waiting to be sent.  The packet is encoded when queued rather than when sent,
+	 *  as packets may hold references to objects that will change before the end of the tick.
+	 */
+	private static class QueuedPacket{
+		private final APacketBase packet;
+		private final ByteBuf data;
+		
+		private QueuedPacket(APacketBase packet){
+			this.packet = packet;
+			this.data = Unpooled.buffer();
+			packet.writeToBuffer(data);
+		}
+	}
+	
 	/**
 	 *  Custom class for packets.  Allows for a common packet to be used for all MC versions, 
 	 *  as well as less boilerplate code due to thread operations.  Note that when this packet 
 	 *  arrives on the other side of the pipeline, MC won't know what class to construct.
 	 *  That's up to us to handle via the packet's first byte.  Also note that this class
 	 *  must be public, as if it is private MC won't be able to construct it due to access violations.
+	 *  Each wrapper may contain multiple packets, which are sent as a count followed by each packet's data.
 	 */
 	public static class WrapperPacket implements IMessage{
+		private final List<APacketBase> packets = new ArrayList<APacketBase>();
 		private APacketBase packet;
+		private ByteBuf batchData;
+		private int batchCount;
 		
 		/**Do NOT call!  Required to keep Forge from crashing.**/
 		public WrapperPacket(){}
@@ -109,21 +358,39 @@ class InterfacePacket implements IInterfacePacket{
 		public WrapperPacket(APacketBase packet){
 			this.packet = packet;
 		}
+		
+		/**Creates a wrapper for a batch of already-encoded packets.**/
+		private WrapperPacket(ByteBuf batchData, int batchCount){
+			this.batchData = batchData;
+			this.batchCount = batchCount;
+		}
 				
 		@Override
 		public void fromBytes(ByteBuf buf){
-			byte packetIndex = buf.readByte();
-			try{
-				Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-				packet = packetClass.getConstructor(ByteBuf.class).newInstance(buf);
-			}catch(Exception e){
-				e.printStackTrace();
+			int packetCount = buf.readUnsignedShort();
+			for(int i=0; i<packetCount; ++i){
+				byte packetIndex = buf.readByte();
+				try{
+					Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
+					packets.add(packetClass.getConstructor(ByteBuf.class).newInstance(buf));
+				}catch(Exception e){
+					//Can't know where the next packet starts if this one failed, so drop the rest.
+					e.printStackTrace();
+					return;
+				}
 			}
 		}
 
 		@Override
 		public void toBytes(ByteBuf buf){
-			packet.writeToBuffer(buf);
+			if(batchData != null){
+				//Don't move the reader index, as this wrapper may be encoded more than once.
+				buf.writeShort(batchCount);
+				buf.writeBytes(batchData, batchData.readerIndex(), batchData.readableBytes());
+			}else{
+				buf.writeShort(1);
+				packet.writeToBuffer(buf);
+			}
 		}
 	};
 	
@@ -134,8 +401,23 @@ class InterfacePacket implements IInterfacePacket{
 	public static class WrapperHandler implements IMessageHandler<WrapperPacket, IMessage>{
 		@Override
 		public IMessage onMessage(WrapperPacket message, MessageContext ctx){
-			if(message.packet.runOnMainThread()){
+			//Handle packets that don't need the main thread now, and collect the rest.
+			List<APacketBase> mainThreadPackets = new ArrayList<APacketBase>(message.packets.size());
+			for(APacketBase packet : message.packets){
+				if(packet.runOnMainThread()){
+					mainThreadPackets.add(packet);
+				}else{
+					if(ctx.side.isServer()){
+						packet.handle(getServerWorld(ctx));
+					}else{
+						packet.handle(InterfaceManager.clientInterface.getClientWorld());
+					}
+				}
+			}
+			
+			if(!mainThreadPackets.isEmpty()){
 				//Need to put this in a runnable to not run it on the network thread and get a CME.
+				//All packets in the batch go in the same runnable to save on scheduling overhead.
 				FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(new Runnable(){
 					@Override
 					public void run(){
@@ -149,16 +431,12 @@ class InterfacePacket implements IInterfacePacket{
 							world = InterfaceManager.clientInterface.getClientWorld();
 						}
 						if(world != null){
-							message.packet.handle(world);
+							for(APacketBase packet : mainThreadPackets){
+								packet.handle(world);
+							}
 						}
 					}
 				});
-			}else{
-				if(ctx.side.isServer()){
-					message.packet.handle(getServerWorld(ctx));
-				}else{
-					message.packet.handle(InterfaceManager.clientInterface.getClientWorld());
-				}
 			}
 			return null;
 		}
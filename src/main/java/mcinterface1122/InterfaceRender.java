@@ -1,22 +1,18 @@
 package mcinterface1122;
 
-import java.awt.image.BufferedImage;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
+import java.util.Set;
 
 import org.lwjgl.opengl.GL11;
 
@@ -29,17 +25,20 @@ import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.rendering.components.GIFParser;
-import minecrafttransportsimulator.rendering.components.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.components.GIFParser.ParsedGIF;
 import minecrafttransportsimulator.rendering.components.RenderableObject;
+import minecrafttransportsimulator.rendering.components.URLTextureLoader;
+import minecrafttransportsimulator.rendering.components.URLTextureLoader.LoadedTexture;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.texture.TextureUtil;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
@@ -54,8 +53,15 @@ public class InterfaceRender implements IInterfaceRender{
 	private static final Map<String, ResourceLocation> internalTextures = new HashMap<String, ResourceLocation>();
 	private static final Map<String, Integer> onlineTextures = new HashMap<String, Integer>();
 	private static final Map<String, ParsedGIF> animatedGIFs = new HashMap<String, ParsedGIF>();
-	private static final Map<ParsedGIF, Map<GIFImageFrame, Integer>> animatedGIFFrames = new LinkedHashMap<ParsedGIF, Map<GIFImageFrame, Integer>>();
 	private static final Map<IWrapperItemStack, TransformationMatrix> stacksToRender = new LinkedHashMap<IWrapperItemStack, TransformationMatrix>();
+	private static final Set<String> pendingOnlineTextures = new HashSet<String>();
+	private static final List<String> unrequestedOnlineTextures = new ArrayList<String>();
+	private static final Map<String, String> onlineTextureErrors = new HashMap<String, String>();
+	private static URLTextureLoader onlineTextureLoader;
+	private static int placeholderTexture = -1;
+	private static boolean textureMatrixChanged;
+	/**Max time to spend uploading online textures each frame, in nanoseconds.  At least one is always uploaded so we don't stall.**/
+	private static final long ONLINE_TEXTURE_UPLOAD_BUDGET = 2000000;
 	private static float lastLightmapX;
 	private static float lastLightmapY;
 	
@@ -109,6 +115,13 @@ public class InterfaceRender implements IInterfaceRender{
 	
 	@Override
 	public void renderVertices(RenderableObject object){
+		//If we can queue this object, do so rather than rendering it now.
+		if(RenderQueue.shouldQueue(object)){
+			RenderQueue.queue(object, getCachedVertexIndex(object));
+			return;
+		}
+		RenderQueue.flushBlended();
+		
 		if(object.disableLighting){
 			setLightingState(false);
 		}
@@ -128,11 +141,7 @@ public class InterfaceRender implements IInterfaceRender{
 		GL11.glPushMatrix();
 		applyTransformOpenGL(object.transform, false);
 		if(object.cacheVertices){
-			if(object.cachedVertexIndex == -1){
-				object.cachedVertexIndex = cacheVertices(object.vertices);
-				object.vertices = null;
-			}
-			renderVertices(object.cachedVertexIndex);
+			renderVertices(getCachedVertexIndex(object));
 		}else if(object.lineWidth != 0){
 			renderLines(object.vertices, object.lineWidth);
 		}else{
@@ -142,6 +151,8 @@ public class InterfaceRender implements IInterfaceRender{
 		
 		if(object.texture == null){
 			GL11.glEnable(GL11.GL_TEXTURE_2D);
+		}else{
+			resetTextureMatrix();
 		}
 		if(object.disableLighting || object.ignoreWorldShading){
 			setLightingState(true);
@@ -151,6 +162,26 @@ public class InterfaceRender implements IInterfaceRender{
 		}
 	}
 	
+	/**
+	 *  Returns the index of the cached vertices for the passed-in object, caching them if they haven't been already.
+	 */
+	private static int getCachedVertexIndex(RenderableObject object){
+		if(object.cachedVertexIndex == -1){
+			if(object.sharedCache != null){
+				//Only cache if no other objects with these vertices have.
+				if(object.sharedCache.cachedVertexIndex == -1){
+					object.sharedCache.cachedVertexIndex = cacheVertices(object.vertices);
+				}
+				++object.sharedCache.references;
+				object.cachedVertexIndex = object.sharedCache.cachedVertexIndex;
+			}else{
+				object.cachedVertexIndex = cacheVertices(object.vertices);
+			}
+			object.vertices = null;
+		}
+		return object.cachedVertexIndex;
+	}
+	
 	@Override
 	public void applyTransformOpenGL(TransformationMatrix matrix, boolean inverted){
 		buffer.clear();
@@ -195,13 +226,34 @@ public class InterfaceRender implements IInterfaceRender{
 	
 	@Override
 	public void deleteVertices(RenderableObject object){
-		GL11.glDeleteLists(object.cachedVertexIndex, 1);
+		if(object.sharedCache != null && object.cachedVertexIndex != -1){
+			//Don't delete shared vertices until all objects using them are gone.
+			object.cachedVertexIndex = -1;
+			if(--object.sharedCache.references > 0){
+				return;
+			}
+			object.cachedVertexIndex = object.sharedCache.cachedVertexIndex;
+			object.sharedCache.cachedVertexIndex = -1;
+		}
+		if(VertexBufferManager.isSupported()){
+			if(object.cachedVertexIndex != -1){
+				VertexBufferManager.deleteCached(object.cachedVertexIndex);
+				object.cachedVertexIndex = -1;
+			}
+		}else{
+			GL11.glDeleteLists(object.cachedVertexIndex, 1);
+		}
 	}
 	
 	/**
 	 *  Renders a set of raw vertices without any caching.
+	 *  Vertices are streamed through a VBO if possible, and rendered in immediate mode if not.
 	 */
 	private static void renderVertices(FloatBuffer vertices){
+		if(VertexBufferManager.isSupported()){
+			VertexBufferManager.renderVertices(vertices);
+			return;
+		}
 		GL11.glBegin(GL11.GL_TRIANGLES);
 		while(vertices.hasRemaining()){
 			GL11.glNormal3f(vertices.get(), vertices.get(), vertices.get());
@@ -213,11 +265,61 @@ public class InterfaceRender implements IInterfaceRender{
 		vertices.rewind();
 	}
 	
+	@Override
+	public void renderParticles(String texture, FloatBuffer vertices){
+		//Particles are drawn like MC draws its own, with the color and light in each vertex.
+		//This lets all particles with the same texture be drawn at once.
+		bindTexture(texture);
+		setSystemLightingState(false);
+		BufferBuilder builder = Tessellator.getInstance().getBuffer();
+		builder.begin(GL11.GL_QUADS, DefaultVertexFormats.PARTICLE_POSITION_TEX_COLOR_LMAP);
+		while(vertices.hasRemaining()){
+			builder.pos(vertices.get(), vertices.get(), vertices.get());
+			builder.tex(vertices.get(), vertices.get());
+			builder.color(vertices.get(), vertices.get(), vertices.get(), vertices.get());
+			int lightVar = (int) vertices.get();
+			if(lightVar < 0){
+				lightVar = (15 << 20) | (15 << 4);
+			}
+			builder.lightmap(lightVar >> 16 & 65535, lightVar & 65535).endVertex();
+		}
+		Tessellator.getInstance().draw();
+		vertices.rewind();
+		resetTextureMatrix();
+		setSystemLightingState(true);
+	}
+	
+	/**
+	 *  Renders a set of vertices previously cached with {@link #cacheVertices(FloatBuffer)} as part of a batch.
+	 *  Call {@link #endBatch()} after the last set in the batch is rendered.  If VBOs aren't supported,
+	 *  this just calls the display list.
+	 */
+	static void renderVerticesBatched(int index){
+		if(VertexBufferManager.isSupported()){
+			VertexBufferManager.renderCachedBatched(index);
+		}else{
+			GL11.glCallList(index);
+		}
+	}
+	
+	/**
+	 *  Ends a batch started with {@link #renderVerticesBatched(int)}.
+	 */
+	static void endBatch(){
+		if(VertexBufferManager.isSupported()){
+			VertexBufferManager.endBatch();
+		}
+	}
+	
 	/**
 	 *  Renders a set of vertices previously cached with {@link #cacheVertices(FloatBuffer)}
 	 */
-	private static void renderVertices(int index){
-		GL11.glCallList(index);
+	static void renderVertices(int index){
+		if(VertexBufferManager.isSupported()){
+			VertexBufferManager.renderCached(index);
+		}else{
+			GL11.glCallList(index);
+		}
 	}
 	
 	/**
@@ -225,13 +327,17 @@ public class InterfaceRender implements IInterfaceRender{
 	 */
 	private static void renderLines(FloatBuffer vertices, float width){
 		GL11.glLineWidth(width);
-		GL11.glBegin(GL11.GL_LINES);
-		while(vertices.hasRemaining()){
-			GL11.glVertex3f(vertices.get(), vertices.get(), vertices.get());
+		if(VertexBufferManager.isSupported()){
+			VertexBufferManager.renderLines(vertices);
+		}else{
+			GL11.glBegin(GL11.GL_LINES);
+			while(vertices.hasRemaining()){
+				GL11.glVertex3f(vertices.get(), vertices.get(), vertices.get());
+			}
+			GL11.glEnd();
+			//Rewind buffer for next read.
+			vertices.rewind();
 		}
-		GL11.glEnd();
-		//Rewind buffer for next read.
-		vertices.rewind();
 		GL11.glLineWidth(1);
 	}
 	
@@ -240,9 +346,13 @@ public class InterfaceRender implements IInterfaceRender{
 	 *  but no matter which version is used, the returned value is assured to be unique for each
 	 *  call to this function.  This should be used in tandem with {@link #renderVertices(int)},
 	 *  which will render the cached vertices from this function.  Note that the vertex format
-	 *  is expected to be the same as what is in {@link RenderableObject}
+	 *  is expected to be the same as what is in {@link RenderableObject}.  VBOs are used if
+	 *  possible, with display lists as a fall-back for old hardware.
 	 */
 	private static int cacheVertices(FloatBuffer vertices){
+		if(VertexBufferManager.isSupported()){
+			return VertexBufferManager.cacheVertices(vertices);
+		}
 		int displayListIndex = GL11.glGenLists(1);
 		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
 		renderVertices(vertices);
@@ -255,14 +365,32 @@ public class InterfaceRender implements IInterfaceRender{
 	 *  cached in this class once created for later use, so feel free to not cache
 	 *  the string values that are passed-in.
 	 */
-	private static void bindTexture(String textureLocation){
-		if(animatedGIFs.containsKey(textureLocation)){
-			//Special case for GIFs.
-			ParsedGIF parsedGIF = animatedGIFs.get(textureLocation);
-			GlStateManager.bindTexture(animatedGIFFrames.get(parsedGIF).get(parsedGIF.getCurrentFrame()));
-		}else if(onlineTextures.containsKey(textureLocation)){
+	static void bindTexture(String textureLocation){
+		resetTextureMatrix();
+		if(onlineTextures.containsKey(textureLocation)){
 			//Online texture.
 			GlStateManager.bindTexture(onlineTextures.get(textureLocation));
+			
+			//If we are a GIF, the texture is an atlas of all frames.  Offset UVs to the current one.
+			//This assumes UVs are in the 0-1 range, as UVs that tile past that would pick up other frames.
+			ParsedGIF parsedGIF = animatedGIFs.get(textureLocation);
+			if(parsedGIF != null){
+				int frame = parsedGIF.getCurrentFrame();
+				GL11.glMatrixMode(GL11.GL_TEXTURE);
+				GL11.glLoadIdentity();
+				GL11.glScalef(1F/parsedGIF.columns, 1F/parsedGIF.rows, 1);
+				GL11.glTranslatef(frame%parsedGIF.columns, frame/parsedGIF.columns, 0);
+				GL11.glMatrixMode(GL11.GL_MODELVIEW);
+				textureMatrixChanged = true;
+			}
+		}else if(pendingOnlineTextures.contains(textureLocation)){
+			//Online texture that's still loading.  Use a plain placeholder until it's ready.
+			if(placeholderTexture == -1){
+				placeholderTexture = TextureUtil.glGenTextures();
+				TextureUtil.allocateTexture(placeholderTexture, 1, 1);
+				TextureUtil.uploadTexture(placeholderTexture, new int[]{0xFF808080}, 1, 1);
+			}
+			GlStateManager.bindTexture(placeholderTexture);
 		}else if(textureLocation.equals(RenderableObject.GLOBAL_TEXTURE_NAME)){
 			//Default texture.
 			Minecraft.getMinecraft().getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
@@ -293,64 +421,70 @@ public class InterfaceRender implements IInterfaceRender{
 		}
 	}
 	
+	/**
+	 *  Resets the texture matrix if {@link #bindTexture(String)} changed it for a GIF.
+	 *  Call this after rendering anything that bound a texture, as nothing else expects it to change.
+	 */
+	static void resetTextureMatrix(){
+		if(textureMatrixChanged){
+			GL11.glMatrixMode(GL11.GL_TEXTURE);
+			GL11.glLoadIdentity();
+			GL11.glMatrixMode(GL11.GL_MODELVIEW);
+			textureMatrixChanged = false;
+		}
+	}
+	
 	@Override
 	public String downloadURLTexture(String textureURL){
-		if(!onlineTextures.containsKey(textureURL) && !animatedGIFs.containsKey(textureURL)){
-			//Parse the texture, get the OpenGL integer that represents this texture, and save it.
-			//FAR less jank than using MC's resource system.
-			try{
-				URL url = new URL(textureURL);
-				URLConnection connection = url.openConnection();
-				try{
-					List<String> validContentTypes = new ArrayList<String>();
-					for(String imageSuffix : ImageIO.getReaderFileSuffixes()){
-						validContentTypes.add("image/" + imageSuffix);
-					}
-					String contentType = connection.getHeaderField("Content-Type");
-					if(validContentTypes.contains(contentType)){
-						if(contentType.endsWith("gif")){
-							ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
-						    ImageInputStream stream = ImageIO.createImageInputStream(url.openStream());
-						    reader.setInput(stream);
-						    ParsedGIF gif = GIFParser.parseGIF(reader);
-						    if(gif != null){
-						    	animatedGIFs.put(textureURL, gif);
-						    	Map<GIFImageFrame, Integer> gifFrameIndexes = new HashMap<GIFImageFrame, Integer>();
-						    	for(GIFImageFrame frame : gif.frames.values()){
-						    		int glTexturePointer = TextureUtil.glGenTextures();
-							        TextureUtil.uploadTextureImageAllocate(glTexturePointer, frame.getImage(), false, false);
-							        gifFrameIndexes.put(frame, glTexturePointer);
-						    	}
-						    	animatedGIFFrames.put(gif, gifFrameIndexes);
-						    }else{
-						    	return "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
-						    }
-						}else{
-							BufferedImage bufferedimage = TextureUtil.readBufferedImage(url.openStream());
-							int glTexturePointer = TextureUtil.glGenTextures();
-					        TextureUtil.uploadTextureImageAllocate(glTexturePointer, bufferedimage, false, false);
-					        onlineTextures.put(textureURL, glTexturePointer);
-						}
-					}else{
-						String errorString = "Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
-						for(String validType : validContentTypes){
-							errorString += validType + ", ";
-						}
-						onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-						return errorString;
-					}
-				}catch(Exception e){
-					onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-					e.printStackTrace();
-					return "Could not parse images.  Error was: " + e.getMessage();
+		//Textures are loaded in the background.  We report any errors here once they are done.
+		String errorString = onlineTextureErrors.remove(textureURL);
+		if(errorString == null && !onlineTextures.containsKey(textureURL) && !pendingOnlineTextures.contains(textureURL)){
+			if(onlineTextureLoader == null){
+				onlineTextureLoader = new URLTextureLoader(new File(InterfaceManager.gameDirectory, "mts_texture_cache"), Minecraft.getGLMaximumTextureSize());
+			}
+			//If the loader is busy, we'll request it again when we upload textures.
+			pendingOnlineTextures.add(textureURL);
+			if(!onlineTextureLoader.request(textureURL)){
+				unrequestedOnlineTextures.add(textureURL);
+			}
+		}
+		return errorString;
+	}
+	
+	/**
+	 *  Uploads online textures that have finished loading.  This should be called once a frame.
+	 *  Uploads stop once {@link #ONLINE_TEXTURE_UPLOAD_BUDGET} is used, and the rest are done next frame.
+	 */
+	protected static void uploadOnlineTextures(){
+		if(onlineTextureLoader != null){
+			while(!unrequestedOnlineTextures.isEmpty() && onlineTextureLoader.request(unrequestedOnlineTextures.get(0))){
+				unrequestedOnlineTextures.remove(0);
+			}
+			
+			long startTime = System.nanoTime();
+			LoadedTexture loadedTexture;
+			while((loadedTexture = onlineTextureLoader.getLoadedTexture()) != null){
+				if(loadedTexture.gif != null){
+					//GIFs are one texture with all frames.  We don't need the image once it's uploaded.
+					int glTexturePointer = TextureUtil.glGenTextures();
+					TextureUtil.uploadTextureImageAllocate(glTexturePointer, loadedTexture.gif.getAtlas(), false, false);
+					loadedTexture.gif.releaseAtlas();
+					onlineTextures.put(loadedTexture.textureURL, glTexturePointer);
+					animatedGIFs.put(loadedTexture.textureURL, loadedTexture.gif);
+				}else if(loadedTexture.image != null){
+					int glTexturePointer = TextureUtil.glGenTextures();
+					TextureUtil.uploadTextureImageAllocate(glTexturePointer, loadedTexture.image, false, false);
+					onlineTextures.put(loadedTexture.textureURL, glTexturePointer);
+				}else{
+					onlineTextures.put(loadedTexture.textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
+					onlineTextureErrors.put(loadedTexture.textureURL, loadedTexture.error);
+				}
+				pendingOnlineTextures.remove(loadedTexture.textureURL);
+				if(System.nanoTime() - startTime > ONLINE_TEXTURE_UPLOAD_BUDGET){
+					break;
 				}
-			}catch(Exception e){
-				onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-				e.printStackTrace();
-				return "Could not open URL for processing.  Error was: " + e.getMessage();
 			}
 		}
-		return null;
 	}
 	
 	@Override
@@ -366,7 +500,7 @@ public class InterfaceRender implements IInterfaceRender{
 	 *  This essentially prevents shadow creation on models based on their face
 	 *  orientation relative to the main light "source".
 	 */
-	private static void setSystemLightingState(boolean enabled){
+	static void setSystemLightingState(boolean enabled){
 		if(enabled){
 			GlStateManager.enableLighting();
 		}else{
@@ -393,11 +527,16 @@ public class InterfaceRender implements IInterfaceRender{
 	
 	@Override
 	public void setLightingToPosition(Point3D position){
-		//Get lighting 1 block above position, as actual position will result in blocked light.
-		int lightVar = Minecraft.getMinecraft().world.getCombinedLight(new BlockPos(position.x, position.y + 1, position.z), 0);
+		int lightVar = getLightmapAtPosition(position);
         OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, lightVar%65536, lightVar/65536);
 	}
 	
+	@Override
+	public int getLightmapAtPosition(Point3D position){
+		//Get lighting 1 block above position, as actual position will result in blocked light.
+		return Minecraft.getMinecraft().world.getCombinedLight(new BlockPos(position.x, position.y + 1, position.z), 0);
+	}
+	
 	@Override
 	public void setBlend(boolean enabled){
 		if(enabled){
@@ -411,7 +550,7 @@ public class InterfaceRender implements IInterfaceRender{
 	 *  Sets the blend state to bright.  This does special blending
 	 *  when blending is enabled.
 	 */
-	private static void setBlendBright(boolean enabled){
+	static void setBlendBright(boolean enabled){
 		if(enabled){
 			GlStateManager.blendFunc(GL11.GL_DST_COLOR, GL11.GL_SRC_ALPHA);
 		}else{
@@ -1,30 +1,39 @@
 package mcinterface1122;
 
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL;
 import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.AL11;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityRadio;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.mcinterface.IInterfaceSound;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.sound.IStreamDecoder;
-import minecrafttransportsimulator.sound.OGGDecoder;
 import minecrafttransportsimulator.sound.RadioStation;
 import minecrafttransportsimulator.sound.SoundInstance;
+import minecrafttransportsimulator.sound.SoundLoader;
+import minecrafttransportsimulator.sound.SoundLoader.LoadedSound;
+import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -42,9 +51,23 @@ public class InterfaceSound implements IInterfaceSound{
 	/**Flag for game paused state.  Gets set when the game is paused.**/
 	private static boolean isSystemPaused;
 	
-	/**Map of String-based file-names to Integer pointers to buffer locations.  Used for loading sounds into
-	 * memory to prevent the need to load them every time they are played.**/
-	private static final Map<String, Integer> dataSourceBuffers = new HashMap<String, Integer>();
+	/**Map of String-based file-names to buffers with their data.  Used for loading sounds into
+	 * memory to prevent the need to load them every time they are played.  This is in access-order,
+	 * so the first buffers are the least-recently used, and are the first to be deleted when the
+	 * buffers use more memory than the config allows.**/
+	private static final Map<String, SoundBuffer> dataSourceBuffers = new LinkedHashMap<String, SoundBuffer>(16, 0.75F, true);
+	
+	/**Total size, in bytes, of all buffers in {@link #dataSourceBuffers}.**/
+	private static long dataSourceBufferBytes;
+	
+	/**Map of file-names that are being decoded, to the sounds that will play once they are.**/
+	private static final Map<String, List<SoundInstance>> pendingSounds = new HashMap<String, List<SoundInstance>>();
+	
+	/**Set of file-names that couldn't be loaded.  Prevents trying to load them every time they are played.**/
+	private static final Set<String> failedSounds = new HashSet<String>();
+	
+	/**Loader for decoding sounds in the background.  Created on first use.**/
+	private static SoundLoader soundLoader;
 	
 	/**List of sounds currently playing.  Queued for updates every tick.**/
 	private static final Set<SoundInstance> playingSounds = new HashSet<SoundInstance>();
@@ -55,6 +78,28 @@ public class InterfaceSound implements IInterfaceSound{
 	/**List of sounds to start playing next update.  Split from playing sounds to avoid CMEs and odd states.**/
 	private static volatile List<SoundInstance> queuedSounds = new ArrayList<SoundInstance>();
 	
+	/**List of non-radio sounds that could have sources.  Re-used every update to sort the sounds by audibility.**/
+	private static final List<SoundInstance> voiceSounds = new ArrayList<SoundInstance>();
+	
+	/**Position, velocity, and riding entity of the player, as of the start of this update.**/
+	private static final Point3D listenerPosition = new Point3D();
+	private static final Point3D listenerVelocity = new Point3D();
+	private static AEntityE_Interactable<?> listenerRiding;
+	
+	/**Audibility below which sounds lose their source, even if there are enough for them.  Sounds need double this to get
+	 * a source back, so sounds right at the limit don't get and lose their source every update.**/
+	private static final float INAUDIBLE_LEVEL = 0.002F;
+	
+	/**How much more audible sounds from the entity the player is riding are than other sounds.**/
+	private static final float RIDING_PRIORITY = 4F;
+	
+	private static final Comparator<SoundInstance> AUDIBILITY_SORTER = new Comparator<SoundInstance>(){
+		@Override
+		public int compare(SoundInstance sound1, SoundInstance sound2){
+			return Float.compare(sound2.audibility, sound1.audibility);
+		}
+	};
+	
 	/**This gets incremented whenever we try to get a source and fail.  If we get to 10, the sound system
 	 * will stop attempting to play sounds.  Used for when mods take all the sources.**/
 	private static byte sourceGetFailures = 0;
@@ -73,7 +118,9 @@ public class InterfaceSound implements IInterfaceSound{
 		if(InterfaceManager.clientInterface.isGamePaused()){
 			if(!isSystemPaused){
 				for(SoundInstance sound : playingSounds){
-					AL10.alSourcePause(sound.sourceIndex);
+					if(!sound.virtual){
+						AL10.alSourcePause(sound.sourceIndex);
+					}
 				}
 				isSystemPaused = true;
 			}else{
@@ -89,7 +136,9 @@ public class InterfaceSound implements IInterfaceSound{
 			return;
 		}else if(isSystemPaused){
 			for(SoundInstance sound : playingSounds){
-				AL10.alSourcePlay(sound.sourceIndex);
+				if(!sound.virtual){
+					AL10.alSourcePlay(sound.sourceIndex);
+				}
 			}
 			isSystemPaused = false;
 		}
@@ -103,22 +152,88 @@ public class InterfaceSound implements IInterfaceSound{
 			for(SoundInstance sound : playingSounds){
 				sound.stopSound = true;
 			}
+			for(List<SoundInstance> sounds : pendingSounds.values()){
+				for(SoundInstance sound : sounds){
+					sound.stopSound = true;
+				}
+			}
+		}
+		
+		//Upload sounds that finished decoding, and start the sounds that were waiting for them.
+		if(soundLoader != null){
+			LoadedSound loadedSound;
+			while((loadedSound = soundLoader.getLoadedSound()) != null){
+				List<SoundInstance> sounds = pendingSounds.remove(loadedSound.soundName);
+				Integer dataBufferPointer = null;
+				if(loadedSound.data != null){
+					dataBufferPointer = createDataBuffer(loadedSound);
+				}else{
+					failedSounds.add(loadedSound.soundName);
+				}
+				if(sounds != null){
+					for(SoundInstance sound : sounds){
+						if(dataBufferPointer == null || sound.stopSound){
+							sound.entity.sounds.remove(sound);
+						}else{
+							startSound(sound);
+						}
+					}
+				}
+			}
+			freeDataBuffers();
 		}
 		
 		//Start playing all queued sounds.
+		//Radios have their sources already, but other sounds start virtual and get sources below.
 		if(!queuedSounds.isEmpty()){
 			for(SoundInstance sound : queuedSounds){
-				AL10.alSourcePlay(sound.sourceIndex);
+				if(!sound.virtual){
+					AL10.alSourcePlay(sound.sourceIndex);
+				}
 				playingSounds.add(sound);
 			}
 			queuedSounds.clear();
 		}
 		
+		//Get the player state once for all sounds.
+		if(player != null){
+			listenerPosition.set(player.getPosition());
+			listenerVelocity.set(player.getVelocity());
+			listenerVelocity.y = 0;
+			listenerRiding = player.getEntityRiding();
+		}
+		
 		//Update playing sounds.
 		boolean soundSystemReset = false;
 		Iterator<SoundInstance> iterator = playingSounds.iterator();
 		while(iterator.hasNext()){
 			SoundInstance sound = iterator.next();
+			if(sound.virtual){
+				//Virtual sound.  Keep its place in the sound so it's in the right spot if it gets a source.
+				//Sounds that were just started haven't had a chance to get a source yet, so don't advance those.
+				SoundBuffer dataBuffer = dataSourceBuffers.get(sound.soundName);
+				if(sound.justStarted){
+					sound.justStarted = false;
+				}else if(!sound.stopSound && dataBuffer != null){
+					sound.playOffset += sound.pitch/20F;
+					if(sound.playOffset >= dataBuffer.duration){
+						if(sound.soundDef != null && sound.soundDef.looping){
+							sound.playOffset %= dataBuffer.duration;
+						}else{
+							sound.stopSound = true;
+						}
+					}
+				}
+				if(sound.stopSound || dataBuffer == null){
+					iterator.remove();
+					sound.entity.sounds.remove(sound);
+				}else{
+					sound.updatePosition();
+					sound.audibility = getAudibility(sound);
+				}
+				continue;
+			}
+			
 			AL10.alGetError();
 			int state = AL10.alGetSourcei(sound.sourceIndex, AL10.AL_SOURCE_STATE);
 			//If we are an invalid name, it means the sound system was reset.
@@ -131,26 +246,9 @@ public class InterfaceSound implements IInterfaceSound{
 				if(sound.stopSound){
 					AL10.alSourceStop(sound.sourceIndex);
 				}else{
-					//Update position and volume.
 					sound.updatePosition();
-					AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.position.x, (float) sound.position.y, (float) sound.position.z);
-					AL10.alSourcef(sound.sourceIndex, AL10.AL_GAIN, sound.volume);
-					
-					//If the sound is looping, and the player isn't riding the source, calculate doppler pitch effect.
-					//Otherwise, set pitch as normal.
-					if(sound.soundDef != null && sound.soundDef.looping && !sound.entity.equals(player.getEntityRiding())){
-						Point3D playerVelocity = player.getVelocity();
-						playerVelocity.y = 0;
-						double initalDelta = player.getPosition().subtract(sound.entity.position).length();
-						double finalDelta = player.getPosition().add(playerVelocity).subtract(sound.entity.position).add(-sound.entity.motion.x, 0D, -sound.entity.motion.z).length();
-						float dopplerFactor = (float) (initalDelta > finalDelta ? 1 + 0.25*(initalDelta - finalDelta)/initalDelta : 1 - 0.25*(finalDelta - initalDelta)/finalDelta);
-						AL10.alSourcef(sound.sourceIndex, AL10.AL_PITCH, sound.pitch*dopplerFactor);
-					}else{
-						AL10.alSourcef(sound.sourceIndex, AL10.AL_PITCH, sound.pitch);
-					}
-
-					//Update rolloff distance, which is based on pitch.
-					AL10.alSourcef(sound.sourceIndex, AL10.AL_ROLLOFF_FACTOR, 1F/(0.25F + 3*sound.pitch));
+					updateSource(sound);
+					sound.audibility = getAudibility(sound);
 				}
 			}else{
 				//We are a stopped sound.  Un-bind and delete any sources and buffers we are using.
@@ -180,6 +278,11 @@ public class InterfaceSound implements IInterfaceSound{
 			}
 		}
 		
+		//Give sources to the most audible sounds, taking them from the least audible ones if we don't have enough.
+		if(!soundSystemReset){
+			updateVoices();
+		}
+		
 		//Now update radio stations.
 		for(RadioStation station : playingStations){
 			station.update();
@@ -189,6 +292,8 @@ public class InterfaceSound implements IInterfaceSound{
 		if(soundSystemReset){
 			InterfaceManager.coreInterface.logError("Had an invalid sound name.  Was the sound system reset?  Clearing all sounds, playing or not!");
 			dataSourceBuffers.clear();
+			dataSourceBufferBytes = 0;
+			failedSounds.clear();
 			for(SoundInstance sound : playingSounds){
 				sound.entity.sounds.remove(sound);
     		}
@@ -199,34 +304,184 @@ public class InterfaceSound implements IInterfaceSound{
 	
 	@Override
 	public void playQuickSound(SoundInstance sound){
-		if(AL.isCreated() && sourceGetFailures < 10){
-			//First get the IntBuffer pointer to where this sound data is stored.
-			Integer dataBufferPointer = loadOGGJarSound(sound.soundName);
-			if(dataBufferPointer != null){
-				//Set the sound's source buffer index.
-				IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
-				AL10.alGetError();
-				AL10.alGenSources(sourceBuffer);
-				if(AL10.alGetError() != AL10.AL_NO_ERROR){
-					++sourceGetFailures;
-					AL10.alDeleteBuffers(dataBufferPointer);
-					InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_SOUNDSLOT);
-					return;
+		if(AL.isCreated() && sourceGetFailures < 10 && !failedSounds.contains(sound.soundName)){
+			SoundBuffer dataBuffer = dataSourceBuffers.get(sound.soundName);
+			if(dataBuffer != null){
+				//Already decoded, start playing.
+				startSound(sound);
+				sound.entity.sounds.add(sound);
+			}else{
+				//Need to decode the sound.  Do so in the background, and start the sound once it's done.
+				//Add the sound to the entity now so it knows it's playing and doesn't try to play it again.
+				List<SoundInstance> sounds = pendingSounds.get(sound.soundName);
+				if(sounds == null){
+					sounds = new ArrayList<SoundInstance>();
+					pendingSounds.put(sound.soundName, sounds);
+					if(soundLoader == null){
+						soundLoader = new SoundLoader();
+					}
+					soundLoader.request(sound.soundName);
 				}
-				sound.sourceIndex = sourceBuffer.get(0);
-				
-				//Set properties and bind data buffer to source.
-				AL10.alGetError();
-				AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
-				AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.entity.position.x, (float) sound.entity.position.y, (float) sound.entity.position.z);
-	    	    AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataBufferPointer);
-	    	    
-				//Done setting up buffer.  Queue sound to start playing.
-				queuedSounds.add(sound);
+				sounds.add(sound);
 				sound.entity.sounds.add(sound);
 			}
 		}
 	}
+	
+	/**
+	 *  Queues the passed-in sound to start playing.  Sounds start as virtual, and get a source
+	 *  in {@link #updateVoices()} if they are audible enough.
+	 */
+	private static void startSound(SoundInstance sound){
+		sound.virtual = true;
+		sound.justStarted = true;
+		sound.playOffset = 0;
+		sound.updatePosition();
+		queuedSounds.add(sound);
+	}
+	
+	/**
+	 *  Gives sources to the most audible sounds, up to the number of voices in the config.  Radios always
+	 *  have sources, so they count towards this but aren't checked.  Sounds that are too quiet to hear,
+	 *  or that are less audible than the ones that got sources, are made virtual.
+	 */
+	private static void updateVoices(){
+		int freeVoices = ConfigSystem.client.soundSettings.maxVoices.value;
+		for(SoundInstance sound : playingSounds){
+			if(sound.radio != null){
+				--freeVoices;
+			}else if(!sound.stopSound){
+				voiceSounds.add(sound);
+			}
+		}
+		
+		//Only need to sort if we don't have enough voices for all sounds.
+		if(voiceSounds.size() > freeVoices){
+			Collections.sort(voiceSounds, AUDIBILITY_SORTER);
+		}
+		
+		//Free sources first so the sounds that need them can use them.
+		for(int i=0; i<voiceSounds.size(); ++i){
+			SoundInstance sound = voiceSounds.get(i);
+			if(!sound.virtual && (i >= freeVoices || sound.audibility < INAUDIBLE_LEVEL)){
+				releaseSource(sound);
+			}
+		}
+		for(int i=0; i<voiceSounds.size() && i<freeVoices && sourceGetFailures < 10; ++i){
+			SoundInstance sound = voiceSounds.get(i);
+			if(sound.virtual && sound.audibility > 2*INAUDIBLE_LEVEL){
+				acquireSource(sound);
+			}
+		}
+		voiceSounds.clear();
+	}
+	
+	/**
+	 *  Creates a source for the passed-in virtual sound, binds its data buffer to it, and starts it
+	 *  where the sound would be if it had been playing the whole time.
+	 */
+	private static void acquireSource(SoundInstance sound){
+		//Set the sound's source buffer index.
+		IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
+		AL10.alGetError();
+		AL10.alGenSources(sourceBuffer);
+		if(AL10.alGetError() != AL10.AL_NO_ERROR){
+			++sourceGetFailures;
+			InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_SOUNDSLOT);
+			return;
+		}
+		sound.sourceIndex = sourceBuffer.get(0);
+		sound.virtual = false;
+		
+		//Set properties and bind data buffer to source.
+		AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
+	    AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataSourceBuffers.get(sound.soundName).bufferIndex);
+	    resetSource(sound);
+	    if(sound.playOffset > 0){
+	    	AL10.alSourcef(sound.sourceIndex, AL11.AL_SEC_OFFSET, sound.playOffset);
+	    }
+	    AL10.alSourcePlay(sound.sourceIndex);
+	}
+	
+	/**
+	 *  Deletes the source for the passed-in sound, making it virtual.  The place in the
+	 *  sound is saved so it can start there if it gets a source again.
+	 */
+	private static void releaseSource(SoundInstance sound){
+		sound.playOffset = AL10.alGetSourcef(sound.sourceIndex, AL11.AL_SEC_OFFSET);
+		AL10.alSourceStop(sound.sourceIndex);
+		AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, AL10.AL_NONE);
+		IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
+		sourceBuffer.put(sound.sourceIndex).flip();
+		AL10.alDeleteSources(sourceBuffer);
+		sound.virtual = true;
+	}
+	
+	/**
+	 *  Sends all values of the passed-in sound to its source.  Used for new sources, as
+	 *  the values last sent to an old source don't apply to them.
+	 */
+	private static void resetSource(SoundInstance sound){
+		sound.sentVolume = -1;
+		sound.sentPitch = -1;
+		sound.sentRolloff = -1;
+		sound.sentPosition.set(Double.NaN, Double.NaN, Double.NaN);
+		updateSource(sound);
+	}
+	
+	/**
+	 *  Sends the position, volume, and pitch of the passed-in sound to its source.
+	 *  Only values that changed since they were last sent are sent.
+	 */
+	private static void updateSource(SoundInstance sound){
+		if(!sound.position.equals(sound.sentPosition)){
+			AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.position.x, (float) sound.position.y, (float) sound.position.z);
+			sound.sentPosition.set(sound.position);
+		}
+		if(sound.volume != sound.sentVolume){
+			AL10.alSourcef(sound.sourceIndex, AL10.AL_GAIN, sound.volume);
+			sound.sentVolume = sound.volume;
+		}
+		
+		//If the sound is looping, and the player isn't riding the source, calculate doppler pitch effect.
+		//Otherwise, set pitch as normal.
+		float pitch = sound.pitch;
+		if(sound.soundDef != null && sound.soundDef.looping && !sound.entity.equals(listenerRiding)){
+			double deltaX = listenerPosition.x - sound.entity.position.x;
+			double deltaY = listenerPosition.y - sound.entity.position.y;
+			double deltaZ = listenerPosition.z - sound.entity.position.z;
+			double initalDelta = Math.sqrt(deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ);
+			deltaX += listenerVelocity.x - sound.entity.motion.x;
+			deltaZ += listenerVelocity.z - sound.entity.motion.z;
+			double finalDelta = Math.sqrt(deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ);
+			float dopplerFactor = (float) (initalDelta > finalDelta ? 1 + 0.25*(initalDelta - finalDelta)/initalDelta : 1 - 0.25*(finalDelta - initalDelta)/finalDelta);
+			pitch *= dopplerFactor;
+		}
+		if(pitch != sound.sentPitch){
+			AL10.alSourcef(sound.sourceIndex, AL10.AL_PITCH, pitch);
+			sound.sentPitch = pitch;
+		}
+		
+		//Update rolloff distance, which is based on pitch.
+		float rolloff = 1F/(0.25F + 3*sound.pitch);
+		if(rolloff != sound.sentRolloff){
+			AL10.alSourcef(sound.sourceIndex, AL10.AL_ROLLOFF_FACTOR, rolloff);
+			sound.sentRolloff = rolloff;
+		}
+	}
+	
+	/**
+	 *  Returns how audible the passed-in sound is to the player.  This is the gain the sound would have
+	 *  after distance attenuation, with sounds from the entity the player is riding being given priority.
+	 *  Sounds from parts count as coming from their vehicle, as engines, horns and guns are all parts.
+	 */
+	private static float getAudibility(SoundInstance sound){
+		float rolloff = 1F/(0.25F + 3*sound.pitch);
+		double distance = sound.position.distanceTo(listenerPosition);
+		float audibility = (float) (sound.volume/(1 + rolloff*Math.max(0, distance - 1)));
+		AEntityB_Existing soundEntity = sound.entity instanceof APart ? ((APart) sound.entity).vehicleOn : sound.entity;
+		return soundEntity != null && soundEntity.equals(listenerRiding) ? audibility*RIDING_PRIORITY : audibility;
+	}
     
 	@Override
     public void addRadioStation(RadioStation station){
@@ -246,6 +501,8 @@ public class InterfaceSound implements IInterfaceSound{
 				return;
 			}
 			sound.sourceIndex = sourceBuffer.get(0);
+			sound.updatePosition();
+			resetSource(sound);
 			
 			//Queue up the buffer sources to the source itself.
 			for(int bufferIndex : buffers){
@@ -319,47 +576,67 @@ public class InterfaceSound implements IInterfaceSound{
 	}
 	
 	/**
-	 *  Loads an OGG file in its entirety using the {@link InterfaceOGGDecoder}. 
-	 *  The sound is then stored in a dataBuffer keyed by soundName located in {@link #dataSourceBuffers}.
-	 *  The pointer to the dataBuffer is returned for convenience as it allows for transparent sound caching.
-	 *  If a sound with the same name is passed-in at a later time, it is assumed to be the same and rather
-	 *  than re-parse the sound the system will simply return the same pointer index to be bound.
+	 *  Uploads the data of the passed-in sound to a new data buffer and stores it in {@link #dataSourceBuffers}.
+	 *  The pointer to the data buffer is returned for convenience.  The sound's data is given back to the
+	 *  loader once uploaded, as OpenAL keeps its own copy.
 	 */
-	private static Integer loadOGGJarSound(String soundName){
-		if(dataSourceBuffers.containsKey(soundName)){
-			//Already parsed the data.  Return the buffer.
-			return dataSourceBuffers.get(soundName);
-		}else{
-			//Need to parse the data.  Do so now.
-			String soundDomain = soundName.substring(0, soundName.indexOf(':'));
-			String soundPath = soundName.substring(soundDomain.length() + 1);
-			InputStream soundStream = InterfaceSound.class.getResourceAsStream("/assets/" +  soundDomain + "/sounds/" + soundPath + ".ogg");
-			if(soundStream != null){
-				//Create decoder and decode whole file.
-				OGGDecoder decoder = new OGGDecoder(soundStream);
-				ByteBuffer decodedData = ByteBuffer.allocateDirect(0);
-				ByteBuffer blockRead;
-				while((blockRead = decoder.readBlock()) != null){
-					decodedData = ByteBuffer.allocateDirect(decodedData.capacity() + blockRead.limit()).put(decodedData).put(blockRead);
-					decodedData.rewind();
+	private static int createDataBuffer(LoadedSound loadedSound){
+		//Generate an IntBuffer to store a pointer to the data buffer.
+		IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
+    	AL10.alGenBuffers(dataBufferPointers);
+    	
+    	//Bind the decoded data to the data buffer pointer.
+    	int dataSize = loadedSound.data.remaining();
+    	AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, loadedSound.data, loadedSound.sampleRate);
+    	soundLoader.releaseBuffer(loadedSound.data);
+		
+    	//Done parsing.  Map the dataBuffer to the soundName and return the index.
+    	dataSourceBuffers.put(loadedSound.soundName, new SoundBuffer(dataBufferPointers.get(0), dataSize, loadedSound.sampleRate));
+    	dataSourceBufferBytes += dataSize;
+    	return dataBufferPointers.get(0);
+	}
+	
+	/**
+	 *  Deletes the least-recently used data buffers until the total size of all buffers is under the limit in the config.
+	 *  Buffers used by sounds that are playing or about to play are not deleted, as OpenAL won't delete buffers bound to sources.
+	 */
+	private static void freeDataBuffers(){
+		long maxBytes = ConfigSystem.client.soundSettings.soundCacheSize.value*1024L*1024L;
+		if(dataSourceBufferBytes > maxBytes){
+			Set<String> usedSounds = new HashSet<String>();
+			for(SoundInstance sound : playingSounds){
+				usedSounds.add(sound.soundName);
+			}
+			for(SoundInstance sound : queuedSounds){
+				usedSounds.add(sound.soundName);
+			}
+			Iterator<Entry<String, SoundBuffer>> iterator = dataSourceBuffers.entrySet().iterator();
+			while(dataSourceBufferBytes > maxBytes && iterator.hasNext()){
+				Entry<String, SoundBuffer> bufferEntry = iterator.next();
+				if(!usedSounds.contains(bufferEntry.getKey())){
+					AL10.alDeleteBuffers(bufferEntry.getValue().bufferIndex);
+					dataSourceBufferBytes -= bufferEntry.getValue().size;
+					iterator.remove();
 				}
-				
-				//Generate an IntBuffer to store a pointer to the data buffer.
-				IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
-		    	AL10.alGenBuffers(dataBufferPointers);
-		    	
-		    	//Bind the decoder output buffer to the data buffer pointer.
-		    	AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedData, decoder.getSampleRate());
-				
-		    	//Done parsing.  Map the dataBuffer(s) to the soundName and return the index.
-		    	dataSourceBuffers.put(soundName, dataBufferPointers.get(0));
-		    	return dataSourceBuffers.get(soundName);
-			}else{
-				return null;
 			}
 		}
 	}
 	
+	/**
+	 *  A data buffer, and the size and play time of the data in it.
+	 */
+	private static class SoundBuffer{
+		private final int bufferIndex;
+		private final int size;
+		private final float duration;
+		
+		private SoundBuffer(int bufferIndex, int size, int sampleRate){
+			this.bufferIndex = bufferIndex;
+			this.size = size;
+			this.duration = size/2F/sampleRate;
+		}
+	}
+	
 	/**
      * Update all sounds every client tick.
      */
@@ -398,6 +675,13 @@ public class InterfaceSound implements IInterfaceSound{
     				}
     			}
     		}
+    		for(List<SoundInstance> sounds : pendingSounds.values()){
+    			for(SoundInstance sound : sounds){
+    				if(event.getWorld() == ((WrapperWorld) sound.entity.world).world){
+    					sound.stopSound = true;
+    				}
+    			}
+    		}
     		
     		//Mark world as un-paused and update sounds to stop the ones that were just removed.
             isSystemPaused = false;
@@ -0,0 +1,284 @@
+package mcinterface1122;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.lwjgl.opengl.GL11;
+
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.rendering.components.RenderableObject;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+
+/**Queue for rendering objects with cached vertices.  While the queue is open, these objects are not rendered
+ * when asked to, but instead have their state saved.  When the queue is closed, all saved objects are sorted
+ * and rendered.  On the solid pass, objects are sorted by texture, then lighting, then the vertices they use, so we
+ * only change states when we need to.  On the blended pass, objects are sorted back-to-front so blending is correct.
+ * <br><br>
+ * All objects are rendered as one batch.  This keeps the vertex buffers bound and set up between objects,
+ * so copies of the same model, such as the wheels on a train, only need their matrix, color and lightmap
+ * set before each draw call.  We don't do true instancing here, as that needs our own shaders, and those
+ * would replace the fixed-function lighting that shader packs rely on.
+ * <br><br>
+ * Only objects with cached vertices are queued, as the vertices of other objects, such as text, are
+ * normally re-used and changed for the next thing before we would get to render them.  These render right away.
+ * On the blended pass, everything queued before them is rendered first, as blended objects must be drawn in
+ * order.  Queued objects are therefore only sorted among those queued between such objects.
+ * The queue may only be used while the OpenGL matrix isn't changing, as it is only read once when the
+ * queue is closed.  Note that all methods in here must be called from the render thread.
+ *
+ * @author don_bruce
+ */
+class RenderQueue{
+	private static final DoubleBuffer matrixBuffer = ByteBuffer.allocateDirect(16*Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	private static final TransformationMatrix baseMatrix = new TransformationMatrix();
+	private static final TransformationMatrix drawMatrix = new TransformationMatrix();
+	private static final int FULL_BRIGHT_LIGHTMAP = 240;
+	private static final List<QueuedObject> queuedObjects = new ArrayList<QueuedObject>();
+	private static final List<QueuedObject> freeObjects = new ArrayList<QueuedObject>();
+	private static boolean queueing;
+	private static boolean sortByDepth;
+
+	private static final Comparator<QueuedObject> STATE_SORTER = new Comparator<QueuedObject>(){
+		@Override
+		public int compare(QueuedObject object1, QueuedObject object2){
+			int result;
+			if(object1.texture != object2.texture){
+				if(object1.texture == null){
+					return -1;
+				}else if(object2.texture == null){
+					return 1;
+				}else if((result = object1.texture.compareTo(object2.texture)) != 0){
+					return result;
+				}
+			}
+			if((result = Integer.compare(object1.getStateFlags(), object2.getStateFlags())) != 0){
+				return result;
+			}
+			if((result = Integer.compare(object1.cachedVertexIndex, object2.cachedVertexIndex)) != 0){
+				return result;
+			}
+			if((result = Float.compare(object1.red, object2.red)) != 0 || (result = Float.compare(object1.green, object2.green)) != 0 || (result = Float.compare(object1.blue, object2.blue)) != 0 || (result = Float.compare(object1.alpha, object2.alpha)) != 0){
+				return result;
+			}
+			if((result = Float.compare(object1.lightmapX, object2.lightmapX)) != 0){
+				return result;
+			}
+			return Float.compare(object1.lightmapY, object2.lightmapY);
+		}
+	};
+
+	private static final Comparator<QueuedObject> DEPTH_SORTER = new Comparator<QueuedObject>(){
+		@Override
+		public int compare(QueuedObject object1, QueuedObject object2){
+			return Double.compare(object2.distanceSquared, object1.distanceSquared);
+		}
+	};
+
+	/**
+	 *  Opens the queue.  All objects with cached vertices will be queued until {@link #end()} is called.
+	 *  If sortByDepth is true, they will be rendered back-to-front rather than grouped by state.
+	 */
+	static void begin(boolean sortByDepth){
+		RenderQueue.queueing = true;
+		RenderQueue.sortByDepth = sortByDepth;
+	}
+
+	/**
+	 *  Returns true if the passed-in object should be queued rather than rendered.
+	 */
+	static boolean shouldQueue(RenderableObject object){
+		return queueing && object.cacheVertices && object.lineWidth == 0;
+	}
+
+	/**
+	 *  Saves the current state of the passed-in object, and the cached vertex index for it, to the queue.
+	 *  The object may be changed after this without affecting how the queued render looks.
+	 */
+	static void queue(RenderableObject object, int cachedVertexIndex){
+		QueuedObject queuedObject = freeObjects.isEmpty() ? new QueuedObject() : freeObjects.remove(freeObjects.size() - 1);
+		queuedObject.cachedVertexIndex = cachedVertexIndex;
+		queuedObject.texture = object.texture;
+		queuedObject.red = object.color.red;
+		queuedObject.green = object.color.green;
+		queuedObject.blue = object.color.blue;
+		queuedObject.alpha = object.alpha;
+		queuedObject.disableLighting = object.disableLighting;
+		queuedObject.ignoreWorldShading = object.ignoreWorldShading;
+		queuedObject.enableBrightBlending = object.enableBrightBlending;
+		queuedObject.lightmapX = OpenGlHelper.lastBrightnessX;
+		queuedObject.lightmapY = OpenGlHelper.lastBrightnessY;
+		queuedObject.transform.set(object.transform);
+		queuedObject.distanceSquared = object.transform.m03*object.transform.m03 + object.transform.m13*object.transform.m13 + object.transform.m23*object.transform.m23;
+		queuedObjects.add(queuedObject);
+	}
+
+	/**
+	 *  Call before rendering an object that isn't queued.  On the blended pass, this renders everything queued
+	 *  so far, so that the object is blended over them as it would be without the queue.  The queue stays open.
+	 *  On the solid pass, the depth buffer takes care of ordering, so nothing is rendered.
+	 */
+	static void flushBlended(){
+		if(queueing && sortByDepth){
+			render();
+		}
+	}
+
+	/**
+	 *  Closes the queue and renders everything in it.
+	 */
+	static void end(){
+		queueing = false;
+		render();
+	}
+
+	/**
+	 *  Renders everything in the queue, and clears it.  States are only changed between
+	 *  objects when they differ, and are reset to their normal values after.
+	 */
+	private static void render(){
+		if(queuedObjects.isEmpty()){
+			return;
+		}
+		Collections.sort(queuedObjects, sortByDepth ? DEPTH_SORTER : STATE_SORTER);
+
+		//Get the current matrix so we can set the full matrix for each object rather than pushing and popping.
+		matrixBuffer.clear();
+		GL11.glGetDouble(GL11.GL_MODELVIEW_MATRIX, matrixBuffer);
+		setMatrix(baseMatrix, matrixBuffer);
+		GL11.glPushMatrix();
+
+		float startingLightmapX = OpenGlHelper.lastBrightnessX;
+		float startingLightmapY = OpenGlHelper.lastBrightnessY;
+		QueuedObject lastObject = null;
+		for(QueuedObject queuedObject : queuedObjects){
+			//Texture.  This is the most costly state, so the solid-pass sorting groups by it first.
+			if(lastObject == null || (queuedObject.texture == null ? lastObject.texture != null : !queuedObject.texture.equals(lastObject.texture))){
+				if(queuedObject.texture != null){
+					if(lastObject != null && lastObject.texture == null){
+						GL11.glEnable(GL11.GL_TEXTURE_2D);
+					}
+					InterfaceRender.bindTexture(queuedObject.texture);
+				}else{
+					GL11.glDisable(GL11.GL_TEXTURE_2D);
+				}
+			}
+
+			//Color.  MC caches this, so we don't need to check it.
+			GlStateManager.color(queuedObject.red, queuedObject.green, queuedObject.blue, queuedObject.alpha);
+
+			//Lighting and blending.
+			boolean systemLighting = !queuedObject.disableLighting && !queuedObject.ignoreWorldShading;
+			if(lastObject == null || systemLighting != (!lastObject.disableLighting && !lastObject.ignoreWorldShading)){
+				InterfaceRender.setSystemLightingState(systemLighting);
+			}
+			float lightmapX = queuedObject.disableLighting ? FULL_BRIGHT_LIGHTMAP : queuedObject.lightmapX;
+			float lightmapY = queuedObject.disableLighting ? FULL_BRIGHT_LIGHTMAP : queuedObject.lightmapY;
+			if(lightmapX != OpenGlHelper.lastBrightnessX || lightmapY != OpenGlHelper.lastBrightnessY){
+				OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, lightmapX, lightmapY);
+			}
+			if(lastObject == null || queuedObject.enableBrightBlending != lastObject.enableBrightBlending){
+				InterfaceRender.setBlendBright(queuedObject.enableBrightBlending);
+			}
+
+			//Matrix, then render.
+			drawMatrix.set(baseMatrix).multiply(queuedObject.transform);
+			loadMatrix(drawMatrix);
+			InterfaceRender.renderVerticesBatched(queuedObject.cachedVertexIndex);
+			lastObject = queuedObject;
+		}
+
+		//Reset states to what the normal rendering expects.
+		InterfaceRender.endBatch();
+		GL11.glPopMatrix();
+		if(lastObject.texture == null){
+			GL11.glEnable(GL11.GL_TEXTURE_2D);
+		}
+		InterfaceRender.resetTextureMatrix();
+		if(lastObject.disableLighting || lastObject.ignoreWorldShading){
+			InterfaceRender.setSystemLightingState(true);
+		}
+		if(lastObject.enableBrightBlending){
+			InterfaceRender.setBlendBright(false);
+		}
+		OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, startingLightmapX, startingLightmapY);
+
+		freeObjects.addAll(queuedObjects);
+		queuedObjects.clear();
+	}
+
+	/**
+	 *  Sets the passed-in matrix to the column-major matrix in the buffer.
+	 */
+	private static void setMatrix(TransformationMatrix matrix, DoubleBuffer buffer){
+		matrix.m00 = buffer.get(0);
+		matrix.m10 = buffer.get(1);
+		matrix.m20 = buffer.get(2);
+		matrix.m30 = buffer.get(3);
+		matrix.m01 = buffer.get(4);
+		matrix.m11 = buffer.get(5);
+		matrix.m21 = buffer.get(6);
+		matrix.m31 = buffer.get(7);
+		matrix.m02 = buffer.get(8);
+		matrix.m12 = buffer.get(9);
+		matrix.m22 = buffer.get(10);
+		matrix.m32 = buffer.get(11);
+		matrix.m03 = buffer.get(12);
+		matrix.m13 = buffer.get(13);
+		matrix.m23 = buffer.get(14);
+		matrix.m33 = buffer.get(15);
+	}
+
+	/**
+	 *  Replaces the current OpenGL matrix with the passed-in matrix.
+	 */
+	private static void loadMatrix(TransformationMatrix matrix){
+		matrixBuffer.clear();
+		matrixBuffer.put(matrix.m00);
+		matrixBuffer.put(matrix.m10);
+		matrixBuffer.put(matrix.m20);
+		matrixBuffer.put(matrix.m30);
+		matrixBuffer.put(matrix.m01);
+		matrixBuffer.put(matrix.m11);
+		matrixBuffer.put(matrix.m21);
+		matrixBuffer.put(matrix.m31);
+		matrixBuffer.put(matrix.m02);
+		matrixBuffer.put(matrix.m12);
+		matrixBuffer.put(matrix.m22);
+		matrixBuffer.put(matrix.m32);
+		matrixBuffer.put(matrix.m03);
+		matrixBuffer.put(matrix.m13);
+		matrixBuffer.put(matrix.m23);
+		matrixBuffer.put(matrix.m33);
+		matrixBuffer.flip();
+		GL11.glLoadMatrix(matrixBuffer);
+	}
+
+	/**
+	 *  The saved state of a queued object.
+	 */
+	private static class QueuedObject{
+		private final TransformationMatrix transform = new TransformationMatrix();
+		private int cachedVertexIndex;
+		private String texture;
+		private float red;
+		private float green;
+		private float blue;
+		private float alpha;
+		private boolean disableLighting;
+		private boolean ignoreWorldShading;
+		private boolean enableBrightBlending;
+		private float lightmapX;
+		private float lightmapY;
+		private double distanceSquared;
+
+		private int getStateFlags(){
+			return (disableLighting ? 1 : 0) | (ignoreWorldShading ? 2 : 0) | (enableBrightBlending ? 4 : 0);
+		}
+	}
+}
@@ -0,0 +1,337 @@
+package mcinterface1122;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GLContext;
+
+import minecrafttransportsimulator.rendering.components.RenderableObject;
+import net.minecraft.client.renderer.OpenGlHelper;
+
+/**Manager for vertex buffer objects (VBOs).  Cached vertices are put into large shared buffers, called pages, with
+ * each object getting a range in one of the pages.  This keeps us from making a buffer per object, while still letting
+ * us free ranges when objects are destroyed.  Vertices that aren't cached are streamed through a single buffer
+ * that is filled front-to-back over the frame.  When it fills up, the buffer is orphaned so the driver can give us
+ * new memory without waiting for the GPU to finish drawing with the old data.
+ * <br><br>
+ * All vertex data is in the format described in {@link RenderableObject}, which is already interleaved, so
+ * we can upload it as-is.  Note that all methods in here must be called from the render thread.
+ * <br><br>
+ * Cached vertices may also be rendered as a batch.  Batches keep the page buffer bound and its arrays set up
+ * between renders, so rendering many objects from the same page, like many copies of the same model,
+ * only needs a draw call for each.
+ *
+ * @author don_bruce
+ */
+class VertexBufferManager{
+	/**Size of each vertex for tris, in bytes.  Normal, UV, then position.**/
+	private static final int VERTEX_SIZE = 8*Float.BYTES;
+	/**Size of each vertex for lines, in bytes.  Only position.**/
+	private static final int LINE_VERTEX_SIZE = 3*Float.BYTES;
+	/**Vertices per page.  Objects larger than this get a page all to themselves.**/
+	private static final int PAGE_VERTICES = 131072;
+	/**Initial size of the streaming buffer, in bytes.  This grows if an object won't fit.**/
+	private static final int STREAM_SIZE = 2*1024*1024;
+
+	private static Boolean supported;
+	private static final List<BufferPage> pages = new ArrayList<BufferPage>();
+	private static final List<BufferRange> ranges = new ArrayList<BufferRange>();
+	private static final List<Integer> freeRangeIndexes = new ArrayList<Integer>();
+
+	private static BufferPage batchPage;
+	private static int streamBufferID = -1;
+	private static int streamBufferSize;
+	private static int streamBufferOffset;
+
+	private static ByteBuffer stagingBuffer = ByteBuffer.allocateDirect(0);
+	private static FloatBuffer stagingFloats = stagingBuffer.asFloatBuffer();
+
+	/**
+	 *  Returns true if VBOs can be used.  If not, the caller should fall back to its old rendering methods.
+	 *  This is only checked once, as cached indexes from this class can't be mixed with other methods.
+	 */
+	static boolean isSupported(){
+		if(supported == null){
+			supported = OpenGlHelper.vboSupported && GLContext.getCapabilities().OpenGL15;
+		}
+		return supported;
+	}
+
+	/**
+	 *  Caches the passed-in tri vertices into a page, and returns the index of the range they were put in.
+	 *  This index should be passed to {@link #renderCached(int)} to render them, and {@link #deleteCached(int)}
+	 *  to free them.
+	 */
+	static int cacheVertices(FloatBuffer vertices){
+		int vertexCount = vertices.remaining()/8;
+		BufferRange range = null;
+		for(BufferPage page : pages){
+			range = page.allocate(vertexCount);
+			if(range != null){
+				break;
+			}
+		}
+		if(range == null){
+			BufferPage page = new BufferPage(Math.max(PAGE_VERTICES, vertexCount));
+			pages.add(page);
+			range = page.allocate(vertexCount);
+		}
+
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, range.page.bufferID);
+		GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, range.firstVertex*(long) VERTEX_SIZE, stage(vertices));
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+		if(freeRangeIndexes.isEmpty()){
+			ranges.add(range);
+			return ranges.size() - 1;
+		}else{
+			int index = freeRangeIndexes.remove(freeRangeIndexes.size() - 1);
+			ranges.set(index, range);
+			return index;
+		}
+	}
+
+	/**
+	 *  Renders the vertices cached at the passed-in index.
+	 */
+	static void renderCached(int index){
+		BufferRange range = ranges.get(index);
+		if(range.vertexCount > 0){
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, range.page.bufferID);
+			drawTris(0, range.firstVertex, range.vertexCount);
+		}
+	}
+
+	/**
+	 *  Renders the vertices cached at the passed-in index as part of a batch.  Only the matrix, color,
+	 *  texture and lighting states may be changed between calls to this, and {@link #endBatch()}
+	 *  must be called after the last one.
+	 */
+	static void renderCachedBatched(int index){
+		BufferRange range = ranges.get(index);
+		if(range.vertexCount > 0){
+			if(range.page != batchPage){
+				if(batchPage == null){
+					enableTriArrays();
+				}
+				GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, range.page.bufferID);
+				setTriPointers(0);
+				batchPage = range.page;
+			}
+			GL11.glDrawArrays(GL11.GL_TRIANGLES, range.firstVertex, range.vertexCount);
+		}
+	}
+	
+	/**
+	 *  Ends the current batch, if there is one, and resets the states it set.
+	 */
+	static void endBatch(){
+		if(batchPage != null){
+			disableTriArrays();
+			batchPage = null;
+		}
+	}
+
+	/**
+	 *  Frees the range at the passed-in index so other objects can use it.
+	 */
+	static void deleteCached(int index){
+		BufferRange range = ranges.get(index);
+		if(range != null){
+			range.page.free(range);
+			ranges.set(index, null);
+			freeRangeIndexes.add(index);
+		}
+	}
+
+	/**
+	 *  Renders the passed-in tri vertices by streaming them to the GPU.
+	 *  The buffer is rewound after this for the next render.
+	 */
+	static void renderVertices(FloatBuffer vertices){
+		int vertexCount = vertices.remaining()/8;
+		if(vertexCount > 0){
+			drawTris(stream(vertices), 0, vertexCount);
+		}
+	}
+
+	/**
+	 *  Renders the passed-in line vertices by streaming them to the GPU.
+	 *  The buffer is rewound after this for the next render.
+	 */
+	static void renderLines(FloatBuffer vertices){
+		int vertexCount = vertices.remaining()/3;
+		if(vertexCount > 0){
+			long offset = stream(vertices);
+			GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+			GL11.glVertexPointer(3, GL11.GL_FLOAT, LINE_VERTEX_SIZE, offset);
+			GL11.glDrawArrays(GL11.GL_LINES, 0, vertexCount);
+			GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+		}
+	}
+
+	/**
+	 *  Draws tris from the currently-bound buffer, starting at the passed-in byte offset and vertex.
+	 *  Unbinds the buffer after, as MC's own rendering expects no buffer to be bound when it uses client arrays.
+	 */
+	private static void drawTris(long offset, int firstVertex, int vertexCount){
+		enableTriArrays();
+		setTriPointers(offset);
+		GL11.glDrawArrays(GL11.GL_TRIANGLES, firstVertex, vertexCount);
+		disableTriArrays();
+	}
+	
+	private static void enableTriArrays(){
+		OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+		GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
+		GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+		GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+	}
+	
+	/**
+	 *  Points the tri arrays at the currently-bound buffer, starting at the passed-in byte offset.
+	 */
+	private static void setTriPointers(long offset){
+		GL11.glNormalPointer(GL11.GL_FLOAT, VERTEX_SIZE, offset);
+		GL11.glTexCoordPointer(2, GL11.GL_FLOAT, VERTEX_SIZE, offset + 3*Float.BYTES);
+		GL11.glVertexPointer(3, GL11.GL_FLOAT, VERTEX_SIZE, offset + 5*Float.BYTES);
+	}
+	
+	/**
+	 *  Disables the tri arrays and unbinds the buffer.
+	 */
+	private static void disableTriArrays(){
+		GL11.glDisableClientState(GL11.GL_NORMAL_ARRAY);
+		GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+		GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 *  Uploads the passed-in vertices to the end of the streaming buffer, and returns the byte offset they are at.
+	 *  The streaming buffer is left bound for drawing.  If the vertices won't fit, the buffer is orphaned and we
+	 *  start again from the front.
+	 */
+	private static long stream(FloatBuffer vertices){
+		ByteBuffer data = stage(vertices);
+		int dataSize = data.remaining();
+		if(streamBufferID == -1 || dataSize > streamBufferSize){
+			if(streamBufferID != -1){
+				GL15.glDeleteBuffers(streamBufferID);
+			}
+			streamBufferID = GL15.glGenBuffers();
+			streamBufferSize = Math.max(STREAM_SIZE, 2*dataSize);
+			streamBufferOffset = streamBufferSize;
+		}
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, streamBufferID);
+		if(streamBufferOffset + dataSize > streamBufferSize){
+			GL15.glBufferData(GL15.GL_ARRAY_BUFFER, streamBufferSize, GL15.GL_STREAM_DRAW);
+			streamBufferOffset = 0;
+		}
+		long offset = streamBufferOffset;
+		GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, offset, data);
+		//Keep offsets aligned to vertices, as some drivers are slow with unaligned data.
+		streamBufferOffset += (dataSize + VERTEX_SIZE - 1)/VERTEX_SIZE*VERTEX_SIZE;
+		return offset;
+	}
+
+	/**
+	 *  Copies the remaining floats in the passed-in buffer to the direct staging buffer, and returns it ready for uploading.
+	 *  Our vertices are normally in heap buffers, which OpenGL can't read.  The passed-in buffer is rewound after.
+	 */
+	private static ByteBuffer stage(FloatBuffer vertices){
+		int dataSize = vertices.remaining()*Float.BYTES;
+		if(stagingBuffer.capacity() < dataSize){
+			stagingBuffer = ByteBuffer.allocateDirect(Math.max(dataSize, 2*stagingBuffer.capacity())).order(ByteOrder.nativeOrder());
+			stagingFloats = stagingBuffer.asFloatBuffer();
+		}
+		stagingFloats.clear();
+		stagingFloats.put(vertices);
+		vertices.rewind();
+		stagingBuffer.clear();
+		stagingBuffer.limit(dataSize);
+		return stagingBuffer;
+	}
+
+	/**
+	 *  A single shared buffer for cached vertices.  Tracks which ranges are free in a list sorted by start vertex.
+	 */
+	private static class BufferPage{
+		private final int bufferID;
+		/**Free ranges, as pairs of first vertex and vertex count.**/
+		private final List<int[]> freeRanges = new ArrayList<int[]>();
+
+		private BufferPage(int vertexCount){
+			bufferID = GL15.glGenBuffers();
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferID);
+			GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertexCount*(long) VERTEX_SIZE, GL15.GL_STATIC_DRAW);
+			GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+			freeRanges.add(new int[]{0, vertexCount});
+		}
+
+		/**
+		 *  Returns a range of the passed-in size from this page, or null if no free range is large enough.
+		 */
+		private BufferRange allocate(int vertexCount){
+			for(int i=0; i<freeRanges.size(); ++i){
+				int[] freeRange = freeRanges.get(i);
+				if(freeRange[1] >= vertexCount){
+					BufferRange range = new BufferRange(this, freeRange[0], vertexCount);
+					freeRange[0] += vertexCount;
+					freeRange[1] -= vertexCount;
+					if(freeRange[1] == 0){
+						freeRanges.remove(i);
+					}
+					return range;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 *  Returns the passed-in range to this page, merging it with any free ranges next to it.
+		 */
+		private void free(BufferRange range){
+			if(range.vertexCount == 0){
+				return;
+			}
+			int index = 0;
+			while(index < freeRanges.size() && freeRanges.get(index)[0] < range.firstVertex){
+				++index;
+			}
+			int[] freeRange = new int[]{range.firstVertex, range.vertexCount};
+			freeRanges.add(index, freeRange);
+			if(index + 1 < freeRanges.size() && freeRange[0] + freeRange[1] == freeRanges.get(index + 1)[0]){
+				freeRange[1] += freeRanges.remove(index + 1)[1];
+			}
+			if(index > 0){
+				int[] priorRange = freeRanges.get(index - 1);
+				if(priorRange[0] + priorRange[1] == freeRange[0]){
+					priorRange[1] += freeRange[1];
+					freeRanges.remove(index);
+				}
+			}
+		}
+	}
+
+	/**
+	 *  A range of vertices in a page.
+	 */
+	private static class BufferRange{
+		private final BufferPage page;
+		private final int firstVertex;
+		private final int vertexCount;
+
+		private BufferRange(BufferPage page, int firstVertex, int vertexCount){
+			this.page = page;
+			this.firstVertex = firstVertex;
+			this.vertexCount = vertexCount;
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package mcinterface1122;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.AxisAlignedBB;
@@ -21,8 +24,16 @@ import net.minecraft.util.math.Vec3d;
 class WrapperAABBCollective extends AxisAlignedBB{
 	protected final Collection<BoundingBox> boxes;
 	protected BoundingBox lastBoxRayTraced;
+	/**Tree over the boxes.  Only updated when queried after being marked dirty, so entities nothing is touching don't pay for it.**/
+	private final BoundingBoxTree tree;
+	/**Scratch list for boxes the tree says a ray passes through.  Shared between queries, as they are all done on the same thread.**/
+	private final List<BoundingBox> raytracedBoxes;
 	
-	public WrapperAABBCollective(BoundingBox encompassingBox, Collection<BoundingBox> boxes){
+	/**
+	 *  Creates a collective for the passed-in boxes.  If the passed-in collective isn't null, this takes its tree storage
+	 *  rather than making a new tree, so the passed-in collective should not be used after this.
+	 */
+	private WrapperAABBCollective(@Nullable WrapperAABBCollective previous, BoundingBox encompassingBox, Collection<BoundingBox> boxes){
 		super(	encompassingBox.globalCenter.x - encompassingBox.widthRadius,
 				encompassingBox.globalCenter.y - encompassingBox.heightRadius,
 				encompassingBox.globalCenter.z - encompassingBox.depthRadius,
@@ -31,6 +42,30 @@ class WrapperAABBCollective extends AxisAlignedBB{
 				encompassingBox.globalCenter.z + encompassingBox.depthRadius
 			);
 		this.boxes = boxes;
+		this.tree = previous != null ? previous.tree : new BoundingBoxTree();
+		this.raytracedBoxes = previous != null ? previous.raytracedBoxes : new ArrayList<BoundingBox>();
+		tree.markDirty();
+	}
+	
+	/**
+	 *  Returns a collective for the passed-in boxes.  MC's AABBs are immutable, so we can't move the
+	 *  passed-in collective's bounds.  Instead, we return it if its bounds and boxes still match,
+	 *  and only create a new one if they don't.  Either way, the returned collective's tree is marked as needing
+	 *  an update, as the boxes themselves may have moved.  Call this once per tick after the entity updates.
+	 */
+	public static WrapperAABBCollective update(@Nullable WrapperAABBCollective collective, BoundingBox encompassingBox, Collection<BoundingBox> boxes){
+		if(collective != null && collective.boxes == boxes &&
+				collective.minX == encompassingBox.globalCenter.x - encompassingBox.widthRadius &&
+				collective.minY == encompassingBox.globalCenter.y - encompassingBox.heightRadius &&
+				collective.minZ == encompassingBox.globalCenter.z - encompassingBox.depthRadius &&
+				collective.maxX == encompassingBox.globalCenter.x + encompassingBox.widthRadius &&
+				collective.maxY == encompassingBox.globalCenter.y + encompassingBox.heightRadius &&
+				collective.maxZ == encompassingBox.globalCenter.z + encompassingBox.depthRadius){
+			collective.tree.markDirty();
+			return collective;
+		}else{
+			return new WrapperAABBCollective(collective, encompassingBox, boxes);
+		}
 	}
 	
 	@Override
@@ -40,88 +75,23 @@ class WrapperAABBCollective extends AxisAlignedBB{
 	
 	@Override
 	public double calculateXOffset(AxisAlignedBB box, double offset){
-		for(BoundingBox testBox : boxes){
-			if(box.maxY > testBox.globalCenter.y - testBox.heightRadius && box.minY < testBox.globalCenter.y + testBox.heightRadius && box.maxZ > testBox.globalCenter.z - testBox.depthRadius && box.minZ < testBox.globalCenter.z + testBox.depthRadius){
-				if(offset > 0.0D){
-					//Positive offset, box.maxX <= this.minX.
-	                double collisionDepth = testBox.globalCenter.x - testBox.widthRadius - box.maxX;
-	                if(collisionDepth >= 0 && collisionDepth < offset){
-	                    offset = collisionDepth;
-	                }
-	            }else if(offset < 0.0D){
-	            	//Negative offset, box.minX >= this.maxX.
-	                double collisionDepth = testBox.globalCenter.x + testBox.widthRadius - box.minX;
-	                if(collisionDepth <= 0 && collisionDepth > offset){
-	                    offset = collisionDepth;
-	                }
-	            }
-	        }
-		}
-		return offset;
+		return tree.getClippedOffset(boxes, 0, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, offset);
     }
 	
 	@Override
 	public double calculateYOffset(AxisAlignedBB box, double offset){
-		for(BoundingBox testBox : boxes){
-			if(box.maxX > testBox.globalCenter.x - testBox.widthRadius && box.minX < testBox.globalCenter.x + testBox.widthRadius && box.maxZ > testBox.globalCenter.z - testBox.depthRadius && box.minZ < testBox.globalCenter.z + testBox.depthRadius){
-				if(offset > 0.0D){
-					//Positive offset, box.maxX <= this.minX.
-	                double collisionDepth = testBox.globalCenter.y - testBox.heightRadius - box.maxY;
-	                if(collisionDepth >= 0 && collisionDepth < offset){
-	                    offset = collisionDepth;
-	                }
-	            }else if(offset < 0.0D){
-	            	//Negative offset, box.minX >= this.maxX.
-	                double collisionDepth = testBox.globalCenter.y + testBox.heightRadius - box.minY;
-	                if(collisionDepth <= 0 && collisionDepth > offset){
-	                    offset = collisionDepth;
-	                }
-	            }
-	        }
-		}
-		return offset;
+		return tree.getClippedOffset(boxes, 1, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, offset);
     }
 	
 	@Override
 	public double calculateZOffset(AxisAlignedBB box, double offset){
-		for(BoundingBox testBox : boxes){
-			if(box.maxX > testBox.globalCenter.x - testBox.widthRadius && box.minX < testBox.globalCenter.x + testBox.widthRadius && box.maxY > testBox.globalCenter.y - testBox.heightRadius && box.minY < testBox.globalCenter.y + testBox.heightRadius){
-				if(offset > 0.0D){
-					//Positive offset, box.maxX <= this.minX.
-	                double collisionDepth = testBox.globalCenter.z - testBox.depthRadius - box.maxZ;
-	                if(collisionDepth >= 0 && collisionDepth < offset){
-	                    offset = collisionDepth;
-	                }
-	            }else if(offset < 0.0D){
-	            	//Negative offset, box.minX >= this.maxX.
-	                double collisionDepth = testBox.globalCenter.z + testBox.depthRadius - box.minZ;
-	                if(collisionDepth <= 0 && collisionDepth > offset){
-	                    offset = collisionDepth;
-	                }
-	            }
-	        }
-		}
-		return offset;
+		return tree.getClippedOffset(boxes, 2, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, offset);
     }
 	
 	@Override
     public boolean intersects(double otherMinX, double otherMinY, double otherMinZ, double otherMaxX, double otherMaxY, double otherMaxZ){
 		//CHeck super first, as that's the encompassing box.
-		if(super.intersects(otherMinX, otherMinY, otherMinZ, otherMaxX, otherMaxY, otherMaxZ)){
-			for(BoundingBox testBox : boxes){
-					if(
-						otherMaxX > testBox.globalCenter.x - testBox.widthRadius && 
-						otherMinX < testBox.globalCenter.x + testBox.widthRadius && 
-						otherMaxY > testBox.globalCenter.y - testBox.heightRadius && 
-						otherMinY < testBox.globalCenter.y + testBox.heightRadius &&
-						otherMaxZ > testBox.globalCenter.z - testBox.depthRadius &&
-						otherMinZ < testBox.globalCenter.z + testBox.depthRadius)
-					{
-					return true;
-				}
-			}
-		}
-		return false;
+		return super.intersects(otherMinX, otherMinY, otherMinZ, otherMaxX, otherMaxY, otherMaxZ) && tree.hasIntersecting(boxes, otherMinX, otherMinY, otherMinZ, otherMaxX, otherMaxY, otherMaxZ);
     }
 	
 	@Override
@@ -138,7 +108,9 @@ class WrapperAABBCollective extends AxisAlignedBB{
 		Point3D end = new Point3D(vecB.x, vecB.y, vecB.z);
 		Point3D intersection = null;
 		EnumFacing sideHit = null;
-		for(BoundingBox testBox : boxes){
+		raytracedBoxes.clear();
+		tree.getRaytraced(boxes, start, end, 0, raytracedBoxes);
+		for(BoundingBox testBox : raytracedBoxes){
 			Point3D testIntersection = testBox.getIntersectionPoint(start, end);
 			if(testIntersection != null){
 				if(intersection == null || testIntersection.distanceTo(start) < intersection.distanceTo(start)){
@@ -160,6 +132,7 @@ class WrapperAABBCollective extends AxisAlignedBB{
 				}
 			}
 		}
+		raytracedBoxes.clear();
 		if(intersection != null){
 			return new RayTraceResult(new Vec3d(intersection.x, intersection.y, intersection.z), sideHit);
 		}else{
@@ -5,12 +5,11 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
+import minecrafttransportsimulator.baseclasses.BlockCollisionSet;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
@@ -72,6 +71,7 @@ import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -93,10 +93,10 @@ public class WrapperWorld extends AWrapperWorld{
 	private static final Map<World, WrapperWorld> worldWrappers = new HashMap<World, WrapperWorld>();
 	private final Map<EntityPlayerGun, BuilderEntityExisting> playerServerGunBuilders = new HashMap<EntityPlayerGun, BuilderEntityExisting>();
 	private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<UUID, Integer>();
-	private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<AxisAlignedBB>();
-	private final Set<BlockPos> knownAirBlocks = new HashSet<BlockPos>();
+	private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
 	
 	protected final World world;
+	private final BlockCollisionCache collisionCache;
 	private final IWrapperNBT savedData;
 	
 	/**
@@ -118,6 +118,7 @@ public class WrapperWorld extends AWrapperWorld{
 
 	private WrapperWorld(World world){
 		this.world = world;
+		this.collisionCache = new BlockCollisionCache(world);
 		if(world.isRemote){
 			//Send packet to server to request data for this world.
 			this.savedData = InterfaceManager.coreInterface.getNewNBTWrapper();
@@ -268,7 +269,7 @@ public class WrapperWorld extends AWrapperWorld{
 		BuilderEntityExisting builder = new BuilderEntityExisting(((WrapperWorld) entity.world).world);
 		builder.loadedFromSavedNBT = true;
 		builder.setPositionAndRotation(entity.position.x, entity.position.y, entity.position.z, 0, 0);
-		builder.entity = entity;
+		builder.setEntity(entity);
 		world.spawnEntity(builder);
 		addEntity(entity);
 		return builder;
@@ -464,104 +465,71 @@ public class WrapperWorld extends AWrapperWorld{
 	
 	@Override
 	public void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater){
-		AxisAlignedBB mcBox = box.convert();
+		double minX = box.globalCenter.x - box.widthRadius;
+		double minY = box.globalCenter.y - box.heightRadius;
+		double minZ = box.globalCenter.z - box.depthRadius;
+		double maxX = box.globalCenter.x + box.widthRadius;
+		double maxY = box.globalCenter.y + box.heightRadius;
+		double maxZ = box.globalCenter.z + box.depthRadius;
 		box.collidingBlockPositions.clear();
-		mutableCollidingAABBs.clear();
-		for(int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i){
-    		for(int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j){
-    			for(int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k){
-    				BlockPos pos = new BlockPos(i, j, k);
-    				if(world.isBlockLoaded(pos)){
-	    				IBlockState state = world.getBlockState(pos);
-	    				if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
-	    					int oldCollidingBlockCount = mutableCollidingAABBs.size();
-	    					state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
-	    					if(mutableCollidingAABBs.size() > oldCollidingBlockCount){
-	    						box.collidingBlockPositions.add(new Point3D(i, j, k));
-	    					}
-	    				}
-						if(box.collidesWithLiquids && state.getMaterial().isLiquid()){
-							mutableCollidingAABBs.add(state.getBoundingBox(world, pos).offset(pos));
-							box.collidingBlockPositions.add(new Point3D(i, j, k));
-						}
+		box.currentCollisionDepth.set(0D, 0D, 0D);
+		int maxI = (int) Math.ceil(maxX);
+		int maxJ = (int) Math.ceil(maxY);
+		int maxK = (int) Math.ceil(maxZ);
+		for(int i = (int) Math.floor(minX); i < maxI; ++i){
+    		for(int j = (int) Math.floor(minY); j < maxJ; ++j){
+    			for(int k = (int) Math.floor(minZ); k < maxK; ++k){
+    				BlockCollisionCache.BlockShape shape = collisionCache.getShape(mutablePos.setPos(i, j, k));
+    				if(shape != null){
+    					boolean collided = false;
+    					double[] colBoxes = shape.collisionBoxes;
+    					for(int boxIndex=0; boxIndex<colBoxes.length; boxIndex+=6){
+    						if(BlockCollisionSet.intersects(colBoxes, boxIndex, minX, minY, minZ, maxX, maxY, maxZ)){
+    							BlockCollisionSet.addCollisionDepth(box, collisionMotion, ignoreIfGreater, colBoxes, boxIndex, minX, minY, minZ, maxX, maxY, maxZ);
+    							collided = true;
+    						}
+    					}
+    					if(box.collidesWithLiquids && shape.liquidBox != null){
+    						BlockCollisionSet.addCollisionDepth(box, collisionMotion, ignoreIfGreater, shape.liquidBox, 0, minX, minY, minZ, maxX, maxY, maxZ);
+    						collided = true;
+    					}
+    					if(collided){
+    						box.collidingBlockPositions.add(new Point3D(i, j, k));
+    					}
     				}
     			}
     		}
     	}
-		
-		//If we are in the depth bounds for this collision, set it as the collision depth.
-		box.currentCollisionDepth.set(0D, 0D, 0D);
-		double boxCollisionDepth;
-		double minDelta = 0.0;
-		for(AxisAlignedBB colBox : mutableCollidingAABBs){
-			if(collisionMotion.x > 0){
-				boxCollisionDepth = mcBox.maxX - colBox.minX;
-				if(!ignoreIfGreater || collisionMotion.x - boxCollisionDepth > -minDelta){
-					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
-				}
-			}else if(collisionMotion.x < 0){
-				boxCollisionDepth = colBox.maxX - mcBox.minX;
-				if(!ignoreIfGreater || collisionMotion.x + boxCollisionDepth < minDelta){
-					box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
-				}
-			}
-			if(collisionMotion.y > 0){
-				boxCollisionDepth = mcBox.maxY - colBox.minY;
-				if(!ignoreIfGreater || collisionMotion.y - boxCollisionDepth > -minDelta){
-					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
-				}
-			}else if(collisionMotion.y < 0){
-				boxCollisionDepth = colBox.maxY - mcBox.minY;
-				if(!ignoreIfGreater || collisionMotion.y + boxCollisionDepth < minDelta){
-					box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
-				}
-			}
-			if(collisionMotion.z > 0){
-				boxCollisionDepth = mcBox.maxZ - colBox.minZ;
-				if(!ignoreIfGreater || collisionMotion.z - boxCollisionDepth > -minDelta){
-					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
-				}
-			}else if(collisionMotion.z < 0){
-				boxCollisionDepth = colBox.maxZ - mcBox.minZ;
-				if(!ignoreIfGreater || collisionMotion.z + boxCollisionDepth < minDelta){
-					box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
-				}
-			}
-		}
 		if(box.currentCollisionDepth.isZero()){
 			box.collidingBlockPositions.clear();
 		}
 	}
 	
 	@Override
-	public boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache){
-		if(clearCache){
-			knownAirBlocks.clear();
-		}
-		mutableCollidingAABBs.clear();
-		AxisAlignedBB mcBox = box.convertWithOffset(offset.x, offset.y, offset.z);
-		for(int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i){
-    		for(int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j){
-    			for(int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k){
-    				BlockPos pos = new BlockPos(i, j, k);
-    				if(!knownAirBlocks.contains(pos)){
-    					if(world.isBlockLoaded(pos)){
-    	    				IBlockState state = world.getBlockState(pos);
-    	    				if(state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null){
-    	    					int oldCollidingBlockCount = mutableCollidingAABBs.size();
-    	    					state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
-    	    					if(mutableCollidingAABBs.size() > oldCollidingBlockCount){
-    	    						return true;
-    	    					}
-    	    				}else{
-    	    					knownAirBlocks.add(pos);
-    	    				}
-    						if(box.collidesWithLiquids && state.getMaterial().isLiquid()){
-    							if(mcBox.intersects(state.getBoundingBox(world, pos).offset(pos))){
-    								return true;
-    							}
+	public boolean checkForCollisions(BoundingBox box, Point3D offset){
+		double minX = offset.x + box.globalCenter.x - box.widthRadius;
+		double minY = offset.y + box.globalCenter.y - box.heightRadius;
+		double minZ = offset.z + box.globalCenter.z - box.depthRadius;
+		double maxX = offset.x + box.globalCenter.x + box.widthRadius;
+		double maxY = offset.y + box.globalCenter.y + box.heightRadius;
+		double maxZ = offset.z + box.globalCenter.z + box.depthRadius;
+		int maxI = (int) Math.ceil(maxX);
+		int maxJ = (int) Math.ceil(maxY);
+		int maxK = (int) Math.ceil(maxZ);
+		for(int i = (int) Math.floor(minX); i < maxI; ++i){
+    		for(int j = (int) Math.floor(minY); j < maxJ; ++j){
+    			for(int k = (int) Math.floor(minZ); k < maxK; ++k){
+    				BlockCollisionCache.BlockShape shape = collisionCache.getShape(mutablePos.setPos(i, j, k));
+    				if(shape != null){
+    					double[] colBoxes = shape.collisionBoxes;
+    					for(int boxIndex=0; boxIndex<colBoxes.length; boxIndex+=6){
+    						if(BlockCollisionSet.intersects(colBoxes, boxIndex, minX, minY, minZ, maxX, maxY, maxZ)){
+    							return true;
     						}
-        				}
+    					}
+    					if(box.collidesWithLiquids && shape.liquidBox != null && BlockCollisionSet.intersects(shape.liquidBox, 0, minX, minY, minZ, maxX, maxY, maxZ)){
+    						return true;
+    					}
     				}
     			}
     		}
@@ -569,6 +537,23 @@ public class WrapperWorld extends AWrapperWorld{
 		return false;
 	}
 	
+	@Override
+	public void updateBlockCollisions(BlockCollisionSet collisions){
+		int maxI = (int) Math.ceil(collisions.maxX);
+		int maxJ = (int) Math.ceil(collisions.maxY);
+		int maxK = (int) Math.ceil(collisions.maxZ);
+		for(int i = (int) Math.floor(collisions.minX); i < maxI; ++i){
+    		for(int j = (int) Math.floor(collisions.minY); j < maxJ; ++j){
+    			for(int k = (int) Math.floor(collisions.minZ); k < maxK; ++k){
+    				BlockCollisionCache.BlockShape shape = collisionCache.getShape(mutablePos.setPos(i, j, k));
+    				if(shape != null && (shape.collisionBoxes.length != 0 || shape.liquidBox != null)){
+    					collisions.addBlock(i, j, k, shape.collisionBoxes, shape.liquidBox);
+    				}
+    			}
+    		}
+    	}
+	}
+	
 	@Override
 	public int getRedstonePower(Point3D position){
 		return world.getRedstonePowerFromNeighbors(new BlockPos(position.x, position.y, position.z));
@@ -910,6 +895,24 @@ public class WrapperWorld extends AWrapperWorld{
 	   }
    }
 	
+	/**
+    * Clear cached collisions for chunks that load or unload.  Chunks that load might have
+    * been changed since we last saw them, and chunks that unload won't be checked anymore.
+    */
+   @SubscribeEvent
+   public void on(ChunkEvent.Load event){
+	   if(event.getWorld() == world){
+		   collisionCache.invalidateChunk(event.getChunk().x, event.getChunk().z);
+	   }
+   }
+   
+   @SubscribeEvent
+   public void on(ChunkEvent.Unload event){
+	   if(event.getWorld() == world){
+		   collisionCache.invalidateChunk(event.getChunk().x, event.getChunk().z);
+	   }
+   }
+	
 	/**
     * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
     * Also remove this wrapper from the created lists, as it's invalid.
@@ -41,7 +41,7 @@ public class AnimationSwitchbox{
 		this.entity = entity;
 		this.applyAfter = applyAfter;
 		for(JSONAnimationDefinition animation : animations){
-			clocks.add(new DurationDelayClock(animation));
+			clocks.add(new DurationDelayClock(animation, entity));
 		}
 	}
 	
@@ -0,0 +1,301 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+
+/**A set of block collision boxes from the world, stored as primitive arrays.  Used as a broadphase
+ * for things that check many boxes against blocks in the same area, like vehicles.  Rather than having
+ * each {@link BoundingBox} query the world for every check, the bounds of everything that will be checked
+ * are added to this set via {@link #addBounds(BoundingBox, Point3D, Point3D)}, and the world is queried once
+ * via {@link AWrapperWorld#updateBlockCollisions(BlockCollisionSet)}.  Boxes are then checked against this set.
+ * Results are the same as checking against the world, provided all boxes checked are within the added bounds.
+ *
+ * @author don_bruce
+ */
+public class BlockCollisionSet{
+	public double minX;
+	public double minY;
+	public double minZ;
+	public double maxX;
+	public double maxY;
+	public double maxZ;
+
+	private int blockCount;
+	private int[] blockPositions = new int[3*32];
+	private int[] blockBoxEnds = new int[32];
+	private double[] liquidBoxes = new double[6*32];
+	private boolean[] blockIsLiquid = new boolean[32];
+	private int boxCount;
+	private double[] collisionBoxes = new double[6*32];
+
+	//Grid of block indexes, keyed by packed block position.  Holds the block index plus one, so 0 is no block.
+	//This lets boxes only look at the blocks in their own space, rather than every block in the set.
+	private boolean gridCreated;
+	private int gridMinX;
+	private int gridMinY;
+	private int gridMinZ;
+	private int gridSizeX;
+	private int gridSizeY;
+	private int gridSizeZ;
+	private int[] blockGrid = new int[0];
+
+	public BlockCollisionSet(){
+		clear();
+	}
+
+	/**
+	 *  Clears all blocks and bounds from this set.
+	 */
+	public void clear(){
+		minX = Double.MAX_VALUE;
+		minY = Double.MAX_VALUE;
+		minZ = Double.MAX_VALUE;
+		maxX = -Double.MAX_VALUE;
+		maxY = -Double.MAX_VALUE;
+		maxZ = -Double.MAX_VALUE;
+		blockCount = 0;
+		boxCount = 0;
+		if(gridCreated){
+			Arrays.fill(blockGrid, 0, gridSizeX*gridSizeY*gridSizeZ, 0);
+			gridCreated = false;
+		}
+		gridSizeX = 0;
+		gridSizeY = 0;
+		gridSizeZ = 0;
+	}
+
+	/**
+	 *  Expands the bounds of this set to include the passed-in box centered at the passed-in center, and
+	 *  everywhere that box could be if moved by some amount between 0 and the passed-in sweep on each axis.
+	 *  All bounds must be added before any blocks are.
+	 */
+	public void addBounds(BoundingBox box, Point3D center, Point3D sweep){
+		minX = Math.min(minX, center.x - box.widthRadius + Math.min(0, sweep.x));
+		minY = Math.min(minY, center.y - box.heightRadius + Math.min(0, sweep.y));
+		minZ = Math.min(minZ, center.z - box.depthRadius + Math.min(0, sweep.z));
+		maxX = Math.max(maxX, center.x + box.widthRadius + Math.max(0, sweep.x));
+		maxY = Math.max(maxY, center.y + box.heightRadius + Math.max(0, sweep.y));
+		maxZ = Math.max(maxZ, center.z + box.depthRadius + Math.max(0, sweep.z));
+	}
+
+	/**
+	 *  Adds a block to this set.  Collision boxes are passed as minX, minY, minZ, maxX, maxY, maxZ for each box.
+	 *  The liquid box may be null if the block isn't a liquid.  Called by the world when populating this set.
+	 *  Blocks must be within the bounds of this set, as the world only checks those.
+	 */
+	public void addBlock(int x, int y, int z, double[] blockCollisionBoxes, double[] liquidBox){
+		if(!gridCreated){
+			//Bounds are final once blocks start coming in, so size the grid to them now.
+			gridMinX = (int) Math.floor(minX);
+			gridMinY = (int) Math.floor(minY);
+			gridMinZ = (int) Math.floor(minZ);
+			gridSizeX = (int) Math.ceil(maxX) - gridMinX;
+			gridSizeY = (int) Math.ceil(maxY) - gridMinY;
+			gridSizeZ = (int) Math.ceil(maxZ) - gridMinZ;
+			if(blockGrid.length < gridSizeX*gridSizeY*gridSizeZ){
+				blockGrid = new int[gridSizeX*gridSizeY*gridSizeZ];
+			}
+			gridCreated = true;
+		}
+		int gridIndex = getGridIndex(x, y, z);
+		if(gridIndex == -1){
+			return;
+		}
+		if(blockCount == blockBoxEnds.length){
+			int newLength = blockCount*2;
+			blockPositions = Arrays.copyOf(blockPositions, 3*newLength);
+			blockBoxEnds = Arrays.copyOf(blockBoxEnds, newLength);
+			liquidBoxes = Arrays.copyOf(liquidBoxes, 6*newLength);
+			blockIsLiquid = Arrays.copyOf(blockIsLiquid, newLength);
+		}
+		if(6*boxCount + blockCollisionBoxes.length > collisionBoxes.length){
+			collisionBoxes = Arrays.copyOf(collisionBoxes, Math.max(2*collisionBoxes.length, 6*boxCount + blockCollisionBoxes.length));
+		}
+
+		blockPositions[3*blockCount] = x;
+		blockPositions[3*blockCount + 1] = y;
+		blockPositions[3*blockCount + 2] = z;
+		System.arraycopy(blockCollisionBoxes, 0, collisionBoxes, 6*boxCount, blockCollisionBoxes.length);
+		boxCount += blockCollisionBoxes.length/6;
+		blockBoxEnds[blockCount] = boxCount;
+		blockIsLiquid[blockCount] = liquidBox != null;
+		if(liquidBox != null){
+			System.arraycopy(liquidBox, 0, liquidBoxes, 6*blockCount, 6);
+		}
+		blockGrid[gridIndex] = ++blockCount;
+	}
+
+	/**
+	 *  Removes the block at the passed-in position from this set.  Used when blocks are broken
+	 *  after this set is populated, so later checks don't collide with them.
+	 */
+	public void removeBlock(Point3D position){
+		int gridIndex = getGridIndex((int) Math.floor(position.x), (int) Math.floor(position.y), (int) Math.floor(position.z));
+		if(gridIndex != -1){
+			blockGrid[gridIndex] = 0;
+		}
+	}
+
+	/**
+	 *  Like {@link AWrapperWorld#updateBoundingBoxCollisions(BoundingBox, Point3D, boolean)}, but uses the
+	 *  blocks in this set rather than querying the world.  The box's global center should already be offset
+	 *  by the collision motion, as is done by {@link BoundingBox#updateCollidingBlocks(BlockCollisionSet, Point3D)}.
+	 */
+	public void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater){
+		double boxMinX = box.globalCenter.x - box.widthRadius;
+		double boxMinY = box.globalCenter.y - box.heightRadius;
+		double boxMinZ = box.globalCenter.z - box.depthRadius;
+		double boxMaxX = box.globalCenter.x + box.widthRadius;
+		double boxMaxY = box.globalCenter.y + box.heightRadius;
+		double boxMaxZ = box.globalCenter.z + box.depthRadius;
+		box.collidingBlockPositions.clear();
+		box.currentCollisionDepth.set(0D, 0D, 0D);
+
+		//The world only checks blocks whose space overlaps the box, even if the block's collision
+		//boxes extend outside its space, so we only walk the grid cells in that range.
+		int startX = Math.max((int) Math.floor(boxMinX), gridMinX) - gridMinX;
+		int startY = Math.max((int) Math.floor(boxMinY), gridMinY) - gridMinY;
+		int startZ = Math.max((int) Math.floor(boxMinZ), gridMinZ) - gridMinZ;
+		int endX = Math.min((int) Math.ceil(boxMaxX) - gridMinX, gridSizeX);
+		int endY = Math.min((int) Math.ceil(boxMaxY) - gridMinY, gridSizeY);
+		int endZ = Math.min((int) Math.ceil(boxMaxZ) - gridMinZ, gridSizeZ);
+		for(int i=startX; i<endX; ++i){
+			for(int j=startY; j<endY; ++j){
+				int gridOffset = (i*gridSizeY + j)*gridSizeZ;
+				for(int k=startZ; k<endZ; ++k){
+					int blockIndex = blockGrid[gridOffset + k] - 1;
+					if(blockIndex != -1){
+						int boxIndex = blockIndex == 0 ? 0 : blockBoxEnds[blockIndex - 1];
+						int blockBoxEnd = blockBoxEnds[blockIndex];
+						boolean checkLiquid = box.collidesWithLiquids && blockIsLiquid[blockIndex];
+						if(boxIndex == blockBoxEnd && !checkLiquid){
+							//Liquid-only block, and we don't collide with liquids.
+							continue;
+						}
+						boolean collided = false;
+						for(; boxIndex<blockBoxEnd; ++boxIndex){
+							if(intersects(collisionBoxes, 6*boxIndex, boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ)){
+								addCollisionDepth(box, collisionMotion, ignoreIfGreater, collisionBoxes, 6*boxIndex, boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ);
+								collided = true;
+							}
+						}
+						if(checkLiquid){
+							addCollisionDepth(box, collisionMotion, ignoreIfGreater, liquidBoxes, 6*blockIndex, boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ);
+							collided = true;
+						}
+						if(collided){
+							box.collidingBlockPositions.add(new Point3D(blockPositions[3*blockIndex], blockPositions[3*blockIndex + 1], blockPositions[3*blockIndex + 2]));
+						}
+					}
+				}
+			}
+		}
+		if(box.currentCollisionDepth.isZero()){
+			box.collidingBlockPositions.clear();
+		}
+	}
+
+	/**
+	 *  Like {@link AWrapperWorld#checkForCollisions(BoundingBox, Point3D)}, but uses the
+	 *  blocks in this set rather than querying the world.
+	 */
+	public boolean checkForCollisions(BoundingBox box, Point3D offset){
+		double boxMinX = offset.x + box.globalCenter.x - box.widthRadius;
+		double boxMinY = offset.y + box.globalCenter.y - box.heightRadius;
+		double boxMinZ = offset.z + box.globalCenter.z - box.depthRadius;
+		double boxMaxX = offset.x + box.globalCenter.x + box.widthRadius;
+		double boxMaxY = offset.y + box.globalCenter.y + box.heightRadius;
+		double boxMaxZ = offset.z + box.globalCenter.z + box.depthRadius;
+		int startX = Math.max((int) Math.floor(boxMinX), gridMinX) - gridMinX;
+		int startY = Math.max((int) Math.floor(boxMinY), gridMinY) - gridMinY;
+		int startZ = Math.max((int) Math.floor(boxMinZ), gridMinZ) - gridMinZ;
+		int endX = Math.min((int) Math.ceil(boxMaxX) - gridMinX, gridSizeX);
+		int endY = Math.min((int) Math.ceil(boxMaxY) - gridMinY, gridSizeY);
+		int endZ = Math.min((int) Math.ceil(boxMaxZ) - gridMinZ, gridSizeZ);
+		for(int i=startX; i<endX; ++i){
+			for(int j=startY; j<endY; ++j){
+				int gridOffset = (i*gridSizeY + j)*gridSizeZ;
+				for(int k=startZ; k<endZ; ++k){
+					int blockIndex = blockGrid[gridOffset + k] - 1;
+					if(blockIndex != -1){
+						int blockBoxEnd = blockBoxEnds[blockIndex];
+						for(int boxIndex = blockIndex == 0 ? 0 : blockBoxEnds[blockIndex - 1]; boxIndex<blockBoxEnd; ++boxIndex){
+							if(intersects(collisionBoxes, 6*boxIndex, boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ)){
+								return true;
+							}
+						}
+						if(box.collidesWithLiquids && blockIsLiquid[blockIndex] && intersects(liquidBoxes, 6*blockIndex, boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ)){
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 *  Returns the index in the grid for the passed-in block position, or -1 if it's outside the grid.
+	 */
+	private int getGridIndex(int x, int y, int z){
+		x -= gridMinX;
+		y -= gridMinY;
+		z -= gridMinZ;
+		if(x >= 0 && x < gridSizeX && y >= 0 && y < gridSizeY && z >= 0 && z < gridSizeZ){
+			return (x*gridSizeY + y)*gridSizeZ + z;
+		}else{
+			return -1;
+		}
+	}
+
+	/**
+	 *  Helper method to add the collision depth of the passed-in block box to the box.
+	 *  If we are in the depth bounds for this collision, set it as the collision depth.
+	 */
+	public static void addCollisionDepth(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater, double[] colBoxes, int boxIndex, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		double boxCollisionDepth;
+		double minDelta = 0.0;
+		if(collisionMotion.x > 0){
+			boxCollisionDepth = maxX - colBoxes[boxIndex];
+			if(!ignoreIfGreater || collisionMotion.x - boxCollisionDepth > -minDelta){
+				box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
+			}
+		}else if(collisionMotion.x < 0){
+			boxCollisionDepth = colBoxes[boxIndex + 3] - minX;
+			if(!ignoreIfGreater || collisionMotion.x + boxCollisionDepth < minDelta){
+				box.currentCollisionDepth.x = Math.max(box.currentCollisionDepth.x, boxCollisionDepth);
+			}
+		}
+		if(collisionMotion.y > 0){
+			boxCollisionDepth = maxY - colBoxes[boxIndex + 1];
+			if(!ignoreIfGreater || collisionMotion.y - boxCollisionDepth > -minDelta){
+				box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
+			}
+		}else if(collisionMotion.y < 0){
+			boxCollisionDepth = colBoxes[boxIndex + 4] - minY;
+			if(!ignoreIfGreater || collisionMotion.y + boxCollisionDepth < minDelta){
+				box.currentCollisionDepth.y = Math.max(box.currentCollisionDepth.y, boxCollisionDepth);
+			}
+		}
+		if(collisionMotion.z > 0){
+			boxCollisionDepth = maxZ - colBoxes[boxIndex + 2];
+			if(!ignoreIfGreater || collisionMotion.z - boxCollisionDepth > -minDelta){
+				box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
+			}
+		}else if(collisionMotion.z < 0){
+			boxCollisionDepth = colBoxes[boxIndex + 5] - minZ;
+			if(!ignoreIfGreater || collisionMotion.z + boxCollisionDepth < minDelta){
+				box.currentCollisionDepth.z = Math.max(box.currentCollisionDepth.z, boxCollisionDepth);
+			}
+		}
+	}
+
+	/**
+	 *  Helper method to check if the passed-in block box intersects the passed-in bounds.
+	 *  Same logic as MC uses for its bounding boxes, so touching boxes don't intersect.
+	 */
+	public static boolean intersects(double[] colBoxes, int boxIndex, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		return colBoxes[boxIndex] < maxX && colBoxes[boxIndex + 3] > minX && colBoxes[boxIndex + 1] < maxY && colBoxes[boxIndex + 4] > minY && colBoxes[boxIndex + 2] < maxZ && colBoxes[boxIndex + 5] > minZ;
+	}
+}
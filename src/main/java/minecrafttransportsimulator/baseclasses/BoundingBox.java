@@ -124,6 +124,18 @@ public class BoundingBox{
 		return updateCollisions(world, offset, true);
 	}
 	
+	/**
+	 *  Like {@link #updateCollidingBlocks(AWrapperWorld, Point3D)}, but checks against the blocks
+	 *  in the passed-in set rather than the world.  The set must contain the offset box's bounds.
+	 */
+	public boolean updateCollidingBlocks(BlockCollisionSet collisions, Point3D offset){
+		tempGlobalCenter.set(globalCenter);
+		globalCenter.add(offset);
+		collisions.updateBoundingBoxCollisions(this, offset, false);
+		globalCenter.set(tempGlobalCenter);
+		return !collidingBlockPositions.isEmpty();
+	}
+	
 	private boolean updateCollisions(AWrapperWorld world, Point3D offset, boolean ignoreIfGreater){
 		tempGlobalCenter.set(globalCenter);
 		globalCenter.add(offset);
@@ -0,0 +1,413 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**Bounding volume tree over a collection of {@link BoundingBox}es.  Used to find the boxes a line or box hits,
+ * or how far a box can move before hitting one, without checking every box, which matters for entities with hundreds of boxes.  Nodes are stored in flat arrays,
+ * with the left child of a node right after it, and the right child index stored in {@link #nodeRight}.
+ * Leaf nodes point to a range of {@link #boxOrder}.
+ * <br><br>
+ * Boxes on entities move every tick, but the boxes that make up the entity rarely change.  Because of this, the tree
+ * is only re-built when the boxes in the collection change.  Otherwise, the bounds of the existing nodes are simply
+ * re-fit around the boxes' new positions.  Both of these are only done when the tree is queried after {@link #markDirty()}
+ * is called, so entities nothing is looking at don't pay for them.
+ *
+ * @author don_bruce
+ */
+public class BoundingBoxTree{
+	/**Max number of boxes in a leaf.  Checking a few boxes is faster than going down more nodes.**/
+	private static final int LEAF_SIZE = 4;
+	/**Padding for line checks, as {@link BoundingBox#getIntersectionPoint(Point3D, Point3D)} includes hits right on faces.**/
+	private static final double LINE_EPSILON = 1.0E-7D;
+
+	private boolean dirty = true;
+	/**Number of boxes the tree was built with.  Starts invalid so the first update always builds the tree.**/
+	private int boxCount = -1;
+	private BoundingBox[] boxArray = new BoundingBox[0];
+	private int[] boxOrder = new int[0];
+	/**Bounds of each box in boxArray, stored as minX, minY, minZ, maxX, maxY, maxZ.**/
+	private double[] boxBounds = new double[0];
+	private int nodeCount;
+	/**Bounds of each node, stored the same as the box bounds.**/
+	private double[] nodeBounds = new double[6];
+	private int[] nodeStart = new int[1];
+	private int[] nodeSize = new int[1];
+	/**Index of the right child of each node, or 0 if the node is a leaf.**/
+	private int[] nodeRight = new int[1];
+	private int[] stack = new int[2];
+	private final double[] centerMin = new double[3];
+	private final double[] centerMax = new double[3];
+	private final double[] queryBounds = new double[6];
+
+	/**
+	 *  Marks this tree as needing updating.  Call this whenever the boxes move, or the collection of boxes changes.
+	 *  Actual updating is deferred until the next query.
+	 */
+	public void markDirty(){
+		dirty = true;
+	}
+
+	/**
+	 *  Adds all boxes whose bounds the line from start to end passes through to the passed-in list.
+	 *  If inflation is non-zero, all boxes are treated as having their radii increased by that amount.
+	 *  This allows for picking of boxes in the general area of the line, without modifying the boxes themselves.
+	 *  Note that this only checks bounds.  If you need the actual hit point, use
+	 *  {@link BoundingBox#getIntersectionPoint(Point3D, Point3D)} on the returned boxes.
+	 */
+	public synchronized void getRaytraced(Collection<BoundingBox> boxes, Point3D start, Point3D end, double inflation, List<BoundingBox> hitBoxes){
+		update(boxes);
+		double padding = inflation + LINE_EPSILON;
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0){
+			int node = stack[--stackSize];
+			if(intersectsLine(nodeBounds, node*6, padding, start, end)){
+				if(nodeRight[node] != 0){
+					stack[stackSize++] = node + 1;
+					stack[stackSize++] = nodeRight[node];
+				}else{
+					for(int i=nodeStart[node]; i<nodeStart[node] + nodeSize[node]; ++i){
+						if(intersectsLine(boxBounds, boxOrder[i]*6, padding, start, end)){
+							hitBoxes.add(boxArray[boxOrder[i]]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Adds all boxes that intersect the passed-in box to the passed-in list.
+	 *  This uses the same logic as {@link BoundingBox#intersects(BoundingBox)}.
+	 */
+	public synchronized void getIntersecting(Collection<BoundingBox> boxes, BoundingBox box, List<BoundingBox> intersectingBoxes){
+		update(boxes);
+		double minX = box.globalCenter.x - box.widthRadius;
+		double minY = box.globalCenter.y - box.heightRadius;
+		double minZ = box.globalCenter.z - box.depthRadius;
+		double maxX = box.globalCenter.x + box.widthRadius;
+		double maxY = box.globalCenter.y + box.heightRadius;
+		double maxZ = box.globalCenter.z + box.depthRadius;
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0){
+			int node = stack[--stackSize];
+			if(intersects(nodeBounds, node*6, minX, minY, minZ, maxX, maxY, maxZ)){
+				if(nodeRight[node] != 0){
+					stack[stackSize++] = node + 1;
+					stack[stackSize++] = nodeRight[node];
+				}else{
+					for(int i=nodeStart[node]; i<nodeStart[node] + nodeSize[node]; ++i){
+						if(intersects(boxBounds, boxOrder[i]*6, minX, minY, minZ, maxX, maxY, maxZ)){
+							intersectingBoxes.add(boxArray[boxOrder[i]]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Returns true if any box intersects the passed-in bounds.
+	 *  This uses the same logic as {@link BoundingBox#intersects(BoundingBox)}.
+	 */
+	public synchronized boolean hasIntersecting(Collection<BoundingBox> boxes, double minX, double minY, double minZ, double maxX, double maxY, double maxZ){
+		update(boxes);
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0){
+			int node = stack[--stackSize];
+			if(intersects(nodeBounds, node*6, minX, minY, minZ, maxX, maxY, maxZ)){
+				if(nodeRight[node] != 0){
+					stack[stackSize++] = node + 1;
+					stack[stackSize++] = nodeRight[node];
+				}else{
+					for(int i=nodeStart[node]; i<nodeStart[node] + nodeSize[node]; ++i){
+						if(intersects(boxBounds, boxOrder[i]*6, minX, minY, minZ, maxX, maxY, maxZ)){
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 *  Returns how far the passed-in bounds can move by the passed-in offset on the passed-in axis (0 for X, 1 for Y, 2 for Z)
+	 *  before hitting a box.  This is the offset itself if nothing is in the way.  Boxes that don't overlap the bounds on the
+	 *  other two axes, or that are already overlapped on the movement axis, are ignored, the same as MC's AABB offset checks.
+	 *  Nodes that can't have a box in the range the movement covers are skipped entirely.
+	 */
+	public synchronized double getClippedOffset(Collection<BoundingBox> boxes, int axis, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double offset){
+		if(offset == 0){
+			return offset;
+		}
+		update(boxes);
+		queryBounds[0] = minX;
+		queryBounds[1] = minY;
+		queryBounds[2] = minZ;
+		queryBounds[3] = maxX;
+		queryBounds[4] = maxY;
+		queryBounds[5] = maxZ;
+		int axisA = (axis + 1)%3;
+		int axisB = (axis + 2)%3;
+		double boxMin = queryBounds[axis];
+		double boxMax = queryBounds[3 + axis];
+		double boxMinA = queryBounds[axisA];
+		double boxMaxA = queryBounds[3 + axisA];
+		double boxMinB = queryBounds[axisB];
+		double boxMaxB = queryBounds[3 + axisB];
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+		while(stackSize > 0){
+			int node = stack[--stackSize];
+			int index = node*6;
+			if(boxMaxA > nodeBounds[index + axisA] && boxMinA < nodeBounds[index + 3 + axisA] && boxMaxB > nodeBounds[index + axisB] && boxMinB < nodeBounds[index + 3 + axisB]){
+				if(offset > 0 ? (nodeBounds[index + 3 + axis] >= boxMax && nodeBounds[index + axis] < boxMax + offset) : (nodeBounds[index + axis] <= boxMin && nodeBounds[index + 3 + axis] > boxMin + offset)){
+					if(nodeRight[node] != 0){
+						stack[stackSize++] = node + 1;
+						stack[stackSize++] = nodeRight[node];
+					}else{
+						for(int i=nodeStart[node]; i<nodeStart[node] + nodeSize[node]; ++i){
+							int boxIndex = boxOrder[i]*6;
+							if(boxMaxA > boxBounds[boxIndex + axisA] && boxMinA < boxBounds[boxIndex + 3 + axisA] && boxMaxB > boxBounds[boxIndex + axisB] && boxMinB < boxBounds[boxIndex + 3 + axisB]){
+								if(offset > 0){
+									//Positive offset, box.max <= testBox.min.
+									double collisionDepth = boxBounds[boxIndex + axis] - boxMax;
+									if(collisionDepth >= 0 && collisionDepth < offset){
+										offset = collisionDepth;
+									}
+								}else{
+									//Negative offset, box.min >= testBox.max.
+									double collisionDepth = boxBounds[boxIndex + 3 + axis] - boxMin;
+									if(collisionDepth <= 0 && collisionDepth > offset){
+										offset = collisionDepth;
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 *  Updates the tree if it is dirty.  If the passed-in boxes are the same as the ones the tree was built with,
+	 *  the tree is re-fit.  Otherwise, it is re-built.
+	 */
+	private void update(Collection<BoundingBox> boxes){
+		if(!dirty){
+			return;
+		}
+		dirty = false;
+
+		boolean sameBoxes = boxes.size() == boxCount;
+		if(sameBoxes){
+			int boxIndex = 0;
+			for(BoundingBox box : boxes){
+				if(boxArray[boxIndex++] != box){
+					sameBoxes = false;
+					break;
+				}
+			}
+		}
+		if(sameBoxes){
+			refit();
+		}else{
+			rebuild(boxes);
+		}
+	}
+
+	/**
+	 *  Re-fits all node bounds to the current box positions.  Child nodes always come
+	 *  after their parents, so going backwards through the nodes updates children first.
+	 */
+	private void refit(){
+		for(int i=0; i<boxCount; ++i){
+			setBoxBounds(i);
+		}
+		for(int node=nodeCount-1; node>=0; --node){
+			int index = node*6;
+			clearBounds(nodeBounds, index);
+			if(nodeRight[node] != 0){
+				addBounds(nodeBounds, index, nodeBounds, (node + 1)*6);
+				addBounds(nodeBounds, index, nodeBounds, nodeRight[node]*6);
+			}else{
+				for(int i=nodeStart[node]; i<nodeStart[node] + nodeSize[node]; ++i){
+					addBounds(nodeBounds, index, boxBounds, boxOrder[i]*6);
+				}
+			}
+		}
+	}
+
+	/**
+	 *  Re-builds the tree from scratch for the passed-in boxes.  Arrays are only re-allocated
+	 *  if they are too small, so re-building doesn't make garbage unless the entity grew.
+	 */
+	private void rebuild(Collection<BoundingBox> boxes){
+		boxCount = boxes.size();
+		if(boxArray.length < boxCount){
+			int maxNodes = 2*boxCount;
+			boxArray = new BoundingBox[boxCount];
+			boxOrder = new int[boxCount];
+			boxBounds = new double[boxCount*6];
+			nodeBounds = new double[maxNodes*6];
+			nodeStart = new int[maxNodes];
+			nodeSize = new int[maxNodes];
+			nodeRight = new int[maxNodes];
+			stack = new int[maxNodes + 1];
+		}
+
+		int boxIndex = 0;
+		for(BoundingBox box : boxes){
+			boxArray[boxIndex] = box;
+			boxOrder[boxIndex] = boxIndex;
+			setBoxBounds(boxIndex);
+			++boxIndex;
+		}
+		//Don't hold onto boxes that were removed from the collection.
+		Arrays.fill(boxArray, boxCount, boxArray.length, null);
+
+		nodeCount = 0;
+		buildNode(0, boxCount);
+	}
+
+	/**
+	 *  Builds a node for the boxes between start and end in the box order, and all nodes under it.
+	 *  Boxes are split at the middle of their centers on the longest axis.  Returns the index of the node.
+	 */
+	private int buildNode(int start, int end){
+		int node = nodeCount++;
+		int index = node*6;
+		clearBounds(nodeBounds, index);
+		for(int j=0; j<3; ++j){
+			centerMin[j] = Double.MAX_VALUE;
+			centerMax[j] = -Double.MAX_VALUE;
+		}
+		for(int i=start; i<end; ++i){
+			int boxIndex = boxOrder[i]*6;
+			addBounds(nodeBounds, index, boxBounds, boxIndex);
+			for(int j=0; j<3; ++j){
+				double center = (boxBounds[boxIndex + j] + boxBounds[boxIndex + 3 + j])/2D;
+				centerMin[j] = Math.min(centerMin[j], center);
+				centerMax[j] = Math.max(centerMax[j], center);
+			}
+		}
+
+		if(end - start <= LEAF_SIZE){
+			nodeStart[node] = start;
+			nodeSize[node] = end - start;
+			nodeRight[node] = 0;
+			return node;
+		}
+
+		//Partition the boxes on the longest axis of their centers.
+		int axis = 0;
+		for(int j=1; j<3; ++j){
+			if(centerMax[j] - centerMin[j] > centerMax[axis] - centerMin[axis]){
+				axis = j;
+			}
+		}
+		double split = (centerMin[axis] + centerMax[axis])/2D;
+		int low = start;
+		int high = end - 1;
+		while(low <= high){
+			int boxIndex = boxOrder[low]*6;
+			if((boxBounds[boxIndex + axis] + boxBounds[boxIndex + 3 + axis])/2D < split){
+				++low;
+			}else{
+				boxOrder[low] = boxOrder[high];
+				boxOrder[high--] = boxIndex/6;
+			}
+		}
+		//If all the boxes are on one side, just split them in half.
+		int middle = low == start || low == end ? (start + end)/2 : low;
+
+		buildNode(start, middle);
+		nodeRight[node] = buildNode(middle, end);
+		return node;
+	}
+
+	/**
+	 *  Sets the bounds for the box at the passed-in index from its current position.
+	 */
+	private void setBoxBounds(int boxIndex){
+		BoundingBox box = boxArray[boxIndex];
+		int index = boxIndex*6;
+		boxBounds[index] = box.globalCenter.x - box.widthRadius;
+		boxBounds[index + 1] = box.globalCenter.y - box.heightRadius;
+		boxBounds[index + 2] = box.globalCenter.z - box.depthRadius;
+		boxBounds[index + 3] = box.globalCenter.x + box.widthRadius;
+		boxBounds[index + 4] = box.globalCenter.y + box.heightRadius;
+		boxBounds[index + 5] = box.globalCenter.z + box.depthRadius;
+	}
+
+	/**
+	 *  Sets the bounds at the index to be inverted, so they contain nothing and nothing can hit them.
+	 */
+	private static void clearBounds(double[] bounds, int index){
+		for(int i=0; i<3; ++i){
+			bounds[index + i] = Double.MAX_VALUE;
+			bounds[index + 3 + i] = -Double.MAX_VALUE;
+		}
+	}
+
+	/**
+	 *  Expands the bounds at the index to contain the other bounds at the other index.
+	 */
+	private static void addBounds(double[] bounds, int index, double[] otherBounds, int otherIndex){
+		for(int i=0; i<3; ++i){
+			bounds[index + i] = Math.min(bounds[index + i], otherBounds[otherIndex + i]);
+			bounds[index + 3 + i] = Math.max(bounds[index + 3 + i], otherBounds[otherIndex + 3 + i]);
+		}
+	}
+
+	/**
+	 *  Returns true if the bounds at the index intersect the other bounds.
+	 */
+	private static boolean intersects(double[] bounds, int index, double otherMinX, double otherMinY, double otherMinZ, double otherMaxX, double otherMaxY, double otherMaxZ){
+		return 	otherMaxX > bounds[index] &&
+				otherMinX < bounds[index + 3] &&
+				otherMaxY > bounds[index + 1] &&
+				otherMinY < bounds[index + 4] &&
+				otherMaxZ > bounds[index + 2] &&
+				otherMinZ < bounds[index + 5];
+	}
+
+	/**
+	 *  Returns true if the line from start to end passes through the bounds at the index,
+	 *  with the bounds grown by the passed-in padding.
+	 */
+	private static boolean intersectsLine(double[] bounds, int index, double padding, Point3D start, Point3D end){
+		double minDistance = 0;
+		double maxDistance = 1;
+		for(int axis=0; axis<3; ++axis){
+			double min = bounds[index + axis] - padding;
+			double max = bounds[index + 3 + axis] + padding;
+			if(min > max){
+				return false;
+			}
+			double startValue = axis == 0 ? start.x : (axis == 1 ? start.y : start.z);
+			double delta = (axis == 0 ? end.x : (axis == 1 ? end.y : end.z)) - startValue;
+			if(delta == 0){
+				if(startValue < min || startValue > max){
+					return false;
+				}
+			}else{
+				double minPlane = (min - startValue)/delta;
+				double maxPlane = (max - startValue)/delta;
+				minDistance = Math.max(minDistance, Math.min(minPlane, maxPlane));
+				maxDistance = Math.min(maxDistance, Math.max(minPlane, maxPlane));
+				if(minDistance > maxDistance){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -1,5 +1,8 @@
 package minecrafttransportsimulator.baseclasses;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -10,6 +13,9 @@ import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 
 /**Class that manages entities in a world or other area. 
  * This class has various lists and methods for querying the entities.
+ * Interactable entities are also kept in a spatial index made of chunk-sized cells
+ * in the XZ-plane.  This lets systems that want entities in a specific area, such as
+ * collision and hit-scanning, query only the cells in that area rather than every entity.
  *
  * @author don_bruce
  */
@@ -18,7 +24,12 @@ public class EntityManager{
 	public final ConcurrentLinkedQueue<AEntityC_Renderable> renderableEntities = new ConcurrentLinkedQueue<AEntityC_Renderable>();
 	private final ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>> entitiesByClass = new ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>>();
 	private final ConcurrentHashMap<UUID, AEntityA_Base> trackedEntityMap = new ConcurrentHashMap<UUID, AEntityA_Base>();
+	private final ConcurrentHashMap<Integer, AEntityA_Base> syncIDEntityMap = new ConcurrentHashMap<Integer, AEntityA_Base>();
+	private final ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>>> spatialCellsByClass = new ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>>>();
+	private final ConcurrentHashMap<AEntityE_Interactable<?>, int[]> spatialCellSpans = new ConcurrentHashMap<AEntityE_Interactable<?>, int[]>();
 	
+	/**Bit-shift for converting block coordinates to spatial cell coordinates.  A value of 4 gives 16-block, chunk-sized cells.**/
+	private static final int SPATIAL_CELL_SHIFT = 4;
    
    /**
     * Adds the entity to the world.  This will make it get update ticks and be rendered
@@ -42,6 +53,15 @@ public class EntityManager{
 	   classList.add(entity);
 	   if(entity.shouldSync()){
 		   trackedEntityMap.put(entity.uniqueUUID, entity);
+		   if(entity.syncID != 0){
+			   syncIDEntityMap.put(entity.syncID, entity);
+		   }
+	   }
+	   if(entity instanceof AEntityE_Interactable){
+		   AEntityE_Interactable<?> interactable = (AEntityE_Interactable<?>) entity;
+		   int[] cellSpan = getCellSpan(interactable.encompassingBox);
+		   spatialCellSpans.put(interactable, cellSpan);
+		   addToCells(interactable, cellSpan);
 	   }
    }
    
@@ -53,6 +73,14 @@ public class EntityManager{
 	   return (EntityType) trackedEntityMap.get(uniqueUUID);
    }
    
+   /**
+    * Gets the entity with the requested sync ID, or null if there isn't one.
+    */
+   @SuppressWarnings("unchecked")
+   public <EntityType extends AEntityA_Base> EntityType getEntity(int syncID){
+	   return (EntityType) syncIDEntityMap.get(syncID);
+   }
+   
    /**
     * Gets the list of all entities of the specified class.
     */
@@ -66,6 +94,56 @@ public class EntityManager{
 	   return classListing;
    }
    
+   /**
+    * Gets a list of all entities of the specified class whose {@link AEntityE_Interactable#encompassingBox}
+    * intersects the passed-in bounds.  Unlike {@link #getEntitiesOfType(Class)}, this only checks entities
+    * in the spatial cells the bounds cover, so the cost depends on how many entities are near the bounds
+    * rather than how many are in the world.  The returned list is a new list and may be freely modified.
+    */
+   @SuppressWarnings("unchecked")
+   public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntitiesOfTypeWithin(Class<EntityType> entityClass, BoundingBox bounds){
+	   List<EntityType> entities = new ArrayList<EntityType>();
+	   ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>> cells = spatialCellsByClass.get(entityClass);
+	   if(cells != null && !cells.isEmpty()){
+		   int[] boundsSpan = getCellSpan(bounds);
+		   for(int cellX=boundsSpan[0]; cellX<=boundsSpan[2]; ++cellX){
+			   for(int cellZ=boundsSpan[1]; cellZ<=boundsSpan[3]; ++cellZ){
+				   Set<AEntityE_Interactable<?>> cell = cells.get(getCellKey(cellX, cellZ));
+				   if(cell != null){
+					   for(AEntityE_Interactable<?> entity : cell){
+						   //Entities can span multiple cells.  Only check them in the first cell the bounds
+						   //share with them to prevent adding them to the list multiple times.
+						   int[] entitySpan = spatialCellSpans.get(entity);
+						   if(entitySpan != null && cellX == Math.max(boundsSpan[0], entitySpan[0]) && cellZ == Math.max(boundsSpan[1], entitySpan[1])){
+							   if(entity.encompassingBox.intersects(bounds)){
+								   entities.add((EntityType) entity);
+							   }
+						   }
+					   }
+				   }
+			   }
+		   }
+	   }
+	   return entities;
+   }
+   
+   /**
+    * Updates the spatial index for the passed-in entity.  This should be called any time the
+    * {@link AEntityE_Interactable#encompassingBox} of the entity changes.  If the entity
+    * hasn't been added to this manager yet, or its box is still in the same cells, this does nothing.
+    */
+   public void updateSpatialIndex(AEntityE_Interactable<?> entity){
+	   int[] oldSpan = spatialCellSpans.get(entity);
+	   if(oldSpan != null){
+		   int[] newSpan = getCellSpan(entity.encompassingBox);
+		   if(oldSpan[0] != newSpan[0] || oldSpan[1] != newSpan[1] || oldSpan[2] != newSpan[2] || oldSpan[3] != newSpan[3]){
+			   removeFromCells(entity, oldSpan);
+			   spatialCellSpans.put(entity, newSpan);
+			   addToCells(entity, newSpan);
+		   }
+	   }
+   }
+   
    /**
     * Returns the closest entity of the specified class that intersects the ray-traced line,
     * or null if none does. This up-scales the entity Bounding Boxes to
@@ -75,23 +153,15 @@ public class EntityManager{
 	   BoundingBox closestBox = null;
 	   EntityType closestEntity = null;
 	   BoundingBox clickBounds = new BoundingBox(start, end);
-	   for(EntityType entity : getEntitiesOfType(entityClass)){
-		   if(!entity.equals(entityToIgnore) && entity.encompassingBox.intersects(clickBounds)){
+	   List<BoundingBox> hitBoxes = new ArrayList<BoundingBox>();
+	   for(EntityType entity : getEntitiesOfTypeWithin(entityClass, clickBounds)){
+		   if(!entity.equals(entityToIgnore)){
 				//Could have hit this entity, check if we did via raytracing.
-				for(BoundingBox box : entity.getInteractionBoxes()){
-					boolean intersects;
-					if(generalArea){
-						box.widthRadius += 2;
-						box.heightRadius += 2;
-						box.depthRadius += 2;
-						intersects = box.intersects(clickBounds) && box.getIntersectionPoint(start, end) != null;
-						box.widthRadius -= 2;
-						box.heightRadius -= 2;
-						box.depthRadius -= 2;
-					}else{
-						intersects = box.intersects(clickBounds) && box.getIntersectionPoint(start, end) != null; 
-					}
-					if(intersects){
+				//For general area checks, the tree inflates the boxes for us, so we don't need to check the exact hit point.
+				hitBoxes.clear();
+				entity.getRaytracedInteractionBoxes(start, end, generalArea ? 2 : 0, hitBoxes);
+				for(BoundingBox box : hitBoxes){
+					if(generalArea || box.getIntersectionPoint(start, end) != null){
 						if(closestBox == null || start.isFirstCloserThanSecond(box.globalCenter, closestBox.globalCenter)){
 							closestBox = box;
 							closestEntity = entity;
@@ -114,6 +184,78 @@ public class EntityManager{
 	   entitiesByClass.get(entity.getClass()).remove(entity);
 	   if(entity.shouldSync()){
 		   trackedEntityMap.remove(entity.uniqueUUID);
+		   if(entity.syncID != 0){
+			   syncIDEntityMap.remove(entity.syncID, entity);
+		   }
+	   }
+	   if(entity instanceof AEntityE_Interactable){
+		   int[] cellSpan = spatialCellSpans.remove(entity);
+		   if(cellSpan != null){
+			   removeFromCells((AEntityE_Interactable<?>) entity, cellSpan);
+		   }
 	   }
    }
+   
+   /**
+    * Adds the entity to all cells in the passed-in span.
+    */
+   private void addToCells(AEntityE_Interactable<?> entity, int[] cellSpan){
+	   ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>> cells = spatialCellsByClass.get(entity.getClass());
+	   if(cells == null){
+		   cells = new ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>>();
+		   spatialCellsByClass.put(entity.getClass(), cells);
+	   }
+	   for(int cellX=cellSpan[0]; cellX<=cellSpan[2]; ++cellX){
+		   for(int cellZ=cellSpan[1]; cellZ<=cellSpan[3]; ++cellZ){
+			   long cellKey = getCellKey(cellX, cellZ);
+			   Set<AEntityE_Interactable<?>> cell = cells.get(cellKey);
+			   if(cell == null){
+				   cell = ConcurrentHashMap.newKeySet();
+				   cells.put(cellKey, cell);
+			   }
+			   cell.add(entity);
+		   }
+	   }
+   }
+   
+   /**
+    * Removes the entity from all cells in the passed-in span.  Cells that are empty after
+    * removal are removed from the index to keep it from growing as entities move around the world.
+    */
+   private void removeFromCells(AEntityE_Interactable<?> entity, int[] cellSpan){
+	   ConcurrentHashMap<Long, Set<AEntityE_Interactable<?>>> cells = spatialCellsByClass.get(entity.getClass());
+	   if(cells != null){
+		   for(int cellX=cellSpan[0]; cellX<=cellSpan[2]; ++cellX){
+			   for(int cellZ=cellSpan[1]; cellZ<=cellSpan[3]; ++cellZ){
+				   long cellKey = getCellKey(cellX, cellZ);
+				   Set<AEntityE_Interactable<?>> cell = cells.get(cellKey);
+				   if(cell != null){
+					   cell.remove(entity);
+					   if(cell.isEmpty()){
+						   cells.remove(cellKey);
+					   }
+				   }
+			   }
+		   }
+	   }
+   }
+   
+   /**
+    * Returns the span of cells the passed-in box covers, as minX, minZ, maxX, maxZ.
+    */
+   private static int[] getCellSpan(BoundingBox box){
+	   return new int[]{
+		   ((int) Math.floor(box.globalCenter.x - box.widthRadius)) >> SPATIAL_CELL_SHIFT,
+		   ((int) Math.floor(box.globalCenter.z - box.depthRadius)) >> SPATIAL_CELL_SHIFT,
+		   ((int) Math.floor(box.globalCenter.x + box.widthRadius)) >> SPATIAL_CELL_SHIFT,
+		   ((int) Math.floor(box.globalCenter.z + box.depthRadius)) >> SPATIAL_CELL_SHIFT
+	   };
+   }
+   
+   /**
+    * Returns the key for the cell at the passed-in cell coordinates.
+    */
+   private static long getCellKey(int cellX, int cellZ){
+	   return (((long) cellX) << 32) | (cellZ & 0xFFFFFFFFL);
+   }
 }
\ No newline at end of file
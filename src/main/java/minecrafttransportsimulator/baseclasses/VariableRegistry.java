@@ -0,0 +1,72 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+
+/**Global registry of variable names.  Every variable name that gets set on an entity is assigned
+ * an int ID here, which is then used as the slot index in the entity's variable array.  This lets
+ * code that knows which variable it wants skip the String hashing and Double boxing of a map lookup.
+ * IDs are only valid for the life of the running game, and are NOT the same on clients and servers,
+ * so anything that is saved or sent over the network must use the name instead.
+ * See {@link AEntityD_Definable#getVariable(int)} and its sister methods for how these are used.
+ *
+ * @author don_bruce
+ */
+public final class VariableRegistry{
+	private static final Map<String, Integer> variableIDs = new ConcurrentHashMap<String, Integer>();
+	private static volatile String[] variableNames = new String[256];
+	private static volatile int variableCount;
+
+	/**
+	 *  Returns the ID for the passed-in variable name, registering it if it doesn't exist.
+	 */
+	public static int getID(String variable){
+		Integer variableID = variableIDs.get(variable);
+		return variableID != null ? variableID : register(variable);
+	}
+
+	/**
+	 *  Returns the ID for the passed-in variable name, or -1 if it hasn't been registered.
+	 *  Use this for read-only lookups so random queries don't fill up the registry.
+	 */
+	public static int getExistingID(String variable){
+		Integer variableID = variableIDs.get(variable);
+		return variableID != null ? variableID : -1;
+	}
+
+	/**
+	 *  Returns the name for the passed-in variable ID.
+	 */
+	public static String getName(int variableID){
+		return variableNames[variableID];
+	}
+
+	/**
+	 *  Returns the number of variables registered.  All IDs are less than this number.
+	 */
+	public static int getCount(){
+		return variableCount;
+	}
+
+	private static synchronized int register(String variable){
+		//Check again in case another thread registered this while we were waiting.
+		Integer variableID = variableIDs.get(variable);
+		if(variableID != null){
+			return variableID;
+		}
+
+		//Name needs to be stored before the ID is published so lookups never see an ID without a name.
+		int newID = variableCount;
+		if(newID == variableNames.length){
+			String[] newNames = new String[variableNames.length*2];
+			System.arraycopy(variableNames, 0, newNames, 0, variableNames.length);
+			variableNames = newNames;
+		}
+		variableNames[newID] = variable;
+		variableCount = newID + 1;
+		variableIDs.put(variable, newID);
+		return newID;
+	}
+}
@@ -310,14 +310,14 @@ public class VehicleGroundDeviceBox{
 		//Transform operates off contact points, so get the world-based transform delta the transform will apply to our contact point.
 		Point3D vehicleMotionOffset = contactPoint.copy().transform(transform).subtract(contactPoint).rotate(vehicle.orientation).rotate(vehicle.rotation).addScaled(vehicle.motion, vehicle.speedFactor).add(groundMotion);
 		if(!groundDevices.isEmpty()){
-			if(vehicle.world.checkForCollisions(solidBox, vehicleMotionOffset, false)){
+			if(vehicle.world.checkForCollisions(solidBox, vehicleMotionOffset)){
 				return true;
 			}
 		}
 		
 		if(!canRollOnGround || !isAbleToDoGroundOperations){
 			if(!liquidDevices.isEmpty() || !liquidCollisionBoxes.isEmpty()){
-				if(vehicle.world.checkForCollisions(liquidBox, vehicleMotionOffset, false)){
+				if(vehicle.world.checkForCollisions(liquidBox, vehicleMotionOffset)){
 					return true;
 				}
 			}
@@ -330,8 +330,8 @@ public class VehicleGroundDeviceBox{
 	 */
 	private boolean checkEntityCollisions(Point3D collisionMotion){
 		boolean didCollision = false;
-		for(EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesOfType(EntityVehicleF_Physics.class)){
-			if(!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle) && otherVehicle.encompassingBox.intersects(solidBox)){
+		for(EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, solidBox)){
+			if(!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle)){
 				//We know we could have hit this entity.  Check if we actually did.
 				BoundingBox collidingBox = null;
 				double boxCollisionDepth = 0;
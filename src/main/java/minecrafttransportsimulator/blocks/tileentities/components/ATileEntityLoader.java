@@ -59,9 +59,9 @@ public abstract class ATileEntityLoader extends TileEntityDecor{
 		}
 		if(nearestPart != null){
 			connectToPart(nearestPart);
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityLoaderConnection(this, true));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityLoaderConnection(this, true), this);
 		}else if(connectedPart != null){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityLoaderConnection(this, false));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityLoaderConnection(this, false), this);
 			connectToPart(null);
 		}
 	}
@@ -70,8 +70,8 @@ public class TileEntityDecor extends ATileEntityBase<JSONDecor>{
 		if(!world.isClient()){
 			setVariable(CLICKED_VARIABLE, 1);
 			toggleVariable(ACTIVATED_VARIABLE);
-			InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, CLICKED_VARIABLE, 1));
-			InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ACTIVATED_VARIABLE));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, CLICKED_VARIABLE, 1), this);
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(this, ACTIVATED_VARIABLE), this);
 		}
 		return true;
 	}
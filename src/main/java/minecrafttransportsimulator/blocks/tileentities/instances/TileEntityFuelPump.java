@@ -92,7 +92,7 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 			
 			//Check distance to make sure the vehicle hasn't moved away.
 			if(!connectedVehicle.position.isDistanceToCloserThan(position, 15)){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityFuelPumpConnection(this, false), this);
 				for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 25, 25, 25))){
 					if(entity instanceof IWrapperPlayer){
 						((IWrapperPlayer) entity).sendPacket(new PacketPlayerChatMessage((IWrapperPlayer) entity, JSONConfigLanguage.INTERACT_FUELPUMP_TOOFAR));
@@ -111,7 +111,7 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 					tank.drain(tank.getFluid(), amountToDrain, true);
 				}else{
 					//No more room in the vehicle.  Disconnect.
-					InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityFuelPumpConnection(this, false), this);
 					connectedVehicle.beingFueled = false;
 					connectedVehicle = null;
 					for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
@@ -122,7 +122,7 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 				}
 			}else{
 				//No more fuel.  Disconnect vehicle.
-				InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityFuelPumpConnection(this, false), this);
 				connectedVehicle.beingFueled = false;
 				connectedVehicle = null;
 				for(IWrapperEntity entity : world.getEntitiesWithin(new BoundingBox(position, 16, 16, 16))){
@@ -176,7 +176,8 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 			//Get the closest vehicle within a 16-block radius.
 			EntityVehicleF_Physics nearestVehicle = null;
 			double lowestDistance = 16D;
-			for(EntityVehicleF_Physics testVehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
+			BoundingBox searchBounds = new BoundingBox(position, lowestDistance, lowestDistance, lowestDistance);
+			for(EntityVehicleF_Physics testVehicle : world.getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, searchBounds)){
 				double vehicleDistance = testVehicle.position.distanceTo(position);
 				if(vehicleDistance < lowestDistance){
 					lowestDistance = vehicleDistance;
@@ -205,7 +206,7 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 								connectedVehicle = nearestVehicle;
 								connectedVehicle.beingFueled = true;
 								tank.resetAmountDispensed();
-								InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, true));
+								InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityFuelPumpConnection(this, true), this);
 								player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_FUELPUMP_CONNECT));
 	    						return true;
 							}
@@ -218,7 +219,7 @@ public class TileEntityFuelPump extends TileEntityDecor implements ITileEntityFl
 			}
 		}else{
 			//Connected vehicle exists, disconnect it.
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityFuelPumpConnection(this, false));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityFuelPumpConnection(this, false), this);
 			connectedVehicle.beingFueled = false;
 			connectedVehicle = null;
 			player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_FUELPUMP_DISCONNECT));
@@ -104,7 +104,7 @@ public class TileEntityPole extends ATileEntityBase<JSONPoleComponent>{
 					ATileEntityPole_Component component = components.get(axis);
 					if(player.isCreative() || player.getInventory().addStack(component.getItem().getNewStack(component.save(InterfaceManager.coreInterface.getNewNBTWrapper())))){
 						changeComponent(axis, null);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityPoleChange(this, player, axis, null));
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityPoleChange(this, player, axis, null), this);
 					}
 					return true;
 				}
@@ -122,7 +122,7 @@ public class TileEntityPole extends ATileEntityBase<JSONPoleComponent>{
 				if(!player.isCreative()){
 					player.getInventory().removeStack(player.getHeldStack(), 1);
 				}
-				InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityPoleChange(this, player, axis, newComponent.save(InterfaceManager.coreInterface.getNewNBTWrapper())));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityPoleChange(this, player, axis, newComponent.save(InterfaceManager.coreInterface.getNewNBTWrapper())), this);
 				return true;
 			}
 		}
@@ -262,7 +262,7 @@ public class TileEntityPole extends ATileEntityBase<JSONPoleComponent>{
 		
 		//Send packet to clients to update them.
 		if(sendToClient && !world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityPoleCollisionUpdate(this));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityPoleCollisionUpdate(this), this);
 		}
 	}
 	
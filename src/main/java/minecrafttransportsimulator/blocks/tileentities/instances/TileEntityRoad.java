@@ -312,12 +312,12 @@ public class TileEntityRoad extends ATileEntityBase<JSONRoadComponent>{
 			}
 			collidingBlockOffsets.clear();
 			setActive(true);
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityRoadCollisionUpdate(this));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityRoadCollisionUpdate(this), this);
 			return true;
 		}else{
 			collisionBlockOffsets.clear();
 			player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_ROAD_BLOCKINGBLOCKS));
-			InterfaceManager.packetInterface.sendToAllClients(new PacketTileEntityRoadCollisionUpdate(this));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketTileEntityRoadCollisionUpdate(this), this);
 			return false;
 		}
 	}
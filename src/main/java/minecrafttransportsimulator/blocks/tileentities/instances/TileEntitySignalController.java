@@ -6,6 +6,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
@@ -347,7 +348,11 @@ public class TileEntitySignalController extends TileEntityDecor{
 									//Just wait until the other signals don't have any cooldown, then set them red.
 									stateChangeRequested = true;
 								}else{
-									for(EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
+									//Only check vehicles near the intersection.  The signal line is rotated, so use
+									//a box that will contain it no matter what direction it faces.
+									double searchRadius = Math.abs(signalLineCenter.x) + signalLineWidth/2D + Math.abs(signalLineCenter.z) + 16;
+									BoundingBox searchBounds = new BoundingBox(intersectionCenterPoint, searchRadius, searchRadius, searchRadius);
+									for(EntityVehicleF_Physics vehicle : world.getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, searchBounds)){
 										Point3D adjustedPos = vehicle.position.copy().subtract(intersectionCenterPoint).reOrigin(axis.rotation);
 										if(adjustedPos.x > signalLineCenter.x - signalLineWidth/2D && adjustedPos.x < signalLineCenter.x + signalLineWidth/2D && adjustedPos.z > signalLineCenter.z && adjustedPos.z < signalLineCenter.z + 16){
 											//Vehicle present.  If we are blocked, send the respective signal states to the other signals to change them.
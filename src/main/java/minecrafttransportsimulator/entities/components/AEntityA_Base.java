@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.entities.components;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
@@ -21,10 +22,17 @@ import minecrafttransportsimulator.mcinterface.IWrapperNBT;
  * @author don_bruce
  */
 public abstract class AEntityA_Base{
+	/**Key for the {@link #syncID} in the data sent to clients.  Not saved to disk, as IDs are per-session.**/
+	public static final String SYNC_ID_KEY = "syncID";
+	private static final AtomicInteger nextSyncID = new AtomicInteger(1);
+	
 	/**The world this entity is a part of.**/
 	public final AWrapperWorld world;
 	/**A unique ID for this entity.  This is only set when this entity is first spawned, and never changes, even on save/load operations.  Ideal if you need a static reference to the entity.**/
 	public final UUID uniqueUUID;
+	/**A small ID for this entity that is only valid for the current play session.  Assigned by the server and sent to clients when
+	 * they get the entity's data.  Used by packets in place of {@link #uniqueUUID} when packet size matters.  0 if not assigned.**/
+	public final int syncID;
 	/**True as long as this entity is part of the world and being ticked.  May be set false internally or externally to remove this entity from the world.**/
 	public boolean isValid = true;
 	/**Returns true if this entity was newly created and not loaded from saved data.  More formally, it checks if the {@link #uniqueUUID} was not stored in the data, or if the data was null.
@@ -49,6 +57,15 @@ public abstract class AEntityA_Base{
 		}else{
 			this.uniqueUUID = UUID.randomUUID();
 		}
+		
+		//Servers make new sync IDs, clients get them from the server's data.
+		if(!shouldSync()){
+			this.syncID = 0;
+		}else if(world.isClient()){
+			this.syncID = data != null ? data.getInteger(SYNC_ID_KEY) : 0;
+		}else{
+			this.syncID = nextSyncID.getAndIncrement();
+		}
 	}
 	
 	 /**
@@ -5,6 +5,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -14,8 +15,8 @@ import java.util.Map.Entry;
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.instances.APart;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
@@ -36,11 +37,15 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
+import minecrafttransportsimulator.rendering.instances.RenderText;
 import minecrafttransportsimulator.sound.SoundInstance;
 import minecrafttransportsimulator.systems.CameraSystem;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
+import minecrafttransportsimulator.systems.ParticleSystem;
 
 /**Base class for entities that are defined via JSON definitions and can be modeled in 3D.
  * This level adds various method for said definitions, which include rendering functions. 
@@ -62,8 +67,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	/**Map containing text lines for saved text provided by this entity.**/
 	public final LinkedHashMap<JSONText, String> text = new LinkedHashMap<JSONText, String>();
 	
-	/**Map of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.**/
-	protected final Map<String, Double> variables = new HashMap<String, Double>();
+	/**Array of variable values, indexed by {@link VariableRegistry} ID.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.**/
+	private double[] variableValues = new double[VariableRegistry.getCount()];
+	/**Set of which slots in {@link #variableValues} are active.  Inactive slots are treated as if the variable doesn't exist.**/
+	private final BitSet activeVariables = new BitSet();
 	
 	private final List<JSONSound> allSoundDefs = new ArrayList<JSONSound>();
 	private final Map<JSONSound, AnimationSwitchbox> soundActiveSwitchboxes = new HashMap<JSONSound, AnimationSwitchbox>();
@@ -110,16 +117,16 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		
 		//Load variables.
 		for(String variableName : data.getStrings("variables")){
-			variables.put(variableName, data.getDouble(variableName));
+			putVariable(VariableRegistry.getID(variableName), data.getDouble(variableName));
 		}
 		if(newlyCreated && definition.rendering != null && definition.rendering.initialVariables != null){
 			for(String variable : definition.rendering.initialVariables){
-				variables.put(variable, 1D);
+				putVariable(VariableRegistry.getID(variable), 1);
 			}
 		}
 		if(definition.rendering != null && definition.rendering.constants != null){
 			for(String variable : definition.rendering.constants){
-				variables.put(variable, 1D);
+				putVariable(VariableRegistry.getID(variable), 1);
 			}
 		}
 	}
@@ -133,7 +140,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		//Add constants.
 		if(definition.rendering != null && definition.rendering.constants != null){
 			for(String variable : definition.rendering.constants){
-				variables.put(variable, 1D);
+				putVariable(VariableRegistry.getID(variable), 1);
 			}
 		}
 	}
@@ -263,6 +270,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 			for(SoundInstance sound : sounds){
 				sound.stopSound = true;
 			}
+			//Free any text we rendered.
+			if(world.isClient()){
+				RenderText.clearTextMeshes(this);
+			}
 		}
 	}
 	
@@ -367,7 +378,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 					if(spawningSwitchbox != null){
 						spawningSwitchbox.runSwitchbox(partialTicks, false);
 					}
-					world.addEntity(new EntityParticle(this, particleDef, spawningSwitchbox));
+					ParticleSystem.spawnParticle(this, particleDef, spawningSwitchbox);
 				}
 			}
     	}
@@ -604,25 +615,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  This should be extended on all sub-classes for them to provide their own variables.
 	 *  For all cases of this, the sub-classed variables should be checked first.  If none are
 	 *  found, then the super() method should be called to return those as a default.
+	 *  Variables with a {@link BindingType} are the exception: these are resolved at the end of
+	 *  this chain, and their values go in {@link #getTypedVariableValue(BindingType, float)}.
 	 */
 	public double getRawVariableValue(String variable, float partialTicks){
-		switch(variable){
-			case("tick"): return ticksExisted + partialTicks;
-			case("tick_sin"): return Math.sin(Math.toRadians(ticksExisted + partialTicks));
-			case("tick_cos"): return Math.cos(Math.toRadians(ticksExisted + partialTicks));
-			case("time"): return world.getTime();
-			case("rain_strength"): return (int) world.getRainStrength(position);
-			case("rain_sin"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5: 0;
-			}
-			case("rain_cos"): {
-				int rainStrength = (int) world.getRainStrength(position); 
-				return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5 : 0;
-			}	
-			case("light_sunlight"): return world.getLightBrightness(position, false);
-			case("light_total"): return world.getLightBrightness(position, true);
-			case("terrain_distance"): return world.getHeight(position);
+		//Check if this is a typed variable.  Sub-classes don't check these themselves, as the values of
+		//typed variables are only defined in getTypedVariableValue, so we do that here for all of them.
+		BindingType type = getVariableType(variable);
+		if(type != BindingType.NAMED){
+			return getTypedVariableValue(type, partialTicks);
 		}
 		
 		//Check if this is a cycle variable.
@@ -631,31 +632,114 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 			int offTime = Integer.valueOf(parsedVariable[0]);
 			int onTime = Integer.valueOf(parsedVariable[1]);
 			int totalTime = offTime + onTime + Integer.valueOf(parsedVariable[2]);
-			long timeInCycle = ticksExisted%totalTime;
-			return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+			return getCycleValue(offTime, onTime, totalTime);
 		}
 		
 		//Check if this is a text_x_ispresent variable.
 		if(variable.startsWith("text_") && variable.endsWith("_present")){
 			if(definition.rendering != null && definition.rendering.textObjects != null){
-				int textIndex = Integer.valueOf(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
-				if(definition.rendering.textObjects.size() > textIndex){
-					return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
-				}
+				return getTextPresentValue(Integer.valueOf(variable.substring("text_".length(), variable.length() - "_present".length())) - 1);
 			}
 			return 0;
 		}
 		
 		//Check if this is a generic variable.  This contains lights in most cases.
-		Double variableValue = variables.get(variable);
-		if(variableValue != null){
-			return variableValue;
+		int variableID = VariableRegistry.getExistingID(variable);
+		if(variableID != -1 && activeVariables.get(variableID)){
+			return variableValues[variableID];
 		}
 		
 		//Didn't find a variable.  Return NaN.
 		return Double.NaN;
 	}
 	
+	/**
+	 *  Returns the typed binding for the passed-in variable, or {@link BindingType#NAMED} if it should
+	 *  be looked up by name.  Animations call this once when they are created, and look up typed
+	 *  variables with {@link #getTypedVariableValue(BindingType, float)} from then on.
+	 *  Sub-classes that add typed variables should override this to return their types, and return NAMED
+	 *  for any variables they would forward or intercept in {@link #getRawVariableValue(String, float)}
+	 *  before calling super, so the super-class doesn't claim them here.
+	 */
+	public BindingType getVariableType(String variable){
+		switch(variable){
+			case("tick"): return BindingType.TICK;
+			case("tick_sin"): return BindingType.TICK_SIN;
+			case("tick_cos"): return BindingType.TICK_COS;
+			case("time"): return BindingType.TIME;
+			case("rain_strength"): return BindingType.RAIN_STRENGTH;
+			case("rain_sin"): return BindingType.RAIN_SIN;
+			case("rain_cos"): return BindingType.RAIN_COS;
+			case("light_sunlight"): return BindingType.LIGHT_SUNLIGHT;
+			case("light_total"): return BindingType.LIGHT_TOTAL;
+			case("terrain_distance"): return BindingType.TERRAIN_DISTANCE;
+			default: return BindingType.NAMED;
+		}
+	}
+
+	/**
+	 *  Returns the value of the passed-in typed variable, as returned by {@link #getVariableType(String)}.
+	 *  This is the only place the values of typed variables are defined, as both the String and binding
+	 *  lookups come here for them.  Sub-classes that add types should handle them here and call super for
+	 *  all others.  If the type isn't one of this entity's, NaN is returned.
+	 */
+	public double getTypedVariableValue(BindingType type, float partialTicks){
+		switch(type){
+			case TICK: return ticksExisted + partialTicks;
+			case TICK_SIN: return Math.sin(Math.toRadians(ticksExisted + partialTicks));
+			case TICK_COS: return Math.cos(Math.toRadians(ticksExisted + partialTicks));
+			case TIME: return world.getTime();
+			case RAIN_STRENGTH: return (int) world.getRainStrength(position);
+			case RAIN_SIN: {
+				int rainStrength = (int) world.getRainStrength(position);
+				return rainStrength > 0 ? Math.sin(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5: 0;
+			}
+			case RAIN_COS: {
+				int rainStrength = (int) world.getRainStrength(position);
+				return rainStrength > 0 ? Math.cos(rainStrength*Math.toRadians(360*(ticksExisted + partialTicks)/20))/2D + 0.5 : 0;
+			}
+			case LIGHT_SUNLIGHT: return world.getLightBrightness(position, false);
+			case LIGHT_TOTAL: return world.getLightBrightness(position, true);
+			case TERRAIN_DISTANCE: return world.getHeight(position);
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 *  Like {@link #getRawVariableValue(String, float)}, but uses a pre-resolved binding.
+	 *  Bindings whose value depends only on the parsed name are evaluated here directly, and
+	 *  typed bindings are passed to {@link #getTypedVariableValue(BindingType, float)}.
+	 *  NAMED bindings are passed to the String-based method with their pre-stripped name.
+	 *  Sub-classes only need to override this for bindings that need more than their type.
+	 *  Note that inversion is NOT applied here, as callers need to handle NaN first.
+	 */
+	public double getRawVariableValue(AnimationVariableBinding binding, float partialTicks){
+		switch(binding.type){
+			case NAMED: return getRawVariableValue(binding.name, partialTicks);
+			case CYCLE: return getCycleValue(binding.cycleOffTime, binding.cycleOnTime, binding.cycleTotalTime);
+			case TEXT_PRESENT: return getTextPresentValue(binding.textIndex);
+			default: return getTypedVariableValue(binding.type, partialTicks);
+		}
+	}
+	
+	/**
+	 *  Returns 1 if the current tick is in the on part of the passed-in cycle, and 0 if not.
+	 */
+	private double getCycleValue(int offTime, int onTime, int totalTime){
+		long timeInCycle = ticksExisted%totalTime;
+		return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+	}
+	
+	/**
+	 *  Returns 1 if the text object at the passed-in index has text, and 0 if not, or if there is no such object.
+	 */
+	private double getTextPresentValue(int textIndex){
+		if(textIndex >= 0 && definition.rendering != null && definition.rendering.textObjects != null && definition.rendering.textObjects.size() > textIndex){
+			return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
+		}
+		return 0;
+	}
+	
 	/**
 	 *  Similar to {@link #getRawVariableValue(String, float)}, but returns
 	 *  a String for text-based parameters rather than a double.  If no match
@@ -672,15 +756,12 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  the scale parameter as only the variable value should be scaled, not the offset..
 	 */
 	public final double getAnimatedVariableValue(DurationDelayClock clock, double scaleFactor, double offset, float partialTicks){
-		double value;
-		if(clock.animation.variable.startsWith("!")){
-			value = getRawVariableValue(clock.animation.variable.substring(1), partialTicks);
+		AnimationVariableBinding binding = clock.variableBinding;
+		double value = getRawVariableValue(binding, partialTicks);
+		if(binding.inverted){
 			value = (value == 0 || Double.isNaN(value)) ? 1 : 0;
-		}else{
-			value = getRawVariableValue(clock.animation.variable, partialTicks);
-			if(Double.isNaN(value)){
-				value = 0;
-			}
+		}else if(Double.isNaN(value)){
+			value = 0;
 		}
 		if(!clock.isUseful){
 			return clampAndScale(value, clock.animation, scaleFactor, offset);
@@ -748,8 +829,22 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  define a number, then -1 is returned.
 	 */
 	public static int getVariableNumber(String variable){
-		if(variable.matches("^.*_[0-9]+$")){
-			return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
+		//Scan backwards over the trailing digits.  This is called a lot, so we don't use regex here.
+		int index = variable.length() - 1;
+		int number = 0;
+		int multiplier = 1;
+		while(index >= 0){
+			char c = variable.charAt(index);
+			if(c >= '0' && c <= '9'){
+				number += (c - '0')*multiplier;
+				multiplier *= 10;
+				--index;
+			}else{
+				break;
+			}
+		}
+		if(index >= 0 && index < variable.length() - 1 && variable.charAt(index) == '_'){
+			return number - 1;
 		}else{
 			return -1;
 		}
@@ -759,10 +854,18 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 *  Helper method to toggle a variable for this entity.
 	 */
 	public void toggleVariable(String variable){
-		//Try to remove the variable,this requires only one key-search operation, unlike a containsKey followed by a remove.
-		if(variables.remove(variable) == null){
-			//No key was in this map prior, so this variable was off, set it on.
-			variables.put(variable, 1D);
+		toggleVariable(VariableRegistry.getID(variable));
+	}
+	
+	/**
+	 *  Like {@link #toggleVariable(String)}, but uses the {@link VariableRegistry} ID.
+	 *  Note that this does NOT do any part-number forwarding, so only use it for variables on this entity.
+	 */
+	public void toggleVariable(int variableID){
+		if(isVariableActive(variableID)){
+			activeVariables.clear(variableID);
+		}else{
+			putVariable(variableID, 1);
 		}
 	}
 	
@@ -771,10 +874,26 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 */
 	public void setVariable(String variable, double value){
 		if(value == 0){
-			//Remove variable from the map so we don't have as many to deal with.
-			variables.remove(variable);
+			//Don't register variables just to turn them off.
+			int variableID = VariableRegistry.getExistingID(variable);
+			if(variableID != -1){
+				setVariable(variableID, 0);
+			}
 		}else{
-			variables.put(variable, value);
+			setVariable(VariableRegistry.getID(variable), value);
+		}
+	}
+	
+	/**
+	 *  Like {@link #setVariable(String, double)}, but uses the {@link VariableRegistry} ID.
+	 *  Note that this does NOT do any part-number forwarding, so only use it for variables on this entity.
+	 */
+	public void setVariable(int variableID, double value){
+		if(value == 0){
+			//Clear the variable so we don't have as many to deal with.
+			activeVariables.clear(variableID);
+		}else{
+			putVariable(variableID, value);
 		}
 	}
 	
@@ -785,6 +904,30 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 	 */
 	public boolean incrementVariable(String variable, double incrementValue, double minValue, double maxValue){
 		double currentValue = getVariable(variable);
+		double newValue = getIncrementedValue(currentValue, incrementValue, minValue, maxValue);
+		if(newValue != currentValue){
+			setVariable(variable, newValue);
+			return true;
+		}else{
+			return false;
+		}
+	}
+	
+	/**
+	 *  Like {@link #incrementVariable(String, double, double, double)}, but uses the {@link VariableRegistry} ID.
+	 */
+	public boolean incrementVariable(int variableID, double incrementValue, double minValue, double maxValue){
+		double currentValue = getVariable(variableID);
+		double newValue = getIncrementedValue(currentValue, incrementValue, minValue, maxValue);
+		if(newValue != currentValue){
+			setVariable(variableID, newValue);
+			return true;
+		}else{
+			return false;
+		}
+	}
+	
+	private static double getIncrementedValue(double currentValue, double incrementValue, double minValue, double maxValue){
 		double newValue = currentValue + incrementValue;
 		if(minValue != 0 || maxValue != 0){
 			if(newValue < minValue){
@@ -793,33 +936,64 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 				newValue = maxValue;
 			}
 		}
-		if(newValue != currentValue){
-			setVariable(variable, newValue);
-			return true;
-		}else{
-			return false;
-		}
+		return newValue;
 	}
 	
 	/**
 	 *  Helper method to get get a variable for this entity.
 	 */
 	public double getVariable(String variable){
-		Double value = variables.get(variable);
-		if(value == null){
-			//Don't add the variable to the map, just return 0 here.
-			return 0;
-		}else{
-			return value;
-		}
+		//Don't register the variable if we don't have it, just return 0 here.
+		int variableID = VariableRegistry.getExistingID(variable);
+		return variableID != -1 ? getVariable(variableID) : 0;
+	}
+	
+	/**
+	 *  Like {@link #getVariable(String)}, but uses the {@link VariableRegistry} ID.
+	 */
+	public double getVariable(int variableID){
+		return activeVariables.get(variableID) ? variableValues[variableID] : 0;
 	}
 	
 	/**
 	 *  Helper method to check if a variable is non-zero.
-	 *  This is a bit quicker than getting the value due to auto-boxing off the map.
+	 *  This is a bit quicker than getting the value as it only checks the active set.
 	 */
 	public boolean isVariableActive(String variable){
-		return variables.containsKey(variable);
+		int variableID = VariableRegistry.getExistingID(variable);
+		return variableID != -1 && activeVariables.get(variableID);
+	}
+	
+	/**
+	 *  Like {@link #isVariableActive(String)}, but uses the {@link VariableRegistry} ID.
+	 */
+	public boolean isVariableActive(int variableID){
+		return activeVariables.get(variableID);
+	}
+	
+	/**
+	 *  Clears all active variables whose name starts with the passed-in prefix.
+	 */
+	public void clearVariablesWithPrefix(String prefix){
+		for(int variableID = activeVariables.nextSetBit(0); variableID >= 0; variableID = activeVariables.nextSetBit(variableID + 1)){
+			if(VariableRegistry.getName(variableID).startsWith(prefix)){
+				activeVariables.clear(variableID);
+			}
+		}
+	}
+	
+	/**
+	 *  Stores the value in the slot for the variable and marks it active, growing the array if
+	 *  the variable was registered after this entity was created.
+	 */
+	private void putVariable(int variableID, double value){
+		if(variableID >= variableValues.length){
+			double[] newValues = new double[Math.max(variableID + 1, Math.max(VariableRegistry.getCount(), variableValues.length*2))];
+			System.arraycopy(variableValues, 0, newValues, 0, variableValues.length);
+			variableValues = newValues;
+		}
+		variableValues[variableID] = value;
+		activeVariables.set(variableID);
 	}
 	
 	@Override
@@ -832,16 +1006,20 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 		for(String textLine : text.values()){
 			data.setString("textLine" + lineNumber++, textLine);
 		}
-		data.setStrings("variables", variables.keySet());
-		for(String variableName : variables.keySet()){
-			data.setDouble(variableName, variables.get(variableName));
+		//Variables are saved by name, as IDs aren't stable between game launches.
+		List<String> variableNames = new ArrayList<String>();
+		for(int variableID = activeVariables.nextSetBit(0); variableID >= 0; variableID = activeVariables.nextSetBit(variableID + 1)){
+			String variableName = VariableRegistry.getName(variableID);
+			variableNames.add(variableName);
+			data.setDouble(variableName, variableValues[variableID]);
 		}
+		data.setStrings("variables", variableNames);
 		return data;
 	}
 	
 	/**
 	 * Indicates that this field is a derived value from
-	 * one of the variables in {@link AEntityD_Definable#variables}.
+	 * one of the variables in {@link AEntityD_Definable#variableValues}.
 	 * Variables that are derived are parsed from the map every update.
 	 * To modify them you will need to update their values in the respective
 	 * variable set via 
@@ -16,6 +16,7 @@ import com.google.common.collect.HashBiMap;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxTree;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
@@ -35,6 +36,7 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityRiderChange;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
 import minecrafttransportsimulator.rendering.components.RenderableObject;
 import minecrafttransportsimulator.rendering.instances.RenderInstrument.InstrumentSwitchbox;
@@ -71,6 +73,9 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 	 * to check a single large box rather than multiple small ones to save processing power.**/
 	public final BoundingBox encompassingBox = new BoundingBox(new Point3D(), new Point3D(), 0, 0, 0, false);
 	
+	/**Tree over the boxes in {@link #getInteractionBoxes()}.  Should be marked dirty any time those boxes move or change.**/
+	protected final BoundingBoxTree interactionBoxTree = new BoundingBoxTree();
+	
 	/**Set of entities that this entity collided with this tick.  Any entity that is in this set 
 	 * should NOT do collision checks with this entity, or infinite loops will occur.
 	 * This set should be cleared after all collisions have been checked.**/
@@ -270,13 +275,19 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 	}
 	
 	@Override
-	public double getRawVariableValue(String variable, float partialTicks){
+	public BindingType getVariableType(String variable){
 		switch(variable){
-			case("damage_percent"): return damageAmount/definition.general.health;
+			case("damage_percent"): return BindingType.DAMAGE_PERCENT;
+		}
+		return super.getVariableType(variable);
+	}
+	
+	@Override
+	public double getTypedVariableValue(BindingType type, float partialTicks){
+		switch(type){
+			case DAMAGE_PERCENT: return damageAmount/definition.general.health;
+			default: return super.getTypedVariableValue(type, partialTicks);
 		}
-		
-		//Not a towing variable, check others.
-		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
 	/**
@@ -333,6 +344,8 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     		encompassingBox.depthRadius = (float) Math.max(encompassingBox.depthRadius, Math.abs(box.globalCenter.z - position.z + box.depthRadius));
     	}
     	encompassingBox.updateToEntity(this, null);
+    	world.updateSpatialIndex(this);
+    	interactionBoxTree.markDirty();
     }
     
     /**
@@ -462,6 +475,21 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public Collection<BoundingBox> getInteractionBoxes(){
     	return interactionBoxes;
     }
+    
+    /**
+   	 *  Adds all interaction boxes whose bounds the line from start to end passes through to the passed-in list.
+   	 *  Inflation increases the size of the boxes for the check, to allow for picking of boxes in the general area of the line.
+   	 */
+    public void getRaytracedInteractionBoxes(Point3D start, Point3D end, double inflation, List<BoundingBox> hitBoxes){
+    	interactionBoxTree.getRaytraced(getInteractionBoxes(), start, end, inflation, hitBoxes);
+    }
+    
+    /**
+   	 *  Adds all interaction boxes that intersect the passed-in box to the passed-in list.
+   	 */
+    public void getIntersectingInteractionBoxes(BoundingBox box, List<BoundingBox> intersectingBoxes){
+    	interactionBoxTree.getIntersecting(getInteractionBoxes(), box, intersectingBoxes);
+    }
 	
 	/**
 	 *  Called to update the passed-in rider.  This gets called after the update loop,
@@ -523,7 +551,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 			locationRiderMap.put(riderLocation, rider);
 			if(!world.isClient()){
 				rider.setRiding(this);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityRiderChange(this, rider, riderLocation));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityRiderChange(this, rider, riderLocation), this);
 			}
 			return true;
 		}
@@ -539,7 +567,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 			locationRiderMap.inverse().remove(rider);
 			if(!world.isClient()){
 				rider.setRiding(null);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityRiderChange(this, rider, null));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityRiderChange(this, rider, null), this);
 			}
 		}
 	}
@@ -604,9 +632,9 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 							if(currentDamage > groupDef.health){
 								double amountActuallyNeeded = damage.amount - (currentDamage - groupDef.health);
 								currentDamage = groupDef.health;
-								InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, variableName, amountActuallyNeeded));
+								InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, variableName, amountActuallyNeeded), this);
 							}else{
-								InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, variableName, damage.amount));
+								InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, variableName, damage.amount), this);
 							}
 							setVariable(variableName, currentDamage);
 							return;
@@ -620,9 +648,9 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 			if(damageAmount > definition.general.health){
 				double amountActuallyNeeded = damage.amount - (damageAmount - definition.general.health);
 				damageAmount = definition.general.health;
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, amountActuallyNeeded));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, amountActuallyNeeded), this);
 			}else{
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, damage.amount));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, damage.amount), this);
 			}
 			setVariable(DAMAGE_VARIABLE, damageAmount);
 		}
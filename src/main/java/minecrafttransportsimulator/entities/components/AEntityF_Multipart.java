@@ -28,6 +28,8 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketPartChange;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.systems.PackParserSystem;
 
 /**Base class for multipart entities.  These entities hold other, part-based entities.  These part
@@ -330,6 +332,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 			}
 		}
 		world.endProfiling();
+		//Parts may have moved their boxes, even if we didn't move.
+		interactionBoxTree.markDirty();
 		super.doPostUpdateLogic();
 		if(changesPosition()){
 			//Update all-box lists now that all parts are updated.
@@ -352,6 +356,19 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 		}
 	}
 	
+	@Override
+	public BindingType getVariableType(String variable){
+		return getVariableNumber(variable) != -1 ? BindingType.PART_NUMBERED : super.getVariableType(variable);
+	}
+	
+	@Override
+	public double getRawVariableValue(AnimationVariableBinding binding, float partialTicks){
+		switch(binding.type){
+			case PART_NUMBERED: return getSpecificPartAnimation(this, binding, partialTicks);
+			default: return super.getRawVariableValue(binding, partialTicks);
+		}
+	}
+	
 	@Override
 	public void toggleVariable(String variable){
 		int partNumber = getVariableNumber(variable);
@@ -533,7 +550,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 		
 		//If we are on the server, and need to notify clients, do so.
 		if(sendPacket && !world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketPartChange(this,  part));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketPartChange(this,  part), this);
 		}
 		
 		//Add the part to the world.
@@ -585,7 +602,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 			part.remove();
 			//If we are on the server, notify all clients of this change.
 			if(!world.isClient()){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketPartChange(this, part.placementOffset));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketPartChange(this, part.placementOffset), this);
 			}
 		}else if(partsFromNBT.contains(part)){
 			partsFromNBT.remove(part);
@@ -907,6 +924,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	    	}
 		}
 		encompassingBox.updateToEntity(this, null);
+		world.updateSpatialIndex(this);
 	}
 	
 	/**
@@ -915,12 +933,14 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 	 */
 	public static APart getSpecificPart(AEntityD_Definable<? extends AJSONPartProvider> entityAnimating, String variable, int partNumber){
 		//Iterate through our parts to find the index of the pack def for the part we want.
-		String partType = variable.substring(0, variable.indexOf("_"));
+		//Compare the type prefix in-place rather than allocating a substring for it.
+		int partTypeLength = variable.indexOf("_");
+		boolean anyPartType = partTypeLength == "part".length() && variable.startsWith("part");
 		JSONPartDefinition foundDef = null;
 		for(JSONPartDefinition partDef : entityAnimating.definition.parts){
 			//If this part is the one we want, get it or add to our index.
 			for(String defPartType : partDef.types){
-				if(partType.equals("part") || defPartType.startsWith(partType)){
+				if(anyPartType || defPartType.regionMatches(0, variable, 0, partTypeLength)){
 					if(partNumber == 0){
 						foundDef = partDef;
 					}else{
@@ -934,7 +954,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 			if(foundDef == null && partDef.additionalParts != null){
 				for(JSONPartDefinition additionalDef : partDef.additionalParts){
 					for(String defPartType : additionalDef.types){
-						if(partType.equals("part") || defPartType.startsWith(partType)){
+						if(anyPartType || defPartType.regionMatches(0, variable, 0, partTypeLength)){
 							if(partNumber == 0){
 								foundDef = additionalDef;
 							}else{
@@ -979,6 +999,20 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 			return 0;
 		}
 	}
+	
+	/**
+	 * Like {@link #getSpecificPartAnimation(AEntityD_Definable, String, int, float)}, but for a
+	 * {@link BindingType#PART_NUMBERED} binding.  The found part evaluates its own binding for the
+	 * un-suffixed variable, so the part number and name are never re-parsed.
+	 */
+	public static double getSpecificPartAnimation(AEntityD_Definable<? extends AJSONPartProvider> entityAnimating, AnimationVariableBinding binding, float partialTicks){
+		APart foundPart = getSpecificPart(entityAnimating, binding.name, binding.partNumber);
+		if(foundPart != null){
+			return foundPart.getRawVariableValue(binding.getPartBinding(foundPart), partialTicks);
+		}else{
+			return 0;
+		}
+	}
 		
 	
 	@Override
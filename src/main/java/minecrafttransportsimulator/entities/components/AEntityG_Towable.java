@@ -23,6 +23,7 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityTowingChange;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 
 /**Base entity class containing towing states and methods.
  * At this level as not all multiparts can be towed.
@@ -36,6 +37,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 	private TowingConnection savedTowedByConnection;
 	private final List<TowingConnection> savedTowingConnections = new ArrayList<TowingConnection>();
 	public static final String TOWING_CONNECTION_REQUEST_VARIABLE = "connection_requested";
+	private static final double MAX_CONNECTION_CHECK_DISTANCE = 25;
 	
 	public AEntityG_Towable(AWrapperWorld world, IWrapperPlayer placingPlayer, IWrapperNBT data){
 		super(world, placingPlayer, data);
@@ -192,6 +194,12 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	public BindingType getVariableType(String variable){
+		//Connection variables depend on what we are connected to, so always look them up by name.
+		return variable.startsWith("connection") ? BindingType.NAMED : super.getVariableType(variable);
+	}
+	
     @Override
 	public void doPostUpdateLogic(){
     	super.doPostUpdateLogic();
@@ -262,8 +270,9 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		
 		if(connectionToDisconnect == null){
 			TrailerConnectionResult result;
+			//Only check entities that are close enough to pass the distance check in the connection logic.
 			List<AEntityG_Towable<?>> entitiesToCheck = new ArrayList<AEntityG_Towable<?>>();
-			entitiesToCheck.addAll(world.getEntitiesOfType(EntityVehicleF_Physics.class));
+			entitiesToCheck.addAll(world.getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, new BoundingBox(connectionDefiner.position, MAX_CONNECTION_CHECK_DISTANCE, MAX_CONNECTION_CHECK_DISTANCE, MAX_CONNECTION_CHECK_DISTANCE)));
 			
 			if(requestedGroup.isHookup){
 				//Find entity that can tow us.
@@ -336,7 +345,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		boolean trailerInRange = false;
 		
 		//First make sure the entity is in-even somewhat close.
-		if(hitchConnectionDefiner.position.isDistanceToCloserThan(hookupConnectionDefiner.position, 25)){
+		if(hitchConnectionDefiner.position.isDistanceToCloserThan(hookupConnectionDefiner.position, MAX_CONNECTION_CHECK_DISTANCE)){
 			//If we or the other entity don't have connection groups, don't bother checking.
 			if(hitchConnectionDefiner.definition.connectionGroups != null && !hitchConnectionDefiner.definition.connectionGroups.isEmpty() && hookupConnectionDefiner.definition.connectionGroups != null && !hookupConnectionDefiner.definition.connectionGroups.isEmpty()){
 				//Find the requested hitch connection index.
@@ -418,7 +427,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		connection.hitchCurrentPosition.set(connection.hitchConnection.pos).rotate(connection.towingEntity.orientation).add(connection.towingEntity.position);
 		connection.hookupCurrentPosition.set(connection.hookupConnection.pos).rotate(connection.towedEntity.orientation).add(connection.towedEntity.position);
 		if(!world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketEntityTowingChange(this, connection));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityTowingChange(this, connection), this);
 		}else if(AGUIBase.activeInputGUI instanceof AGUIPanel){
 			((AGUIPanel) AGUIBase.activeInputGUI).handleConnectionChange(connection);
 		}
@@ -431,7 +440,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 		TowingConnection connection = towingConnections.remove(connectionIndex);
 		connection.towedVehicle.towedByConnection = null;
 		if(!world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketEntityTowingChange(this, connectionIndex));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityTowingChange(this, connectionIndex), this);
 		}else if(AGUIBase.activeInputGUI instanceof AGUIPanel){
 			((AGUIPanel) AGUIBase.activeInputGUI).handleConnectionChange(connection);
 		}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import minecrafttransportsimulator.baseclasses.BlockCollisionSet;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
@@ -31,6 +32,8 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 	public double currentMass;
 	public double axialVelocity;
 	public final Point3D headingVector = new Point3D();
+	/**Blocks that our collision boxes could hit this tick.  Populated once per tick prior to collision checks, so each check doesn't have to query the world.**/
+	protected final BlockCollisionSet blockCollisions = new BlockCollisionSet();
 	
 	public AEntityVehicleC_Colliding(AWrapperWorld world, IWrapperPlayer placingPlayer, IWrapperNBT data){
 		super(world, placingPlayer, data);
@@ -55,12 +58,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 		//Only do this once a second to prevent lag.
 		if(velocity > 0.5 && ticksExisted%20 == 0){
 			world.beginProfiling("CloseDoors", false);
-			Iterator<String> variableIterator = variables.keySet().iterator();
-			while(variableIterator.hasNext()){
-				if(variableIterator.next().startsWith("door")){
-					variableIterator.remove();
-				}
-			}
+			clearVariablesWithPrefix("door");
 		}
 		
 		//Set hardness hit this tick to 0 to reset collision force calculations.
@@ -71,6 +69,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 	
 	/**
 	 * Checks collisions and returns the collision depth for a box.
+	 * Collisions are checked against {@link #blockCollisions}, so it must contain this box at its moved position.
 	 * Returns -1 if collision was hard enough to destroy the vehicle.
 	 * Returns -2 if the vehicle hit a block but had to stop because blockBreaking was disabled.
 	 * Otherwise, we return the collision depth in the specified axis.
@@ -81,7 +80,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 		
 		//If we collided, so check to see if we can break some blocks or if we need to explode.
 		//Don't bother with this logic if it's impossible for us to break anything.
-		if(box.updateCollidingBlocks(world, collisionMotion)){
+		if(box.updateCollidingBlocks(blockCollisions, collisionMotion)){
 			float hardnessHitThisBox = 0;
 			for(Point3D blockPosition : box.collidingBlockPositions){
 				float blockHardness = world.getBlockHardness(blockPosition);
@@ -96,6 +95,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityVehicleB_Rideable{
 						if(!world.isClient()){
 							if(ticksExisted > 500){
 								world.destroyBlock(blockPosition, true);
+								blockCollisions.removeBlock(blockPosition);
 							}else{
 								motion.set(0D, 0D, 0D);
 								return -1;
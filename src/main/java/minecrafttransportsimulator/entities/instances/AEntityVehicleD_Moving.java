@@ -7,6 +7,7 @@ import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.baseclasses.VehicleGroundDeviceCollection;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
@@ -41,6 +42,10 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	public static final String RIGHTTURNLIGHT_VARIABLE = "right_turn_signal";
 	public static final String BRAKE_VARIABLE = "brake";
 	public static final String PARKINGBRAKE_VARIABLE = "p_brake";
+	public static final int LEFTTURNLIGHT_VARIABLE_ID = VariableRegistry.getID(LEFTTURNLIGHT_VARIABLE);
+	public static final int RIGHTTURNLIGHT_VARIABLE_ID = VariableRegistry.getID(RIGHTTURNLIGHT_VARIABLE);
+	public static final int BRAKE_VARIABLE_ID = VariableRegistry.getID(BRAKE_VARIABLE);
+	public static final int PARKINGBRAKE_VARIABLE_ID = VariableRegistry.getID(PARKINGBRAKE_VARIABLE);
 	
 	//External state control.
 	@DerivedValue
@@ -83,6 +88,11 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	private final Point3D serverDeltaMAtSync = new Point3D();
 	private final Point3D serverDeltaRAtSync = new Point3D();
 	private double serverDeltaPAtSync;
+	private final Point3D serverDeltaMSent;
+	private final Point3D serverDeltaRSent;
+	private double serverDeltaPSent;
+	private final Point3D serverDeltaMUnsent = new Point3D();
+	private final Point3D serverDeltaRUnsent = new Point3D();
 	private final Point3D clientDeltaM;
 	private final Point3D clientDeltaR;
 	private double clientDeltaP;
@@ -100,6 +110,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	private double pathingApplied;
 	
 	private final Point3D tempBoxPosition = new Point3D();
+	private final Point3D tempSweep = new Point3D();
 	private final Point3D normalizedGroundVelocityVector = new Point3D();
 	private final Point3D normalizedGroundHeadingVector = new Point3D();
 	private AEntityE_Interactable<?> lastCollidedEntity;
@@ -115,6 +126,9 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		this.clientDeltaM = serverDeltaM.copy();
 		this.clientDeltaR = serverDeltaR.copy();
 		this.clientDeltaP = serverDeltaP;
+		this.serverDeltaMSent = serverDeltaM.copy();
+		this.serverDeltaRSent = serverDeltaR.copy();
+		this.serverDeltaPSent = serverDeltaP;
 		this.groundDeviceCollective = new VehicleGroundDeviceCollection((EntityVehicleF_Physics) this);
 		this.placingPlayer = placingPlayer;
 		
@@ -181,8 +195,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		}
 		
 		//Update brake status.  This is used in a lot of locations, so we don't want to query the set every time.
-		brake = getVariable(BRAKE_VARIABLE);
-		parkingBrakeOn = isVariableActive(PARKINGBRAKE_VARIABLE);
+		brake = getVariable(BRAKE_VARIABLE_ID);
+		parkingBrakeOn = isVariableActive(PARKINGBRAKE_VARIABLE_ID);
 		
 		//Update our GDB members if any of our ground devices don't have the same total offset as placement.
 		//This is required to move the GDBs if the GDs move.
@@ -244,9 +258,9 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		super.connectTrailer(connection);
 		AEntityVehicleD_Moving towedVehicle = connection.towedVehicle;
 		if(towedVehicle.parkingBrakeOn){
-			towedVehicle.setVariable(PARKINGBRAKE_VARIABLE, 0);
+			towedVehicle.setVariable(PARKINGBRAKE_VARIABLE_ID, 0);
 		}
-		towedVehicle.setVariable(BRAKE_VARIABLE, 0);
+		towedVehicle.setVariable(BRAKE_VARIABLE_ID, 0);
 		towedVehicle.frontFollower = null;
 		towedVehicle.rearFollower = null;
 	}
@@ -255,7 +269,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	public void disconnectTrailer(int connectionIndex){
 		TowingConnection connection = towingConnections.get(connectionIndex);
 		if(connection.towedVehicle.definition.motorized.isTrailer){
-			connection.towedVehicle.setVariable(PARKINGBRAKE_VARIABLE, 1);
+			connection.towedVehicle.setVariable(PARKINGBRAKE_VARIABLE_ID, 1);
 		}
 		super.disconnectTrailer(connectionIndex);
 	}
@@ -587,9 +601,9 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 				//Check for the potential to change the requested segment.
 				//We can only do this if both our followers are on the same segment.
 				LaneSelectionRequest requestedSegment;
-				if(!(isVariableActive(LEFTTURNLIGHT_VARIABLE) ^ isVariableActive(RIGHTTURNLIGHT_VARIABLE))){
+				if(!(isVariableActive(LEFTTURNLIGHT_VARIABLE_ID) ^ isVariableActive(RIGHTTURNLIGHT_VARIABLE_ID))){
 					requestedSegment = LaneSelectionRequest.NONE;
-				}else if(isVariableActive(LEFTTURNLIGHT_VARIABLE)){
+				}else if(isVariableActive(LEFTTURNLIGHT_VARIABLE_ID)){
 					requestedSegment = goingInReverse ? LaneSelectionRequest.RIGHT : LaneSelectionRequest.LEFT;
 				}else{
 					requestedSegment = goingInReverse ? LaneSelectionRequest.LEFT : LaneSelectionRequest.RIGHT;
@@ -878,18 +892,34 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 	 */
 	private boolean isCollisionBoxCollided(){
 		if(motion.length() > 0.001){
-			boolean clearedCache = false;
+			updateBlockCollisions();
 			for(BoundingBox box : allBlockCollisionBoxes){
 				tempBoxPosition.set(box.globalCenter).subtract(position).rotate(rotation).subtract(box.globalCenter).add(position).addScaled(motion, speedFactor);
-				if(!box.collidesWithLiquids && world.checkForCollisions(box, tempBoxPosition, !clearedCache)){
+				if(!box.collidesWithLiquids && blockCollisions.checkForCollisions(box, tempBoxPosition)){
 					return true;
 				}
-				clearedCache = true;
 			}
 		}
 		return false;
 	}
 	
+	/**
+	 *  Gets all blocks our collision boxes could hit this tick and puts them in {@link #blockCollisions}.
+	 *  Collision correction only ever reduces motion towards 0, so each box can only end up between where
+	 *  it is now and where the full motion would take it, either rotated or not.  Doing a single world
+	 *  query for all that space is far faster than querying the world for each box on each axis.
+	 */
+	private void updateBlockCollisions(){
+		blockCollisions.clear();
+		tempSweep.set(motion).scale(speedFactor);
+		for(BoundingBox box : allBlockCollisionBoxes){
+			blockCollisions.addBounds(box, box.globalCenter, tempSweep);
+			tempBoxPosition.set(box.globalCenter).subtract(position).rotate(rotation).add(position);
+			blockCollisions.addBounds(box, tempBoxPosition, tempSweep);
+		}
+		world.updateBlockCollisions(blockCollisions);
+	}
+	
 	/**
 	 *  If a collision box collided, we need to restrict our proposed movement.
 	 *  Do this by removing motions that cause collisions.
@@ -959,7 +989,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 		if(!rotation.angles.isZero()){
 			for(BoundingBox box : allBlockCollisionBoxes){
 				tempBoxPosition.set(box.globalCenter).subtract(position).rotate(rotation).add(position).addScaled(motion, speedFactor);
-				if(box.updateCollidingBlocks(world, tempBoxPosition.subtract(box.globalCenter))){
+				if(box.updateCollidingBlocks(blockCollisions, tempBoxPosition.subtract(box.globalCenter))){
 					rotation.setToZero();
 					break;
 				}
@@ -983,14 +1013,26 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding{
 				serverDeltaM.add(motionApplied);
 				serverDeltaR.add(rotationApplied.angles);
 				serverDeltaP += pathingApplied;
-				InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied.angles, pathingApplied));
+				
+				//Send everything clients don't have yet, not just this tick's deltas.
+				//Packets are rounded, so this makes sure amounts lost to rounding are sent later rather than lost.
+				serverDeltaMUnsent.set(serverDeltaM).subtract(serverDeltaMSent);
+				serverDeltaRUnsent.set(serverDeltaR).subtract(serverDeltaRSent);
+				PacketVehicleServerMovement packet = new PacketVehicleServerMovement((EntityVehicleF_Physics) this, serverDeltaMUnsent, serverDeltaRUnsent, serverDeltaP - serverDeltaPSent);
+				if(!packet.isEmpty()){
+					serverDeltaMSent.add(packet.motion);
+					serverDeltaRSent.add(packet.rotation);
+					serverDeltaPSent += packet.pathing;
+					InterfaceManager.packetInterface.sendToAllTracking(packet, this);
+				}
 			}
 		}
 	}
 	
 	public void syncServerDeltas(Point3D motionSnapshot, Point3D rotationSnapshot, double pathingSnapshot){
 		if(!world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerSync((EntityVehicleF_Physics) this, serverDeltaM, serverDeltaR, serverDeltaP));
+			//Send what clients have been sent, not our actual deltas, as that's what they will be offsetting from.
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketVehicleServerSync((EntityVehicleF_Physics) this, serverDeltaMSent, serverDeltaRSent, serverDeltaPSent), this);
 		}else if(motionSnapshot != null && !serverDeltaMAtSync.isZero()){
 			serverDeltaM.add(motionSnapshot).subtract(serverDeltaMAtSync);
 			serverDeltaR.add(rotationSnapshot).subtract(serverDeltaRAtSync);
@@ -12,6 +12,7 @@ import com.google.common.collect.HashBiMap;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.NavBeacon;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONItem.ItemComponentType;
@@ -49,6 +50,16 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 	public static final String GEAR_VARIABLE = "gear_setpoint";
 	public static final String THROTTLE_VARIABLE = "throttle";
 	public static final String REVERSE_THRUST_VARIABLE = "reverser";
+	public static final int RUNNINGLIGHT_VARIABLE_ID = VariableRegistry.getID(RUNNINGLIGHT_VARIABLE);
+	public static final int HEADLIGHT_VARIABLE_ID = VariableRegistry.getID(HEADLIGHT_VARIABLE);
+	public static final int NAVIGATIONLIGHT_VARIABLE_ID = VariableRegistry.getID(NAVIGATIONLIGHT_VARIABLE);
+	public static final int STROBELIGHT_VARIABLE_ID = VariableRegistry.getID(STROBELIGHT_VARIABLE);
+	public static final int TAXILIGHT_VARIABLE_ID = VariableRegistry.getID(TAXILIGHT_VARIABLE);
+	public static final int LANDINGLIGHT_VARIABLE_ID = VariableRegistry.getID(LANDINGLIGHT_VARIABLE);
+	public static final int HORN_VARIABLE_ID = VariableRegistry.getID(HORN_VARIABLE);
+	public static final int GEAR_VARIABLE_ID = VariableRegistry.getID(GEAR_VARIABLE);
+	public static final int THROTTLE_VARIABLE_ID = VariableRegistry.getID(THROTTLE_VARIABLE);
+	public static final int REVERSE_THRUST_VARIABLE_ID = VariableRegistry.getID(REVERSE_THRUST_VARIABLE);
 	
 	//External state control.
 	@DerivedValue
@@ -97,8 +108,8 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 		super.update();
 		world.beginProfiling("VehicleE_Level", true);
 		//Get throttle and reverse state.
-		throttle = getVariable(THROTTLE_VARIABLE);
-		reverseThrust = isVariableActive(REVERSE_THRUST_VARIABLE);
+		throttle = getVariable(THROTTLE_VARIABLE_ID);
+		reverseThrust = isVariableActive(REVERSE_THRUST_VARIABLE_ID);
 		
 		//If we have space for fuel, and we have tanks with it, transfer it.
 		if(!world.isClient() && fuelTank.getFluidLevel() < definition.motorized.fuelCapacity - 100){
@@ -133,15 +144,15 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 			//If we aren't being towed, set the parking brake.
 			if(towedByConnection != null){
 				if(parkingBrakeOn){
-					toggleVariable(PARKINGBRAKE_VARIABLE);
+					toggleVariable(PARKINGBRAKE_VARIABLE_ID);
 				}
-				setVariable(BRAKE_VARIABLE, towedByConnection.towingVehicle.brake);
+				setVariable(BRAKE_VARIABLE_ID, towedByConnection.towingVehicle.brake);
 			}else{
 				if(!parkingBrakeOn){
-					toggleVariable(PARKINGBRAKE_VARIABLE);
+					toggleVariable(PARKINGBRAKE_VARIABLE_ID);
 				}
 				if(brake != 0){
-					setVariable(BRAKE_VARIABLE, 0);
+					setVariable(BRAKE_VARIABLE_ID, 0);
 				}
 			}
 		}else{
@@ -176,7 +187,7 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 		}
 		
 		//Adjust gear variables.
-		if(isVariableActive(EntityVehicleF_Physics.GEAR_VARIABLE)){
+		if(isVariableActive(EntityVehicleF_Physics.GEAR_VARIABLE_ID)){
 			if(gearMovementTime < definition.motorized.gearSequenceDuration){
 				++gearMovementTime;
 			}
@@ -352,12 +363,12 @@ abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving{
 	
 	@Override
 	public boolean renderTextLit(){
-		if(definition.motorized.hasRunningLights && isVariableActive(RUNNINGLIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
-		if(definition.motorized.hasHeadlights && isVariableActive(HEADLIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
-		if(definition.motorized.hasNavLights && isVariableActive(NAVIGATIONLIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
-		if(definition.motorized.hasStrobeLights && isVariableActive(STROBELIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
-		if(definition.motorized.hasTaxiLights && isVariableActive(TAXILIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
-		if(definition.motorized.hasLandingLights && isVariableActive(LANDINGLIGHT_VARIABLE)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasRunningLights && isVariableActive(RUNNINGLIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasHeadlights && isVariableActive(HEADLIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasNavLights && isVariableActive(NAVIGATIONLIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasStrobeLights && isVariableActive(STROBELIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasTaxiLights && isVariableActive(TAXILIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
+		if(definition.motorized.hasLandingLights && isVariableActive(LANDINGLIGHT_VARIABLE_ID)) return electricPower > 3 && super.renderTextLit();
 		return false;
 	}
 	
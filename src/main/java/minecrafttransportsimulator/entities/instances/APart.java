@@ -23,6 +23,8 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packloading.JSONParser;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.rendering.instances.RenderPart;
 
 /**This class is the base for all parts and should be extended for any entity-compatible parts.
@@ -363,12 +365,6 @@ public abstract class APart extends AEntityE_Interactable<JSONPart>{
 			}
 		}
 		
-		//Check for generic part variables.
-		switch(variable){
-			case("part_present"): return 1;
-			case("part_ismirrored"): return isMirrored ? 1 : 0;
-		}
-		
 		//No variables, check super variables before doing generic forwarding.
 		//We need this here for position-specific values, as some of the
 		//super variables care about position, so we can't forward those.
@@ -390,6 +386,40 @@ public abstract class APart extends AEntityE_Interactable<JSONPart>{
 		return entityOn.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	public BindingType getVariableType(String variable){
+		//Parent variables are forwarded to whatever part we are on, so look them up by name.
+		if(variable.startsWith("parent_")){
+			return BindingType.NAMED;
+		}else if(definition.parts != null && getVariableNumber(variable) != -1){
+			return BindingType.PART_NUMBERED;
+		}
+		switch(variable){
+			case("part_present"): return BindingType.PART_PRESENT;
+			case("part_ismirrored"): return BindingType.PART_ISMIRRORED;
+		}
+		
+		//Anything not resolved by super stays NAMED, which handles forwarding to our parent part or entity.
+		return super.getVariableType(variable);
+	}
+	
+	@Override
+	public double getTypedVariableValue(BindingType type, float partialTicks){
+		switch(type){
+			case PART_PRESENT: return 1;
+			case PART_ISMIRRORED: return isMirrored ? 1 : 0;
+			default: return super.getTypedVariableValue(type, partialTicks);
+		}
+	}
+	
+	@Override
+	public double getRawVariableValue(AnimationVariableBinding binding, float partialTicks){
+		switch(binding.type){
+			case PART_NUMBERED: return AEntityF_Multipart.getSpecificPartAnimation(this, binding, partialTicks);
+			default: return super.getRawVariableValue(binding, partialTicks);
+		}
+	}
+	
 	@Override
 	@SuppressWarnings("unchecked")
 	public RenderPart getRenderer(){
@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.entities.instances;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeMap;
@@ -196,58 +197,57 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet>{
 		//This is a bit more involved, as we need to check all possible types and check hitbox distance.
 		Point3D endPoint = position.copy().add(motion);
 		BoundingBox bulletMovmenetBounds = new BoundingBox(position, endPoint);
-		for(EntityVehicleF_Physics entity : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
+		for(EntityVehicleF_Physics entity : world.getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, bulletMovmenetBounds)){
 			double armorPenetrated = 0;
 			//Don't attack the entity that has the gun that fired us.
 			if(!entity.parts.contains(gun)){
-				//Make sure that we could even possibly hit this vehicle before we try and attack it.
-				if(entity.encompassingBox.intersects(bulletMovmenetBounds)){
-					//Get all collision boxes on the vehicle, and check if we hit any of them.
-					//Sort them by distance for later.
-					TreeMap<Double, BoundingBox> hitBoxes = new TreeMap<Double, BoundingBox>();
-					for(BoundingBox box : entity.allInteractionBoxes){
-						Point3D delta = box.getIntersectionPoint(position, endPoint); 
-						if(delta != null){
-							hitBoxes.put(delta.distanceTo(position), box);
-						}
+				//Get all collision boxes on the vehicle, and check if we hit any of them.
+				//Sort them by distance for later.
+				TreeMap<Double, BoundingBox> hitBoxes = new TreeMap<Double, BoundingBox>();
+				List<BoundingBox> possibleHitBoxes = new ArrayList<BoundingBox>();
+				entity.getRaytracedInteractionBoxes(position, endPoint, 0, possibleHitBoxes);
+				for(BoundingBox box : possibleHitBoxes){
+					Point3D delta = box.getIntersectionPoint(position, endPoint); 
+					if(delta != null){
+						hitBoxes.put(delta.distanceTo(position), box);
 					}
-					
-					//If we hit at least one hitbox, do logic.
-					if(!hitBoxes.isEmpty()){
-						//Check all boxes for armor and see if we penetrated them.
-						Iterator<BoundingBox> hitBoxIterator = hitBoxes.values().iterator();
-						while(hitBoxIterator.hasNext()){
-							BoundingBox hitBox = hitBoxIterator.next();
-							if(hitBox.definition != null && hitBox.definition.armorThickness > 0){
-								armorPenetrated += hitBox.definition.armorThickness;
-								if(armorPenetrated > definition.bullet.armorPenetration*velocity/initialVelocity){
-									//Hit too much armor.  Don't do anything except spawn explosions.
-									InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHit(this, hitBox.globalCenter));
-									lastHit = HitType.ARMOR;
-									if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT TOO MUCH ARMOR.  MAX PEN: " + (int)(definition.bullet.armorPenetration*velocity/initialVelocity));
-									remove();
-									return;
-								}
+				}
+				
+				//If we hit at least one hitbox, do logic.
+				if(!hitBoxes.isEmpty()){
+					//Check all boxes for armor and see if we penetrated them.
+					Iterator<BoundingBox> hitBoxIterator = hitBoxes.values().iterator();
+					while(hitBoxIterator.hasNext()){
+						BoundingBox hitBox = hitBoxIterator.next();
+						if(hitBox.definition != null && hitBox.definition.armorThickness > 0){
+							armorPenetrated += hitBox.definition.armorThickness;
+							if(armorPenetrated > definition.bullet.armorPenetration*velocity/initialVelocity){
+								//Hit too much armor.  Don't do anything except spawn explosions.
+								InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHit(this, hitBox.globalCenter));
+								lastHit = HitType.ARMOR;
+								if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT TOO MUCH ARMOR.  MAX PEN: " + (int)(definition.bullet.armorPenetration*velocity/initialVelocity));
+								remove();
+								return;
+							}
+						}else{
+							APart hitPart = entity.getPartWithBox(hitBox);
+							if(hitPart != null){
+								InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitEntity(this, hitBox, hitPart));
+								lastHit = HitType.PART;
+								if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT PART");
+								remove();
+								return;
 							}else{
-								APart hitPart = entity.getPartWithBox(hitBox);
-								if(hitPart != null){
-									InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitEntity(this, hitBox, hitPart));
-									lastHit = HitType.PART;
-									if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT PART");
-									remove();
-									return;
-								}else{
-									InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitEntity(this, hitBox, entity));
-									lastHit = HitType.ENTITY;
-									if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT VEHICLE");
-									remove();
-									return;
-								}
+								InterfaceManager.packetInterface.sendToServer(new PacketEntityBulletHitEntity(this, hitBox, entity));
+								lastHit = HitType.ENTITY;
+								if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "HIT VEHICLE");
+								remove();
+								return;
 							}
 						}
-						if(armorPenetrated != 0){
-							if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "PEN ARMOR: " + (int)armorPenetrated + " TOTAL UNITS OUT OF " + (int)(definition.bullet.armorPenetration*velocity/initialVelocity) + " POSSIBLE");
-						}
+					}
+					if(armorPenetrated != 0){
+						if(ConfigSystem.settings.general.devMode.value)InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_DEBUG, "PEN ARMOR: " + (int)armorPenetrated + " TOTAL UNITS OUT OF " + (int)(definition.bullet.armorPenetration*velocity/initialVelocity) + " POSSIBLE");
 					}
 				}
 			}
@@ -98,7 +98,7 @@ public class EntityFluidTank extends AEntityA_Base{
 				}
 				//Send off packet now that we know what fluid we will have on this tank.
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketFluidTankChange(this, maxAmount));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketFluidTankChange(this, maxAmount), this);
 				}
 			}
 			return maxAmount;
@@ -122,7 +122,7 @@ public class EntityFluidTank extends AEntityA_Base{
 			if(doDrain){
 				//Need to send off packet before we remove fluid due to empty tank.
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketFluidTankChange(this, -maxAmount));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketFluidTankChange(this, -maxAmount), this);
 				}
 				fluidLevel -= maxAmount;
 				fluidDispensed += maxAmount;
@@ -47,7 +47,7 @@ public class EntityFurnace extends EntityInventoryContainer{
 				if(!fuelStack.isEmpty()){
 					ticksAddedOfFuel = fuelStack.getFuelValue();
 					ticksLeftOfFuel = ticksAddedOfFuel;
-					InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceFuelAdd(this));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceFuelAdd(this), this);
 					removeFromSlot(FUEL_ITEM_SLOT, 1);
 				}
 			}
@@ -57,7 +57,7 @@ public class EntityFurnace extends EntityInventoryContainer{
 			if(!world.isClient() && smeltingStack.isEmpty()){
 				ticksNeededToSmelt = 0;
 				ticksLeftToSmelt = ticksNeededToSmelt;
-				InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceTimeSet(this));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceTimeSet(this), this);
 			}
 			
 			//We are smelting and have fuel, continue the process.
@@ -98,7 +98,7 @@ public class EntityFurnace extends EntityInventoryContainer{
 					if(stackInResult.isEmpty() || (stackInResult.isCompleteMatch(smeltingResult) && (stackInResult.getMaxSize() - stackInResult.getSize() >= smeltingResult.getSize()))){
 						ticksNeededToSmelt = (int) (smeltingStack.getSmeltingTime()*1F/definition.furnaceRate);
 						ticksLeftToSmelt = ticksNeededToSmelt;
-						InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceTimeSet(this));	
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceTimeSet(this), this);	
 					}
 				}
 			}
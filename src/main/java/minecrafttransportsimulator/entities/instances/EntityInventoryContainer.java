@@ -43,7 +43,7 @@ public class EntityInventoryContainer extends AEntityA_Base implements IInventor
 	public void setStack(IWrapperItemStack stackToSet, int index){
 		inventory.set(index, stackToSet);
 		if(!world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(new PacketInventoryContainerChange(this, index, stackToSet));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketInventoryContainerChange(this, index, stackToSet), this);
 		}
 	}
 	
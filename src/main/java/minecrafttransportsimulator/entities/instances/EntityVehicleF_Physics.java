@@ -5,6 +5,7 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.jsondefs.JSONVariableModifier;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
@@ -13,6 +14,8 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.rendering.instances.RenderVehicle;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -73,6 +76,15 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 	public double airDensity;
 	public static final String AUTOPILOT_VARIABLE = "autopilot";
 	public static final String AUTOLEVEL_VARIABLE = "auto_level";
+	public static final int AILERON_VARIABLE_ID = VariableRegistry.getID(AILERON_VARIABLE);
+	public static final int AILERON_TRIM_VARIABLE_ID = VariableRegistry.getID(AILERON_TRIM_VARIABLE);
+	public static final int ELEVATOR_VARIABLE_ID = VariableRegistry.getID(ELEVATOR_VARIABLE);
+	public static final int ELEVATOR_TRIM_VARIABLE_ID = VariableRegistry.getID(ELEVATOR_TRIM_VARIABLE);
+	public static final int RUDDER_VARIABLE_ID = VariableRegistry.getID(RUDDER_VARIABLE);
+	public static final int RUDDER_TRIM_VARIABLE_ID = VariableRegistry.getID(RUDDER_TRIM_VARIABLE);
+	public static final int FLAPS_VARIABLE_ID = VariableRegistry.getID(FLAPS_VARIABLE);
+	public static final int AUTOPILOT_VARIABLE_ID = VariableRegistry.getID(AUTOPILOT_VARIABLE);
+	public static final int AUTOLEVEL_VARIABLE_ID = VariableRegistry.getID(AUTOLEVEL_VARIABLE);
 	
 	//Internal states.
 	private boolean hasRotors;
@@ -149,14 +161,14 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 		sideVector.set(verticalVector.crossProduct(headingVector));
 		
 		//Parse out variables.
-		aileronAngle = getVariable(AILERON_VARIABLE);
-		aileronTrim = getVariable(AILERON_TRIM_VARIABLE);
-		elevatorAngle = getVariable(ELEVATOR_VARIABLE);
-		elevatorTrim = getVariable(ELEVATOR_TRIM_VARIABLE);
-		rudderAngle = getVariable(RUDDER_VARIABLE);
-		rudderTrim = getVariable(RUDDER_TRIM_VARIABLE);
-		autopilotSetting = getVariable(AUTOPILOT_VARIABLE);
-		flapDesiredAngle = getVariable(FLAPS_VARIABLE);
+		aileronAngle = getVariable(AILERON_VARIABLE_ID);
+		aileronTrim = getVariable(AILERON_TRIM_VARIABLE_ID);
+		elevatorAngle = getVariable(ELEVATOR_VARIABLE_ID);
+		elevatorTrim = getVariable(ELEVATOR_TRIM_VARIABLE_ID);
+		rudderAngle = getVariable(RUDDER_VARIABLE_ID);
+		rudderTrim = getVariable(RUDDER_TRIM_VARIABLE_ID);
+		autopilotSetting = getVariable(AUTOPILOT_VARIABLE_ID);
+		flapDesiredAngle = getVariable(FLAPS_VARIABLE_ID);
 		
 		//Adjust flaps to current setting.
 		if(definition.motorized.flapNotches != null && !definition.motorized.flapNotches.isEmpty()){
@@ -212,8 +224,8 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 		}else{
 			delta = -degrees;
 		}
-		setVariable(RUDDER_VARIABLE, rudderAngle + delta);
-		InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, delta));
+		setVariable(RUDDER_VARIABLE_ID, rudderAngle + delta);
+		InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, delta), this);
 	}
 	
 	@Override
@@ -277,7 +289,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 					propeller.addToForceOutput(thrustForce, thrustTorque);
 					if(propeller.definition.propeller.isRotor && propeller.angularVelocity > 0 && !groundDeviceCollective.isAnythingOnGround()){
 						hasRotors = true;
-						if(getVariable(AUTOLEVEL_VARIABLE) != 0){
+						if(getVariable(AUTOLEVEL_VARIABLE_ID) != 0){
 							rotorRotation.set((-(elevatorAngle + elevatorTrim) - orientation.angles.x)/MAX_ELEVATOR_ANGLE, -5D*rudderAngle/MAX_RUDDER_ANGLE, ((aileronAngle + aileronTrim) - orientation.angles.z)/MAX_AILERON_ANGLE);
 						}else{
 							if(autopilotSetting == 0){
@@ -508,14 +520,14 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 			if(velocity < autopilotSetting){
 				if(throttle < MAX_THROTTLE){
 					throttle += MAX_THROTTLE/100D;
-					setVariable(THROTTLE_VARIABLE, throttle);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D));
+					setVariable(THROTTLE_VARIABLE_ID, throttle);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D), this);
 				}
 			}else if(velocity > autopilotSetting){
 				if(throttle > 0){
 					throttle -= MAX_THROTTLE/100D;
-					setVariable(THROTTLE_VARIABLE, throttle);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D));
+					setVariable(THROTTLE_VARIABLE_ID, throttle);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D), this);
 				}
 			}
 		}
@@ -528,12 +540,12 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 				if(ticksExisted%10 == 0){
 					if(motion.y < 0 && throttle < MAX_THROTTLE){
 						throttle += MAX_THROTTLE/100D;
-						setVariable(THROTTLE_VARIABLE, throttle);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D));
+						setVariable(THROTTLE_VARIABLE_ID, throttle);
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE/100D), this);
 					}else if(motion.y > 0 && throttle < MAX_THROTTLE){
 						throttle -= MAX_THROTTLE/100D;
-						setVariable(THROTTLE_VARIABLE, throttle);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D));
+						setVariable(THROTTLE_VARIABLE_ID, throttle);
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE/100D), this);
 					}
 				}
 				//Change pitch/roll based on movement.
@@ -542,89 +554,89 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 				double forwardsDelta = forwardsVelocity - prevMotion.dotProduct(headingVector, false);
 				double sidewaysDelta = sidewaysVelocity - prevMotion.dotProduct(sideVector, false);
 				if(forwardsDelta > 0 && forwardsVelocity > 0 && elevatorTrim < MAX_ELEVATOR_TRIM){
-					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+					setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim + 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1), this);
 				}else if(forwardsDelta < 0 && forwardsVelocity < 0 && elevatorTrim > -MAX_ELEVATOR_TRIM){
-					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+					setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim - 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1), this);
 				}
 				if(sidewaysVelocity > 0 && sidewaysDelta > 0 && aileronTrim < MAX_AILERON_TRIM){
-					setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+					setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim + 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1), this);
 				}else if(sidewaysVelocity < 0 && sidewaysDelta < 0  && aileronTrim > -MAX_AILERON_TRIM){
-					setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+					setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim - 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1), this);
 				}
 			}else{
 				//Reset trim to prevent directional surges.
 				if(elevatorTrim < 0){
-					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+					setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim + 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1), this);
 				}else if(elevatorTrim > 0){
-					setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+					setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim - 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1), this);
 				}
 				if(aileronTrim < 0){
-					setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+					setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim + 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1), this);
 				}else if(aileronTrim > 0){
-					setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+					setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim - 1);
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1), this);
 				}
 			}
 		}else if(definition.motorized.isAircraft && autopilotSetting != 0){
 			//Normal aircraft.  Do autopilot operations if required.
 			//If we are not flying at a steady elevation, angle the elevator to compensate
 			if(-motion.y*100 > elevatorTrim + 1 && elevatorTrim < MAX_ELEVATOR_TRIM){
-				setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 0.1));
+				setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim + 0.1);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 0.1), this);
 			}else if(-motion.y*100 < elevatorTrim - 1 && elevatorTrim > -MAX_ELEVATOR_TRIM){
-				setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -0.1));
+				setVariable(ELEVATOR_TRIM_VARIABLE_ID, elevatorTrim - 0.1);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -0.1), this);
 			}
 			//Keep the roll angle at 0.
 			if(-orientation.angles.z > aileronTrim + 0.1 && aileronTrim < MAX_AILERON_TRIM){
-				setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 0.1));
+				setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim + 0.1);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 0.1), this);
 			}else if(-orientation.angles.z < aileronTrim - 0.1 && aileronTrim > -MAX_AILERON_TRIM){
-				setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 0.1);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -0.1));
+				setVariable(AILERON_TRIM_VARIABLE_ID, aileronTrim - 0.1);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -0.1), this);
 			}
 		}
 		
 		//If we don't have a controller, reset control states to 0.
 		if(getController() == null && !lockedOnRoad){
 			if(aileronAngle > AILERON_DAMPEN_RATE){
-				setVariable(AILERON_VARIABLE, aileronAngle - AILERON_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_VARIABLE, -AILERON_DAMPEN_RATE, 0, MAX_AILERON_ANGLE));
+				setVariable(AILERON_VARIABLE_ID, aileronAngle - AILERON_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_VARIABLE, -AILERON_DAMPEN_RATE, 0, MAX_AILERON_ANGLE), this);
 			}else if(aileronAngle < -AILERON_DAMPEN_RATE){
-				setVariable(AILERON_VARIABLE, aileronAngle + AILERON_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_VARIABLE, AILERON_DAMPEN_RATE, -MAX_AILERON_ANGLE, 0));
+				setVariable(AILERON_VARIABLE_ID, aileronAngle + AILERON_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, AILERON_VARIABLE, AILERON_DAMPEN_RATE, -MAX_AILERON_ANGLE, 0), this);
 			}else if(aileronAngle != 0){
-				setVariable(AILERON_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, AILERON_VARIABLE, 0));
+				setVariable(AILERON_VARIABLE_ID, 0);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, AILERON_VARIABLE, 0), this);
 			}
 			
 			if(elevatorAngle > ELEVATOR_DAMPEN_RATE){
-				setVariable(ELEVATOR_VARIABLE, elevatorAngle - ELEVATOR_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_VARIABLE, -ELEVATOR_DAMPEN_RATE, 0, MAX_ELEVATOR_ANGLE));
+				setVariable(ELEVATOR_VARIABLE_ID, elevatorAngle - ELEVATOR_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_VARIABLE, -ELEVATOR_DAMPEN_RATE, 0, MAX_ELEVATOR_ANGLE), this);
 			}else if(elevatorAngle < -ELEVATOR_DAMPEN_RATE){
-				setVariable(ELEVATOR_VARIABLE, elevatorAngle + ELEVATOR_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_VARIABLE, ELEVATOR_DAMPEN_RATE, -MAX_ELEVATOR_ANGLE, 0));
+				setVariable(ELEVATOR_VARIABLE_ID, elevatorAngle + ELEVATOR_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, ELEVATOR_VARIABLE, ELEVATOR_DAMPEN_RATE, -MAX_ELEVATOR_ANGLE, 0), this);
 			}else if(elevatorAngle != 0){
-				setVariable(ELEVATOR_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, ELEVATOR_VARIABLE, 0));
+				setVariable(ELEVATOR_VARIABLE_ID, 0);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, ELEVATOR_VARIABLE, 0), this);
 			}
 			
 			if(rudderAngle > RUDDER_DAMPEN_RATE){
-				setVariable(RUDDER_VARIABLE, rudderAngle - RUDDER_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, -RUDDER_DAMPEN_RATE, 0, MAX_RUDDER_ANGLE));
+				setVariable(RUDDER_VARIABLE_ID, rudderAngle - RUDDER_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, -RUDDER_DAMPEN_RATE, 0, MAX_RUDDER_ANGLE), this);
 			}else if(rudderAngle < -RUDDER_DAMPEN_RATE){
-				setVariable(RUDDER_VARIABLE, rudderAngle + RUDDER_DAMPEN_RATE);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, RUDDER_DAMPEN_RATE, -MAX_RUDDER_ANGLE, 0));
+				setVariable(RUDDER_VARIABLE_ID, rudderAngle + RUDDER_DAMPEN_RATE);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(this, RUDDER_VARIABLE, RUDDER_DAMPEN_RATE, -MAX_RUDDER_ANGLE, 0), this);
 			}else if(rudderAngle != 0){
-				setVariable(RUDDER_VARIABLE, 0);
-				InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, RUDDER_VARIABLE, 0));
+				setVariable(RUDDER_VARIABLE_ID, 0);
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, RUDDER_VARIABLE, 0), this);
 			}
 		}
 	}
@@ -653,73 +665,29 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 	@Override
 	public double getRawVariableValue(String variable, float partialTicks){
 		//If we are a forwarded variable and are a connected trailer, do that now.
-		if(definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(variable)){
+		if(isForwardedVariable(variable)){
 			return towedByConnection.towingVehicle.getRawVariableValue(variable, partialTicks);
 		}
 		
-		//Not a part of a forwarded variable.  Just return normally.
-		switch(variable){
-			//Vehicle world state cases.
-			case("yaw"): return orientation.angles.y;
-			case("heading"): double heading = -orientation.angles.y; if(ConfigSystem.client.controlSettings.north360.value) heading += 180; while (heading < 0) heading += 360; while (heading > 360) heading -= 360; return heading;
-			case("pitch"): return orientation.angles.x;
-			case("roll"): return orientation.angles.z;
-			case("altitude"): return position.y;
-			case("speed"): return axialVelocity*speedFactor*20;
-			case("speed_scaled"): return axialVelocity*20;
-			case("speed_factor"): return speedFactor;
-			case("acceleration"): return motion.length() - prevMotion.length();
-
-			//Vehicle state cases.
-			case("fuel"): return fuelTank.getFluidLevel()/fuelTank.getMaxLevel();
-			case("mass"): return currentMass;
-			case("electric_power"): return electricPower;
-			case("electric_usage"): return electricFlow*20D;
-			case("engines_on"): return enginesOn ? 1 : 0;
-			case("engines_running"): return enginesRunning ? 1 : 0;
-			case("reverser"): return reverseThrust ? 1 : 0;
-			case("locked"): return locked ? 1 : 0;
-			case("door"): return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
-			case("fueling"): return beingFueled ? 1 : 0;
-			
-			//State cases generally used on aircraft.
-			case("flaps_actual"): return flapCurrentAngle;
-			case("flaps_moving"): return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
-			case("vertical_speed"): return motion.y*speedFactor*20;
-			case("lift_reserve"): return -trackAngle;
-			case("turn_coordinator"): return ((rotation.angles.z)/10 + rotation.angles.y)/0.15D*25;
-			case("turn_indicator"): return (rotation.angles.y)/0.15F*25F;
-			case("slip"): return 75*sideVector.dotProduct(normalizedVelocityVector, true);
-			case("gear_moving"): return (isVariableActive(GEAR_VARIABLE) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
-			case("beacon_direction"): return selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
-			case("beacon_bearing_setpoint"): return selectedBeacon != null ? selectedBeacon.bearing : 0;
-			case("beacon_bearing_delta"): return selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
-			case("beacon_glideslope_setpoint"): return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
-			case("beacon_glideslope_actual"): return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
-			case("beacon_glideslope_delta"): return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
-			
-			default: {
-				//Missile incoming variables.
-				//Variable is in the form of missile_X_variablename.
-				if(variable.startsWith("missile_")){
-					String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
-					int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
-					if(missileNumber != -1){
-						if(missilesIncoming.size() <= missileNumber){
-							return 0;
-						}else{
-							switch(missileVariable){
-								case("distance"): return missilesIncoming.get(missileNumber).targetDistance;
-								case("direction"): {
-									Point3D missilePos = missilesIncoming.get(missileNumber).position;
-									return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
-								}
-							}
+		//Missile incoming variables.
+		//Variable is in the form of missile_X_variablename.
+		if(variable.startsWith("missile_")){
+			String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
+			int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
+			if(missileNumber != -1){
+				if(missilesIncoming.size() <= missileNumber){
+					return 0;
+				}else{
+					switch(missileVariable){
+						case("distance"): return missilesIncoming.get(missileNumber).targetDistance;
+						case("direction"): {
+							Point3D missilePos = missilesIncoming.get(missileNumber).position;
+							return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
 						}
-					}else if(missileVariable.equals("incoming")){
-						return missilesIncoming.isEmpty() ? 0 : 1;
 					}
 				}
+			}else if(missileVariable.equals("incoming")){
+				return missilesIncoming.isEmpty() ? 0 : 1;
 			}
 		}
 		
@@ -729,6 +697,113 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered{
 		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	public BindingType getVariableType(String variable){
+		//Missile variables depend on the missiles we have incoming, so they are always looked up by name.
+		if(variable.startsWith("missile_")){
+			return BindingType.NAMED;
+		}
+		switch(variable){
+			case("yaw"): return BindingType.VEHICLE_YAW;
+			case("heading"): return BindingType.VEHICLE_HEADING;
+			case("pitch"): return BindingType.VEHICLE_PITCH;
+			case("roll"): return BindingType.VEHICLE_ROLL;
+			case("altitude"): return BindingType.VEHICLE_ALTITUDE;
+			case("speed"): return BindingType.VEHICLE_SPEED;
+			case("speed_scaled"): return BindingType.VEHICLE_SPEED_SCALED;
+			case("speed_factor"): return BindingType.VEHICLE_SPEED_FACTOR;
+			case("acceleration"): return BindingType.VEHICLE_ACCELERATION;
+			case("fuel"): return BindingType.VEHICLE_FUEL;
+			case("mass"): return BindingType.VEHICLE_MASS;
+			case("electric_power"): return BindingType.VEHICLE_ELECTRIC_POWER;
+			case("electric_usage"): return BindingType.VEHICLE_ELECTRIC_USAGE;
+			case("engines_on"): return BindingType.VEHICLE_ENGINES_ON;
+			case("engines_running"): return BindingType.VEHICLE_ENGINES_RUNNING;
+			case("reverser"): return BindingType.VEHICLE_REVERSER;
+			case("locked"): return BindingType.VEHICLE_LOCKED;
+			case("door"): return BindingType.VEHICLE_DOOR;
+			case("fueling"): return BindingType.VEHICLE_FUELING;
+			case("flaps_actual"): return BindingType.VEHICLE_FLAPS_ACTUAL;
+			case("flaps_moving"): return BindingType.VEHICLE_FLAPS_MOVING;
+			case("vertical_speed"): return BindingType.VEHICLE_VERTICAL_SPEED;
+			case("lift_reserve"): return BindingType.VEHICLE_LIFT_RESERVE;
+			case("turn_coordinator"): return BindingType.VEHICLE_TURN_COORDINATOR;
+			case("turn_indicator"): return BindingType.VEHICLE_TURN_INDICATOR;
+			case("slip"): return BindingType.VEHICLE_SLIP;
+			case("gear_moving"): return BindingType.VEHICLE_GEAR_MOVING;
+			case("beacon_direction"): return BindingType.VEHICLE_BEACON_DIRECTION;
+			case("beacon_bearing_setpoint"): return BindingType.VEHICLE_BEACON_BEARING_SETPOINT;
+			case("beacon_bearing_delta"): return BindingType.VEHICLE_BEACON_BEARING_DELTA;
+			case("beacon_glideslope_setpoint"): return BindingType.VEHICLE_BEACON_GLIDESLOPE_SETPOINT;
+			case("beacon_glideslope_actual"): return BindingType.VEHICLE_BEACON_GLIDESLOPE_ACTUAL;
+			case("beacon_glideslope_delta"): return BindingType.VEHICLE_BEACON_GLIDESLOPE_DELTA;
+			default: return super.getVariableType(variable);
+		}
+	}
+	
+	@Override
+	public double getTypedVariableValue(BindingType type, float partialTicks){
+		switch(type){
+			//Vehicle world state cases.
+			case VEHICLE_YAW: return orientation.angles.y;
+			case VEHICLE_HEADING: double heading = -orientation.angles.y; if(ConfigSystem.client.controlSettings.north360.value) heading += 180; while (heading < 0) heading += 360; while (heading > 360) heading -= 360; return heading;
+			case VEHICLE_PITCH: return orientation.angles.x;
+			case VEHICLE_ROLL: return orientation.angles.z;
+			case VEHICLE_ALTITUDE: return position.y;
+			case VEHICLE_SPEED: return axialVelocity*speedFactor*20;
+			case VEHICLE_SPEED_SCALED: return axialVelocity*20;
+			case VEHICLE_SPEED_FACTOR: return speedFactor;
+			case VEHICLE_ACCELERATION: return motion.length() - prevMotion.length();
+
+			//Vehicle state cases.
+			case VEHICLE_FUEL: return fuelTank.getFluidLevel()/fuelTank.getMaxLevel();
+			case VEHICLE_MASS: return currentMass;
+			case VEHICLE_ELECTRIC_POWER: return electricPower;
+			case VEHICLE_ELECTRIC_USAGE: return electricFlow*20D;
+			case VEHICLE_ENGINES_ON: return enginesOn ? 1 : 0;
+			case VEHICLE_ENGINES_RUNNING: return enginesRunning ? 1 : 0;
+			case VEHICLE_REVERSER: return reverseThrust ? 1 : 0;
+			case VEHICLE_LOCKED: return locked ? 1 : 0;
+			case VEHICLE_DOOR: return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
+			case VEHICLE_FUELING: return beingFueled ? 1 : 0;
+			
+			//State cases generally used on aircraft.
+			case VEHICLE_FLAPS_ACTUAL: return flapCurrentAngle;
+			case VEHICLE_FLAPS_MOVING: return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
+			case VEHICLE_VERTICAL_SPEED: return motion.y*speedFactor*20;
+			case VEHICLE_LIFT_RESERVE: return -trackAngle;
+			case VEHICLE_TURN_COORDINATOR: return ((rotation.angles.z)/10 + rotation.angles.y)/0.15D*25;
+			case VEHICLE_TURN_INDICATOR: return (rotation.angles.y)/0.15F*25F;
+			case VEHICLE_SLIP: return 75*sideVector.dotProduct(normalizedVelocityVector, true);
+			case VEHICLE_GEAR_MOVING: return (isVariableActive(GEAR_VARIABLE_ID) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
+			case VEHICLE_BEACON_DIRECTION: return selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
+			case VEHICLE_BEACON_BEARING_SETPOINT: return selectedBeacon != null ? selectedBeacon.bearing : 0;
+			case VEHICLE_BEACON_BEARING_DELTA: return selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
+			case VEHICLE_BEACON_GLIDESLOPE_SETPOINT: return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
+			case VEHICLE_BEACON_GLIDESLOPE_ACTUAL: return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
+			case VEHICLE_BEACON_GLIDESLOPE_DELTA: return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y)/position.distanceTo(selectedBeacon.position))) : 0;
+			
+			default: return super.getTypedVariableValue(type, partialTicks);
+		}
+	}
+	
+	@Override
+	public double getRawVariableValue(AnimationVariableBinding binding, float partialTicks){
+		//Typed bindings skip the String-based method, so check for forwarding here too.
+		if(isForwardedVariable(binding.name)){
+			return towedByConnection.towingVehicle.getRawVariableValue(binding.name, partialTicks);
+		}
+		return super.getRawVariableValue(binding, partialTicks);
+	}
+	
+	/**
+	 *  Returns true if the passed-in variable should come from the vehicle towing us rather than ourselves.
+	 *  This is the case for trailers with hookup variables when they are connected.
+	 */
+	private boolean isForwardedVariable(String variable){
+		return definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(variable);
+	}
+	
 	@Override
 	@SuppressWarnings("unchecked")
 	public RenderVehicle getRenderer(){
@@ -119,7 +119,7 @@ public class PartEffector extends APart{
 										if(++blocksBroken == definition.effector.drillDurability){
 											this.isValid = false;
 										}else{
-											InterfaceManager.packetInterface.sendToAllClients(new PacketPartEffector(this));
+											InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEffector(this), this);
 										}
 									}else{
 										boxTimeSpentAtPosition.put(box, timeSpentBreaking + 1);
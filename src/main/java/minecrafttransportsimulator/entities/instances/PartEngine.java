@@ -3,6 +3,7 @@ package minecrafttransportsimulator.entities.instances;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
@@ -16,6 +17,7 @@ import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine.Signal;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding.BindingType;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 public class PartEngine extends APart{
@@ -102,6 +104,13 @@ public class PartEngine extends APart{
 	public static final String DOWN_SHIFT_VARIABLE = "engine_shift_down";
 	public static final String NEUTRAL_SHIFT_VARIABLE = "engine_shift_neutral";
 	public static final String GEAR_VARIABLE = "engine_gear";
+	public static final int MAGNETO_VARIABLE_ID = VariableRegistry.getID(MAGNETO_VARIABLE);
+	public static final int ELECTRIC_STARTER_VARIABLE_ID = VariableRegistry.getID(ELECTRIC_STARTER_VARIABLE);
+	public static final int HAND_STARTER_VARIABLE_ID = VariableRegistry.getID(HAND_STARTER_VARIABLE);
+	public static final int UP_SHIFT_VARIABLE_ID = VariableRegistry.getID(UP_SHIFT_VARIABLE);
+	public static final int DOWN_SHIFT_VARIABLE_ID = VariableRegistry.getID(DOWN_SHIFT_VARIABLE);
+	public static final int NEUTRAL_SHIFT_VARIABLE_ID = VariableRegistry.getID(NEUTRAL_SHIFT_VARIABLE);
+	public static final int GEAR_VARIABLE_ID = VariableRegistry.getID(GEAR_VARIABLE);
 	public static final float COLD_TEMP = 30F;
 	public static final float OVERHEAT_TEMP_1 = 115.556F;
 	public static final float OVERHEAT_TEMP_2 = 121.111F;
@@ -132,7 +141,7 @@ public class PartEngine extends APart{
 		//If we are on an aircraft, set our gear to 1 as aircraft don't have shifters.
 		//Well, except blimps, but that's a special case.
 		if(vehicleOn != null && vehicleOn.definition.motorized.isAircraft){
-			setVariable(GEAR_VARIABLE, 1);
+			setVariable(GEAR_VARIABLE_ID, 1);
 		}
 	}
 	
@@ -145,11 +154,11 @@ public class PartEngine extends APart{
 				if(damage.entityResponsible instanceof IWrapperPlayer && ((IWrapperPlayer) damage.entityResponsible).getHeldStack().isEmpty()){
 					if(!entityOn.equals(damage.entityResponsible.getEntityRiding())){
 						if(!magnetoOn){
-							setVariable(MAGNETO_VARIABLE, 1);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, MAGNETO_VARIABLE));
+							setVariable(MAGNETO_VARIABLE_ID, 1);
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(this, MAGNETO_VARIABLE), this);
 						}
 						handStartEngine();
-						InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.HS_ON));
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.HS_ON), this);
 						return;
 					}
 				}
@@ -162,19 +171,19 @@ public class PartEngine extends APart{
 						if(!fuelLeak)fuelLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value*10;
 						if(!brokenStarter)brokenStarter = Math.random() < 0.05;
 					}
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, damage.amount*10*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, damage.amount*10*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter), this);
 				}else{
 					hours += damage.amount*2*ConfigSystem.settings.general.engineHoursFactor.value;
 					if(!definition.engine.isSteamPowered){
 						if(!oilLeak)oilLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value;
 						if(!fuelLeak)fuelLeak = Math.random() < ConfigSystem.settings.damage.engineLeakProbability.value;
 					}
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, damage.amount*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, damage.amount*ConfigSystem.settings.general.engineHoursFactor.value, oilLeak, fuelLeak, brokenStarter), this);
 				}
 			}
 		}else{
 			stallEngine(Signal.DROWN);
-			InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DROWN));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.DROWN), this);
 		}
 	}
 	
@@ -184,10 +193,10 @@ public class PartEngine extends APart{
 		//Reset states.
 		backfired = false;
 		badShift = false;
-		magnetoOn = isVariableActive(MAGNETO_VARIABLE);
-		electricStarterEngaged = isVariableActive(ELECTRIC_STARTER_VARIABLE);
-		handStarterEngaged = isVariableActive(HAND_STARTER_VARIABLE);
-		currentGear = (byte) getVariable(GEAR_VARIABLE);
+		magnetoOn = isVariableActive(MAGNETO_VARIABLE_ID);
+		electricStarterEngaged = isVariableActive(ELECTRIC_STARTER_VARIABLE_ID);
+		handStarterEngaged = isVariableActive(HAND_STARTER_VARIABLE_ID);
+		currentGear = (byte) getVariable(GEAR_VARIABLE_ID);
 		
 		//If the engine is running, but the magneto is off, turn the engine off.
 		if(running && !magnetoOn){
@@ -252,8 +261,8 @@ public class PartEngine extends APart{
 					if(vehicleOn.electricPower > 1){
 						starterLevel += 4;
 					}else{
-						setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+						setVariable(ELECTRIC_STARTER_VARIABLE_ID, 0);
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE), this);
 					}
 				}
 				if(starterLevel > 0){
@@ -266,13 +275,13 @@ public class PartEngine extends APart{
 				}
 				if(autoStarterEngaged){
 					if(running){
-						setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+						setVariable(ELECTRIC_STARTER_VARIABLE_ID, 0);
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE), this);
 					}
 				}
 			}else if(handStarterEngaged){
 				if(starterLevel == 0){
-					setVariable(HAND_STARTER_VARIABLE, 0);
+					setVariable(HAND_STARTER_VARIABLE_ID, 0);
 				}
 			}else{
 				starterLevel = 0;
@@ -295,15 +304,15 @@ public class PartEngine extends APart{
 			}
 			
 			//Check for any shifting requests.
-			if(isVariableActive(UP_SHIFT_VARIABLE)){
+			if(isVariableActive(UP_SHIFT_VARIABLE_ID)){
 				shiftUp();
-				toggleVariable(UP_SHIFT_VARIABLE);
-			}else if(isVariableActive(DOWN_SHIFT_VARIABLE)){
+				toggleVariable(UP_SHIFT_VARIABLE_ID);
+			}else if(isVariableActive(DOWN_SHIFT_VARIABLE_ID)){
 				shiftDown();
-				toggleVariable(DOWN_SHIFT_VARIABLE);
-			}else if(isVariableActive(NEUTRAL_SHIFT_VARIABLE)){
+				toggleVariable(DOWN_SHIFT_VARIABLE_ID);
+			}else if(isVariableActive(NEUTRAL_SHIFT_VARIABLE_ID)){
 				shiftNeutral();
-				toggleVariable(NEUTRAL_SHIFT_VARIABLE);
+				toggleVariable(NEUTRAL_SHIFT_VARIABLE_ID);
 			}
 			
 			//Check for reversing if we are on a blimp with reversed thrust.
@@ -368,7 +377,7 @@ public class PartEngine extends APart{
 					if(hours > 250 && !world.isClient()){
 						if(Math.random() < (hours/2)/(250+(10000-hours))*(currentMaxSafeRPM/(rpm+currentMaxSafeRPM/1.5))){
 							backfireEngine();
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BACKFIRE));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.BACKFIRE), this);
 						}
 					}
 					
@@ -376,19 +385,19 @@ public class PartEngine extends APart{
 					if(!world.isClient()){
 						if(!world.isClient() && isInLiquid()){
 							stallEngine(Signal.DROWN);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DROWN));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.DROWN), this);
 						}else if(!isCreative && vehicleOn.fuelTank.getFluidLevel() == 0){
 							stallEngine(Signal.FUEL_OUT);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.FUEL_OUT));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.FUEL_OUT), this);
 						}else if(rpm < definition.engine.stallRPM){
 							stallEngine(Signal.TOO_SLOW);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.TOO_SLOW));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.TOO_SLOW), this);
 						}else if(!isActive){
 							stallEngine(Signal.FUEL_OUT);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.FUEL_OUT));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.FUEL_OUT), this);
 						}else if(vehicleOn.damageAmount == vehicleOn.definition.general.health){
 							stallEngine(Signal.DEAD_VEHICLE);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.DEAD_VEHICLE));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.DEAD_VEHICLE), this);
 						}
 						
 					}
@@ -443,7 +452,7 @@ public class PartEngine extends APart{
 					if(isCreative || vehicleOn.fuelTank.getFluidLevel() > 0){
 						if(!isInLiquid() && magnetoOn){
 							startEngine();
-							InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.START));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.START), this);
 						}
 					}
 				}
@@ -669,38 +678,6 @@ public class PartEngine extends APart{
 	
 	@Override
 	public double getRawVariableValue(String variable, float partialTicks){
-		switch(variable){
-			case("engine_isautomatic"): return definition.engine.isAutomatic ? 1 : 0;	
-			case("engine_rotation"): return getEngineRotation(partialTicks);
-			case("engine_sin"): return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
-			case("engine_cos"): return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
-			case("engine_driveshaft_rotation"): return getDriveshaftRotation(partialTicks);
-			case("engine_driveshaft_sin"): return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
-			case("engine_driveshaft_cos"): return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
-			case("engine_rpm"): return rpm;
-			case("engine_rpm_safe"): return currentMaxSafeRPM;
-			case("engine_rpm_max"): return currentMaxRPM;
-			case("engine_rpm_percent"): return rpm/currentMaxRPM;
-			case("engine_rpm_percent_safe"): return rpm/currentMaxSafeRPM;
-			case("engine_fuel_flow"): return fuelFlow*20D*60D/1000D;
-			case("engine_temp"): return temp;
-			case("engine_pressure"): return pressure;
-			case("engine_gear"): return currentGear;
-			case("engine_gearshift"): return getGearshiftRotation();
-			case("engine_gearshift_hvertical"): return getGearshiftPosition_Vertical();
-			case("engine_gearshift_hhorizontal"): return getGearshiftPosition_Horizontal();
-			case("engine_clutch_upshift"): return upshiftCountdown > 0 ? 1 : 0;
-			case("engine_clutch_downshift"): return downshiftCountdown > 0 ? 1 : 0;
-			case("engine_badshift"): return badShift ? 1 : 0;
-			case("engine_reversed"): return currentGear < 0 ? 1 : 0;
-			case("engine_running"): return running ? 1 : 0;
-			case("engine_powered"): return running || internalFuel > 0 ? 1 : 0;
-			case("engine_backfired"): return backfired ? 1 : 0;
-			case("engine_jumper_cable"): return linkedEngine != null ? 1 : 0;
-			case("engine_hours"): return hours;
-			case("engine_oilleak"): return oilLeak ? 1 : 0;
-			case("engine_fuelleak"): return fuelLeak ? 1 : 0;
-		}
 		if(variable.startsWith("engine_piston_")){
 			if(running){
 				String pistonVariable = variable.substring("engine_piston_".length());
@@ -729,6 +706,83 @@ public class PartEngine extends APart{
 		return super.getRawVariableValue(variable, partialTicks);
 	}
 	
+	@Override
+	public BindingType getVariableType(String variable){
+		switch(variable){
+			case("engine_isautomatic"): return BindingType.ENGINE_ISAUTOMATIC;
+			case("engine_rotation"): return BindingType.ENGINE_ROTATION;
+			case("engine_sin"): return BindingType.ENGINE_SIN;
+			case("engine_cos"): return BindingType.ENGINE_COS;
+			case("engine_driveshaft_rotation"): return BindingType.ENGINE_DRIVESHAFT_ROTATION;
+			case("engine_driveshaft_sin"): return BindingType.ENGINE_DRIVESHAFT_SIN;
+			case("engine_driveshaft_cos"): return BindingType.ENGINE_DRIVESHAFT_COS;
+			case("engine_rpm"): return BindingType.ENGINE_RPM;
+			case("engine_rpm_safe"): return BindingType.ENGINE_RPM_SAFE;
+			case("engine_rpm_max"): return BindingType.ENGINE_RPM_MAX;
+			case("engine_rpm_percent"): return BindingType.ENGINE_RPM_PERCENT;
+			case("engine_rpm_percent_safe"): return BindingType.ENGINE_RPM_PERCENT_SAFE;
+			case("engine_fuel_flow"): return BindingType.ENGINE_FUEL_FLOW;
+			case("engine_temp"): return BindingType.ENGINE_TEMP;
+			case("engine_pressure"): return BindingType.ENGINE_PRESSURE;
+			case("engine_gear"): return BindingType.ENGINE_GEAR;
+			case("engine_gearshift"): return BindingType.ENGINE_GEARSHIFT;
+			case("engine_gearshift_hvertical"): return BindingType.ENGINE_GEARSHIFT_HVERTICAL;
+			case("engine_gearshift_hhorizontal"): return BindingType.ENGINE_GEARSHIFT_HHORIZONTAL;
+			case("engine_clutch_upshift"): return BindingType.ENGINE_CLUTCH_UPSHIFT;
+			case("engine_clutch_downshift"): return BindingType.ENGINE_CLUTCH_DOWNSHIFT;
+			case("engine_badshift"): return BindingType.ENGINE_BADSHIFT;
+			case("engine_reversed"): return BindingType.ENGINE_REVERSED;
+			case("engine_running"): return BindingType.ENGINE_RUNNING;
+			case("engine_powered"): return BindingType.ENGINE_POWERED;
+			case("engine_backfired"): return BindingType.ENGINE_BACKFIRED;
+			case("engine_jumper_cable"): return BindingType.ENGINE_JUMPER_CABLE;
+			case("engine_hours"): return BindingType.ENGINE_HOURS;
+			case("engine_oilleak"): return BindingType.ENGINE_OILLEAK;
+			case("engine_fuelleak"): return BindingType.ENGINE_FUELLEAK;
+			default: {
+				//Piston variables are parsed when they are checked, so make sure they are looked up by name.
+				return variable.startsWith("engine_piston_") ? BindingType.NAMED : super.getVariableType(variable);
+			}
+		}
+	}
+	
+	@Override
+	public double getTypedVariableValue(BindingType type, float partialTicks){
+		switch(type){
+			case ENGINE_ISAUTOMATIC: return definition.engine.isAutomatic ? 1 : 0;
+			case ENGINE_ROTATION: return getEngineRotation(partialTicks);
+			case ENGINE_SIN: return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
+			case ENGINE_COS: return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
+			case ENGINE_DRIVESHAFT_ROTATION: return getDriveshaftRotation(partialTicks);
+			case ENGINE_DRIVESHAFT_SIN: return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
+			case ENGINE_DRIVESHAFT_COS: return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
+			case ENGINE_RPM: return rpm;
+			case ENGINE_RPM_SAFE: return currentMaxSafeRPM;
+			case ENGINE_RPM_MAX: return currentMaxRPM;
+			case ENGINE_RPM_PERCENT: return rpm/currentMaxRPM;
+			case ENGINE_RPM_PERCENT_SAFE: return rpm/currentMaxSafeRPM;
+			case ENGINE_FUEL_FLOW: return fuelFlow*20D*60D/1000D;
+			case ENGINE_TEMP: return temp;
+			case ENGINE_PRESSURE: return pressure;
+			case ENGINE_GEAR: return currentGear;
+			case ENGINE_GEARSHIFT: return getGearshiftRotation();
+			case ENGINE_GEARSHIFT_HVERTICAL: return getGearshiftPosition_Vertical();
+			case ENGINE_GEARSHIFT_HHORIZONTAL: return getGearshiftPosition_Horizontal();
+			case ENGINE_CLUTCH_UPSHIFT: return upshiftCountdown > 0 ? 1 : 0;
+			case ENGINE_CLUTCH_DOWNSHIFT: return downshiftCountdown > 0 ? 1 : 0;
+			case ENGINE_BADSHIFT: return badShift ? 1 : 0;
+			case ENGINE_REVERSED: return currentGear < 0 ? 1 : 0;
+			case ENGINE_RUNNING: return running ? 1 : 0;
+			case ENGINE_POWERED: return running || internalFuel > 0 ? 1 : 0;
+			case ENGINE_BACKFIRED: return backfired ? 1 : 0;
+			case ENGINE_JUMPER_CABLE: return linkedEngine != null ? 1 : 0;
+			case ENGINE_HOURS: return hours;
+			case ENGINE_OILLEAK: return oilLeak ? 1 : 0;
+			case ENGINE_FUELLEAK: return fuelLeak ? 1 : 0;
+			default: return super.getTypedVariableValue(type, partialTicks);
+		}
+	}
+	
 	
 	//--------------------START OF ENGINE STATE CHANGE METHODS--------------------
 	public void startEngine(){
@@ -742,7 +796,7 @@ public class PartEngine extends APart{
 	}
 	
 	public void handStartEngine(){
-		setVariable(HAND_STARTER_VARIABLE, 1);
+		setVariable(HAND_STARTER_VARIABLE_ID, 1);
 		
 		//Add a small amount to the starter level from the player's hand.
 		starterLevel += 4;
@@ -752,8 +806,8 @@ public class PartEngine extends APart{
 		//Only engage auto-starter if we aren't running and we have the right fuel.
 		if(!running && (isCreative || vehicleOn.fuelTank.getFluidLevel() > 0)){
 			autoStarterEngaged = true;
-			setVariable(MAGNETO_VARIABLE, 1);
-			setVariable(ELECTRIC_STARTER_VARIABLE, 1);
+			setVariable(MAGNETO_VARIABLE_ID, 1);
+			setVariable(ELECTRIC_STARTER_VARIABLE_ID, 1);
 		}
 	}
 	
@@ -842,14 +896,14 @@ public class PartEngine extends APart{
 				
 			if(doShift){
 				currentGear = nextGear;
-				setVariable(GEAR_VARIABLE, currentGear);
+				setVariable(GEAR_VARIABLE_ID, currentGear);
 				shiftCooldown = definition.engine.shiftSpeed;
 				upshiftCountdown = definition.engine.clutchTime;
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, UP_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, UP_SHIFT_VARIABLE, 1), this);
 				}
 			}else if(!world.isClient()){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BAD_SHIFT));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.BAD_SHIFT), this);
 			}
 		}
 		return doShift;
@@ -874,14 +928,14 @@ public class PartEngine extends APart{
 				
 			if(doShift){
 				currentGear = nextGear;
-				setVariable(GEAR_VARIABLE, currentGear);
+				setVariable(GEAR_VARIABLE_ID, currentGear);
 				shiftCooldown = definition.engine.shiftSpeed;
 				downshiftCountdown = definition.engine.clutchTime;
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, DOWN_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, DOWN_SHIFT_VARIABLE, 1), this);
 				}
 			}else if(!world.isClient()){
-				InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.BAD_SHIFT));
+				InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(this, Signal.BAD_SHIFT), this);
 			}
 		}
 		return doShift;
@@ -897,9 +951,9 @@ public class PartEngine extends APart{
 				}
 				shiftCooldown = definition.engine.shiftSpeed;
 				currentGear = 0;
-				setVariable(GEAR_VARIABLE, currentGear);
+				setVariable(GEAR_VARIABLE_ID, currentGear);
 				if(!world.isClient()){
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, NEUTRAL_SHIFT_VARIABLE, 1));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(this, NEUTRAL_SHIFT_VARIABLE, 1), this);
 				}
 			}
 		}
@@ -253,7 +253,7 @@ public class PartGroundDevice extends APart{
 				}
 			}
 			//Valid conditions, send packet before continuing.
-			InterfaceManager.packetInterface.sendToAllClients(new PacketPartGroundDevice(this, setFlat));
+			InterfaceManager.packetInterface.sendToAllTracking(new PacketPartGroundDevice(this, setFlat), this);
 		}
 		
 		//Set flat state and new bounding box.
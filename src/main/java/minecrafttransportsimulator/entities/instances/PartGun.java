@@ -597,7 +597,7 @@ public class PartGun extends APart{
 					bulletsReloading = item.definition.bullet.quantity;
 					reloadTimeRemaining = definition.gun.reloadTime;
 					if(!world.isClient()){
-						InterfaceManager.packetInterface.sendToAllClients(new PacketPartGun(this, loadedBullet));
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketPartGun(this, loadedBullet), this);
 					}
 					return true;
 				}
@@ -186,7 +186,7 @@ public final class PartInteractable extends APart{
 										furnace.ticksAddedOfFuel = stack.getFuelValue();
 										furnace.ticksLeftOfFuel = furnace.ticksAddedOfFuel;
 										crate.inventory.removeFromSlot(i, 1);
-										InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceFuelAdd(furnace));
+										InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceFuelAdd(furnace), furnace);
 										return;
 									}
 								}
@@ -206,7 +206,7 @@ public final class PartInteractable extends APart{
 								furnace.ticksAddedOfFuel = (int) (ConfigSystem.settings.fuel.fuels.get(EntityFurnace.FURNACE_FUEL_NAME).get(barrel.tank.getFluid())*20*furnace.definition.furnaceEfficiency);
 								furnace.ticksLeftOfFuel = furnace.ticksAddedOfFuel;
 								barrel.tank.drain(barrel.tank.getFluid(), 1, true);
-								InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceFuelAdd(furnace));
+								InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceFuelAdd(furnace), furnace);
 							}
 						}
 					}
@@ -221,7 +221,7 @@ public final class PartInteractable extends APart{
 					furnace.powerToDrawPerTick = 1D/ticksToDrawPower;
 					furnace.ticksAddedOfFuel = ticksToDrawPower;
 					furnace.ticksLeftOfFuel = furnace.ticksAddedOfFuel;
-					InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceFuelAdd(furnace));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceFuelAdd(furnace), furnace);
 				}
 				break;
 			}
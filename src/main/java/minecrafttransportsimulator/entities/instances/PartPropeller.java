@@ -48,7 +48,7 @@ public class PartPropeller extends APart{
 			if(damage.entityResponsible instanceof IWrapperPlayer && ((IWrapperPlayer) damage.entityResponsible).getHeldStack().isEmpty()){
 				if(!entityOn.equals(damage.entityResponsible.getEntityRiding())){
 					connectedEngine.handStartEngine();
-					InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(connectedEngine, Signal.HS_ON));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(connectedEngine, Signal.HS_ON), connectedEngine);
 				}
 				return;
 			}else if(damageAmount == definition.general.health){
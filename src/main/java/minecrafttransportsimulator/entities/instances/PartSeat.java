@@ -66,7 +66,7 @@ public final class PartSeat extends APart{
 							if(activeGun == null){
 								if(!placementDefinition.canDisableGun){
 									setNextActiveGun();
-									InterfaceManager.packetInterface.sendToAllClients(new PacketPartSeat(this));
+									InterfaceManager.packetInterface.sendToAllTracking(new PacketPartSeat(this), this);
 								}
 							}else{
 								for(AItemPart partItem : entityOn.partsByItem.keySet()){
@@ -84,7 +84,7 @@ public final class PartSeat extends APart{
 								//Invalid active gun detected.  Select a new one.
 								activeGun = null;
 								setNextActiveGun();
-								InterfaceManager.packetInterface.sendToAllClients(new PacketPartSeat(this));
+								InterfaceManager.packetInterface.sendToAllTracking(new PacketPartSeat(this), this);
 							}
 						}
 					}
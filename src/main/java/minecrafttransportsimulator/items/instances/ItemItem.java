@@ -218,7 +218,7 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemVehicleInterac
 									if(part.position.isDistanceToCloserThan(firstPartClicked.position, 16)){
 										if(interactable.tank.getFluid().isEmpty() || firstPartClicked.tank.getFluid().isEmpty() || interactable.tank.getFluid().equals(firstPartClicked.tank.getFluid())){
 											firstPartClicked.linkedPart = interactable;
-											InterfaceManager.packetInterface.sendToAllClients(new PacketPartInteractable(firstPartClicked, player));
+											InterfaceManager.packetInterface.sendToAllTracking(new PacketPartInteractable(firstPartClicked, player), firstPartClicked);
 											player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_FUELHOSE_SECONDLINK));
 											firstPartClicked = null;
 										}else{
@@ -238,7 +238,7 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemVehicleInterac
 							if(vehicle.position.isDistanceToCloserThan(firstPartClicked.position, 16)){
 								if(vehicle.fuelTank.getFluid().isEmpty() || firstPartClicked.tank.getFluid().isEmpty() || vehicle.fuelTank.getFluid().equals(firstPartClicked.tank.getFluid())){
 									firstPartClicked.linkedVehicle = vehicle;
-									InterfaceManager.packetInterface.sendToAllClients(new PacketPartInteractable(firstPartClicked, player));
+									InterfaceManager.packetInterface.sendToAllTracking(new PacketPartInteractable(firstPartClicked, player), firstPartClicked);
 									player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_FUELHOSE_SECONDLINK));
 									firstPartClicked = null;
 								}else{
@@ -269,8 +269,8 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemVehicleInterac
 								}else if(engine.position.isDistanceToCloserThan(firstEngineClicked.position, 15)){
 									engine.linkedEngine = firstEngineClicked;
 									firstEngineClicked.linkedEngine = engine;
-									InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(engine, firstEngineClicked));
-									InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(firstEngineClicked, engine));
+									InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(engine, firstEngineClicked), engine);
+									InterfaceManager.packetInterface.sendToAllTracking(new PacketPartEngine(firstEngineClicked, engine), firstEngineClicked);
 									firstEngineClicked = null;
 									player.sendPacket(new PacketPlayerChatMessage(player, JSONConfigLanguage.INTERACT_JUMPERCABLE_SECONDLINK));
 								}else{
@@ -335,15 +335,15 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemVehicleInterac
 			if(!world.isClient() && player.isOP()){
 				for(EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)){
 					vehicle.setVariable(EntityVehicleF_Physics.THROTTLE_VARIABLE, 0);
-					InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(vehicle, EntityVehicleF_Physics.THROTTLE_VARIABLE, 0));
+					InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(vehicle, EntityVehicleF_Physics.THROTTLE_VARIABLE, 0), vehicle);
 					if(!vehicle.isVariableActive(EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE)){
 						vehicle.setVariable(EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE, 1);
-						InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(vehicle, EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE));
+						InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(vehicle, EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE), vehicle);
 					}
 					for(PartEngine engine : vehicle.engines.values()){
 						if(engine.isVariableActive(PartEngine.MAGNETO_VARIABLE)){
 							engine.setVariable(PartEngine.MAGNETO_VARIABLE, 0);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(engine, PartEngine.MAGNETO_VARIABLE));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(engine, PartEngine.MAGNETO_VARIABLE), engine);
 						}
 					}
 				}
@@ -102,7 +102,7 @@ public class ItemPartInteractable extends AItemPart implements IItemVehicleInter
 								 int addedFuel = (int) (ConfigSystem.settings.fuel.fuels.get(EntityFurnace.FURNACE_FUEL_NAME).get(jerrrycanFluid)*1000*20*furnace.definition.furnaceEfficiency);
 								 int priorFuel = furnace.ticksLeftOfFuel; 
 								 furnace.ticksLeftOfFuel = addedFuel;
-								 InterfaceManager.packetInterface.sendToAllClients(new PacketFurnaceFuelAdd(furnace));
+								 InterfaceManager.packetInterface.sendToAllTracking(new PacketFurnaceFuelAdd(furnace), furnace);
 								 furnace.ticksLeftOfFuel += priorFuel;
 								 furnace.ticksAddedOfFuel = furnace.ticksLeftOfFuel;
 								 
@@ -14,6 +14,7 @@ import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 public class JSONConfigClient{
 	public JSONRenderingSettings renderingSettings = new JSONRenderingSettings();
 	public JSONControlSettings controlSettings = new JSONControlSettings();
+	public JSONSoundSettings soundSettings = new JSONSoundSettings();
 	public JSONControls controls = new JSONControls();
 	
 	public static class JSONRenderingSettings{
@@ -35,8 +36,27 @@ public class JSONConfigClient{
 		public JSONConfigEntry<Boolean> brightLights = new JSONConfigEntry<Boolean>(true, "If false, lights from vehicles and blocks will not do brightness blending and will render as if they were part of the model at that same brightness.  Useful if you have shaders and this is causing troubles.");
 		public JSONConfigEntry<Boolean> blendedLights = new JSONConfigEntry<Boolean>(true, "If false, beam-based lights from vehicles and blocks will not do brightness blending.  This is different from the general brightness setting as this will do OpenGL blending on the world to make it brighter, not just the beams themselves.");
 		
+		public JSONConfigEntry<Boolean> modelLODs = new JSONConfigEntry<Boolean>(true, "If true, models will render with less detail when they are far away, and parts of models that are too small to see won't be rendered or animated.  Packs may provide their own low-detail objects, otherwise they are generated when models are loaded.");
+		
 		public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<Boolean>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false if mods cause issues, like two-hand rendering or player model issues.");
 		
+		public JSONConfigEntry<Map<String, Integer>> renderDistances = new JSONConfigEntry<Map<String, Integer>>(populateDefaultRenderDistances(), "Max distance, in blocks, that things will render at.  Keys are the names of the classes of the things, and things that don't have their class listed will use the entry for the closest class they extend.  A distance of 0 means there is no max distance, which is the default for everything but particles and bullets.  Lower these if you have lots of vehicles or particles and are getting low FPS.  Changes take effect after a restart.");
+		
+		private static Map<String, Integer> populateDefaultRenderDistances(){
+			Map<String, Integer> distances = new HashMap<String, Integer>();
+			distances.put("AEntityC_Renderable", 0);
+			distances.put("EntityVehicleF_Physics", 0);
+			distances.put("APart", 0);
+			distances.put("ATileEntityBase", 0);
+			distances.put("EntityBullet", 256);
+			distances.put("ParticleSystem", 64);
+			return distances;
+		}
+	}
+	
+	public static class JSONSoundSettings{
+		public JSONConfigEntry<Integer> maxVoices = new JSONConfigEntry<Integer>(64, "Max number of sounds that may play at once.  When there are more sounds than this, only the most audible ones play, based on their distance, volume, and if you are riding what's making them.  The rest will start playing again when they are more audible.  Radios always play, but count towards this.");
+		public JSONConfigEntry<Integer> soundCacheSize = new JSONConfigEntry<Integer>(64, "Max memory, in MB, that decoded sounds may use.  Sounds are kept after they are played so they don't need to be decoded again, and the least-recently played ones are removed when there are more than this.  Lower this if you have lots of packs with long sounds.  Radio stations are not part of this.");
 	}
 	
 	public static class JSONControlSettings{
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.UUID;
 
 import mcinterface1122.BuilderEntityExisting;
+import minecrafttransportsimulator.baseclasses.BlockCollisionSet;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.EntityManager;
@@ -224,11 +225,15 @@ public abstract class AWrapperWorld extends EntityManager{
 	
 	/**
 	 * Checks the passed-in bounding box for collisions with other blocks.  Returns true if they collided,
-	 * false if they did not.  This is a bulk method designed to handle multiple checks in a row.  As such,
-	 * it stores a listing of known air blocks.  If a block has been checked before and is air, it is ignored.
-	 * To reset this list, pass in clearCache.
+	 * false if they did not.  The box is offset by the passed-in offset for this check only.
 	 */
-	public abstract boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache);
+	public abstract boolean checkForCollisions(BoundingBox box, Point3D offset);
+	
+	/**
+	 * Populates the passed-in set with all blocks that have collision or are liquids within the set's bounds.
+	 * Any blocks already in the set are left alone, so clear it first if this isn't desired.
+	 */
+	public abstract void updateBlockCollisions(BlockCollisionSet collisions);
 	
 	/**
 	 *  Returns the current redstone power at the passed-in position.
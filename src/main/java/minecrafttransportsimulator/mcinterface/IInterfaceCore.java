@@ -19,6 +19,11 @@ public interface IInterfaceCore{
 	 */
 	public String getGameVersion();
 	
+	/**
+	 *  Returns the version of this mod.
+	 */
+	public String getModVersion();
+	
 	/**
 	 *  Returns true if the mod with the passed-in modID is present.
 	 */
@@ -1,6 +1,8 @@
 package minecrafttransportsimulator.mcinterface;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.packets.components.APacketBase;
 
 /**Interface to the MC networking system.  This interface allows us to send packets
@@ -33,6 +35,24 @@ public interface IInterfacePacket{
 	 */
 	public void sendToAllClients(APacketBase packet);
 	
+	/**
+	 *  Sends the passed-in packet to all clients that are tracking the passed-in entity.
+	 *  Use this rather than {@link #sendToAllClients(APacketBase)} for any packet that
+	 *  is about an entity, as clients that don't have it loaded can't do anything with it.
+	 *  Parts are tracked with the entity they are on.  Entities that aren't tracked by
+	 *  the game directly are sent to clients in range of them, or all clients if they
+	 *  don't have a position.
+	 *  Note that this may ONLY be called on the server.
+	 */
+	public void sendToAllTracking(APacketBase packet, AEntityA_Base entity);
+	
+	/**
+	 *  Sends the passed-in packet to all clients in the passed-in world
+	 *  that are within the radius of the passed-in position.
+	 *  Note that this may ONLY be called on the server.
+	 */
+	public void sendToAllNear(APacketBase packet, AWrapperWorld world, Point3D position, double radius);
+	
 	/**
 	 *  Sends the passed-in packet to the passed-in player.
 	 *  Note that this may ONLY be called on the server, as
@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.mcinterface;
 
+import java.nio.FloatBuffer;
+
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
@@ -38,6 +40,14 @@ public interface IInterfaceRender{
 	 */
 	public void renderVertices(RenderableObject object);
 	
+	/**
+	 *  Renders the particle vertices in the passed-in buffer, all with the passed-in texture.
+	 *  Vertices are 10 floats each: x, y, z, u, v, red, green, blue, alpha, and the lightmap
+	 *  value from {@link #getLightmapAtPosition(Point3D)}, or -1 for full-bright.  Every four vertices
+	 *  make a quad.  Positions are relative to the camera, so no transform is applied.
+	 */
+	public void renderParticles(String texture, FloatBuffer vertices);
+	
 	/**
 	 *  Applies an OpenGL transform to the current pipeline based on the
 	 *  passed-in matrix.  Allows for inverted transformation, should this
@@ -55,8 +65,10 @@ public interface IInterfaceRender{
 	 *  Downloads the passed-in texture to be parsed and bound.  The texture is downloaded from the
 	 *  URL and then added to the texture rendering system.  The integer of the The instance 
 	 *  of the texture is cached in this class once created for later use, so feel free to not 
-	 *  cache the string URL that is passed-in.  If the texture downloading was successful, null is
-	 *  returned.  Otherwise, an error message is returned.  Bind the downloaded texture by calling
+	 *  cache the string URL that is passed-in.  Downloading happens in the background, so this
+	 *  returns right away, and a placeholder texture is bound until the download is done.
+	 *  If the download failed, the error message is returned the next time this is called for the
+	 *  URL.  Otherwise, null is returned.  Bind the downloaded texture by calling
 	 *  {@link #bindTexture(String)} with the passed-in URL.
 	 */
 	public String downloadURLTexture(String textureURL);
@@ -73,6 +85,12 @@ public interface IInterfaceRender{
 	 */
 	public void setLightingToPosition(Point3D position);
 	
+	/**
+	 *  Returns the lightmap value for the light at the passed-in position.  This is the same light
+	 *  {@link #setLightingToPosition(Point3D)} uses, but returned rather than set.
+	 */
+	public int getLightmapAtPosition(Point3D position);
+	
 	/**
 	 *  Manually enables and disables blending. Do NOT use this during normal model rendering, as it
 	 *  can seriously mess up states.  Only use this for simple things, like GUIs or screen overlays.
@@ -128,6 +128,67 @@ public abstract class APacketBase{
 		return new Point3D(buf.readInt(), buf.readInt(), buf.readInt());
 	}
 	
+	/**
+	 *  Helper method to write a variable-length int to the buffer.
+	 *  Small values, positive or negative, take fewer bytes than large ones.
+	 *  A value between -64 and 63 only takes a single byte.
+	 */
+	protected static void writeVarIntToBuffer(int value, ByteBuf buf){
+		//Zig-zag encode so negative numbers are small too, then write 7 bits at a time.
+		int encodedValue = (value << 1) ^ (value >> 31);
+		while((encodedValue & ~0x7F) != 0){
+			buf.writeByte((encodedValue & 0x7F) | 0x80);
+			encodedValue >>>= 7;
+		}
+		buf.writeByte(encodedValue);
+	}
+	
+	/**
+	 *  Helper method to read a variable-length int from the buffer.
+	 */
+	protected static int readVarIntFromBuffer(ByteBuf buf){
+		int encodedValue = 0;
+		int shift = 0;
+		byte readByte;
+		do{
+			readByte = buf.readByte();
+			encodedValue |= (readByte & 0x7F) << shift;
+			shift += 7;
+		}while((readByte & 0x80) != 0 && shift < 35);
+		return (encodedValue >>> 1) ^ -(encodedValue & 1);
+	}
+	
+	/**
+	 *  Helper method to write up to 8 fixed-point deltas to the buffer.
+	 *  A bitmask of which deltas are non-zero is written first, followed
+	 *  by only those deltas, so unchanged values cost nothing to send.
+	 */
+	protected static void writeDeltasToBuffer(int[] deltas, ByteBuf buf){
+		int nonZeroMask = 0;
+		for(int i=0; i<deltas.length; ++i){
+			if(deltas[i] != 0){
+				nonZeroMask |= 1 << i;
+			}
+		}
+		buf.writeByte(nonZeroMask);
+		for(int i=0; i<deltas.length; ++i){
+			if(deltas[i] != 0){
+				writeVarIntToBuffer(deltas[i], buf);
+			}
+		}
+	}
+	
+	/**
+	 *  Helper method to read deltas written by {@link #writeDeltasToBuffer(int[], ByteBuf)}
+	 *  into the passed-in array.  The array must be the same length as the one written.
+	 */
+	protected static void readDeltasFromBuffer(int[] deltas, ByteBuf buf){
+		int nonZeroMask = buf.readUnsignedByte();
+		for(int i=0; i<deltas.length; ++i){
+			deltas[i] = (nonZeroMask & (1 << i)) != 0 ? readVarIntFromBuffer(buf) : 0;
+		}
+	}
+	
 	/**
 	 *  Forwarder to interface method for cleaner packet code.
 	 */
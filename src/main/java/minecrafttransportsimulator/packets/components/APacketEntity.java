@@ -14,29 +14,59 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
  * @author don_bruce
  */
 public abstract class APacketEntity<EntityType extends AEntityA_Base> extends APacketBase{
-	private final UUID uniqueUUID;
+	protected final UUID uniqueUUID;
+	protected final int syncID;
 	
 	public APacketEntity(AEntityA_Base entity){
 		super(null);
 		this.uniqueUUID = entity.uniqueUUID;
+		this.syncID = entity.syncID;
+	}
+	
+	/**Copy constructor.  Creates a packet for the same entity as the passed-in packet.**/
+	protected APacketEntity(APacketEntity<?> other){
+		super(null);
+		this.uniqueUUID = other.uniqueUUID;
+		this.syncID = other.syncID;
 	}
 	
 	public APacketEntity(ByteBuf buf){
 		super(buf);
-		this.uniqueUUID = readUUIDFromBuffer(buf);
+		if(usesSyncID()){
+			this.uniqueUUID = null;
+			this.syncID = readVarIntFromBuffer(buf);
+		}else{
+			this.uniqueUUID = readUUIDFromBuffer(buf);
+			this.syncID = 0;
+		}
 	};
 
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeUUIDToBuffer(uniqueUUID, buf);
+		if(usesSyncID()){
+			writeVarIntToBuffer(syncID, buf);
+		}else{
+			writeUUIDToBuffer(uniqueUUID, buf);
+		}
+	}
+	
+	/**
+	 *  Returns true if this packet references its entity by {@link AEntityA_Base#syncID} rather
+	 *  than {@link AEntityA_Base#uniqueUUID}.  This takes 1-3 bytes rather than 16, so it should be
+	 *  used for packets that are sent frequently.  However, sync IDs are only known to clients for
+	 *  entities they got from the server directly, so this shouldn't be used for packets for parts.
+	 *  Note that this is called during construction, so it must only return a constant.
+	 */
+	protected boolean usesSyncID(){
+		return false;
 	}
 	
 	@Override
 	public void handle(AWrapperWorld world){
-		EntityType entity = world.getEntity(uniqueUUID);
+		EntityType entity = usesSyncID() ? world.getEntity(syncID) : world.getEntity(uniqueUUID);
 		if(entity != null && handle(world, entity) && !world.isClient()){
-			InterfaceManager.packetInterface.sendToAllClients(this);
+			InterfaceManager.packetInterface.sendToAllTracking(this, entity);
 			if(entity instanceof ATileEntityBase){
 				//Need to set TEs as updated, as they don't normally do this.
 				world.markTileEntityChanged(((ATileEntityBase<?>) entity).position);
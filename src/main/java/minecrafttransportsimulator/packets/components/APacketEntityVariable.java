@@ -0,0 +1,52 @@
+package minecrafttransportsimulator.packets.components;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+
+/**Packet class for packets that change the value of an entity variable.  This lets the
+ * network system know which packets affect the same variable, so multiple changes sent
+ * in the same tick can be combined via {@link #mergeWithEarlier(APacketEntityVariable)}
+ * rather than sent one-by-one.
+ *
+ * @author don_bruce
+ */
+public abstract class APacketEntityVariable extends APacketEntity<AEntityD_Definable<?>>{
+	protected final String variableName;
+	
+	public APacketEntityVariable(AEntityD_Definable<?> entity, String variableName){
+		super(entity);
+		this.variableName = variableName;
+	}
+	
+	/**Copy constructor for merged packets.  Keeps the entity and variable of the passed-in packet.**/
+	protected APacketEntityVariable(APacketEntityVariable other){
+		super(other);
+		this.variableName = other.variableName;
+	}
+	
+	public APacketEntityVariable(ByteBuf buf){
+		super(buf);
+		this.variableName = readStringFromBuffer(buf);
+	}
+	
+	@Override
+	public void writeToBuffer(ByteBuf buf){
+		super.writeToBuffer(buf);
+		writeStringToBuffer(variableName, buf);
+	}
+	
+	/**
+	 *  Returns true if the passed-in packet changes the same variable on the same entity as this packet.
+	 */
+	public boolean isSameVariable(APacketEntityVariable other){
+		return variableName.equals(other.variableName) && uniqueUUID.equals(other.uniqueUUID);
+	}
+	
+	/**
+	 *  Returns a packet that has the same effect as the passed-in packet followed by this one, or
+	 *  null if the two can't be combined.  The passed-in packet will always be for the same variable,
+	 *  and will have been sent earlier in the same tick to the same destination.  Neither packet
+	 *  may be modified, as they may also be queued for other destinations.
+	 */
+	public abstract APacketEntityVariable mergeWithEarlier(APacketEntityVariable earlierPacket);
+}
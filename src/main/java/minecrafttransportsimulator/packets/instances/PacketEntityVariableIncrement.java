@@ -1,9 +1,10 @@
 package minecrafttransportsimulator.packets.instances;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**Packet used to increment variable states.  Sent from clients to servers to
  * tell them to change the custom state of an entity variable, and then sent
@@ -12,27 +13,43 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * 
  * @author don_bruce
  */
-public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Definable<?>>{
-	private final String variableName;
+public class PacketEntityVariableIncrement extends APacketEntityVariable{
 	private final double incrementValue;
 	private final double minValue;
 	private final double maxValue;
 	
 	public PacketEntityVariableIncrement(AEntityD_Definable<?> entity, String variableName, double incrementValue, double minValue, double maxValue){
-		super(entity);
-		this.variableName = variableName;
+		super(entity, variableName);
 		this.incrementValue = incrementValue;
 		this.minValue = minValue;
 		this.maxValue = maxValue;
 	}
 	
+	private PacketEntityVariableIncrement(PacketEntityVariableIncrement other, double incrementValue){
+		super(other);
+		this.incrementValue = incrementValue;
+		this.minValue = other.minValue;
+		this.maxValue = other.maxValue;
+	}
+	
 	public PacketEntityVariableIncrement(AEntityD_Definable<?> entity, String variableName, double incrementValue){
 		this(entity, variableName, incrementValue, -Double.MAX_VALUE, Double.MAX_VALUE);
 	}
 	
+	/**
+	 *  Like the String constructor, but takes a {@link VariableRegistry} ID.  The name is still
+	 *  what gets sent, as IDs are not the same on clients and servers.
+	 */
+	public PacketEntityVariableIncrement(AEntityD_Definable<?> entity, int variableID, double incrementValue, double minValue, double maxValue){
+		this(entity, VariableRegistry.getName(variableID), incrementValue, minValue, maxValue);
+	}
+	
+	public PacketEntityVariableIncrement(AEntityD_Definable<?> entity, int variableID, double incrementValue){
+		this(entity, VariableRegistry.getName(variableID), incrementValue);
+	}
+	
 	public PacketEntityVariableIncrement(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
 		this.incrementValue = buf.readDouble();
 		this.minValue = buf.readDouble();
 		this.maxValue = buf.readDouble();
@@ -41,12 +58,24 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
 		buf.writeDouble(incrementValue);
 		buf.writeDouble(minValue);
 		buf.writeDouble(maxValue);
 	}
 	
+	@Override
+	public APacketEntityVariable mergeWithEarlier(APacketEntityVariable earlierPacket){
+		//Increments can be summed if they have the same clamps and go the same way.
+		//If they go different ways, the first one might have hit a clamp the sum wouldn't.
+		if(earlierPacket instanceof PacketEntityVariableIncrement){
+			PacketEntityVariableIncrement earlierIncrement = (PacketEntityVariableIncrement) earlierPacket;
+			if(earlierIncrement.minValue == minValue && earlierIncrement.maxValue == maxValue && (earlierIncrement.incrementValue >= 0) == (incrementValue >= 0)){
+				return new PacketEntityVariableIncrement(this, earlierIncrement.incrementValue + incrementValue);
+			}
+		}
+		return null;
+	}
+	
 	@Override
 	public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity){
 		return entity.incrementVariable(variableName, incrementValue, minValue, maxValue);
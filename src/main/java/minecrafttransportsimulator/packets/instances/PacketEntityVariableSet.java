@@ -1,9 +1,10 @@
 package minecrafttransportsimulator.packets.instances;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**Packet used to set variable states.  Sent from clients to servers to
  * tell them to change the custom state of an entity variable, and then sent
@@ -15,29 +16,51 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * 
  * @author don_bruce
  */
-public class PacketEntityVariableSet extends APacketEntity<AEntityD_Definable<?>>{
-	private final String variableName;
+public class PacketEntityVariableSet extends APacketEntityVariable{
 	private final double variableValue;
 	
 	public PacketEntityVariableSet(AEntityD_Definable<?> entity, String variableName, double variableValue){
-		super(entity);
-		this.variableName = variableName;
+		super(entity, variableName);
 		this.variableValue = variableValue;
 	}
 	
+	private PacketEntityVariableSet(APacketEntityVariable other, double variableValue){
+		super(other);
+		this.variableValue = variableValue;
+	}
+	
+	/**
+	 *  Like the String constructor, but takes a {@link VariableRegistry} ID.  The name is still
+	 *  what gets sent, as IDs are not the same on clients and servers.
+	 */
+	public PacketEntityVariableSet(AEntityD_Definable<?> entity, int variableID, double variableValue){
+		this(entity, VariableRegistry.getName(variableID), variableValue);
+	}
+	
 	public PacketEntityVariableSet(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
 		this.variableValue = buf.readDouble();
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
 		buf.writeDouble(variableValue);
 	}
 	
+	/**
+	 *  Returns a packet that sets the variable to the state a toggle would leave it in after this packet.
+	 */
+	protected PacketEntityVariableSet getToggled(){
+		return new PacketEntityVariableSet(this, variableValue == 0 ? 1 : 0);
+	}
+	
+	@Override
+	public APacketEntityVariable mergeWithEarlier(APacketEntityVariable earlierPacket){
+		//Setting overrides whatever was done to the variable before.
+		return this;
+	}
+	
 	@Override
 	public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity){
 		entity.setVariable(variableName, variableValue);
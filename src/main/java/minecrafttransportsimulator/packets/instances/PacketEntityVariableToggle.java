@@ -1,9 +1,10 @@
 package minecrafttransportsimulator.packets.instances;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**Packet used to toggle variable states.  Sent from clients to servers to
  * tell them to change the custom state of an entity variable, and then sent
@@ -11,23 +12,32 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * 
  * @author don_bruce
  */
-public class PacketEntityVariableToggle extends APacketEntity<AEntityD_Definable<?>>{
-	private final String variableName;
+public class PacketEntityVariableToggle extends APacketEntityVariable{
 	
 	public PacketEntityVariableToggle(AEntityD_Definable<?> entity, String variableName){
-		super(entity);
-		this.variableName = variableName;
+		super(entity, variableName);
+	}
+	
+	/**
+	 *  Like the String constructor, but takes a {@link VariableRegistry} ID.  The name is still
+	 *  what gets sent, as IDs are not the same on clients and servers.
+	 */
+	public PacketEntityVariableToggle(AEntityD_Definable<?> entity, int variableID){
+		this(entity, VariableRegistry.getName(variableID));
 	}
 	
 	public PacketEntityVariableToggle(ByteBuf buf){
 		super(buf);
-		this.variableName = readStringFromBuffer(buf);
 	}
 	
 	@Override
-	public void writeToBuffer(ByteBuf buf){
-		super.writeToBuffer(buf);
-		writeStringToBuffer(variableName, buf);
+	public APacketEntityVariable mergeWithEarlier(APacketEntityVariable earlierPacket){
+		//If we know what the variable was set to, we know what toggling it will do.
+		if(earlierPacket instanceof PacketEntityVariableSet){
+			return ((PacketEntityVariableSet) earlierPacket).getToggled();
+		}else{
+			return null;
+		}
 	}
 	
 	@Override
@@ -147,28 +147,28 @@ public class PacketVehicleInteract extends APacketEntityInteract<EntityVehicleF_
 					case BUTTON:{
 						if(rightClick){
 							entity.setVariable(hitBox.definition.variableName, hitBox.definition.variableValue);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(entity, hitBox.definition.variableName, hitBox.definition.variableValue));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(entity, hitBox.definition.variableName, hitBox.definition.variableValue), entity);
 						}else{
 							entity.setVariable(hitBox.definition.variableName, 0);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(entity, hitBox.definition.variableName, 0));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(entity, hitBox.definition.variableName, 0), entity);
 						}
 						break;
 					}	
 					case INCREMENT:
 						if(rightClick && entity.incrementVariable(hitBox.definition.variableName, hitBox.definition.variableValue, hitBox.definition.clampMin, hitBox.definition.clampMax)){
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(entity, hitBox.definition.variableName, hitBox.definition.variableValue, hitBox.definition.clampMin, hitBox.definition.clampMax));	
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableIncrement(entity, hitBox.definition.variableName, hitBox.definition.variableValue, hitBox.definition.clampMin, hitBox.definition.clampMax), entity);	
 						}
 						break;
 					case SET:
 						if(rightClick){
 							entity.setVariable(hitBox.definition.variableName, hitBox.definition.variableValue);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(entity, hitBox.definition.variableName, hitBox.definition.variableValue));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableSet(entity, hitBox.definition.variableName, hitBox.definition.variableValue), entity);
 						}
 						break;
 					case TOGGLE:{
 						if(rightClick){
 							entity.toggleVariable(hitBox.definition.variableName);
-							InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(entity, hitBox.definition.variableName));
+							InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableToggle(entity, hitBox.definition.variableName), entity);
 						}
 						break;
 					}
@@ -14,34 +14,72 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * the position and rotation.  This system of syncing has the side-effect of significant
  * rubberbanding when server TPS suffers or networking goes bad, but it's far better than
  * the alternatives when the connection is good, hence why we use it.
+ * <br><br>
+ * As this packet is sent every tick for every moving vehicle, it is kept as small as possible.
+ * The vehicle is referenced by its sync ID, and the deltas are sent as fixed-point ints with
+ * any zero deltas left out.  Any amount lost to rounding should be sent in a later packet, so
+ * the sender should track how much has been sent via {@link #motion}, {@link #rotation}, and
+ * {@link #pathing} rather than using the values passed-in to create this packet.
  * 
  * @author don_bruce
  */
 public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Physics>{
-	private final Point3D motion;
-	private final Point3D rotation;
-	private final double pathing;
+	/**Motion and pathing are sent in 1/4096ths of a block, same as MC does for its entities.**/
+	private static final double MOTION_SCALE = 4096;
+	/**Rotation is sent in 1/1024ths of a degree.**/
+	private static final double ROTATION_SCALE = 1024;
+	
+	private final int[] deltas = new int[7];
+	/**The motion this packet will apply, after rounding.**/
+	public final Point3D motion;
+	/**The rotation this packet will apply, after rounding.**/
+	public final Point3D rotation;
+	/**The pathing this packet will apply, after rounding.**/
+	public final double pathing;
 	
 	public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3D motion, Point3D rotation, double pathing){
 		super(vehicle);
-		this.motion = motion;
-		this.rotation = rotation;
-		this.pathing = pathing;
+		deltas[0] = (int) Math.round(motion.x*MOTION_SCALE);
+		deltas[1] = (int) Math.round(motion.y*MOTION_SCALE);
+		deltas[2] = (int) Math.round(motion.z*MOTION_SCALE);
+		deltas[3] = (int) Math.round(rotation.x*ROTATION_SCALE);
+		deltas[4] = (int) Math.round(rotation.y*ROTATION_SCALE);
+		deltas[5] = (int) Math.round(rotation.z*ROTATION_SCALE);
+		deltas[6] = (int) Math.round(pathing*MOTION_SCALE);
+		this.motion = new Point3D(deltas[0]/MOTION_SCALE, deltas[1]/MOTION_SCALE, deltas[2]/MOTION_SCALE);
+		this.rotation = new Point3D(deltas[3]/ROTATION_SCALE, deltas[4]/ROTATION_SCALE, deltas[5]/ROTATION_SCALE);
+		this.pathing = deltas[6]/MOTION_SCALE;
 	}
 	
 	public PacketVehicleServerMovement(ByteBuf buf){
 		super(buf);
-		this.motion = readPoint3dFromBuffer(buf);
-		this.rotation = readPoint3dFromBuffer(buf);
-		this.pathing = buf.readDouble();
+		readDeltasFromBuffer(deltas, buf);
+		this.motion = new Point3D(deltas[0]/MOTION_SCALE, deltas[1]/MOTION_SCALE, deltas[2]/MOTION_SCALE);
+		this.rotation = new Point3D(deltas[3]/ROTATION_SCALE, deltas[4]/ROTATION_SCALE, deltas[5]/ROTATION_SCALE);
+		this.pathing = deltas[6]/MOTION_SCALE;
 	}
 	
 	@Override
 	public void writeToBuffer(ByteBuf buf){
 		super.writeToBuffer(buf);
-		writePoint3dToBuffer(motion, buf);
-		writePoint3dToBuffer(rotation, buf);
-		buf.writeDouble(pathing);
+		writeDeltasToBuffer(deltas, buf);
+	}
+	
+	@Override
+	protected boolean usesSyncID(){
+		return true;
+	}
+	
+	/**
+	 *  Returns true if all deltas in this packet rounded to 0.  Such packets don't need to be sent.
+	 */
+	public boolean isEmpty(){
+		for(int delta : deltas){
+			if(delta != 0){
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	@Override
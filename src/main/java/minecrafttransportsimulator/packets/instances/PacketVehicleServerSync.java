@@ -63,6 +63,11 @@ public class PacketVehicleServerSync extends APacketEntity<EntityVehicleF_Physic
 		}
 	}
 	
+	@Override
+	protected boolean usesSyncID(){
+		return true;
+	}
+	
 	@Override
 	public boolean handle(AWrapperWorld world, EntityVehicleF_Physics vehicle){
 		vehicle.syncServerDeltas(motion, rotation, pathing);
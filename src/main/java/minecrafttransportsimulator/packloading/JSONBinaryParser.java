@@ -0,0 +1,342 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**This class writes JSON objects to a compact binary form, and reads them back, without going through Gson.
+ * This is used to cache definitions after they have been parsed, had legacy compats performed, and been validated,
+ * so they don't need to be parsed again if nothing changed.  Objects are written field-by-field with reflection,
+ * using the same fields Gson would, so any object Gson can parse can be written.  The exception is objects without
+ * a no-argument constructor, which can't be written, as we wouldn't be able to create them when reading.
+ * <br><br>
+ * Strings, including class and field names, are only written the first time they are seen, and referenced by index
+ * after that.  Objects seen more than once are also written as references, so any sharing of objects after
+ * legacy compats is kept.  Fields that no longer exist when reading are skipped, so old data won't crash, but it
+ * should still be thrown out when the classes change, as new fields won't get values.
+ *
+ * @author don_bruce
+ */
+public class JSONBinaryParser{
+	private static final byte NULL = 0;
+	private static final byte BOOLEAN = 1;
+	private static final byte BYTE = 2;
+	private static final byte SHORT = 3;
+	private static final byte CHAR = 4;
+	private static final byte INT = 5;
+	private static final byte LONG = 6;
+	private static final byte FLOAT = 7;
+	private static final byte DOUBLE = 8;
+	private static final byte STRING = 9;
+	private static final byte ENUM = 10;
+	private static final byte LIST = 11;
+	private static final byte SET = 12;
+	private static final byte MAP = 13;
+	private static final byte ARRAY = 14;
+	private static final byte OBJECT = 15;
+	private static final byte REFERENCE = 16;
+
+	/**Fields to write for each class, keyed by name.  Shared between all threads, as finding these is most of the cost of reflection.**/
+	private static final Map<Class<?>, Map<String, Field>> classFields = new ConcurrentHashMap<Class<?>, Map<String, Field>>();
+	private static final Map<String, Class<?>> primitiveClasses = new HashMap<String, Class<?>>();
+	static{
+		for(Class<?> primitiveClass : new Class<?>[]{boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class, double.class}){
+			primitiveClasses.put(primitiveClass.getName(), primitiveClass);
+		}
+	}
+
+	/**
+	 *  Writes the passed-in object to bytes.  Throws an exception if any object in it can't be written.
+	 */
+	public static byte[] toBytes(Object object) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(DataOutputStream output = new DataOutputStream(bytes)){
+			new Writer(output).write(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 *  Reads an object written by {@link #toBytes(Object)}.  Throws an exception if the data is invalid,
+	 *  or if the object isn't an instance of the passed-in class.
+	 */
+	public static <JSONClass extends Object> JSONClass fromBytes(byte[] data, Class<JSONClass> retClass) throws IOException{
+		try(DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))){
+			return retClass.cast(new Reader(input).read());
+		}catch(ReflectiveOperationException | ClassCastException | IllegalArgumentException e){
+			throw new IOException("Invalid cached data: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 *  Returns the fields Gson would use for the passed-in class.  These are all non-static and non-transient fields,
+	 *  including those of super-classes.  If a super-class has a field with the same name, the sub-class field is used.
+	 */
+	private static Map<String, Field> getFields(Class<?> objectClass){
+		Map<String, Field> fields = classFields.get(objectClass);
+		if(fields == null){
+			fields = new LinkedHashMap<String, Field>();
+			for(Class<?> currentClass = objectClass; currentClass != null && currentClass != Object.class; currentClass = currentClass.getSuperclass()){
+				for(Field field : currentClass.getDeclaredFields()){
+					if(!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !field.isSynthetic() && !fields.containsKey(field.getName())){
+						field.setAccessible(true);
+						fields.put(field.getName(), field);
+					}
+				}
+			}
+			classFields.put(objectClass, fields);
+		}
+		return fields;
+	}
+
+	private static class Writer{
+		private final DataOutputStream output;
+		private final Map<String, Integer> strings = new HashMap<String, Integer>();
+		private final Map<Object, Integer> objects = new IdentityHashMap<Object, Integer>();
+
+		private Writer(DataOutputStream output){
+			this.output = output;
+		}
+
+		private void write(Object value) throws IOException{
+			if(value == null){
+				output.writeByte(NULL);
+			}else if(value instanceof Boolean){
+				output.writeByte(BOOLEAN);
+				output.writeBoolean((Boolean) value);
+			}else if(value instanceof Byte){
+				output.writeByte(BYTE);
+				output.writeByte((Byte) value);
+			}else if(value instanceof Short){
+				output.writeByte(SHORT);
+				output.writeShort((Short) value);
+			}else if(value instanceof Character){
+				output.writeByte(CHAR);
+				output.writeChar((Character) value);
+			}else if(value instanceof Integer){
+				output.writeByte(INT);
+				output.writeInt((Integer) value);
+			}else if(value instanceof Long){
+				output.writeByte(LONG);
+				output.writeLong((Long) value);
+			}else if(value instanceof Float){
+				output.writeByte(FLOAT);
+				output.writeFloat((Float) value);
+			}else if(value instanceof Double){
+				output.writeByte(DOUBLE);
+				output.writeDouble((Double) value);
+			}else if(value instanceof String){
+				output.writeByte(STRING);
+				writeString((String) value);
+			}else if(value instanceof Enum){
+				output.writeByte(ENUM);
+				writeString(((Enum<?>) value).getDeclaringClass().getName());
+				writeString(((Enum<?>) value).name());
+			}else if(objects.containsKey(value)){
+				output.writeByte(REFERENCE);
+				output.writeInt(objects.get(value));
+			}else{
+				objects.put(value, objects.size());
+				if(value instanceof List){
+					output.writeByte(LIST);
+					writeString(value.getClass().getName());
+					writeCollection((List<?>) value);
+				}else if(value instanceof Set){
+					output.writeByte(SET);
+					writeString(value.getClass().getName());
+					writeCollection((Set<?>) value);
+				}else if(value instanceof Map){
+					output.writeByte(MAP);
+					writeString(value.getClass().getName());
+					output.writeInt(((Map<?, ?>) value).size());
+					for(Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()){
+						write(entry.getKey());
+						write(entry.getValue());
+					}
+				}else if(value.getClass().isArray()){
+					output.writeByte(ARRAY);
+					writeString(value.getClass().getComponentType().getName());
+					int length = Array.getLength(value);
+					output.writeInt(length);
+					for(int i=0; i<length; ++i){
+						write(Array.get(value, i));
+					}
+				}else{
+					//Make sure we can create the object when reading.
+					try{
+						value.getClass().getDeclaredConstructor();
+					}catch(NoSuchMethodException e){
+						throw new IOException("Can't write " + value.getClass().getName() + " as it has no no-argument constructor.");
+					}
+					output.writeByte(OBJECT);
+					writeString(value.getClass().getName());
+					Map<String, Field> fields = getFields(value.getClass());
+					output.writeInt(fields.size());
+					for(Field field : fields.values()){
+						writeString(field.getName());
+						try{
+							write(field.get(value));
+						}catch(IllegalAccessException e){
+							throw new IOException("Can't write field " + field.getName() + " of " + value.getClass().getName(), e);
+						}
+					}
+				}
+			}
+		}
+
+		private void writeCollection(Collection<?> collection) throws IOException{
+			output.writeInt(collection.size());
+			for(Object element : collection){
+				write(element);
+			}
+		}
+
+		private void writeString(String string) throws IOException{
+			Integer index = strings.get(string);
+			if(index != null){
+				output.writeInt(index);
+			}else{
+				//Not using writeUTF, as it can't write strings longer than 64k.
+				strings.put(string, strings.size());
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				output.writeInt(-1);
+				output.writeInt(bytes.length);
+				output.write(bytes);
+			}
+		}
+	}
+
+	private static class Reader{
+		private final DataInputStream input;
+		private final List<String> strings = new ArrayList<String>();
+		private final List<Object> objects = new ArrayList<Object>();
+
+		private Reader(DataInputStream input){
+			this.input = input;
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Object read() throws IOException, ReflectiveOperationException{
+			byte type = input.readByte();
+			switch(type){
+				case NULL : return null;
+				case BOOLEAN : return input.readBoolean();
+				case BYTE : return input.readByte();
+				case SHORT : return input.readShort();
+				case CHAR : return input.readChar();
+				case INT : return input.readInt();
+				case LONG : return input.readLong();
+				case FLOAT : return input.readFloat();
+				case DOUBLE : return input.readDouble();
+				case STRING : return readString();
+				case ENUM : return Enum.valueOf((Class<Enum>) findClass(readString()), readString());
+				case REFERENCE : return objects.get(input.readInt());
+				case LIST : {
+					List<Object> list = (List<Object>) createCollection(readString(), List.class, ArrayList.class);
+					objects.add(list);
+					readCollection(list);
+					return list;
+				}
+				case SET : {
+					Set<Object> set = (Set<Object>) createCollection(readString(), Set.class, LinkedHashSet.class);
+					objects.add(set);
+					readCollection(set);
+					return set;
+				}
+				case MAP : {
+					Map<Object, Object> map = (Map<Object, Object>) createCollection(readString(), Map.class, LinkedHashMap.class);
+					objects.add(map);
+					for(int i=input.readInt(); i>0; --i){
+						map.put(read(), read());
+					}
+					return map;
+				}
+				case ARRAY : {
+					String componentName = readString();
+					Class<?> componentClass = primitiveClasses.containsKey(componentName) ? primitiveClasses.get(componentName) : findClass(componentName);
+					int length = input.readInt();
+					Object array = Array.newInstance(componentClass, length);
+					objects.add(array);
+					for(int i=0; i<length; ++i){
+						Array.set(array, i, read());
+					}
+					return array;
+				}
+				case OBJECT : {
+					Class<?> objectClass = findClass(readString());
+					Constructor<?> constructor = objectClass.getDeclaredConstructor();
+					constructor.setAccessible(true);
+					Object object = constructor.newInstance();
+					objects.add(object);
+					Map<String, Field> fields = getFields(objectClass);
+					for(int i=input.readInt(); i>0; --i){
+						Field field = fields.get(readString());
+						Object value = read();
+						if(field != null){
+							field.set(object, value);
+						}
+					}
+					return object;
+				}
+				default : throw new IOException("Unknown type " + type);
+			}
+		}
+
+		/**
+		 *  Creates the collection with the passed-in class name.  If the class can't be created, such as lists from
+		 *  {@link java.util.Arrays#asList(Object...)}, the default class is used instead.
+		 */
+		private Object createCollection(String className, Class<?> collectionType, Class<?> defaultClass) throws ReflectiveOperationException{
+			Class<?> collectionClass = findClass(className);
+			try{
+				if(collectionType.isAssignableFrom(collectionClass)){
+					return collectionClass.getConstructor().newInstance();
+				}
+			}catch(ReflectiveOperationException e){
+				//Use the default class.
+			}
+			return defaultClass.getConstructor().newInstance();
+		}
+
+		private void readCollection(Collection<Object> collection) throws IOException, ReflectiveOperationException{
+			for(int i=input.readInt(); i>0; --i){
+				collection.add(read());
+			}
+		}
+
+		private String readString() throws IOException{
+			int index = input.readInt();
+			if(index != -1){
+				return strings.get(index);
+			}else{
+				byte[] bytes = new byte[input.readInt()];
+				input.readFully(bytes);
+				String string = new String(bytes, StandardCharsets.UTF_8);
+				strings.add(string);
+				return string;
+			}
+		}
+
+		private static Class<?> findClass(String className) throws ClassNotFoundException{
+			return Class.forName(className, false, JSONBinaryParser.class.getClassLoader());
+		}
+	}
+}
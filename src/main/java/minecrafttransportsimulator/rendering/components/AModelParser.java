@@ -1,11 +1,21 @@
 package minecrafttransportsimulator.rendering.components;
 
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.rendering.components.RenderableModelObject.GeneratedLODs;
+import minecrafttransportsimulator.rendering.components.RenderableObject.SharedVertexCache;
 import minecrafttransportsimulator.rendering.instances.ModelParserLT;
 import minecrafttransportsimulator.rendering.instances.ModelParserOBJ;
 
@@ -14,15 +24,28 @@ import minecrafttransportsimulator.rendering.instances.ModelParserOBJ;
  * It also stores a list of created parsers for use when requesting a model be parsed.
  * By default, an OBJ parser is created when this class is first accessed, but one may
  * add other parsers as they see fit.
+ * <br><br>
+ * Parsed models are cached, keyed by their location and the modification time of the file they
+ * came from, so the same model isn't parsed multiple times by the many systems that use it.
+ * The vertices of cached models are shared with all objects created from them, as is the
+ * GPU cache of those vertices, and the LODs generated for them.  Cached models are held with soft
+ * references, so they may be dropped if memory is low; they will simply be re-parsed next time they
+ * are requested.
+ * Models may be parsed from multiple threads, such as during pack loading.  Each model location
+ * has its own lock, so only requests for the same model wait on each other.
  * 
  * @author don_bruce
  */
 public abstract class AModelParser{
 	private static final Map<String, AModelParser> parsers = new HashMap<String, AModelParser>();
+	private static final Map<String, SoftReference<CachedModel>> cachedModels = new ConcurrentHashMap<String, SoftReference<CachedModel>>();
+	private static final Map<String, Object> modelLocks = new ConcurrentHashMap<String, Object>();
 	public static final String ROLLER_OBJECT_NAME = "roller";
 	public static final String WINDOW_OBJECT_NAME = "window";
 	public static final String ONLINE_TEXTURE_OBJECT_NAME = "url";
 	public static final String TRANSLUCENT_OBJECT_NAME = "translucent";
+	public static final String LOD_OBJECT_NAME = "_lod";
+	private static final Pattern LOD_OBJECT_PATTERN = Pattern.compile("(.+)" + LOD_OBJECT_NAME + "(\\d+)", Pattern.CASE_INSENSITIVE);
 	
 	public AModelParser(){
 		parsers.put(getModelSuffix(), this);
@@ -47,34 +70,149 @@ public abstract class AModelParser{
 	/**
 	 *  Attempts to obtain the parser for the passed-in modelLocation.  After this, the model
 	 *  is parsed and returned.  If no parser is found, an exception is thrown.
+	 *  If the model has been parsed before, and hasn't changed, the cached model is used instead.
+	 *  Either way, the returned list and its objects are new and may be modified, but the vertices
+	 *  of the objects are shared with the cache and are read-only.
 	 */
 	public static List<RenderableObject> parseModel(String modelLocation){
-		AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
-		if(parser != null){
-			return parser.parseModelInternal(modelLocation);
-		}else{
-			throw new IllegalArgumentException("No parser found for model format of " + modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
+		return getCachedModel(modelLocation).createObjects();
+	}
+	
+	/**
+	 *  Returns the cached model for the passed-in modelLocation, parsing it if it isn't cached or has changed.
+	 */
+	private static CachedModel getCachedModel(String modelLocation){
+		long lastModified = getLastModified(modelLocation);
+		CachedModel cachedModel;
+		synchronized(modelLocks.computeIfAbsent(modelLocation, location -> new Object())){
+			SoftReference<CachedModel> cachedModelReference = cachedModels.get(modelLocation);
+			cachedModel = cachedModelReference != null ? cachedModelReference.get() : null;
+			if(cachedModel == null || cachedModel.lastModified != lastModified){
+				AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
+				if(parser != null){
+					cachedModel = new CachedModel(parser.parseModelInternal(modelLocation), lastModified);
+					cachedModels.put(modelLocation, new SoftReference<CachedModel>(cachedModel));
+				}else{
+					throw new IllegalArgumentException("No parser found for model format of " + modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
+				}
+			}
 		}
+		return cachedModel;
+	}
+	
+	/**
+	 *  Removes the passed-in model from the cache.  Call this when the model may have changed, such as when
+	 *  definitions are hotloaded.  Objects already created from the model are not affected.
+	 */
+	public static void clearModelCache(String modelLocation){
+		cachedModels.remove(modelLocation);
+	}
+	
+	/**
+	 *  Returns the modification time of the file the passed-in model is in.  This is normally
+	 *  the pack jar, but may be the model file itself for packs in folders.
+	 *  Returns 0 if the time can't be found.
+	 *  This checks the file directly rather than opening a connection to the URL, as connections to
+	 *  jar and file URLs open the file, and leave it open, which locks it on some systems.
+	 */
+	private static long getLastModified(String modelLocation){
+		URL modelURL = AModelParser.class.getResource(modelLocation);
+		if(modelURL != null){
+			try{
+				if(modelURL.getProtocol().equals("jar")){
+					//Jar URLs are the URL of the jar, then "!/", then the path in the jar.
+					String jarPath = modelURL.getPath();
+					modelURL = new URL(jarPath.substring(0, jarPath.indexOf("!/")));
+				}
+				if(modelURL.getProtocol().equals("file")){
+					return new File(modelURL.toURI()).lastModified();
+				}
+			}catch(MalformedURLException | URISyntaxException | IllegalArgumentException | IndexOutOfBoundsException e){
+				//Just don't use the time.
+			}
+		}
+		return 0;
 	}
 	
 	/**
 	 *  Parses the model at the passed-in location, and generates all {@link RenderableModelObject}s for it.
 	 *  These are returned as a list.  Objects in the parsed model are cross-checked with the passed-in 
 	 *  definition to ensure the proper constructors are created.  All objects in the model
-	 *  are assured to be turned into one of the objects in the returned list.
+	 *  are assured to be turned into one of the objects in the returned list, except for LOD objects.
+	 *  These are named after the object they are for, plus {@link #LOD_OBJECT_NAME} and their level, and
+	 *  are given to that object rather than being their own object.  Generated LODs are kept with the cached
+	 *  model, so they are only made once no matter how many times the renderables are generated.
 	 */
 	public static <AnimationEntity extends AEntityD_Definable<?>> List<RenderableModelObject<AnimationEntity>> generateRenderables(AEntityD_Definable<?> entity){
 		String modelLocation = entity.definition.getModelLocation(entity.subName);
-		List<RenderableObject> parsedModelObjects = parseModel(modelLocation);
+		CachedModel cachedModel = getCachedModel(modelLocation);
+		List<RenderableObject> parsedModelObjects = cachedModel.createObjects();
 		List<RenderableModelObject<AnimationEntity>> modelObjects = new ArrayList<RenderableModelObject<AnimationEntity>>();
+		
+		//Pull out LOD objects first, so we have them when we make the objects they are for.
+		Map<String, RenderableObject[]> packLODObjects = new HashMap<String, RenderableObject[]>();
+		for(RenderableObject parsedObject : parsedModelObjects){
+			Matcher matcher = LOD_OBJECT_PATTERN.matcher(parsedObject.name);
+			if(matcher.matches()){
+				int level = Integer.parseInt(matcher.group(2));
+				if(level >= 1 && level <= RenderableModelObject.LOD_LEVELS){
+					RenderableObject[] lodObjects = packLODObjects.get(matcher.group(1));
+					if(lodObjects == null){
+						lodObjects = new RenderableObject[RenderableModelObject.LOD_LEVELS];
+						packLODObjects.put(matcher.group(1), lodObjects);
+					}
+					lodObjects[level - 1] = parsedObject;
+				}
+			}
+		}
+		
 		for(RenderableObject parsedObject : parsedModelObjects){
+			if(LOD_OBJECT_PATTERN.matcher(parsedObject.name).matches()){
+				continue;
+			}
 			//If we are a tread roller, make a roller rather than a standard object.
 			if(parsedObject.name.toLowerCase().contains(ROLLER_OBJECT_NAME)){
 				modelObjects.add(new RenderableTreadRoller<AnimationEntity>(modelLocation, parsedObject));
 			}else{
-				modelObjects.add(new RenderableModelObject<AnimationEntity>(modelLocation, parsedObject));
+				modelObjects.add(new RenderableModelObject<AnimationEntity>(modelLocation, parsedObject, packLODObjects.get(parsedObject.name), cachedModel.generatedLODs));
 			}
 		}
 		return modelObjects;
 	}
+	
+	/**
+	 *  A parsed model in the cache.  The vertices of the objects are read-only,
+	 *  and each object has a shared cache for its vertices, if they are to be cached.
+	 *  LODs generated for the objects are stored here too, keyed by object name.
+	 */
+	private static class CachedModel{
+		private final List<RenderableObject> objects;
+		private final long lastModified;
+		private final Map<String, GeneratedLODs> generatedLODs = new ConcurrentHashMap<String, GeneratedLODs>();
+		
+		private CachedModel(List<RenderableObject> parsedObjects, long lastModified){
+			this.objects = parsedObjects;
+			this.lastModified = lastModified;
+			for(RenderableObject object : objects){
+				object.vertices = object.vertices.asReadOnlyBuffer();
+				if(object.cacheVertices){
+					object.sharedCache = new SharedVertexCache();
+				}
+			}
+		}
+		
+		/**
+		 *  Creates new objects from this model.  These share the cached vertices, but have their own buffers
+		 *  for them, as buffer positions change when they are read.
+		 */
+		private List<RenderableObject> createObjects(){
+			List<RenderableObject> createdObjects = new ArrayList<RenderableObject>();
+			for(RenderableObject cachedObject : objects){
+				RenderableObject object = new RenderableObject(cachedObject.name, cachedObject.texture, cachedObject.color, cachedObject.vertices.duplicate(), cachedObject.cacheVertices);
+				object.sharedCache = cachedObject.sharedCache;
+				createdObjects.add(object);
+			}
+			return createdObjects;
+		}
+	}
 }
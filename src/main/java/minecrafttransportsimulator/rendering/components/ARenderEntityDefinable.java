@@ -163,6 +163,7 @@ public abstract class ARenderEntityDefinable<RenderedEntity extends AEntityD_Def
 	public static void clearObjectCaches(AJSONMultiModelProvider definition){
 		for(JSONSubDefinition subDef : definition.definitions){
 			String modelLocation = definition.getModelLocation(subDef.subName);
+			AModelParser.clearModelCache(modelLocation);
 			for(ARenderEntityDefinable<?> render : createdRenderers){
 				render.resetModelCache(modelLocation);
 			}
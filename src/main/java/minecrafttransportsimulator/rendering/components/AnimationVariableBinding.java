@@ -0,0 +1,189 @@
+package minecrafttransportsimulator.rendering.components;
+
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+
+/**Pre-resolved form of an animation variable name.  Variable names in JSON are strings, and
+ * parsing them every frame is expensive.  This class does all that parsing once, when the
+ * {@link DurationDelayClock} for the animation is created, and stores the results for use
+ * in {@link AEntityD_Definable#getRawVariableValue(AnimationVariableBinding, float)}.
+ * Variables whose value is derived from the name alone (cycles, text presence) are evaluated
+ * directly from the parsed data.  Common variables are resolved to a typed {@link BindingType}
+ * by the entity the binding is for via {@link AEntityD_Definable#getVariableType(String)}.
+ * All other variables are passed to the entity's normal lookup with the inversion prefix already removed.
+ *
+ * @author don_bruce
+ */
+public class AnimationVariableBinding{
+	/**The variable name as it appears in the JSON, including any inversion prefix.**/
+	public final String source;
+	/**The variable name with any inversion prefix removed.  This is what gets passed to the entity.**/
+	public final String name;
+	/**True if the variable was prefixed with a "!", and its value should be inverted.**/
+	public final boolean inverted;
+	/**The type of this binding.  Used to determine how it should be evaluated.**/
+	public final BindingType type;
+
+	//Cycle variables.
+	public final int cycleOffTime;
+	public final int cycleOnTime;
+	public final int cycleTotalTime;
+
+	//Text variables.
+	public final int textIndex;
+
+	//Part-number variables.
+	public final int partNumber;
+	private AEntityD_Definable<?> partBindingEntity;
+	private AnimationVariableBinding partBinding;
+
+	public AnimationVariableBinding(String source, AEntityD_Definable<?> entity){
+		this.source = source;
+		this.inverted = source.startsWith("!");
+		this.name = inverted ? source.substring(1) : source;
+
+		//Check if this is a cycle variable.  If so, parse out the times now.
+		//If the times are malformed, just treat this as a normal variable.
+		int offTime = 0;
+		int onTime = 0;
+		int totalTime = 0;
+		int parsedTextIndex = -1;
+		BindingType parsedType = BindingType.NAMED;
+		if(name.endsWith("_cycle")){
+			String[] parsedVariable = name.split("_");
+			if(parsedVariable.length == 4){
+				try{
+					offTime = Integer.parseInt(parsedVariable[0]);
+					onTime = Integer.parseInt(parsedVariable[1]);
+					totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
+					if(totalTime > 0){
+						parsedType = BindingType.CYCLE;
+					}
+				}catch(NumberFormatException e){
+					//Not a valid cycle, leave as a named variable.
+				}
+			}
+		}else if(name.startsWith("text_") && name.endsWith("_present") && name.length() > "text__present".length()){
+			try{
+				parsedTextIndex = Integer.parseInt(name.substring("text_".length(), name.length() - "_present".length())) - 1;
+				parsedType = BindingType.TEXT_PRESENT;
+			}catch(NumberFormatException e){
+				//Not a valid text index, leave as a named variable.
+			}
+		}
+
+		//Not a name-only variable, let the entity resolve it.
+		if(parsedType == BindingType.NAMED){
+			parsedType = entity.getVariableType(name);
+		}
+		this.cycleOffTime = offTime;
+		this.cycleOnTime = onTime;
+		this.cycleTotalTime = totalTime;
+		this.textIndex = parsedTextIndex;
+		this.partNumber = parsedType == BindingType.PART_NUMBERED ? AEntityD_Definable.getVariableNumber(name) : -1;
+		this.type = parsedType;
+	}
+
+	/**
+	 *  Returns the binding for the un-suffixed form of this {@link BindingType#PART_NUMBERED} variable,
+	 *  as resolved by the passed-in part.  This is cached until a different part is passed-in,
+	 *  which happens when the part at the location changes.
+	 */
+	public AnimationVariableBinding getPartBinding(AEntityD_Definable<?> part){
+		if(partBindingEntity != part){
+			partBinding = new AnimationVariableBinding(name.substring(0, name.lastIndexOf("_")), part);
+			partBindingEntity = part;
+		}
+		return partBinding;
+	}
+
+	public static enum BindingType{
+		NAMED,
+		CYCLE,
+		TEXT_PRESENT,
+		PART_NUMBERED,
+
+		//Generic entity variables.
+		TICK,
+		TICK_SIN,
+		TICK_COS,
+		TIME,
+		RAIN_STRENGTH,
+		RAIN_SIN,
+		RAIN_COS,
+		LIGHT_SUNLIGHT,
+		LIGHT_TOTAL,
+		TERRAIN_DISTANCE,
+		DAMAGE_PERCENT,
+
+		//Vehicle variables.
+		VEHICLE_YAW,
+		VEHICLE_HEADING,
+		VEHICLE_PITCH,
+		VEHICLE_ROLL,
+		VEHICLE_ALTITUDE,
+		VEHICLE_SPEED,
+		VEHICLE_SPEED_SCALED,
+		VEHICLE_SPEED_FACTOR,
+		VEHICLE_ACCELERATION,
+		VEHICLE_FUEL,
+		VEHICLE_MASS,
+		VEHICLE_ELECTRIC_POWER,
+		VEHICLE_ELECTRIC_USAGE,
+		VEHICLE_ENGINES_ON,
+		VEHICLE_ENGINES_RUNNING,
+		VEHICLE_REVERSER,
+		VEHICLE_LOCKED,
+		VEHICLE_DOOR,
+		VEHICLE_FUELING,
+		VEHICLE_FLAPS_ACTUAL,
+		VEHICLE_FLAPS_MOVING,
+		VEHICLE_VERTICAL_SPEED,
+		VEHICLE_LIFT_RESERVE,
+		VEHICLE_TURN_COORDINATOR,
+		VEHICLE_TURN_INDICATOR,
+		VEHICLE_SLIP,
+		VEHICLE_GEAR_MOVING,
+		VEHICLE_BEACON_DIRECTION,
+		VEHICLE_BEACON_BEARING_SETPOINT,
+		VEHICLE_BEACON_BEARING_DELTA,
+		VEHICLE_BEACON_GLIDESLOPE_SETPOINT,
+		VEHICLE_BEACON_GLIDESLOPE_ACTUAL,
+		VEHICLE_BEACON_GLIDESLOPE_DELTA,
+
+		//Part variables.
+		PART_PRESENT,
+		PART_ISMIRRORED,
+
+		//Engine variables.
+		ENGINE_ISAUTOMATIC,
+		ENGINE_ROTATION,
+		ENGINE_SIN,
+		ENGINE_COS,
+		ENGINE_DRIVESHAFT_ROTATION,
+		ENGINE_DRIVESHAFT_SIN,
+		ENGINE_DRIVESHAFT_COS,
+		ENGINE_RPM,
+		ENGINE_RPM_SAFE,
+		ENGINE_RPM_MAX,
+		ENGINE_RPM_PERCENT,
+		ENGINE_RPM_PERCENT_SAFE,
+		ENGINE_FUEL_FLOW,
+		ENGINE_TEMP,
+		ENGINE_PRESSURE,
+		ENGINE_GEAR,
+		ENGINE_GEARSHIFT,
+		ENGINE_GEARSHIFT_HVERTICAL,
+		ENGINE_GEARSHIFT_HHORIZONTAL,
+		ENGINE_CLUTCH_UPSHIFT,
+		ENGINE_CLUTCH_DOWNSHIFT,
+		ENGINE_BADSHIFT,
+		ENGINE_REVERSED,
+		ENGINE_RUNNING,
+		ENGINE_POWERED,
+		ENGINE_BACKFIRED,
+		ENGINE_JUMPER_CABLE,
+		ENGINE_HOURS,
+		ENGINE_OILLEAK,
+		ENGINE_FUELLEAK;
+	}
+}
@@ -24,6 +24,8 @@ public class DurationDelayClock{
 	private static final double d1 = 2.75;
 	
 	public final JSONAnimationDefinition animation;
+	/**Pre-resolved binding for the animation variable.  Not final as some renderers swap this for suffixed variables.**/
+	public AnimationVariableBinding variableBinding;
 	public final double animationAxisMagnitude;
 	public final Point3D animationAxisNormalized;
 	public final boolean isUseful;
@@ -37,8 +39,9 @@ public class DurationDelayClock{
 	private boolean startedReverseMovement = false;
 	private boolean endedReverseMovement = false;
 	
-	public DurationDelayClock(JSONAnimationDefinition animation){
+	public DurationDelayClock(JSONAnimationDefinition animation, AEntityD_Definable<?> entity){
 		this.animation = animation;
+		this.variableBinding = new AnimationVariableBinding(animation.variable, entity);
 		this.animationAxisMagnitude = animation.axis != null ? animation.axis.length() : 1.0;
 		this.animationAxisNormalized = animation.axis != null ? animation.axis.copy().normalize() : null;
 		this.shouldDoFactoring = animation.duration != 0 || animation.forwardsDelay != 0 || animation.reverseDelay != 0;
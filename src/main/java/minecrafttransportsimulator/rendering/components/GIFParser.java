@@ -5,9 +5,7 @@ import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import javax.imageio.ImageReader;
 import javax.imageio.metadata.IIOMetadata;
@@ -24,7 +22,11 @@ import org.w3c.dom.NodeList;
  */
 public class GIFParser{
 	
-	public static ParsedGIF parseGIF(ImageReader reader) throws IOException {
+	/**
+	 *  Parses the GIF from the passed-in reader.  Frames are packed into an atlas no larger than the passed-in size.
+	 *  Returns null if the GIF has no frames.
+	 */
+	public static ParsedGIF parseGIF(ImageReader reader, int maxAtlasSize) throws IOException {
 	    ArrayList<GIFImageFrame> frames = new ArrayList<GIFImageFrame>(2);
 
 	    int width = -1;
@@ -105,50 +107,87 @@ public class GIFParser{
 	    }
 	    reader.dispose();
 
-	    return !frames.isEmpty() ? new ParsedGIF(frames) : null;
+	    return !frames.isEmpty() ? new ParsedGIF(frames, maxAtlasSize) : null;
 	}
 	
+	/**A parsed GIF.  All frames are packed into a single atlas image, in rows from the top-left, so only
+	 * one texture is needed.  To render a frame, offset the UVs by its cell, as given by {@link #columns}
+	 * and {@link #rows}.  A table of which frame is shown at the start of each time slot is made when parsed,
+	 * so getting the current frame doesn't need to search.  Times are hundredths of a second, as that's what GIFs use.
+	 * Slots are one hundredth long, unless the GIF is longer than {@link #MAX_SLOTS}, in which case they are made
+	 * longer so the table doesn't get huge.  Frames shorter than a slot are then stepped to from the slot's first frame.
+	 */
 	public static class ParsedGIF{
-		
-		public final Map<Integer, GIFImageFrame> frames = new LinkedHashMap<Integer, GIFImageFrame>();
+		private static final int MAX_SLOTS = 4096;
+		public final int columns;
+		public final int rows;
 		public final int totalDuration;
-		public long currentCycleTime;
-		private long lastCycleCheck;
+		private final int slotDuration;
+		private final int[] slotFrames;
+		private final int[] frameEndTimes;
+		private BufferedImage atlas;
 		
-		private ParsedGIF(List<GIFImageFrame> frames){
+		private ParsedGIF(List<GIFImageFrame> frames, int maxAtlasSize){
+			//Get the frame times.  Browsers treat delays of 0 or 1 as 10, so we do too.
 			int cumulativeDuration = 0;
-			for(GIFImageFrame frame : frames){
-				this.frames.put(cumulativeDuration, frame);
-				cumulativeDuration += frame.getDelay();
+			this.frameEndTimes = new int[frames.size()];
+			for(int i=0; i<frames.size(); ++i){
+				cumulativeDuration += frames.get(i).getDelay() <= 1 ? 10 : frames.get(i).getDelay();
+				frameEndTimes[i] = cumulativeDuration;
 			}
 			this.totalDuration = cumulativeDuration;
-		}
-		
-		public GIFImageFrame getCurrentFrame(){
-			//Get current delta since last pass.
-			long currentTime = System.currentTimeMillis()/10;
-			currentCycleTime += (currentTime - lastCycleCheck);
-			lastCycleCheck = currentTime;
 			
-			//Get us in the delay bounds.
-			if(currentCycleTime > totalDuration*2){
-				//Reset to prevent loop slowdowns.
-				currentCycleTime = 0;
-			}
-			while(currentCycleTime > totalDuration){
-				currentCycleTime -= totalDuration;
+			//Get the frame table.
+			this.slotDuration = (totalDuration + MAX_SLOTS - 1)/MAX_SLOTS;
+			this.slotFrames = new int[(totalDuration + slotDuration - 1)/slotDuration];
+			int frame = 0;
+			for(int slot=0; slot<slotFrames.length; ++slot){
+				while(frameEndTimes[frame] <= slot*slotDuration){
+					++frame;
+				}
+				slotFrames[slot] = frame;
 			}
 			
-			//Return image index for our delay.
-			int lastDelayChecked = 0;
-			for(Integer totalDelay : frames.keySet()){
-				if(totalDelay > currentCycleTime){
-					return frames.get(lastDelayChecked);
-				}else{
-					lastDelayChecked = totalDelay;
-				}
+			//Pack frames as close to a square as we can.  If the atlas is too big, shrink the frames to fit.
+			int frameWidth = frames.get(0).getImage().getWidth();
+			int frameHeight = frames.get(0).getImage().getHeight();
+			this.columns = (int) Math.ceil(Math.sqrt(frames.size()));
+			this.rows = (frames.size() + columns - 1)/columns;
+			double scale = Math.min(1, Math.min(maxAtlasSize/(double) (columns*frameWidth), maxAtlasSize/(double) (rows*frameHeight)));
+			int cellWidth = Math.max(1, (int) (frameWidth*scale));
+			int cellHeight = Math.max(1, (int) (frameHeight*scale));
+			this.atlas = new BufferedImage(columns*cellWidth, rows*cellHeight, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D atlasGraphics = atlas.createGraphics();
+			for(int i=0; i<frames.size(); ++i){
+				atlasGraphics.drawImage(frames.get(i).getImage(), (i%columns)*cellWidth, (i/columns)*cellHeight, cellWidth, cellHeight, null);
 			}
-			return frames.get(lastDelayChecked);
+			atlasGraphics.dispose();
+		}
+		
+		/**
+		 *  Returns the index of the frame that should be shown now.  All GIFs run off the same clock.
+		 */
+		public int getCurrentFrame(){
+			int time = (int) ((System.currentTimeMillis()/10)%totalDuration);
+			int frame = slotFrames[time/slotDuration];
+			while(frameEndTimes[frame] <= time){
+				++frame;
+			}
+			return frame;
+		}
+		
+		/**
+		 *  Returns the atlas image, or null if {@link #releaseAtlas()} has been called.
+		 */
+		public BufferedImage getAtlas(){
+			return atlas;
+		}
+		
+		/**
+		 *  Releases the atlas image.  Call this once it has been uploaded to save memory.
+		 */
+		public void releaseAtlas(){
+			atlas = null;
 		}
 	}
 	
@@ -0,0 +1,514 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**Class that creates lower-detail versions of model objects for rendering at a distance.
+ * This is done by collapsing edges of the mesh, one at a time, until the mesh has the
+ * requested number of tris.  Which edge to collapse is picked by the quadric error metric,
+ * which is the sum of squared distances from the new vertex position to the planes of all
+ * faces that used to touch the collapsed vertices.  Edges that only have one face on them
+ * get extra planes to keep the outline of the object, as most models are made of many
+ * separate, open pieces that would otherwise shrink.
+ * <br><br>
+ * Vertices are collapsed onto one of their neighbors rather than a new point, so we never need
+ * to interpolate normals and UVs.  Vertices are joined into points by position, as models are
+ * stored as separate tris, per the format in {@link RenderableObject}.  The corners at a point
+ * may still have different normals and UVs, such as on texture seams and hard edges.  When a
+ * point is collapsed, each moved corner takes the normal and UV of the target point's corner on
+ * the same side of any seam, as found from the faces on the collapsed edge.  Collapses that would
+ * move a corner with no such match are blocked, as they would smear textures or soften hard edges.
+ * <br><br>
+ * Decimating big models takes a while, so LODs are generated on a background thread rather than
+ * on the render thread that loads the models.
+ *
+ * @author don_bruce
+ */
+public class ModelDecimator{
+	private static final int BUFFERS_PER_VERTEX = 8;
+	private static final int BUFFERS_PER_FACE = BUFFERS_PER_VERTEX*3;
+	/**Weight of the planes added to keep open edges in place.  Higher is stiffer.**/
+	private static final double BOUNDARY_WEIGHT = 100;
+	/**Minimum dot product between a face's normal before and after a collapse.  Collapses that would fold faces more than this are blocked.**/
+	private static final double MIN_NORMAL_DOT = 0.2;
+	/**Thread that LODs are generated on.  Only one is used, as LODs are not needed right away and we don't want to take CPU from the game.**/
+	private static final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+		Thread thread = new Thread(runnable, "MTS Model Decimator");
+		thread.setDaemon(true);
+		return thread;
+	});
+	static{
+		worker.allowCoreThreadTimeOut(true);
+	}
+
+	private final FloatBuffer vertices;
+	private final int faceCount;
+	private final int[] cornerVertices;
+	/**Index of the normal and UV of each corner in {@link #attributes}.**/
+	private final int[] cornerAttributes;
+	/**Unique normal and UV sets, stored as the first 5 floats of the vertex format.**/
+	private final List<float[]> attributes = new ArrayList<float[]>();
+	private final boolean[] removedFaces;
+	private final List<Point> points = new ArrayList<Point>();
+	private final PriorityQueue<Collapse> collapses = new PriorityQueue<Collapse>();
+
+	private ModelDecimator(FloatBuffer vertices){
+		this.vertices = vertices;
+		this.faceCount = vertices.limit()/BUFFERS_PER_FACE;
+		this.cornerVertices = new int[faceCount*3];
+		this.cornerAttributes = new int[faceCount*3];
+		this.removedFaces = new boolean[faceCount];
+
+		//Join all vertices at the same position into points, and all matching normals and UVs into attributes.
+		Map<Point, Point> pointMap = new HashMap<Point, Point>();
+		Map<Attribute, Integer> attributeMap = new HashMap<Attribute, Integer>();
+		for(int corner=0; corner<cornerVertices.length; ++corner){
+			int index = corner*BUFFERS_PER_VERTEX;
+			Attribute attribute = new Attribute(new float[]{vertices.get(index), vertices.get(index + 1), vertices.get(index + 2), vertices.get(index + 3), vertices.get(index + 4)});
+			Integer attributeIndex = attributeMap.get(attribute);
+			if(attributeIndex == null){
+				attributeIndex = attributes.size();
+				attributes.add(attribute.values);
+				attributeMap.put(attribute, attributeIndex);
+			}
+			cornerAttributes[corner] = attributeIndex;
+			Point point = new Point(vertices.get(index + 5), vertices.get(index + 6), vertices.get(index + 7));
+			Point existingPoint = pointMap.get(point);
+			if(existingPoint == null){
+				point.index = points.size();
+				points.add(point);
+				pointMap.put(point, point);
+				existingPoint = point;
+			}
+			cornerVertices[corner] = existingPoint.index;
+			existingPoint.faces.add(corner/3);
+		}
+
+		//Add the plane of each face to its points.  Larger faces count for more.
+		//Also count how many faces use each edge, so we can find the open ones.
+		Map<Long, Integer> edgeFaces = new HashMap<Long, Integer>();
+		double[] normal = new double[3];
+		for(int face=0; face<faceCount; ++face){
+			if(getFaceNormal(face, -1, -1, normal)){
+				Point point = points.get(cornerVertices[face*3]);
+				double area = Math.sqrt(normal[0]*normal[0] + normal[1]*normal[1] + normal[2]*normal[2]);
+				double[] plane = createPlaneQuadric(normal[0]/area, normal[1]/area, normal[2]/area, point, area/2D);
+				for(int i=0; i<3; ++i){
+					addQuadric(points.get(cornerVertices[face*3 + i]).quadric, plane);
+				}
+			}
+			for(int i=0; i<3; ++i){
+				long edgeKey = getEdgeKey(cornerVertices[face*3 + i], cornerVertices[face*3 + (i + 1)%3]);
+				Integer count = edgeFaces.get(edgeKey);
+				edgeFaces.put(edgeKey, count == null ? 1 : count + 1);
+			}
+		}
+
+		//Add planes to open edges.  These are perpendicular to the face, along the edge.
+		for(int face=0; face<faceCount; ++face){
+			if(getFaceNormal(face, -1, -1, normal)){
+				for(int i=0; i<3; ++i){
+					Point point1 = points.get(cornerVertices[face*3 + i]);
+					Point point2 = points.get(cornerVertices[face*3 + (i + 1)%3]);
+					if(edgeFaces.get(getEdgeKey(point1.index, point2.index)) == 1){
+						double edgeX = point2.x - point1.x;
+						double edgeY = point2.y - point1.y;
+						double edgeZ = point2.z - point1.z;
+						double planeX = edgeY*normal[2] - edgeZ*normal[1];
+						double planeY = edgeZ*normal[0] - edgeX*normal[2];
+						double planeZ = edgeX*normal[1] - edgeY*normal[0];
+						double planeLength = Math.sqrt(planeX*planeX + planeY*planeY + planeZ*planeZ);
+						if(planeLength > 0){
+							double edgeLengthSquared = edgeX*edgeX + edgeY*edgeY + edgeZ*edgeZ;
+							double[] plane = createPlaneQuadric(planeX/planeLength, planeY/planeLength, planeZ/planeLength, point1, BOUNDARY_WEIGHT*edgeLengthSquared);
+							addQuadric(point1.quadric, plane);
+							addQuadric(point2.quadric, plane);
+						}
+					}
+				}
+			}
+		}
+
+		//Now that all points have their quadrics, queue up all edges.
+		for(long edgeKey : edgeFaces.keySet()){
+			queueCollapse(points.get((int) (edgeKey >>> 32)), points.get((int) edgeKey));
+		}
+	}
+
+	/**
+	 *  Returns a new buffer with the passed-in tri vertices decimated to the passed-in fraction of tris.
+	 *  Decimation stops early if the next collapse would move the surface by more than the passed-in
+	 *  max error, in model units.  If no tris could be removed, null is returned.
+	 *  The passed-in buffer is not modified.
+	 */
+	public static FloatBuffer decimate(FloatBuffer vertices, double triFraction, double maxError){
+		ModelDecimator decimator = new ModelDecimator(vertices);
+		int removedFaces = decimator.collapseEdges((int) (decimator.faceCount*triFraction), maxError*maxError);
+		return removedFaces > 0 ? decimator.createBuffer(decimator.faceCount - removedFaces) : null;
+	}
+
+	/**
+	 *  Queues generation of LOD levels for the passed-in tri vertices on the decimator thread.  Each level
+	 *  is decimated from the level before it with the tri fraction and max error at its index, as this is
+	 *  faster and keeps the levels consistent.  Levels with non-null entries in the passed-in provided vertices
+	 *  are not generated, but are used as the base for the next level.  The returned array holds the vertices
+	 *  generated for each level, or null for levels that were provided or couldn't be decimated.
+	 *  None of the passed-in buffers are modified.
+	 */
+	public static Future<FloatBuffer[]> generateLODs(FloatBuffer vertices, FloatBuffer[] providedVertices, double[] triFractions, double[] maxErrors){
+		//Duplicate the buffers so their positions can't be changed by rendering while we read them.
+		FloatBuffer baseVertices = vertices.duplicate();
+		FloatBuffer[] baseLevels = new FloatBuffer[triFractions.length];
+		if(providedVertices != null){
+			for(int i=0; i<baseLevels.length; ++i){
+				if(providedVertices[i] != null){
+					baseLevels[i] = providedVertices[i].duplicate();
+				}
+			}
+		}
+		return worker.submit(() -> {
+			FloatBuffer[] levels = new FloatBuffer[baseLevels.length];
+			FloatBuffer priorVertices = baseVertices;
+			for(int i=0; i<levels.length; ++i){
+				if(baseLevels[i] != null){
+					priorVertices = baseLevels[i];
+				}else{
+					levels[i] = decimate(priorVertices, triFractions[i], maxErrors[i]);
+					if(levels[i] != null){
+						priorVertices = levels[i];
+					}
+				}
+			}
+			return levels;
+		});
+	}
+
+	/**
+	 *  Collapses edges until we have the target number of faces, or we run out of edges under the max error.
+	 *  Returns the number of faces removed.
+	 */
+	private int collapseEdges(int targetFaces, double maxError){
+		int removedFaceCount = 0;
+		while(faceCount - removedFaceCount > targetFaces && !collapses.isEmpty()){
+			Collapse collapse = collapses.poll();
+			if(collapse.cost > maxError){
+				break;
+			}
+
+			//Skip collapses where the points have changed since we queued them.  These have newer entries.
+			if(collapse.from.removed || collapse.to.removed || collapse.fromVersion != collapse.from.version || collapse.toVersion != collapse.to.version){
+				continue;
+			}
+			Map<Integer, Integer> attributeChanges = getAttributeChanges(collapse.from, collapse.to);
+			if(attributeChanges == null || !canCollapse(collapse.from, collapse.to)){
+				continue;
+			}
+
+			//Move all corners on the from point to the to point, taking the matching attributes of the to point.
+			//Faces with both points are now lines, so remove them.
+			Point from = collapse.from;
+			Point to = collapse.to;
+			for(int face : from.faces){
+				if(!removedFaces[face]){
+					boolean hasTo = false;
+					for(int i=0; i<3; ++i){
+						if(cornerVertices[face*3 + i] == to.index){
+							hasTo = true;
+						}
+					}
+					if(hasTo){
+						removedFaces[face] = true;
+						++removedFaceCount;
+					}else{
+						for(int i=0; i<3; ++i){
+							if(cornerVertices[face*3 + i] == from.index){
+								cornerVertices[face*3 + i] = to.index;
+								cornerAttributes[face*3 + i] = attributeChanges.get(cornerAttributes[face*3 + i]);
+							}
+						}
+						to.faces.add(face);
+					}
+				}
+			}
+			from.removed = true;
+			from.faces.clear();
+			addQuadric(to.quadric, from.quadric);
+			++to.version;
+
+			//Re-queue all edges on the to point, as its quadric is different now.
+			List<Point> neighbors = new ArrayList<Point>();
+			for(int face : to.faces){
+				if(!removedFaces[face]){
+					for(int i=0; i<3; ++i){
+						Point neighbor = points.get(cornerVertices[face*3 + i]);
+						if(neighbor != to && !neighbors.contains(neighbor)){
+							neighbors.add(neighbor);
+							queueCollapse(to, neighbor);
+						}
+					}
+				}
+			}
+		}
+		return removedFaceCount;
+	}
+
+	/**
+	 *  Returns the attribute each corner on the from point should take when it's moved to the to point, keyed by its
+	 *  current attribute.  This comes from the faces on the edge between the points, as they have corners on both points
+	 *  on the same side of any seam.  Returns null if the collapse would move a corner across a seam.  This happens if a
+	 *  corner that would be moved has an attribute not on the edge, or the edge maps one attribute to two.
+	 */
+	private Map<Integer, Integer> getAttributeChanges(Point from, Point to){
+		Map<Integer, Integer> attributeChanges = new HashMap<Integer, Integer>();
+		for(int face : from.faces){
+			if(!removedFaces[face]){
+				int fromAttribute = -1;
+				int toAttribute = -1;
+				for(int i=0; i<3; ++i){
+					if(cornerVertices[face*3 + i] == from.index){
+						fromAttribute = cornerAttributes[face*3 + i];
+					}else if(cornerVertices[face*3 + i] == to.index){
+						toAttribute = cornerAttributes[face*3 + i];
+					}
+				}
+				if(toAttribute != -1){
+					Integer existingAttribute = attributeChanges.put(fromAttribute, toAttribute);
+					if(existingAttribute != null && existingAttribute != toAttribute){
+						return null;
+					}
+				}
+			}
+		}
+		for(int face : from.faces){
+			if(!removedFaces[face]){
+				for(int i=0; i<3; ++i){
+					if(cornerVertices[face*3 + i] == from.index && !attributeChanges.containsKey(cornerAttributes[face*3 + i])){
+						return null;
+					}
+				}
+			}
+		}
+		return attributeChanges;
+	}
+
+	/**
+	 *  Returns true if collapsing the from point onto the to point won't flip any faces.
+	 */
+	private boolean canCollapse(Point from, Point to){
+		double[] oldNormal = new double[3];
+		double[] newNormal = new double[3];
+		for(int face : from.faces){
+			if(!removedFaces[face]){
+				boolean hasTo = false;
+				for(int i=0; i<3; ++i){
+					if(cornerVertices[face*3 + i] == to.index){
+						hasTo = true;
+					}
+				}
+				if(!hasTo && getFaceNormal(face, -1, -1, oldNormal)){
+					if(!getFaceNormal(face, from.index, to.index, newNormal)){
+						return false;
+					}
+					double oldLength = Math.sqrt(oldNormal[0]*oldNormal[0] + oldNormal[1]*oldNormal[1] + oldNormal[2]*oldNormal[2]);
+					double newLength = Math.sqrt(newNormal[0]*newNormal[0] + newNormal[1]*newNormal[1] + newNormal[2]*newNormal[2]);
+					if((oldNormal[0]*newNormal[0] + oldNormal[1]*newNormal[1] + oldNormal[2]*newNormal[2])/(oldLength*newLength) < MIN_NORMAL_DOT){
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *  Queues the cheaper collapse of the two passed-in points.
+	 */
+	private void queueCollapse(Point point1, Point point2){
+		double[] quadric = new double[11];
+		addQuadric(quadric, point1.quadric);
+		addQuadric(quadric, point2.quadric);
+		double cost1 = getQuadricError(quadric, point1);
+		double cost2 = getQuadricError(quadric, point2);
+		if(cost1 < cost2){
+			collapses.add(new Collapse(point2, point1, cost1));
+		}else{
+			collapses.add(new Collapse(point1, point2, cost2));
+		}
+	}
+
+	/**
+	 *  Creates a buffer from all remaining faces.  Normals and UVs are taken from the attributes of each corner,
+	 *  as corners that were moved have taken those of the point they were moved to.
+	 */
+	private FloatBuffer createBuffer(int remainingFaces){
+		FloatBuffer buffer = FloatBuffer.allocate(remainingFaces*BUFFERS_PER_FACE);
+		for(int face=0; face<faceCount; ++face){
+			if(!removedFaces[face]){
+				for(int i=0; i<3; ++i){
+					int corner = face*3 + i;
+					Point point = points.get(cornerVertices[corner]);
+					buffer.put(attributes.get(cornerAttributes[corner]));
+					buffer.put(point.x);
+					buffer.put(point.y);
+					buffer.put(point.z);
+				}
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 *  Gets the non-normalized normal of the passed-in face, with any corners at the replaced point
+	 *  moved to the replacement point.  Pass in -1 to not replace any points.  Returns false if the face
+	 *  has no area, in which case it has no normal.
+	 */
+	private boolean getFaceNormal(int face, int replacedIndex, int replacementIndex, double[] normal){
+		Point[] corners = new Point[3];
+		for(int i=0; i<3; ++i){
+			int pointIndex = cornerVertices[face*3 + i];
+			corners[i] = points.get(pointIndex == replacedIndex ? replacementIndex : pointIndex);
+		}
+		double x1 = corners[1].x - corners[0].x;
+		double y1 = corners[1].y - corners[0].y;
+		double z1 = corners[1].z - corners[0].z;
+		double x2 = corners[2].x - corners[0].x;
+		double y2 = corners[2].y - corners[0].y;
+		double z2 = corners[2].z - corners[0].z;
+		normal[0] = y1*z2 - z1*y2;
+		normal[1] = z1*x2 - x1*z2;
+		normal[2] = x1*y2 - y1*x2;
+		return normal[0] != 0 || normal[1] != 0 || normal[2] != 0;
+	}
+
+	/**
+	 *  Returns the quadric for the plane with the passed-in unit normal that goes through the passed-in point.
+	 *  Stored as the upper half of the symmetric 4x4 matrix, row by row, then the weight.
+	 */
+	private static double[] createPlaneQuadric(double a, double b, double c, Point point, double weight){
+		double d = -(a*point.x + b*point.y + c*point.z);
+		return new double[]{
+			weight*a*a, weight*a*b, weight*a*c, weight*a*d,
+			weight*b*b, weight*b*c, weight*b*d,
+			weight*c*c, weight*c*d,
+			weight*d*d,
+			weight
+		};
+	}
+
+	private static void addQuadric(double[] quadric, double[] other){
+		for(int i=0; i<11; ++i){
+			quadric[i] += other[i];
+		}
+	}
+
+	/**
+	 *  Returns the error of the passed-in quadric at the passed-in point.  This is the weighted average of the
+	 *  squared distances to its planes, so it can be compared to a squared distance.
+	 */
+	private static double getQuadricError(double[] q, Point point){
+		double x = point.x;
+		double y = point.y;
+		double z = point.z;
+		if(q[10] == 0){
+			return 0;
+		}
+		return (q[0]*x*x + 2*q[1]*x*y + 2*q[2]*x*z + 2*q[3]*x
+			+ q[4]*y*y + 2*q[5]*y*z + 2*q[6]*y
+			+ q[7]*z*z + 2*q[8]*z
+			+ q[9])/q[10];
+	}
+
+	private static long getEdgeKey(int index1, int index2){
+		return index1 < index2 ? ((long) index1 << 32) | index2 : ((long) index2 << 32) | index1;
+	}
+
+	/**
+	 *  A unique position in the model, with all faces that use it.
+	 */
+	private static class Point{
+		private final float x;
+		private final float y;
+		private final float z;
+		private final double[] quadric = new double[11];
+		private final List<Integer> faces = new ArrayList<Integer>();
+		private int index;
+		private int version;
+		private boolean removed;
+
+		private Point(float x, float y, float z){
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+
+		@Override
+		public boolean equals(Object object){
+			if(object instanceof Point){
+				Point other = (Point) object;
+				return x == other.x && y == other.y && z == other.z;
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode(){
+			return 31*(31*Float.floatToIntBits(x) + Float.floatToIntBits(y)) + Float.floatToIntBits(z);
+		}
+	}
+
+	/**
+	 *  A normal and UV set, used as a key to join matching sets.
+	 */
+	private static class Attribute{
+		private final float[] values;
+
+		private Attribute(float[] values){
+			this.values = values;
+		}
+
+		@Override
+		public boolean equals(Object object){
+			return object instanceof Attribute && Arrays.equals(values, ((Attribute) object).values);
+		}
+
+		@Override
+		public int hashCode(){
+			return Arrays.hashCode(values);
+		}
+	}
+
+	/**
+	 *  A queued collapse of one point onto another.  The versions of the points are saved so we know
+	 *  if this collapse is out of date when we get to it.
+	 */
+	private static class Collapse implements Comparable<Collapse>{
+		private final Point from;
+		private final Point to;
+		private final int fromVersion;
+		private final int toVersion;
+		private final double cost;
+
+		private Collapse(Point from, Point to, double cost){
+			this.from = from;
+			this.to = to;
+			this.fromVersion = from.version;
+			this.toVersion = to.version;
+			this.cost = cost;
+		}
+
+		@Override
+		public int compareTo(Collapse other){
+			return Double.compare(cost, other.cost);
+		}
+	}
+}
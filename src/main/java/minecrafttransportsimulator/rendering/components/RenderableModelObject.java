@@ -6,6 +6,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
@@ -21,6 +23,7 @@ import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONLight.JSONLightBlendableComponent;
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.components.RenderableObject.SharedVertexCache;
 import minecrafttransportsimulator.rendering.instances.RenderText;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -41,6 +44,14 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 	private RenderableObject coverObject;
 	private final Map<JSONLight, RenderableObject> flareObjects = new HashMap<JSONLight, RenderableObject>();
 	private final Map<JSONLight, RenderableObject> beamObjects = new HashMap<JSONLight, RenderableObject>();
+	/**Lower-detail versions of {@link #object}, from most to least detailed.  Null if this object doesn't have any, or they aren't generated yet.**/
+	private RenderableObject[] lodObjects;
+	/**Pack-provided versions of {@link #lodObjects}, or null for levels that are generated.**/
+	private final RenderableObject[] packLODObjects;
+	/**LOD levels generated for this object, which may be shared with other objects from the same model.  Null once {@link #lodObjects} are created.**/
+	private GeneratedLODs generatedLODs;
+	private final Point3D objectCenter;
+	private final double objectRadius;
 	
 	
 	/**Map of tread points, keyed by the model the tread is pathing about, then the spacing of the tread.
@@ -53,8 +64,32 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 	private static final float COVER_OFFSET = 0.0003F;
 	private static final float BEAM_OFFSET = -0.15F;
 	private static final int BEAM_SEGMENTS = 40;
+	private static final Point3D screenSizeHelper = new Point3D();
+	
+	/**Number of LOD levels objects can have.  Pack-provided LOD objects with higher levels are ignored.**/
+	public static final int LOD_LEVELS = 3;
+	/**Fraction of tris each LOD level keeps from the level before it.**/
+	private static final double[] LOD_TRI_FRACTIONS = new double[]{0.5, 0.5, 0.4};
+	/**Max error of each LOD level, as a fraction of the object's radius.**/
+	private static final double[] LOD_MAX_ERRORS = new double[]{0.01, 0.03, 0.08};
+	/**Screen size, as radius over distance, below which each LOD level is used.**/
+	private static final double[] LOD_SCREEN_SIZES = new double[]{0.08, 0.03, 0.012};
+	/**Screen size below which objects are too small to see, so they are not rendered or animated.**/
+	private static final double MIN_SCREEN_SIZE = 0.002;
+	/**Objects with fewer tris than this don't get generated LODs, as they are already cheap to render.**/
+	private static final int MIN_LOD_TRIS = 64;
 	
 	public RenderableModelObject(String modelLocation, RenderableObject object){
+		this(modelLocation, object, null, null);
+	}
+	
+	/**
+	 *  Creates a new object.  The passed-in LOD objects, if not null, are pack-provided lower-detail versions
+	 *  of this object for each LOD level.  Levels without one, or null entries, are generated from the object.
+	 *  Generated levels are taken from the passed-in map, keyed by object name, or added to it if they are not
+	 *  there, so objects made from the same model share them.  If the map is null, levels are generated just for this object.
+	 */
+	RenderableModelObject(String modelLocation, RenderableObject object, RenderableObject[] packLODObjects, Map<String, GeneratedLODs> lodCache){
 		super();
 		this.modelLocation = modelLocation;
 		this.isWindow = object.name.toLowerCase().contains(AModelParser.WINDOW_OBJECT_NAME);
@@ -62,8 +97,12 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 		
 		//If we are a window, split the model into two parts.  The first will be the exterior which will
 		//be our normal model, the second will be a new, inverted, interior model.
+		//Parsed vertices are shared, so copy them before we change the UVs.
 		if(isWindow){
-			this.object = new RenderableObject(object.name, "mts:textures/rendering/glass.png", object.color, object.vertices, false);
+			FloatBuffer windowVertices = FloatBuffer.allocate(object.vertices.capacity());
+			windowVertices.put(object.vertices).flip();
+			object.vertices.rewind();
+			this.object = new RenderableObject(object.name, "mts:textures/rendering/glass.png", object.color, windowVertices, false);
 			this.object.normalizeUVs();
 			this.interiorWindowObject = new RenderableObject(object.name + "_interior", "mts:textures/rendering/glass.png", object.color, FloatBuffer.allocate(object.vertices.capacity()), false);
 			float[] vertexSet = new float[8];
@@ -86,6 +125,43 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 			colorObject = generateColors(object);
 			coverObject = generateCovers(object);
 		}
+		
+		//Get the size of the object so we can tell how big it will be on screen.
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float minZ = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		float maxZ = -Float.MAX_VALUE;
+		for(int i=0; i<object.vertices.limit(); i+=8){
+			minX = Math.min(minX, object.vertices.get(i+5));
+			minY = Math.min(minY, object.vertices.get(i+6));
+			minZ = Math.min(minZ, object.vertices.get(i+7));
+			maxX = Math.max(maxX, object.vertices.get(i+5));
+			maxY = Math.max(maxY, object.vertices.get(i+6));
+			maxZ = Math.max(maxZ, object.vertices.get(i+7));
+		}
+		if(object.vertices.limit() > 0){
+			this.objectCenter = new Point3D((minX + maxX)/2D, (minY + maxY)/2D, (minZ + maxZ)/2D);
+			this.objectRadius = Math.sqrt((maxX - minX)*(maxX - minX) + (maxY - minY)*(maxY - minY) + (maxZ - minZ)*(maxZ - minZ))/2D;
+		}else{
+			this.objectCenter = new Point3D();
+			this.objectRadius = 0;
+		}
+		
+		//Queue LOD generation.  Windows and lights are already simple, and need their full models for their extra objects.
+		//This is done on the decimator thread so we don't stall rendering.  Until it's done, we just render the full object.
+		if(!isWindow && colorObject == null && object.lineWidth == 0 && (packLODObjects != null || object.vertices.limit()/24 >= MIN_LOD_TRIS)){
+			this.packLODObjects = packLODObjects;
+			if(lodCache != null){
+				this.generatedLODs = lodCache.computeIfAbsent(object.name, name -> new GeneratedLODs(object, packLODObjects, objectRadius));
+			}else{
+				this.generatedLODs = new GeneratedLODs(object, packLODObjects, objectRadius);
+			}
+		}else{
+			this.packLODObjects = null;
+			this.generatedLODs = null;
+		}
 	}
 	
 	/**
@@ -96,7 +172,8 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 		//Do pre-render checks based on the object we are rendering.
 		//This may block rendering if there are false visibility transforms or the wrong render pass.
 		JSONLight lightDef = entity.lightObjectDefinitions.get(object.name);
-		if(shouldRender(entity, lightDef, blendingEnabled, partialTicks)){
+		double screenSize = getScreenSize(entity, lightDef, transform);
+		if(screenSize > MIN_SCREEN_SIZE && shouldRender(entity, lightDef, blendingEnabled, partialTicks)){
 			AnimationSwitchbox switchbox = entity.animatedObjectSwitchboxes.get(object.name);
 			if(switchbox == null || switchbox.runSwitchbox(partialTicks, false)){
 				float lightLevel = lightDef != null ? entity.lightBrightnessValues.get(lightDef) : 0;
@@ -165,7 +242,13 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 						//Either solid texture on solid pass, or translucent texture on blended pass.
 						//Need to disable light-mapping from daylight if we are a light-up texture.
 						object.disableLighting = ConfigSystem.client.renderingSettings.brightLights.value && lightDef != null && lightLevel > 0 && !lightDef.emissive && !lightDef.isBeam;
-						object.render();
+						RenderableObject lodObject = getLODObject(screenSize);
+						if(lodObject != object){
+							lodObject.texture = object.texture;
+							lodObject.disableLighting = object.disableLighting;
+							lodObject.transform.set(object.transform);
+						}
+						lodObject.render();
 						if(interiorWindowObject != null && ConfigSystem.client.renderingSettings.innerWindows.value){
 							interiorWindowObject.transform.set(object.transform);
 							interiorWindowObject.render();
@@ -197,9 +280,79 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 	 */
 	public void destroy(){
 		object.destroy();
+		if(lodObjects != null){
+			for(int i=0; i<LOD_LEVELS; ++i){
+				//Levels that couldn't be decimated are the same object as the level before them, so only destroy each object once.
+				RenderableObject priorObject = i == 0 ? object : lodObjects[i - 1];
+				if(lodObjects[i] != priorObject){
+					lodObjects[i].destroy();
+				}
+			}
+		}
 		treadPoints.remove(modelLocation);
 	}
 	
+	/**
+	 *  Returns how big this object is on screen, as its radius over its distance to the camera.
+	 *  The passed-in transform is relative to the camera, so we don't need the camera position.
+	 *  Lights and treads always return the max value, as lights can be seen from far away,
+	 *  and treads don't render at the object's position.  The same is true if LODs are disabled.
+	 */
+	private double getScreenSize(AnimationEntity entity, JSONLight lightDef, TransformationMatrix transform){
+		if(lightDef != null || objectRadius == 0 || !ConfigSystem.client.renderingSettings.modelLODs.value || (entity instanceof PartGroundDevice && ((PartGroundDevice) entity).definition.ground.isTread)){
+			return Double.MAX_VALUE;
+		}
+		double distance = screenSizeHelper.set(objectCenter).transform(transform).length();
+		double scaledRadius = objectRadius*Math.max(entity.scale.x, Math.max(entity.scale.y, entity.scale.z));
+		return distance > scaledRadius ? scaledRadius/distance : Double.MAX_VALUE;
+	}
+	
+	/**
+	 *  Returns the object to render for the passed-in screen size.  This is either the object
+	 *  itself, or one of its LODs.
+	 */
+	private RenderableObject getLODObject(double screenSize){
+		if(generatedLODs != null && generatedLODs.vertices.isDone()){
+			createLODObjects();
+		}
+		RenderableObject lodObject = object;
+		if(lodObjects != null){
+			for(int i=0; i<LOD_LEVELS && screenSize < LOD_SCREEN_SIZES[i]; ++i){
+				lodObject = lodObjects[i];
+			}
+		}
+		return lodObject;
+	}
+	
+	/**
+	 *  Creates the {@link #lodObjects} from the pack-provided objects and the vertices generated by the decimator thread.
+	 *  Generated levels get their own objects, but share the vertices and GPU cache of the generated LODs.  If a level wasn't provided and couldn't be decimated, it just uses the level before it rather than making another
+	 *  object for the same vertices.
+	 */
+	private void createLODObjects(){
+		FloatBuffer[] generatedVertices;
+		try{
+			generatedVertices = generatedLODs.vertices.get();
+		}catch(InterruptedException | ExecutionException e){
+			InterfaceManager.coreInterface.logError("Could not generate LODs for object " + object.name + " in: " + modelLocation + " due to: " + e.getMessage());
+			generatedVertices = new FloatBuffer[LOD_LEVELS];
+		}
+		lodObjects = new RenderableObject[LOD_LEVELS];
+		RenderableObject priorObject = object;
+		for(int i=0; i<LOD_LEVELS; ++i){
+			if(packLODObjects != null && packLODObjects[i] != null){
+				lodObjects[i] = packLODObjects[i];
+			}else if(generatedVertices[i] != null){
+				lodObjects[i] = new RenderableObject(object.name + AModelParser.LOD_OBJECT_NAME + (i + 1), object.texture, object.color, generatedVertices[i].asReadOnlyBuffer(), object.cacheVertices);
+				lodObjects[i].sharedCache = generatedLODs.sharedCaches[i];
+			}else{
+				lodObjects[i] = priorObject;
+			}
+			priorObject = lodObjects[i];
+		}
+		generatedLODs = null;
+	}
+	
 	private boolean shouldRender(AnimationEntity entity, JSONLight lightDef, boolean blendingEnabled, float partialTicks){
 		//Translucent only renders on blended pass.
 		if(object.isTranslucent && !blendingEnabled){
@@ -747,4 +900,34 @@ public class RenderableModelObject<AnimationEntity extends AEntityD_Definable<?>
 		}
 		return points;
 	}
+	
+	/**
+	 *  LOD levels generated for an object.  The vertices are made on the decimator thread, and are null for
+	 *  levels that were pack-provided or couldn't be decimated.  If the object caches its vertices, all
+	 *  objects made for a level share one GPU cache, as they all render the same vertices.
+	 */
+	static class GeneratedLODs{
+		private final Future<FloatBuffer[]> vertices;
+		private final SharedVertexCache[] sharedCaches = new SharedVertexCache[LOD_LEVELS];
+		
+		private GeneratedLODs(RenderableObject object, RenderableObject[] packLODObjects, double objectRadius){
+			FloatBuffer[] packLODVertices = null;
+			if(packLODObjects != null){
+				packLODVertices = new FloatBuffer[LOD_LEVELS];
+				for(int i=0; i<LOD_LEVELS; ++i){
+					if(packLODObjects[i] != null){
+						packLODVertices[i] = packLODObjects[i].vertices;
+					}
+				}
+			}
+			double[] maxErrors = new double[LOD_LEVELS];
+			for(int i=0; i<LOD_LEVELS; ++i){
+				maxErrors[i] = objectRadius*LOD_MAX_ERRORS[i];
+				if(object.cacheVertices){
+					sharedCaches[i] = new SharedVertexCache();
+				}
+			}
+			this.vertices = ModelDecimator.generateLODs(object.vertices, packLODVertices, LOD_TRI_FRACTIONS, maxErrors);
+		}
+	}
 }
@@ -57,6 +57,9 @@ public class RenderableObject{
 	
 	public boolean isTranslucent;
 	public int cachedVertexIndex = -1;
+	/**Cache shared with other objects that have the same vertices, such as objects from the same parsed model.
+	 * If this is set, the cached vertices are shared by all these objects, and are only deleted when all of them are.**/
+	public SharedVertexCache sharedCache;
 	public BlendState blend = BlendState.SOLID;
 	public float alpha = 1.0F;
 	public float lineWidth = 0.0F;
@@ -263,6 +266,14 @@ public class RenderableObject{
 		InterfaceManager.renderingInterface.deleteVertices(this);
 	}
 	
+	/**A set of cached vertices shared by multiple objects.  The count of objects using it
+	 * is kept so the cache can be deleted when the last one is destroyed.
+	 */
+	public static class SharedVertexCache{
+		public int cachedVertexIndex = -1;
+		public int references;
+	}
+	
 	public enum BlendState{
 		SOLID,
 		TRANSLUCENT,
@@ -0,0 +1,259 @@
+package minecrafttransportsimulator.rendering.components;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import minecrafttransportsimulator.rendering.components.GIFParser.ParsedGIF;
+
+/**Class that loads textures from URLs in the background.  Requests are handled by a small pool of worker threads,
+ * which download and decode the images, and put them in a queue for the render thread to upload.  This keeps slow
+ * hosts from freezing the game.  Downloaded files are saved to a cache directory so they don't need to be downloaded
+ * again next time.  Files are saved by the hash of their contents, with a small index file for each URL that points
+ * to the data file, so many URLs with the same image only store it once.  Index files older than {@link #MAX_CACHE_AGE}
+ * are re-downloaded, but still used if the download fails or doesn't return an image.  Data files are deleted when
+ * a re-download replaces them, so old images don't build up.  Downloads larger than {@link #MAX_DOWNLOAD_SIZE} are rejected.
+ * <br><br>
+ * This class has no ties to the game, so it may be used with any URL, including ones on a local test server.
+ *
+ * @author don_bruce
+ */
+public class URLTextureLoader{
+	private static final int WORKER_THREADS = 2;
+	private static final int MAX_QUEUED_REQUESTS = 64;
+	private static final int TIMEOUT = 10000;
+	private static final long MAX_CACHE_AGE = TimeUnit.DAYS.toMillis(7);
+	private static final int MAX_DOWNLOAD_SIZE = 32*1024*1024;
+
+	private final File cacheDirectory;
+	private final int maxAtlasSize;
+	private final ThreadPoolExecutor workers;
+	private final Queue<LoadedTexture> loadedTextures = new ConcurrentLinkedQueue<LoadedTexture>();
+
+	/**
+	 *  Creates a new loader.  The max atlas size is the largest texture GIF frames may be packed into,
+	 *  which should be the max texture size of the graphics card.
+	 */
+	public URLTextureLoader(File cacheDirectory, int maxAtlasSize){
+		this.cacheDirectory = cacheDirectory;
+		this.maxAtlasSize = maxAtlasSize;
+		this.workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED_REQUESTS), runnable -> {
+			Thread thread = new Thread(runnable, "MTS URL Texture Loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		workers.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 *  Requests the texture at the passed-in URL be loaded.  Once loaded, it can be obtained from {@link #getLoadedTexture()}.
+	 *  Returns false if there are too many requests already, in which case this should be called again later.
+	 */
+	public boolean request(String textureURL){
+		try{
+			workers.execute(() -> loadedTextures.add(load(textureURL)));
+			return true;
+		}catch(RejectedExecutionException e){
+			return false;
+		}
+	}
+
+	/**
+	 *  Returns the next texture that has finished loading, or null if there aren't any.
+	 *  Textures are returned in the order they finished, not the order they were requested.
+	 */
+	public LoadedTexture getLoadedTexture(){
+		return loadedTextures.poll();
+	}
+
+	/**
+	 *  Loads the texture at the passed-in URL, from the cache if possible.
+	 *  Errors are returned in the texture rather than thrown.
+	 */
+	private LoadedTexture load(String textureURL){
+		String urlHash = hash(textureURL.getBytes(StandardCharsets.UTF_8));
+		File indexFile = new File(cacheDirectory, urlHash + ".url");
+
+		//Check the cache first.  If it's too old, try to download a new copy, but use the old one if we can't.
+		String[] cachedData = readCache(indexFile);
+		if(cachedData == null || System.currentTimeMillis() - indexFile.lastModified() > MAX_CACHE_AGE){
+			try{
+				URLConnection connection = new URL(textureURL).openConnection();
+				connection.setConnectTimeout(TIMEOUT);
+				connection.setReadTimeout(TIMEOUT);
+				String contentType = connection.getHeaderField("Content-Type");
+				List<String> validContentTypes = new ArrayList<String>();
+				for(String imageSuffix : ImageIO.getReaderFileSuffixes()){
+					validContentTypes.add("image/" + imageSuffix);
+				}
+				if(validContentTypes.contains(contentType)){
+					byte[] data;
+					try(InputStream stream = connection.getInputStream()){
+						data = readFully(stream);
+					}
+					cachedData = writeCache(indexFile, contentType, data);
+				}else if(cachedData == null){
+					String errorString = "Invalid content type found.  Found:" + contentType + ", but the only valid types are: ";
+					for(String validType : validContentTypes){
+						errorString += validType + ", ";
+					}
+					return new LoadedTexture(textureURL, errorString);
+				}
+			}catch(Exception e){
+				if(cachedData == null){
+					e.printStackTrace();
+					return new LoadedTexture(textureURL, "Could not open URL for processing.  Error was: " + e.getMessage());
+				}
+			}
+		}
+
+		//Now decode the image.
+		try{
+			byte[] data = Files.readAllBytes(new File(cacheDirectory, cachedData[1] + ".dat").toPath());
+			if(cachedData[0].endsWith("gif")){
+				ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+				try(ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(data))){
+					reader.setInput(stream);
+					ParsedGIF gif = GIFParser.parseGIF(reader, maxAtlasSize);
+					if(gif != null){
+						return new LoadedTexture(textureURL, null, gif);
+					}else{
+						return new LoadedTexture(textureURL, "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?");
+					}
+				}finally{
+					reader.dispose();
+				}
+			}else{
+				BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+				if(image != null){
+					return new LoadedTexture(textureURL, image, null);
+				}else{
+					return new LoadedTexture(textureURL, "Could not parse images.  Error was: no reader could decode the image.");
+				}
+			}
+		}catch(Exception e){
+			e.printStackTrace();
+			return new LoadedTexture(textureURL, "Could not parse images.  Error was: " + e.getMessage());
+		}
+	}
+
+	/**
+	 *  Returns the content type and data hash saved in the passed-in index file, or null if it or its data don't exist.
+	 */
+	private String[] readCache(File indexFile){
+		if(indexFile.exists()){
+			try{
+				List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+				if(lines.size() == 2 && new File(cacheDirectory, lines.get(1) + ".dat").exists()){
+					return new String[]{lines.get(0), lines.get(1)};
+				}
+			}catch(IOException e){
+				//Just treat as not cached.
+			}
+		}
+		return null;
+	}
+
+	/**
+	 *  Saves the passed-in data to the cache, and returns the content type and data hash, as {@link #readCache(File)} does.
+	 *  Files are written to a temporary file first, so a crash or another thread can't leave half a file in the cache.
+	 *  If the index pointed to different data before, that data is deleted.  Other URLs with the same data will just
+	 *  download it again, which is cheaper than checking every index file for it.
+	 */
+	private String[] writeCache(File indexFile, String contentType, byte[] data) throws IOException{
+		String dataHash = hash(data);
+		cacheDirectory.mkdirs();
+		File dataFile = new File(cacheDirectory, dataHash + ".dat");
+		if(!dataFile.exists()){
+			writeAtomically(dataFile, data);
+		}
+		String[] oldCachedData = readCache(indexFile);
+		writeAtomically(indexFile, (contentType + "\n" + dataHash).getBytes(StandardCharsets.UTF_8));
+		if(oldCachedData != null && !oldCachedData[1].equals(dataHash)){
+			new File(cacheDirectory, oldCachedData[1] + ".dat").delete();
+		}
+		return new String[]{contentType, dataHash};
+	}
+
+	private static void writeAtomically(File file, byte[] data) throws IOException{
+		File tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+		Files.write(tempFile.toPath(), data);
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 *  Reads all data from the passed-in stream.  If there is more than {@link #MAX_DOWNLOAD_SIZE}, reading stops and
+	 *  an exception is thrown, so a bad link can't fill the heap.
+	 */
+	private static byte[] readFully(InputStream stream) throws IOException{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int bytesRead;
+		while((bytesRead = stream.read(buffer)) != -1){
+			if(output.size() + bytesRead > MAX_DOWNLOAD_SIZE){
+				throw new IOException("Image is larger than the max size of " + MAX_DOWNLOAD_SIZE/1024/1024 + "MB.");
+			}
+			output.write(buffer, 0, bytesRead);
+		}
+		return output.toByteArray();
+	}
+
+	private static String hash(byte[] data){
+		try{
+			StringBuilder builder = new StringBuilder();
+			for(byte hashByte : MessageDigest.getInstance("SHA-1").digest(data)){
+				builder.append(String.format("%02x", hashByte));
+			}
+			return builder.toString();
+		}catch(NoSuchAlgorithmException e){
+			//All Java installs have SHA-1, so this can't happen.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 *  A texture that has finished loading.  Exactly one of image, gif, or error will be set.
+	 */
+	public static class LoadedTexture{
+		public final String textureURL;
+		public final BufferedImage image;
+		public final ParsedGIF gif;
+		public final String error;
+
+		private LoadedTexture(String textureURL, BufferedImage image, ParsedGIF gif){
+			this.textureURL = textureURL;
+			this.image = image;
+			this.gif = gif;
+			this.error = null;
+		}
+
+		private LoadedTexture(String textureURL, String error){
+			this.textureURL = textureURL;
+			this.image = null;
+			this.gif = null;
+			this.error = error;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package minecrafttransportsimulator.rendering.instances;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -8,8 +11,10 @@ import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
+import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONInstrument.JSONInstrumentComponent;
 import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
+import minecrafttransportsimulator.rendering.components.AnimationVariableBinding;
 import minecrafttransportsimulator.rendering.components.DurationDelayClock;
 import minecrafttransportsimulator.rendering.components.RenderableObject;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -125,39 +130,54 @@ public final class RenderInstrument{
 	 */
 	public static class InstrumentSwitchbox extends AnimationSwitchbox{
 		private final JSONInstrumentComponent component;
+		private final Map<JSONAnimationDefinition, Map<Integer, AnimationVariableBinding>> suffixedBindings = new HashMap<JSONAnimationDefinition, Map<Integer, AnimationVariableBinding>>();
 
 		public InstrumentSwitchbox(AEntityD_Definable<?> entity, JSONInstrumentComponent component){
 			super(entity, component.animations, null);
 			this.component = component;
-		}
-		
-		private String convertAnimationPartNumber(DurationDelayClock clock){
+			
 			//If the partNumber is non-zero, we need to check if we are applying a part-based animation.
 			//If so, we need to let the animation system know by adding a suffix to the variable.
 			//Otherwise, as we don't pass-in the part, it will assume it's an entity variable.
-			//We also need to set the partNumber to 1 if we have a part number of 0 and we're
-			//doing a part-specific animation.
 			//Skip adding a suffix if one already exists.
-			int variablePartNumber = AEntityD_Definable.getVariableNumber(clock.animation.variable);
-			final boolean addSuffix = variablePartNumber == -1 && !(entity instanceof APart) && (clock.animation.variable.startsWith("engine_") || clock.animation.variable.startsWith("propeller_") || clock.animation.variable.startsWith("gun_") || clock.animation.variable.startsWith("seat_"));
-			if(partNumber == 0 && addSuffix){
-				partNumber = 1;
+			//Which animations need this never changes, so work it out once here rather than every frame.
+			if(!(entity instanceof APart)){
+				for(JSONAnimationDefinition animation : component.animations){
+					if(AEntityD_Definable.getVariableNumber(animation.variable) == -1 && (animation.variable.startsWith("engine_") || animation.variable.startsWith("propeller_") || animation.variable.startsWith("gun_") || animation.variable.startsWith("seat_"))){
+						suffixedBindings.put(animation, new HashMap<Integer, AnimationVariableBinding>());
+					}
+				}
 			}
-			String oldVariable = clock.animation.variable;
-			if(addSuffix){
-				clock.animation.variable += "_" + partNumber;
+		}
+		
+		private AnimationVariableBinding convertAnimationPartNumber(DurationDelayClock clock){
+			//Swap in the binding for the suffixed variable, if we need one.
+			//We also need to set the partNumber to 1 if we have a part number of 0 and we're
+			//doing a part-specific animation.
+			AnimationVariableBinding oldBinding = clock.variableBinding;
+			Map<Integer, AnimationVariableBinding> bindings = suffixedBindings.get(clock.animation);
+			if(bindings != null){
+				if(partNumber == 0){
+					partNumber = 1;
+				}
+				AnimationVariableBinding binding = bindings.get(partNumber);
+				if(binding == null){
+					binding = new AnimationVariableBinding(clock.animation.variable + "_" + partNumber, entity);
+					bindings.put(partNumber, binding);
+				}
+				clock.variableBinding = binding;
 			}
-			return oldVariable;
+			return oldBinding;
 		}
 		
 		@Override
 		public void runTranslation(DurationDelayClock clock, float partialTicks){
 			//Offset the coords based on the translated amount.
 			//Adjust the window to either move or scale depending on settings.
-			String oldVariable = convertAnimationPartNumber(clock);
+			AnimationVariableBinding oldBinding = convertAnimationPartNumber(clock);
 			double xTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.x, partialTicks);
 			double yTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.y, partialTicks);
-			clock.animation.variable = oldVariable;
+			clock.variableBinding = oldBinding;
 			
 			if(component.extendWindow){
 				//We need to add to the edge of the window in this case rather than move the entire window.
@@ -199,9 +219,9 @@ public final class RenderInstrument{
 		
 		@Override
 		public void runRotation(DurationDelayClock clock, float partialTicks){
-			String oldVariable = convertAnimationPartNumber(clock);
+			AnimationVariableBinding oldBinding = convertAnimationPartNumber(clock);
 			double variableValue = -entity.getAnimatedVariableValue(clock, clock.animation.axis.z, partialTicks);
-			clock.animation.variable = oldVariable;
+			clock.variableBinding = oldBinding;
 			
 			//Depending on what variables are set we do different rendering operations.
 			//If we are rotating the window, but not the texture we should offset the texture points to that rotated point.
@@ -2,8 +2,11 @@ package minecrafttransportsimulator.rendering.instances;
 
 import java.awt.image.BufferedImage;
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,9 +35,13 @@ public class RenderText{
 	public static final char RESET_FORMATTING_CHAR = 'r';
 	public static final char UNDERLINE_CHAR = '_';
 	public static final char STRIKETHROUGH_CHAR = '-';
+	private static final String RANDOM_FORMATTING_STRING = "" + FORMATTING_CHAR + RANDOM_FORMATTING_CHAR;
+	private static final int MAX_MESHES_PER_TEXT = 8;
 	
 	private static final Map<String, FontData> fontDatas = new HashMap<String, FontData>();
 	private static final TransformationMatrix transformHelper = new TransformationMatrix();
+	/**Meshes for 3D text, by entity and then text definition.  Each list is ordered from most to least recently used.**/
+	private static final Map<AEntityD_Definable<?>, Map<JSONText, List<TextMesh>>> textMeshes = new HashMap<AEntityD_Definable<?>, Map<JSONText, List<TextMesh>>>();
 	
 	/**
 	 *  Draws the specified text.  This is designed for general draws where text is defined in-code, but still may
@@ -61,6 +68,12 @@ public class RenderText{
 	/**
 	 *  Similar to the 2D text drawing method, except this method will render the text according to the passed-in text JSON in 3D space at the point specified.
 	 *  Essentially, this is JSON-defined rendering rather than manual entry of points.
+	 *  <br><br>
+	 *  Unlike 2D text, which is mostly in GUIs, 3D text is normally on things like signs and license plates and rarely changes.
+	 *  Because of this, the vertices for the text are only generated when the text or its color changes, and are cached on the
+	 *  GPU for later renders.  A few meshes are kept for each text definition on each entity, as the same definition may be
+	 *  rendered multiple times with different text, such as in instruments.  Text with the random formatting code is always 
+	 *  generated, as its chars change every render.
 	 */
 	public static void draw3DText(String text, AEntityD_Definable<?> entity, TransformationMatrix transform, JSONText definition, boolean pixelCoords){
 		if(!text.isEmpty()){
@@ -70,10 +83,92 @@ public class RenderText{
 			//Render the text.
 			transformHelper.set(transform);
 			transformHelper.applyTranslation(definition.pos);
-			getFontData(definition.fontName).renderText(text, transformHelper, definition.rot, TextAlignment.values()[definition.renderPosition], definition.scale, definition.autoScale, definition.wrapWidth, pixelCoords, color, definition.lightsUp && entity.renderTextLit());
+			FontData fontData = getFontData(definition.fontName);
+			TextAlignment alignment = TextAlignment.values()[definition.renderPosition];
+			boolean renderLit = definition.lightsUp && entity.renderTextLit();
+			if(text.contains(RANDOM_FORMATTING_STRING)){
+				fontData.renderText(text, transformHelper, definition.rot, alignment, definition.scale, definition.autoScale, definition.wrapWidth, pixelCoords, color, renderLit);
+			}else{
+				getTextMesh(fontData, text, entity, definition, alignment, pixelCoords, color).render(transformHelper, definition.rot, renderLit);
+			}
+		}
+	}
+	
+	/**
+	 *  Removes all cached text meshes for the passed-in entity, freeing their GPU memory.
+	 *  Should be called when the entity is removed from the world.
+	 */
+	public static void clearTextMeshes(AEntityD_Definable<?> entity){
+		Map<JSONText, List<TextMesh>> entityMeshes = textMeshes.remove(entity);
+		if(entityMeshes != null){
+			for(List<TextMesh> meshes : entityMeshes.values()){
+				for(TextMesh mesh : meshes){
+					mesh.destroy();
+				}
+			}
 		}
 	}
 	
+	/**
+	 *  Returns the cached mesh for the passed-in text, generating it if required.
+	 */
+	private static TextMesh getTextMesh(FontData fontData, String text, AEntityD_Definable<?> entity, JSONText definition, TextAlignment alignment, boolean pixelCoords, ColorRGB color){
+		Map<JSONText, List<TextMesh>> entityMeshes = textMeshes.get(entity);
+		if(entityMeshes == null){
+			//New entity.  Clear out any that were removed without telling us so we don't leak their meshes.
+			Iterator<AEntityD_Definable<?>> iterator = textMeshes.keySet().iterator();
+			while(iterator.hasNext()){
+				AEntityD_Definable<?> cachedEntity = iterator.next();
+				if(!cachedEntity.isValid){
+					for(List<TextMesh> meshes : textMeshes.get(cachedEntity).values()){
+						for(TextMesh mesh : meshes){
+							mesh.destroy();
+						}
+					}
+					iterator.remove();
+				}
+			}
+			entityMeshes = new HashMap<JSONText, List<TextMesh>>();
+			textMeshes.put(entity, entityMeshes);
+		}
+		List<TextMesh> meshes = entityMeshes.get(definition);
+		if(meshes == null){
+			meshes = new ArrayList<TextMesh>();
+			entityMeshes.put(definition, meshes);
+		}
+		
+		for(int i=0; i<meshes.size(); ++i){
+			TextMesh mesh = meshes.get(i);
+			if(mesh.text.equals(text) && mesh.color.equals(color) && mesh.pixelCoords == pixelCoords){
+				if(i != 0){
+					meshes.add(0, meshes.remove(i));
+				}
+				return mesh;
+			}
+		}
+		
+		if(meshes.size() == MAX_MESHES_PER_TEXT){
+			meshes.remove(MAX_MESHES_PER_TEXT - 1).destroy();
+		}
+		TextMesh mesh = fontData.generateMesh(text, alignment, definition.scale, definition.autoScale, definition.wrapWidth, pixelCoords, color);
+		meshes.add(0, mesh);
+		return mesh;
+	}
+	
+	/**
+	 *  Renders the passed-in font object with the passed-in transforms.
+	 */
+	private static void renderObject(RenderableObject object, TransformationMatrix transform, RotationMatrix rotation, float scale, Point3D offset, boolean renderLit){
+		object.disableLighting = renderLit;
+		object.transform.set(transform);
+		if(rotation != null){
+			object.transform.applyRotation(rotation);
+		}
+		object.transform.applyScaling(scale, scale, scale);
+		object.transform.applyTranslation(offset);
+		object.render();
+	}
+	
 	/**
 	 *  Returns the width of the passed-in text.  Units are in pixels,
 	 *  though these are standardized for the default font.  Fonts with
@@ -259,6 +354,43 @@ public class RenderText{
 		}
 		
 		private void renderText(String text, TransformationMatrix transform, RotationMatrix rotation, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color, boolean renderLit){
+			scale = generateText(text, alignment, scale, autoScale, wrapWidth, pixelCoords, color);
+			
+			//All points obtained, render.
+			for(RenderableObject object : activeRenderObjects){
+				object.vertices.flip();
+				renderObject(object, transform, rotation, scale, adjustmentOffset, renderLit);
+			}
+		}
+		
+		/**
+		 *  Generates the text like {@link #renderText(String, TransformationMatrix, RotationMatrix, TextAlignment, float, boolean, int, boolean, ColorRGB, boolean)},
+		 *  but copies the vertices into a mesh with cached vertices rather than rendering them.
+		 */
+		private TextMesh generateMesh(String text, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color){
+			scale = generateText(text, alignment, scale, autoScale, wrapWidth, pixelCoords, color);
+			List<RenderableObject> objects = new ArrayList<RenderableObject>();
+			for(RenderableObject object : activeRenderObjects){
+				object.vertices.flip();
+				if(object.vertices.hasRemaining()){
+					FloatBuffer vertices = FloatBuffer.allocate(object.vertices.remaining());
+					vertices.put(object.vertices);
+					vertices.flip();
+					ColorRGB objectColor = new ColorRGB();
+					objectColor.setTo(object.color);
+					objects.add(new RenderableObject("font_block", object.texture, objectColor, vertices, true));
+				}
+				object.vertices.clear();
+			}
+			activeRenderObjects.clear();
+			return new TextMesh(text, color, pixelCoords, objects, scale, adjustmentOffset);
+		}
+		
+		/**
+		 *  Generates the vertices for the passed-in text into {@link #activeRenderObjects}, and sets {@link #adjustmentOffset}.
+		 *  Returns the scale the vertices need to be rendered at.
+		 */
+		private float generateText(String text, TextAlignment alignment, float scale, boolean autoScale, int wrapWidth, boolean pixelCoords, ColorRGB color){
 			//Clear out the active object list as it was set last pass.
 			for(RenderableObject object : activeRenderObjects){
 				object.vertices.clear();
@@ -276,7 +408,7 @@ public class RenderText{
 			
 			//Check the string for a random font code char.  If we have one, we need to substitute chars.
 			//Do this prior to rendering operations as this will affect string length and blocks.
-			if(text.indexOf(FORMATTING_CHAR + RANDOM_FORMATTING_CHAR) != -1){
+			if(text.contains(RANDOM_FORMATTING_STRING)){
 				char[] textArray = text.toCharArray();
 				boolean randomActive = false;
 				for(int i=0; i<textArray.length; ++i){
@@ -585,18 +717,7 @@ public class RenderText{
 				}
 			}
 			
-			//All points obtained, render.
-			for(RenderableObject object : activeRenderObjects){
-				object.disableLighting = renderLit;
-				object.transform.set(transform);
-				if(rotation != null){
-					object.transform.applyRotation(rotation);
-				}
-				object.transform.applyScaling(scale, scale, scale);
-				object.transform.applyTranslation(adjustmentOffset);
-				object.vertices.flip();
-				object.render();
-			}
+			return scale;
 		}
 		
 		private RenderableObject getObjectFor(char textChar, ColorRGB color){
@@ -668,6 +789,40 @@ public class RenderText{
 		}
 	}
 	
+	/**
+	 *  Cached vertices for a string of text, and the transforms needed to render them.
+	 */
+	private static class TextMesh{
+		private final String text;
+		private final ColorRGB color;
+		private final boolean pixelCoords;
+		private final List<RenderableObject> objects;
+		private final float scale;
+		private final Point3D offset;
+		
+		private TextMesh(String text, ColorRGB color, boolean pixelCoords, List<RenderableObject> objects, float scale, Point3D offset){
+			this.text = text;
+			this.color = new ColorRGB();
+			this.color.setTo(color);
+			this.pixelCoords = pixelCoords;
+			this.objects = objects;
+			this.scale = scale;
+			this.offset = offset.copy();
+		}
+		
+		private void render(TransformationMatrix transform, RotationMatrix rotation, boolean renderLit){
+			for(RenderableObject object : objects){
+				renderObject(object, transform, rotation, scale, offset, renderLit);
+			}
+		}
+		
+		private void destroy(){
+			for(RenderableObject object : objects){
+				object.destroy();
+			}
+		}
+	}
+	
 	/**
 	 *  List of enums that define how text is rendered.
 	 */
@@ -2,14 +2,17 @@ package minecrafttransportsimulator.sound;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
 
 import javazoom.jl.decoder.Equalizer;
 import minecrafttransportsimulator.entities.instances.EntityRadio;
@@ -34,11 +37,20 @@ public class RadioStation{
 	
 	//Runtime variables.
 	//Due to how the mp3 parser works, we can only have one equalizer per station.
-	public String displayText = "";
+	public volatile String displayText = "";
 	public final Equalizer equalizer;
-	private volatile List<Integer> activeBuffers = new ArrayList<Integer>();
-	private volatile IStreamDecoder decoder;
-	private volatile DecoderThread decoderThread;
+	private final List<Integer> activeBuffers = new ArrayList<Integer>();
+	private DecoderThread decoderThread;
+	private volatile int prefetchDepth = MIN_PREFETCH_DEPTH;
+	private boolean primed;
+	
+	/**Max number of buffers that are queued to play on the radios.**/
+	private static final int MAX_ACTIVE_BUFFERS = 5;
+	/**Number of decoded blocks that need to be ready before radios start playing.  This is doubled every time
+	 * the decoder can't keep up, such as for Internet streams with a poor connection, up to {@link #MAX_PREFETCH_DEPTH}.**/
+	private static final int MIN_PREFETCH_DEPTH = 5;
+	/**Max number of decoded blocks that may be waiting to be played.  Each block is up to {@link IStreamDecoder#BUFFER_SIZE} bytes.**/
+	private static final int MAX_PREFETCH_DEPTH = 20;
 	
 	public RadioStation(int index, boolean randomOrder){
 		this.source = RadioSources.LOCAL;
@@ -67,22 +79,28 @@ public class RadioStation{
 	}
 	
 	/**
-	 * Generates a new buffer for this station from the current decoder and 
-	 * stores it in the list of active buffers.  Also updates the displayText
+	 * Generates a new buffer for this station from the next block the decoder thread has 
+	 * finished, and stores it in the list of active buffers.  Also updates the displayText
 	 * to reflect the buffer count.  Returns the index of the newly-created
-	 * buffer, or 0 if the buffer wasn't able to be created.
+	 * buffer, or 0 if there wasn't a block ready.
 	 */
 	private int generateBufferIndex(){
-		ByteBuffer buffer = decoder.readBlock();
+		ByteBuffer buffer = decoderThread.blocks.peek();
 		if(buffer != null){
 			//Get new buffer index from the audio system and add it to our radios.
-			int bufferIndex = InterfaceManager.soundInterface.createBuffer(buffer, decoder);
+			//The audio system copies the data, so the block can be given back to the decoder right after.
+			int bufferIndex = InterfaceManager.soundInterface.createBuffer(buffer, decoderThread.decoder);
+			decoderThread.blocks.remove();
+			LockSupport.unpark(decoderThread);
 			activeBuffers.add(bufferIndex);
 			
 			//Update station buffer counts and return buffer index.
-			displayText = displayText.substring(0, displayText.indexOf("Buffers:") + "Buffers:".length());
-			for(byte i=0; i<activeBuffers.size(); ++i){
-				displayText += "X";
+			int bufferTextIndex = displayText.indexOf("Buffers:");
+			if(bufferTextIndex != -1){
+				displayText = displayText.substring(0, bufferTextIndex + "Buffers:".length());
+				for(byte i=0; i<activeBuffers.size(); ++i){
+					displayText += "X";
+				}
 			}
 			
 			return bufferIndex;
@@ -109,16 +127,21 @@ public class RadioStation{
 	}
 	
 	/**
-	 * Updates the station.  Responsible for managing buffers, encoder calls,
-	 * starting new queued radios, and the like.  This will be called from
-	 * the audio thread, so watch out for CMEs!
+	 * Updates the station.  Responsible for managing buffers, starting new queued radios,
+	 * and the like.  This will be called from the audio thread, so watch out for CMEs!
+	 * All decoding is done on the station's {@link DecoderThread}, so this only has to
+	 * hand blocks that are already decoded to the audio system.
 	 */
 	public void update(){
 		if(!playingRadios.isEmpty() || !queuedRadios.isEmpty()){
-			if(decoderThread == null && decoder == null){
+			if(decoderThread == null){
 				//Need to start the first decoder thread.
 				startPlayback();
-			}else if(decoderThread == null){
+			}else if(decoderThread.failed){
+				//Couldn't open the source.  The display text has the error, so just drop the radios.
+				queuedRadios.clear();
+			}else if(primed || decoderThread.finished || decoderThread.blocks.size() >= prefetchDepth){
+				primed = true;
 				int freeBufferIndex = 0;
 				
 				//If we have any playing radios, do buffer logic.
@@ -131,9 +154,21 @@ public class RadioStation{
 					}
 				}
 				
+				//Top off our buffers with any blocks the decoder has ready.
+				while(activeBuffers.size() < MAX_ACTIVE_BUFFERS){
+					int newIndex = generateBufferIndex();
+					if(newIndex != 0){
+						for(EntityRadio radio : playingRadios){
+							InterfaceManager.soundInterface.bindBuffer(radio.getPlayingSound(), newIndex);
+						}
+					}else{
+						break;
+					}
+				}
+				
 				//If we removed a buffer, or if we don't have any playing radios, start our radios.
 				//This syncs new radios if we are playing one, and starts new radios if we aren't.
-				if((freeBufferIndex != 0 || playingRadios.isEmpty()) && !queuedRadios.isEmpty()){
+				if((freeBufferIndex != 0 || playingRadios.isEmpty()) && !queuedRadios.isEmpty() && !activeBuffers.isEmpty()){
 					for(EntityRadio radio : queuedRadios){
 						radio.start();
 						InterfaceManager.soundInterface.addRadioSound(radio.getPlayingSound(), activeBuffers);
@@ -142,48 +177,49 @@ public class RadioStation{
 					queuedRadios.clear();
 				}
 				
-				//If we have less than 5 buffers, try to get another one.
-				if(activeBuffers.size() < 5){
-					int newIndex = generateBufferIndex();
-					if(newIndex != 0){
-						for(EntityRadio radio : playingRadios){
-							InterfaceManager.soundInterface.bindBuffer(radio.getPlayingSound(), newIndex);
-						}
-					}
-				}
-				
-				//If we have 0 buffers, clear out the decoder and start the station again.
-				//This happens if we reach an EOF, or the stream cuts out.
+				//If we have 0 buffers, either the decoder is done, or it couldn't keep up.
 				if(activeBuffers.isEmpty()){
-					startPlayback();
+					if(decoderThread.finished && decoderThread.blocks.isEmpty()){
+						//Reached an EOF, or the stream cut out.  Start the station again.
+						startPlayback();
+					}else{
+						//Decoder fell behind.  Wait for more blocks this time before re-starting the radios.
+						prefetchDepth = Math.min(2*prefetchDepth, MAX_PREFETCH_DEPTH);
+						primed = false;
+						requeueRadios();
+					}
 				}
 			}
 		}else{
 			//If we are an internet stream, and we aren't hooked to anything, abort us.
 			//This is because internet streams are constant feeds and can't be cached.
-			if(!source.equals(RadioSources.LOCAL) && decoder != null){
-				decoder.stop();
-				decoder = null;
+			if(!source.equals(RadioSources.LOCAL) && decoderThread != null){
+				decoderThread.stopDecoding();
+				decoderThread = null;
 			}
 		}
 	}
 	
 	/**
 	 * Starts playback of this station.  This is called when we first add a radio,
-	 * or when the radio stops playing.  This creates a new encoder for parsing data
-	 * and populates the buffers via a thread.  Radios will be started in the update
-	 * method when the buffer is full.
+	 * or when the radio stops playing.  This creates a new decoder thread for parsing data
+	 * and populating blocks.  Radios will be started in the update method when enough blocks
+	 * are ready.
 	 */
 	private void startPlayback(){
-		//Delete any buffers we might still have.
+		//Stop any old decoder, and delete any buffers we might still have.
+		if(decoderThread != null){
+			decoderThread.stopDecoding();
+			decoderThread = null;
+		}
 		for(int buffer : activeBuffers){
 			InterfaceManager.soundInterface.deleteBuffer(buffer);
 		}
 		activeBuffers.clear();
+		primed = false;
 		
 		//Move any playing radios back into the queue.
-		queuedRadios.addAll(playingRadios);
-		playingRadios.clear();
+		requeueRadios();
 		
 		//Start decoder creation routines.
 		if(source.equals(RadioSources.LOCAL)){
@@ -194,14 +230,25 @@ public class RadioStation{
 			playFromLocalFiles();
 		}else{
 			if(!url.isEmpty()){
-				if(playFromInternet()){
-					return;
-				}
+				playFromInternet();
+			}else{
+				queuedRadios.clear();
 			}
-			queuedRadios.clear();
 		}
 	}
 	
+	/**
+	 * Moves all playing radios back into the queue, stopping their old sounds.
+	 * They will be started again once the station has enough blocks to play.
+	 */
+	private void requeueRadios(){
+		for(EntityRadio radio : playingRadios){
+			radio.getPlayingSound().stopSound = true;
+		}
+		queuedRadios.addAll(playingRadios);
+		playingRadios.clear();
+	}
+	
 	/**
 	 * Starts playing the local files on the local machine.
 	 */
@@ -217,7 +264,6 @@ public class RadioStation{
 				}else{
 					displayText = "Station: " + musicFiles.get(0).getParentFile().getName() + "\nNow Playing: " + musicFiles.get(0).getName();
 					displayText += "\nBuffers:";
-					decoder = null;
 					decoderThread = new DecoderThread(this, musicFiles.get(0));
 					decoderThread.start();
 					iterator.remove();
@@ -231,80 +277,103 @@ public class RadioStation{
 	}
 	
 	/**
-	 * Starts playing the Internet stream for this station.  Returns true if the stream started, false if there
-	 * was an error.
+	 * Starts playing the Internet stream for this station.  The connection is opened on the 
+	 * decoder thread, as this can take a while on slow hosts.
 	 */
-	private boolean playFromInternet(){
-		try{
-			//Create a URL and open a connection.
-			URL urlObj = new URL(url);
-			URLConnection connection = urlObj.openConnection();
-			
-			//Verify stream is actually an HTTP stream.
-			String contentType = connection.getHeaderField("Content-Type");
-			if(contentType == null){
-				displayText = "ERROR: No Content-Type header found.  Contact the mod author for more information.";
-				return false;
-			}
-			
-			//Check to make sure stream isn't an invalid type.
-			switch(contentType){
-				case("audio/mpeg") : break;
-				case("application/ogg") : break;
-				case("audio/x-wav") : displayText = "ERROR: WAV file format not supported...yet.  Contact the mod author."; return false;
-				case("audio/flac") : displayText = "ERROR: Who the heck streams in FLAC?  Contact the mod author."; return false;
-				default : {
-					if(contentType.startsWith("audio")){
-						displayText = "ERROR: Unsupported audio format of " + contentType + ".  Contact the mod author.";
-					}else{
-						displayText = "ERROR: Format " + contentType + " is NOT an audio format.  Is this really a music URL?";
-					}
-					return false;
+	private void playFromInternet(){
+		displayText = "Connecting...";
+		decoderThread = new DecoderThread(this, url);
+		decoderThread.start();
+	}
+	
+	/**
+	 * Opens the connection to the Internet stream for this station, and returns the decoder for it.
+	 * Returns null, and sets the display text, if there was an error.  This is called from the
+	 * decoder thread.
+	 */
+	private IStreamDecoder openInternetStream() throws IOException{
+		//Create a URL and open a connection.
+		URL urlObj = new URL(url);
+		URLConnection connection = urlObj.openConnection();
+		
+		//Verify stream is actually an HTTP stream.
+		String contentType = connection.getHeaderField("Content-Type");
+		if(contentType == null){
+			displayText = "ERROR: No Content-Type header found.  Contact the mod author for more information.";
+			return null;
+		}
+		
+		//Check to make sure stream isn't an invalid type.
+		switch(contentType){
+			case("audio/mpeg") : break;
+			case("application/ogg") : break;
+			case("audio/x-wav") : displayText = "ERROR: WAV file format not supported...yet.  Contact the mod author."; return null;
+			case("audio/flac") : displayText = "ERROR: Who the heck streams in FLAC?  Contact the mod author."; return null;
+			default : {
+				if(contentType.startsWith("audio")){
+					displayText = "ERROR: Unsupported audio format of " + contentType + ".  Contact the mod author.";
+				}else{
+					displayText = "ERROR: Format " + contentType + " is NOT an audio format.  Is this really a music URL?";
 				}
+				return null;
 			}
-			
-			//Parse out information from header.
-			displayText = "Name: " + (connection.getHeaderField("icy-name") != null ? connection.getHeaderField("icy-name") : "");
-			displayText += "\nDesc: " + (connection.getHeaderField("icy-description") != null ? connection.getHeaderField("icy-description") : "");
-			displayText += "\nGenre: " + (connection.getHeaderField("icy-genre") != null ? connection.getHeaderField("icy-genre") : "");
-			displayText += "\nBuffers:";
-			
-			//Create a thread to start up the sound once the parsing is done.
-			//This keeps us from blocking the main thread.
-			decoder = null;
-			decoderThread = new DecoderThread(this, contentType, urlObj);
-			decoderThread.start();
-			return true;
-		}catch(Exception e){
-			e.printStackTrace();
-			displayText = "ERROR: Unable to open URL.  Have you tried playing it in another application first?";
-			return false;
+		}
+		
+		//Parse out information from header.
+		String headerText = "Name: " + (connection.getHeaderField("icy-name") != null ? connection.getHeaderField("icy-name") : "");
+		headerText += "\nDesc: " + (connection.getHeaderField("icy-description") != null ? connection.getHeaderField("icy-description") : "");
+		headerText += "\nGenre: " + (connection.getHeaderField("icy-genre") != null ? connection.getHeaderField("icy-genre") : "");
+		displayText = headerText + "\nBuffers:";
+		
+		//Create the decoder on the stream we already opened.
+		if(contentType.equals("audio/mpeg")){
+			return new MP3Decoder(connection.getInputStream(), equalizer);
+		}else{
+			return new OGGDecoder(connection.getInputStream());
 		}
 	}
 	
 	/**Custom thread class to prevent blocking of the main thread when playing audio.
 	 * This thread parses out the audio from the source, and keeps the decoder inside of it.
+	 * Decoded blocks are copied into a ring that the station takes them from on the audio thread.
+	 * The thread decodes until the ring has as many blocks as the station wants ready, then waits
+	 * for the station to take some.
 	 *
 	 * @author don_bruce
 	 */
 	public static class DecoderThread extends Thread{
 		private final RadioStation station;
-		private final String contentType;
-		private final URL contentURL;
+		private final String contentURL;
 		private final File contentFile;
+		private final BlockRing blocks = new BlockRing(MAX_PREFETCH_DEPTH);
+		private volatile IStreamDecoder decoder;
+		private volatile boolean stopped;
+		private volatile boolean finished;
+		private volatile boolean failed;
 		
-		public DecoderThread(RadioStation station, String contentType, URL contentURL){
+		public DecoderThread(RadioStation station, String contentURL){
 			this.station = station;
-			this.contentType = contentType;
 			this.contentURL = contentURL;
 			this.contentFile = null;
+			setName("MTS Radio Decoder");
+			setDaemon(true);
 		}
 		
 		public DecoderThread(RadioStation station, File contentFile){
 			this.station = station;
-			this.contentType = null;
 			this.contentURL = null;
 			this.contentFile = contentFile;
+			setName("MTS Radio Decoder");
+			setDaemon(true);
+		}
+		
+		/**
+		 * Tells this thread to stop decoding and close its source.  The thread will
+		 * exit once it is done with the block it is on.
+		 */
+		public void stopDecoding(){
+			stopped = true;
+			LockSupport.unpark(this);
 		}
 		
 		@Override
@@ -312,23 +381,91 @@ public class RadioStation{
 			//Act based on our stream type.
 			try{
 				if(contentURL != null){
-					switch(contentType){
-						case("audio/mpeg") : station.decoder = new MP3Decoder(contentURL.openStream(), station.equalizer); break;
-						case("application/ogg") : station.decoder = new OGGDecoder(contentURL.openStream()); break;
+					decoder = station.openInternetStream();
+					if(decoder == null){
+						failed = true;
+						return;
 					}
 				}else{
-					station.decoder = new MP3Decoder(new FileInputStream(contentFile), station.equalizer);
+					decoder = new MP3Decoder(new FileInputStream(contentFile), station.equalizer);
 				}
-				//Prime the buffers before setting the thread to null.
-				//This prevents the buffers from running out from starting too quickly.
-				//Because this is in a thread, it also saves on processing power.
-				for(byte i=0; i<5; ++i){
-					station.generateBufferIndex();
+				
+				//Decode blocks until we're told to stop or run out of data.
+				//If we have enough blocks, wait for the station to take some before decoding more.
+				while(!stopped){
+					if(blocks.size() >= station.prefetchDepth){
+						LockSupport.parkNanos(this, 50_000_000L);
+					}else{
+						ByteBuffer block = decoder.readBlock();
+						if(block == null){
+							break;
+						}
+						blocks.add(block);
+					}
 				}
-				station.decoderThread = null;
 			}catch(Exception e){
 				e.printStackTrace();
+				if(decoder == null && contentURL != null){
+					failed = true;
+					station.displayText = "ERROR: Unable to open URL.  Have you tried playing it in another application first?";
+				}
+			}finally{
+				if(decoder != null){
+					decoder.stop();
+				}
+				finished = true;
 			}
 		}
 	}
+	
+	/**Single-producer, single-consumer ring of decoded blocks.  The decoder thread adds blocks, and the
+	 * audio thread peeks and removes them, so neither has to lock.  Blocks are copied into buffers
+	 * owned by the ring, as decoders re-use the buffer they return.
+	 *
+	 * @author don_bruce
+	 */
+	private static class BlockRing{
+		private final ByteBuffer[] slots;
+		private volatile int head;
+		private volatile int tail;
+		
+		private BlockRing(int capacity){
+			this.slots = new ByteBuffer[capacity];
+		}
+		
+		private int size(){
+			return tail - head;
+		}
+		
+		private boolean isEmpty(){
+			return tail == head;
+		}
+		
+		/**
+		 * Copies the passed-in block into the ring.  Only call from the producer, and only if the ring isn't full.
+		 */
+		private void add(ByteBuffer block){
+			int slotIndex = tail%slots.length;
+			if(slots[slotIndex] == null || slots[slotIndex].capacity() < block.remaining()){
+				slots[slotIndex] = ByteBuffer.allocateDirect(Math.max(IStreamDecoder.BUFFER_SIZE, block.remaining())).order(ByteOrder.nativeOrder());
+			}
+			slots[slotIndex].clear();
+			slots[slotIndex].put(block).flip();
+			++tail;
+		}
+		
+		/**
+		 * Returns the oldest block in the ring without removing it, or null if there are none.  Only call from the consumer.
+		 */
+		private ByteBuffer peek(){
+			return isEmpty() ? null : slots[head%slots.length];
+		}
+		
+		/**
+		 * Removes the oldest block in the ring, letting the producer re-use its buffer.  Only call from the consumer.
+		 */
+		private void remove(){
+			++head;
+		}
+	}
 }
\ No newline at end of file
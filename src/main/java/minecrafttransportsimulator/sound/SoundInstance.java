@@ -27,6 +27,23 @@ public class SoundInstance{
 	public float pitch = 1.0F;
 	public boolean stopSound = false;
 	
+	//Audio system variables.  These are set by the audio system to track the sound's voice.
+	/**True if this sound doesn't have a source as it isn't audible enough to get one.  Virtual sounds
+	 * keep their place in the sound, and get a source again once they are audible.**/
+	public boolean virtual;
+	/**True if this sound was just started, and hasn't been through an update yet.  Its place in the sound
+	 * isn't advanced on that update, as it hasn't had a chance to get a source and start playing.**/
+	public boolean justStarted;
+	/**How far into the sound we are, in seconds.  Only kept for virtual sounds.**/
+	public float playOffset;
+	/**How audible this sound is, as of the last update.  Sounds with higher values get sources first.**/
+	public float audibility;
+	/**Values last sent to the source.  Used to only send values that changed.**/
+	public final Point3D sentPosition = new Point3D();
+	public float sentVolume;
+	public float sentPitch;
+	public float sentRolloff;
+	
 	public SoundInstance(AEntityB_Existing entity, String soundName){
 		this(entity, soundName, null, null);
 	}
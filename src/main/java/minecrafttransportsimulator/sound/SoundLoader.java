@@ -0,0 +1,128 @@
+package minecrafttransportsimulator.sound;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**Class that decodes OGG sound files from the jar in the background.  Requests are decoded one at a time on a
+ * worker thread, and put in a queue for the sound thread to upload to the audio system.  This keeps long sounds,
+ * like engine loops, from freezing the game the first time they are played.
+ * <br><br>
+ * Sounds are decoded into one buffer that doubles in size whenever it runs out of space, so decoding takes time
+ * linear in the length of the sound.  Buffers are pooled, so once the decoded data has been uploaded, it should
+ * be given back with {@link #releaseBuffer(ByteBuffer)} so the next decode doesn't need to allocate a new one.
+ *
+ * @author don_bruce
+ */
+public class SoundLoader{
+	private static final int INITIAL_BUFFER_SIZE = 4*IStreamDecoder.BUFFER_SIZE;
+	private static final int MAX_POOLED_BUFFERS = 2;
+
+	private final ThreadPoolExecutor worker;
+	private final Queue<LoadedSound> loadedSounds = new ConcurrentLinkedQueue<LoadedSound>();
+	private final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	public SoundLoader(){
+		this.worker = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+			Thread thread = new Thread(runnable, "MTS Sound Loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		worker.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 *  Requests the sound with the passed-in name be decoded.  Names are in the format domain:path,
+	 *  where the file is at /assets/domain/sounds/path.ogg.  Once decoded, the sound can be
+	 *  obtained from {@link #getLoadedSound()}.
+	 */
+	public void request(String soundName){
+		worker.execute(() -> loadedSounds.add(load(soundName)));
+	}
+
+	/**
+	 *  Returns the next sound that has finished decoding, or null if there aren't any.
+	 */
+	public LoadedSound getLoadedSound(){
+		return loadedSounds.poll();
+	}
+
+	/**
+	 *  Gives the data buffer of a loaded sound back to the pool.  The buffer must not be used after this.
+	 */
+	public void releaseBuffer(ByteBuffer buffer){
+		if(bufferPool.size() < MAX_POOLED_BUFFERS){
+			buffer.clear();
+			bufferPool.add(buffer);
+		}
+	}
+
+	/**
+	 *  Decodes the sound with the passed-in name.  Errors are returned as a sound with no data rather than thrown.
+	 */
+	private LoadedSound load(String soundName){
+		String soundDomain = soundName.substring(0, soundName.indexOf(':'));
+		String soundPath = soundName.substring(soundDomain.length() + 1);
+		InputStream soundStream = SoundLoader.class.getResourceAsStream("/assets/" +  soundDomain + "/sounds/" + soundPath + ".ogg");
+		if(soundStream == null){
+			return new LoadedSound(soundName, null, 0);
+		}
+
+		ByteBuffer decodedData = bufferPool.poll();
+		if(decodedData == null){
+			decodedData = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+		}
+		OGGDecoder decoder = null;
+		try{
+			decoder = new OGGDecoder(soundStream);
+			ByteBuffer blockRead;
+			while((blockRead = decoder.readBlock()) != null){
+				if(decodedData.remaining() < blockRead.remaining()){
+					//Out of space.  Double the buffer, so we only need to copy the data we have a few times.
+					ByteBuffer grownData = ByteBuffer.allocateDirect(Math.max(2*decodedData.capacity(), decodedData.position() + blockRead.remaining())).order(ByteOrder.nativeOrder());
+					decodedData.flip();
+					grownData.put(decodedData);
+					decodedData = grownData;
+				}
+				decodedData.put(blockRead);
+			}
+			decodedData.flip();
+			return new LoadedSound(soundName, decodedData, decoder.getSampleRate());
+		}catch(Exception e){
+			e.printStackTrace();
+			releaseBuffer(decodedData);
+			return new LoadedSound(soundName, null, 0);
+		}finally{
+			if(decoder != null){
+				decoder.stop();
+			}else{
+				try{
+					soundStream.close();
+				}catch(Exception e){
+					//Nothing we can do.
+				}
+			}
+		}
+	}
+
+	/**
+	 *  A sound that has finished decoding.  Data will be null if the sound couldn't be found or decoded.
+	 *  Data is 16-bit mono PCM.
+	 */
+	public static class LoadedSound{
+		public final String soundName;
+		public final ByteBuffer data;
+		public final int sampleRate;
+
+		private LoadedSound(String soundName, ByteBuffer data, int sampleRate){
+			this.soundName = soundName;
+			this.data = data;
+			this.sampleRate = sampleRate;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package minecrafttransportsimulator.systems;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -115,15 +118,16 @@ public final class ControlSystem{
 			
 			closestBox = null;
 			closestVehicle = null;
-			for(EntityVehicleF_Physics vehicle : player.getWorld().getEntitiesOfType(EntityVehicleF_Physics.class)){
-				if(vehicle.encompassingBox.intersects(clickBounds)){
-					//Could have hit this vehicle, check if and what we did via raytracing.
-					for(BoundingBox box : vehicle.allInteractionBoxes){
-						if(box.intersects(clickBounds) && box.getIntersectionPoint(startPosition, endPosition) != null){
-							if(closestBox == null || startPosition.isFirstCloserThanSecond(box.globalCenter, closestBox.globalCenter)){
-								closestBox = box;
-								closestVehicle = vehicle;
-							}
+			List<BoundingBox> hitBoxes = new ArrayList<BoundingBox>();
+			for(EntityVehicleF_Physics vehicle : player.getWorld().getEntitiesOfTypeWithin(EntityVehicleF_Physics.class, clickBounds)){
+				//Could have hit this vehicle, check if and what we did via raytracing.
+				hitBoxes.clear();
+				vehicle.getRaytracedInteractionBoxes(startPosition, endPosition, 0, hitBoxes);
+				for(BoundingBox box : hitBoxes){
+					if(box.getIntersectionPoint(startPosition, endPosition) != null){
+						if(closestBox == null || startPosition.isFirstCloserThanSecond(box.globalCenter, closestBox.globalCenter)){
+							closestBox = box;
+							closestVehicle = vehicle;
 						}
 					}
 				}
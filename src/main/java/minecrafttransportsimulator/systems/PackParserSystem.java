@@ -1,6 +1,16 @@
 package minecrafttransportsimulator.systems;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -11,6 +21,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -40,6 +53,7 @@ import minecrafttransportsimulator.jsondefs.JSONSkin;
 import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.JSONBinaryParser;
 import minecrafttransportsimulator.packloading.JSONParser;
 import minecrafttransportsimulator.packloading.LegacyCompatSystem;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
@@ -52,6 +66,11 @@ import minecrafttransportsimulator.packloading.PackResourceLoader.PackStructure;
  * @author don_bruce
  */
 public final class PackParserSystem{
+	/**Directory, in the game directory, that parsed definitions are cached in.**/
+	private static final String PACK_CACHE_DIRECTORY = "mts_pack_cache";
+	/**Version of the format of cached definitions.  Change this if the format changes to prevent loading old caches.**/
+	private static final int PACK_CACHE_VERSION = 1;
+	
 	/**Links packs to the jar files that they are a part of.  Used for pack loading only: asset loading uses Java classpath systems.**/
 	private static final Map<String, File> packJarMap = new HashMap<String, File>();
 	
@@ -289,6 +308,9 @@ public final class PackParserSystem{
      * create and register your pack items and use {@link #registerItem(AJSONItem)}.
      */
     private static void parseAllPacks(){
+    	//Packs are scanned and parsed in parallel on this pool, but registered on this thread.
+    	ForkJoinPool pool = new ForkJoinPool();
+    	List<Future<PackScan>> packScans = new ArrayList<Future<PackScan>>();
     	List<String> packIDs = new ArrayList<String>(packMap.keySet());
     	Iterator<String> iterator = packMap.keySet().iterator();
     	while(iterator.hasNext()){
@@ -342,83 +364,294 @@ public final class PackParserSystem{
     			}
     		}
     		
-    		//Load the pack components into the game.
-    		//We iterate over all the sub-folders we found from the packDef checks.
-    		PackStructure structure = PackStructure.values()[packDef.fileStructure];
-    		for(String subDirectory : validSubDirectories){
-	    		String assetPathPrefix = "assets/" + packDef.packID + "/";
-				if(!subDirectory.isEmpty()){
-					assetPathPrefix += subDirectory + "/";
+    		//Queue the pack's jar to be scanned for definitions in the sub-folders we found from the packDef checks.
+    		PackScan scan = new PackScan(packDef, validSubDirectories);
+    		packScans.add(pool.submit(() -> scanPack(scan)));
+    	}
+    	
+    	//Parse all definitions found in the scans.  We start parsing a pack's definitions as soon as its scan is done,
+    	//but keep the futures in the order the packs and files were found in so items are registered in the same order every time.
+    	List<Future<PackEntry>> parsedEntries = new ArrayList<Future<PackEntry>>();
+    	try{
+	    	for(Future<PackScan> packScan : packScans){
+	    		for(PackEntry entry : packScan.get().entries){
+	    			parsedEntries.add(pool.submit(() -> parseEntry(entry)));
+	    		}
+	    	}
+	    	
+	    	//Now register all definitions.  This is done on this thread, as the registry isn't thread-safe.
+	    	for(Future<PackEntry> parsedEntry : parsedEntries){
+	    		PackEntry entry = parsedEntry.get();
+	    		for(String error : entry.errors){
+	    			InterfaceManager.coreInterface.logError(error);
+	    		}
+	    		if(entry.definition != null){
+	    			try{
+	    				createItems(entry.definition);
+	    			}catch(Exception e){
+	    				InterfaceManager.coreInterface.logError(e.getMessage());
+	    			}
+	    		}
+	    	}
+	    	
+	    	//Save caches for packs we had to parse, so we don't have to next launch.
+	    	for(Future<PackScan> packScan : packScans){
+	    		PackScan scan = packScan.get();
+	    		if(!scan.fromCache && scan.isCacheable()){
+	    			savePackCache(scan.packDef, scan.validSubDirectories, scan.entries);
+	    		}
+	    	}
+    	}catch(InterruptedException | ExecutionException e){
+    		InterfaceManager.coreInterface.logError("Pack parsing was interrupted.  Not all packs will be loaded!");
+    		e.printStackTrace();
+    	}finally{
+    		pool.shutdown();
+    	}
+    }
+    
+    /**
+     * Scans the jar for the passed-in pack for all definition JSONs in the passed-in sub-directories.
+     * The jar is only read once, no matter how many sub-directories there are.  Returned entries
+     * have their data read into memory so they may be parsed without the jar being open.  This is
+     * called from the parsing pool, so errors are saved in the entries rather than logged.
+     */
+    private static PackScan scanPack(PackScan scan){
+    	//If we have a cache for this pack that's still valid, use it rather than reading the jar.
+    	JSONPack packDef = scan.packDef;
+    	List<PackEntry> cachedEntries = loadPackCache(packDef, scan.validSubDirectories);
+    	if(cachedEntries != null){
+    		scan.entries.addAll(cachedEntries);
+    		scan.fromCache = true;
+    		return scan;
+    	}
+    	
+    	//Keep the entries for each sub-directory separate so they are in the same order as if we read the jar for each one.
+    	PackStructure structure = PackStructure.values()[packDef.fileStructure];
+    	List<String> assetPathPrefixes = new ArrayList<String>();
+    	List<List<PackEntry>> subDirectoryEntries = new ArrayList<List<PackEntry>>();
+    	for(String subDirectory : scan.validSubDirectories){
+    		String assetPathPrefix = "assets/" + packDef.packID + "/";
+			if(!subDirectory.isEmpty()){
+				assetPathPrefix += subDirectory + "/";
+			}
+			assetPathPrefixes.add(assetPathPrefix);
+			subDirectoryEntries.add(new ArrayList<PackEntry>());
+    	}
+    	
+    	try(ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID))){
+			Enumeration<? extends ZipEntry> entries = jarFile.entries();
+			while(entries.hasMoreElements()){
+				//Get next entry and path.
+				ZipEntry entry = entries.nextElement();
+				String entryFullPath = entry.getName();
+				if(!entryFullPath.endsWith(".json")){
+					continue;
 				}
-				
-				try{
-		    		ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
-					Enumeration<? extends ZipEntry> entries = jarFile.entries();
-					while(entries.hasMoreElements()){
-						//Get next entry and path.
-						ZipEntry entry = entries.nextElement();
-						String entryFullPath = entry.getName();
-						if(entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")){
-							//JSON is in correct folder.  Get path properties and ensure they match our specs.
-							//Need the asset folder structure between the main prefix and the asset itself.
-							//This lets us know what asset we need to create as all assets are in their own folders.
-							String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
-							String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
-							if(!structure.equals(PackStructure.MODULAR)){
-								//Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
-								//Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
-								//If we aren't modular, and aren't in a jsondefs folder, skip this entry.
-								if(assetPath.startsWith("jsondefs/")){
-									assetPath = assetPath.substring("jsondefs/".length());
-								}else{
-									continue;
-								}
+				for(int i=0; i<assetPathPrefixes.size(); ++i){
+					String assetPathPrefix = assetPathPrefixes.get(i);
+					if(entryFullPath.startsWith(assetPathPrefix)){
+						//JSON is in correct folder.  Get path properties and ensure they match our specs.
+						//Need the asset folder structure between the main prefix and the asset itself.
+						//This lets us know what asset we need to create as all assets are in their own folders.
+						String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
+						String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
+						if(!structure.equals(PackStructure.MODULAR)){
+							//Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
+							//Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
+							//If we aren't modular, and aren't in a jsondefs folder, skip this entry.
+							if(assetPath.startsWith("jsondefs/")){
+								assetPath = assetPath.substring("jsondefs/".length());
+							}else{
+								continue;
+							}
+						}
+						
+						//Check to make sure json isn't an item JSON or our pack definition.
+						if(!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))){
+							//Get classification and JSON class type to use with GSON system.
+							PackEntry packEntry = new PackEntry(packDef.packID, fileName);
+							try{
+								packEntry.classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
+							}catch(Exception e){
+								packEntry.errors.add("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
+								subDirectoryEntries.get(i).add(packEntry);
+								continue;
 							}
 							
-							//Check to make sure json isn't an item JSON or our pack definition.
-							if(!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))){
-								//Get classification and JSON class type to use with GSON system.
-								ItemClassification classification;
-								try{
-									classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
-								}catch(Exception e){
-									InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
-									continue;
-								}
-								
-								//Create the JSON instance.
-								String systemName = fileName.substring(0, fileName.length() - ".json".length());
-								AJSONItem definition;
-								try{
-									definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packDef.packID, systemName);
-								}catch(Exception e){
-									InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
-						    		InterfaceManager.coreInterface.logError(e.getMessage());
-						    		continue;
-								}
-								
-								//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
-								//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
-								//if we are loading a non-default pack format.
-								definition.packID = packDef.packID;
-								definition.systemName = systemName;
-								definition.classification = classification;
-								definition.prefixFolders = assetPath.substring(classification.toDirectory().length()); 
-								registerItem(definition);
+							//Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
+							//Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
+							//if we are loading a non-default pack format.
+							packEntry.prefixFolders = assetPath.substring(packEntry.classification.toDirectory().length());
+							try(InputStream stream = jarFile.getInputStream(entry)){
+								packEntry.data = readFully(stream);
+							}catch(Exception e){
+								packEntry.errors.add("Could not parse: " + packDef.packID + ":" + fileName);
+								packEntry.errors.add(e.getMessage());
+								packEntry.cacheable = false;
 							}
+							subDirectoryEntries.get(i).add(packEntry);
 						}
 					}
-					
-					//Done parsing.  Close the jarfile.
-					jarFile.close();
-				}catch(Exception e){
-					InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
-					e.printStackTrace();
 				}
+			}
+		}catch(Exception e){
+			PackEntry errorEntry = new PackEntry(packDef.packID, null);
+			errorEntry.errors.add("Could not start parsing of pack: " + packDef.packID);
+			errorEntry.errors.add(e.getMessage());
+			errorEntry.cacheable = false;
+			scan.entries.add(errorEntry);
+			return scan;
+		}
+    	
+    	for(List<PackEntry> entries : subDirectoryEntries){
+    		scan.entries.addAll(entries);
+    	}
+    	return scan;
+    }
+    
+    /**
+     * Parses the definition in the passed-in entry and performs legacy compats and validation on it.
+     * If this is successful, the definition is set in the entry, otherwise the errors are.  This is
+     * called from the parsing pool, so must not touch the registry.
+     */
+    private static PackEntry parseEntry(PackEntry entry){
+    	if(entry.data != null){
+	    	//Create the JSON instance.
+	    	String systemName = entry.fileName.substring(0, entry.fileName.length() - ".json".length());
+			AJSONItem definition;
+			try{
+				definition = JSONParser.parseStream(new ByteArrayInputStream(entry.data), entry.classification.representingClass, entry.packID, systemName);
+			}catch(Exception e){
+				entry.errors.add("Could not parse: " + entry.packID + ":" + entry.fileName);
+				entry.errors.add(e.getMessage());
+				return entry;
+			}finally{
+				entry.data = null;
+			}
+			
+			definition.packID = entry.packID;
+			definition.systemName = systemName;
+			definition.classification = entry.classification;
+			definition.prefixFolders = entry.prefixFolders;
+			try{
+				checkItem(definition);
+				entry.definition = definition;
+			}catch(Exception e){
+				entry.errors.add(e.getMessage());
+				return entry;
+			}
+			
+			//Save the checked definition for the cache now, as registering the item may change it.
+			try{
+				entry.cachedData = JSONBinaryParser.toBytes(definition);
+			}catch(Exception e){
+				entry.cacheable = false;
+			}
+    	}
+    	return entry;
+    }
+    
+    /**
+     * Returns the key for the cache of the passed-in pack.  If anything that could change the parsed definitions
+     * changes, this changes too, so the cache is only used if the definitions would be the same.  The valid
+     * sub-directories are included as they depend on what other packs are present.
+     */
+    private static String getPackCacheKey(JSONPack packDef, List<String> validSubDirectories){
+    	File jarFile = packJarMap.get(packDef.packID);
+    	boolean legacyLightCompats = ConfigSystem.settings != null && ConfigSystem.settings.general.doLegacyLightCompats.value;
+    	return jarFile.getAbsolutePath() + "|" + jarFile.length() + "|" + jarFile.lastModified() + "|" + InterfaceManager.coreInterface.getModVersion() + "|" + legacyLightCompats + "|" + validSubDirectories;
+    }
+    
+    private static File getPackCacheFile(String packID){
+    	return new File(new File(InterfaceManager.gameDirectory, PACK_CACHE_DIRECTORY), packID + ".bin");
+    }
+    
+    /**
+     * Loads the entries for the passed-in pack from its cache, if the cache exists and is still valid.
+     * Definitions are loaded fully-parsed and checked, so they may be registered right away.
+     * Returns null if the cache can't be used, in which case the pack should be parsed normally.
+     */
+    private static List<PackEntry> loadPackCache(JSONPack packDef, List<String> validSubDirectories){
+    	File cacheFile = getPackCacheFile(packDef.packID);
+    	if(!cacheFile.exists()){
+    		return null;
+    	}
+    	try(DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))){
+    		if(input.readInt() != PACK_CACHE_VERSION || !input.readUTF().equals(getPackCacheKey(packDef, validSubDirectories))){
+    			return null;
+    		}
+    		List<PackEntry> packEntries = new ArrayList<PackEntry>();
+    		for(int i=input.readInt(); i>0; --i){
+    			PackEntry entry = new PackEntry(packDef.packID, input.readUTF());
+    			String classificationName = input.readUTF();
+    			entry.classification = classificationName.isEmpty() ? null : ItemClassification.valueOf(classificationName);
+    			entry.prefixFolders = input.readUTF();
+    			for(int j=input.readInt(); j>0; --j){
+    				entry.errors.add(input.readUTF());
+    			}
+    			int dataLength = input.readInt();
+    			if(dataLength != -1){
+    				byte[] data = new byte[dataLength];
+    				input.readFully(data);
+    				AJSONItem definition = JSONBinaryParser.fromBytes(data, AJSONItem.class);
+    				definition.packID = entry.packID;
+    				definition.systemName = entry.fileName.substring(0, entry.fileName.length() - ".json".length());
+    				definition.classification = entry.classification;
+    				definition.prefixFolders = entry.prefixFolders;
+    				entry.definition = definition;
+    			}
+    			packEntries.add(entry);
     		}
+    		return packEntries;
+    	}catch(Exception e){
+    		//Cache is corrupt or from old classes.  Just parse the pack normally, which will replace it.
+    		return null;
     	}
     }
     
+    /**
+     * Saves the entries for the passed-in pack to its cache.  Only called if all entries could be cached.
+     * Entries with errors are saved too, so those errors are still logged when loading from the cache.
+     */
+    private static void savePackCache(JSONPack packDef, List<String> validSubDirectories, List<PackEntry> packEntries){
+    	File cacheFile = getPackCacheFile(packDef.packID);
+    	cacheFile.getParentFile().mkdirs();
+    	try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)))){
+    		output.writeInt(PACK_CACHE_VERSION);
+    		output.writeUTF(getPackCacheKey(packDef, validSubDirectories));
+    		output.writeInt(packEntries.size());
+    		for(PackEntry entry : packEntries){
+    			output.writeUTF(entry.fileName);
+    			output.writeUTF(entry.classification != null ? entry.classification.name() : "");
+    			output.writeUTF(entry.prefixFolders != null ? entry.prefixFolders : "");
+    			output.writeInt(entry.errors.size());
+    			for(String error : entry.errors){
+    				output.writeUTF(String.valueOf(error));
+    			}
+    			if(entry.cachedData != null){
+    				output.writeInt(entry.cachedData.length);
+    				output.write(entry.cachedData);
+    			}else{
+    				output.writeInt(-1);
+    			}
+    		}
+    	}catch(Exception e){
+    		//Couldn't save.  Delete whatever we wrote so we don't try to load it next time.
+    		InterfaceManager.coreInterface.logError("Could not save definition cache for pack: " + packDef.packID + ".  Pack loading will be slower next launch.");
+    		cacheFile.delete();
+    	}
+    }
+    
+    private static byte[] readFully(InputStream stream) throws IOException{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int bytesRead;
+		while((bytesRead = stream.read(buffer)) != -1){
+			output.write(buffer, 0, bytesRead);
+		}
+		return output.toByteArray();
+	}
+    
     /**
      * Called to add the passed-in item to the pack registry.  While this is normally called automatically by the
      * parser as it goes over the jar files, this may be called manually if other mods (or the core mod) want
@@ -435,46 +668,61 @@ public final class PackParserSystem{
      */
     public static void registerItem(AJSONItem itemDef){
     	try{
-	    	//Do legacy compats before validating the JSON.
-	    	//This will populate any required fields that were not in older versions.
-			LegacyCompatSystem.performLegacyCompats(itemDef);
-			JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
-	    			
-	    	//Create all required items.
-			if(itemDef instanceof AJSONMultiModelProvider){
-				//Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
-				//We don't create skin items right away as the pack they go to might not yet be loaded.
-				if(itemDef instanceof JSONSkin){
-					JSONSkin skinDef = (JSONSkin) itemDef;
-					if(!skinMap.containsKey(skinDef.skin.packID)){
-						skinMap.put(skinDef.skin.packID, new HashMap<String, List<JSONSkin>>());
-					}
-					if(!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)){
-						skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<JSONSkin>());
-					}
-					skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
-				}else{
-					parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+    		checkItem(itemDef);
+    		createItems(itemDef);
+    	}catch(Exception e){
+    		InterfaceManager.coreInterface.logError(e.getMessage());
+    	}
+    }
+    
+    /**
+     * Performs legacy compats on the passed-in definition, and validates it.  This only changes
+     * the definition, so it is safe to call for multiple definitions at once.
+     */
+    private static void checkItem(AJSONItem itemDef){
+    	//Do legacy compats before validating the JSON.
+    	//This will populate any required fields that were not in older versions.
+		LegacyCompatSystem.performLegacyCompats(itemDef);
+		JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
+    }
+    
+    /**
+     * Creates all items for the passed-in definition, and adds them to the registry.
+     * The definition must have been checked with {@link #checkItem(AJSONItem)} prior to this.
+     */
+    private static void createItems(AJSONItem itemDef){
+    	//Create all required items.
+    	if(itemDef instanceof AJSONMultiModelProvider){
+			//Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
+			//We don't create skin items right away as the pack they go to might not yet be loaded.
+			if(itemDef instanceof JSONSkin){
+				JSONSkin skinDef = (JSONSkin) itemDef;
+				if(!skinMap.containsKey(skinDef.skin.packID)){
+					skinMap.put(skinDef.skin.packID, new HashMap<String, List<JSONSkin>>());
 				}
+				if(!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)){
+					skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<JSONSkin>());
+				}
+				skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
 			}else{
-				AItemPack<?> item;
-				switch(itemDef.classification){
-					case INSTRUMENT : item = new ItemInstrument((JSONInstrument) itemDef); break;
-					case ITEM : item = new ItemItem((JSONItem) itemDef); break;
-					default : {
-						throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
-					}
+				parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+			}
+		}else{
+			AItemPack<?> item;
+			switch(itemDef.classification){
+				case INSTRUMENT : item = new ItemInstrument((JSONInstrument) itemDef); break;
+				case ITEM : item = new ItemItem((JSONItem) itemDef); break;
+				default : {
+					throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
 				}
-		    	
-		    	//Put the item in the map in the registry.
-		    	if(!packItemMap.containsKey(item.definition.packID)){
-		    		packItemMap.put(item.definition.packID, new HashMap<String, AItemPack<?>>());
-		    	}
-		    	packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
 			}
-    	}catch(Exception e){
-    		InterfaceManager.coreInterface.logError(e.getMessage());
-    	}
+	    	
+	    	//Put the item in the map in the registry.
+	    	if(!packItemMap.containsKey(item.definition.packID)){
+	    		packItemMap.put(item.definition.packID, new HashMap<String, AItemPack<?>>());
+	    	}
+	    	packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
+		}
     }
     
     /**
@@ -619,4 +867,49 @@ public final class PackParserSystem{
     	}
     	return packItems;
     }
+    
+    /**
+     * A pack to be scanned, and the entries found in it, either from its jar or its cache.
+     */
+    private static class PackScan{
+    	private final JSONPack packDef;
+    	private final List<String> validSubDirectories;
+    	private final List<PackEntry> entries = new ArrayList<PackEntry>();
+    	private boolean fromCache;
+    	
+    	private PackScan(JSONPack packDef, List<String> validSubDirectories){
+    		this.packDef = packDef;
+    		this.validSubDirectories = validSubDirectories;
+    	}
+    	
+    	private boolean isCacheable(){
+    		for(PackEntry entry : entries){
+    			if(!entry.cacheable){
+    				return false;
+    			}
+    		}
+    		return true;
+    	}
+    }
+    
+    /**
+     * A definition JSON found in a pack jar.  Holds the data read from the jar until it is parsed,
+     * then the parsed definition, or the errors found while doing either.
+     */
+    private static class PackEntry{
+    	private final String packID;
+    	private final String fileName;
+    	private final List<String> errors = new ArrayList<String>();
+    	private ItemClassification classification;
+    	private String prefixFolders;
+    	private byte[] data;
+    	private AJSONItem definition;
+    	private byte[] cachedData;
+    	private boolean cacheable = true;
+    	
+    	private PackEntry(String packID, String fileName){
+    		this.packID = packID;
+    		this.fileName = fileName;
+    	}
+    }
 }
@@ -0,0 +1,547 @@
+package minecrafttransportsimulator.systems;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.components.RenderableObject;
+
+/**System for handling particles.  This mimic's MC's particle logic, except we can manually set
+ * movement logic.  Particles aren't entities, as there can be thousands of them at once and they
+ * don't need anything entities have, like syncing or saving.  Instead, the state of all particles
+ * is kept in arrays, with one index per particle.  Particles that are alive are always at the
+ * start of the arrays, so updating them is one loop over the first {@link #particleCount} indexes.
+ * When a particle dies, the last particle is moved into its index, so the arrays never have holes,
+ * and the index is re-used for the next particle spawned.
+ * <br><br>
+ * Rendering is done all at once after all entities have rendered.  All particles that use the same
+ * texture are put into one buffer and rendered in one call.  Note that particles are client-side only,
+ * and all methods in here must be called from the main client thread.
+ *
+ * @author don_bruce
+ */
+public class ParticleSystem{
+	private static final int INITIAL_CAPACITY = 256;
+	private static final int MAX_PARTICLES = 16384;
+	private static final int PARTICLES_PER_ROWCOL = 16;
+	private static final int VERTEX_SIZE = 10;
+	private static final int DEFAULT_RENDER_DISTANCE = 64;
+	private static final TransformationMatrix helperTransform = new TransformationMatrix();
+	private static final Point3D helperOffset = new Point3D();
+	private static final Point3D helperPosition = new Point3D();
+	private static final Point3D helperMotion = new Point3D();
+	private static final Point3D cameraPosition = new Point3D();
+	private static final BoundingBox helperBox = new BoundingBox(new Point3D(), 0, 0, 0);
+	private static final float[] helperUVs = new float[4];
+	private static final Map<String, FloatBuffer> textureBuffers = new LinkedHashMap<String, FloatBuffer>();
+
+	//Particle states.  Only the first particleCount indexes are valid.
+	private static AWrapperWorld particleWorld;
+	private static int particleCount;
+	private static JSONParticle[] definitions = new JSONParticle[INITIAL_CAPACITY];
+	private static String[] textures = new String[INITIAL_CAPACITY];
+	private static double[] positions = new double[INITIAL_CAPACITY*3];
+	private static double[] prevPositions = new double[INITIAL_CAPACITY*3];
+	private static double[] motions = new double[INITIAL_CAPACITY*3];
+	private static float[] scales = new float[INITIAL_CAPACITY*2];
+	private static float[] breakUVs = new float[INITIAL_CAPACITY*4];
+	private static int[] ages = new int[INITIAL_CAPACITY];
+	private static int[] maxAges = new int[INITIAL_CAPACITY];
+	private static int[] lightmaps = new int[INITIAL_CAPACITY];
+	private static boolean[] touchingBlocks = new boolean[INITIAL_CAPACITY];
+
+	/**
+	 *  Spawns a particle for the passed-in entity.  The switchbox, if not null, is used to offset
+	 *  the particle from the entity.  If there are already too many particles, this does nothing.
+	 */
+	public static void spawnParticle(AEntityD_Definable<?> entitySpawning, JSONParticle definition, AnimationSwitchbox switchbox){
+		if(entitySpawning.world != particleWorld){
+			clear();
+			particleWorld = entitySpawning.world;
+		}
+		if(particleCount == definitions.length){
+			if(particleCount == MAX_PARTICLES){
+				return;
+			}
+			setCapacity(Math.min(particleCount*2, MAX_PARTICLES));
+		}
+		int index = particleCount++;
+
+		helperTransform.resetTransforms().set(entitySpawning.orientation);
+		if(switchbox != null){
+			helperTransform.multiply(switchbox.netMatrix);
+		}
+		if(definition.pos != null){
+			helperOffset.set(definition.pos).multiply(entitySpawning.scale);
+		}else{
+			helperOffset.set(0, 0, 0);
+		}
+		helperOffset.transform(helperTransform);
+		helperPosition.set(entitySpawning.position).add(helperOffset);
+		setPoint(positions, index, helperPosition);
+		setPoint(prevPositions, index, helperPosition);
+
+		if(definition.initialVelocity != null){
+			//Set initial velocity, but add some randomness so particles don't all go in a line.
+			helperMotion.set(definition.initialVelocity).rotate(helperTransform);
+			helperMotion.x = helperMotion.x/10D + 0.02 - Math.random()*0.04;
+			helperMotion.y = helperMotion.y/10D + 0.02 - Math.random()*0.04;
+			helperMotion.z = helperMotion.z/10D + 0.02 - Math.random()*0.04;
+		}else{
+			helperMotion.set(0, 0, 0);
+		}
+		setPoint(motions, index, helperMotion);
+
+		definitions[index] = definition;
+		textures[index] = definition.texture != null ? definition.texture : (definition.type.equals(ParticleType.BREAK) ? RenderableObject.GLOBAL_TEXTURE_NAME : RenderableObject.PARTICLE_TEXTURE_NAME);
+		scales[index*2] = (float) entitySpawning.scale.x;
+		scales[index*2 + 1] = (float) entitySpawning.scale.y;
+		ages[index] = 0;
+		maxAges[index] = generateMaxAge(definition);
+		touchingBlocks[index] = false;
+		updateLightmap(index, helperPosition);
+		if(definition.type.equals(ParticleType.BREAK)){
+			//Break particles use the texture of the block below them when spawned.
+			--helperPosition.y;
+			float[] uvPoints = InterfaceManager.renderingInterface.getBlockBreakTexture(particleWorld, helperPosition);
+			System.arraycopy(uvPoints, 0, breakUVs, index*4, 4);
+		}
+	}
+
+	/**
+	 *  Updates all particles.  This should be called once every tick.  If the passed-in world isn't
+	 *  the world the particles are in, then they are all removed, as the player changed worlds.
+	 */
+	public static void update(AWrapperWorld world){
+		if(world != particleWorld){
+			clear();
+			particleWorld = world;
+			return;
+		}
+
+		//Go backwards, so particles moved into the index of removed particles have already been updated.
+		for(int index=particleCount-1; index>=0; --index){
+			JSONParticle definition = definitions[index];
+			int offset = index*3;
+			prevPositions[offset] = positions[offset];
+			prevPositions[offset + 1] = positions[offset + 1];
+			prevPositions[offset + 2] = positions[offset + 2];
+			double motionX = motions[offset];
+			double motionY = motions[offset + 1];
+			double motionZ = motions[offset + 2];
+			boolean touching = touchingBlocks[index];
+
+			//Set movement.
+			if(definition.movementVelocity != null){
+				motionX = clamp(motionX + definition.movementVelocity.x, definition.terminalVelocity.x);
+				motionY = clamp(motionY + definition.movementVelocity.y, definition.terminalVelocity.y);
+				motionZ = clamp(motionZ + definition.movementVelocity.z, definition.terminalVelocity.z);
+			}else{
+				switch(definition.type){
+					case SMOKE: {
+						//Update the motions to make the smoke float up.
+						motionX *= 0.9;
+						motionY += 0.004;
+						motionZ *= 0.9;
+						break;
+					}
+					case FLAME: {
+						//Flame just slowly drifts in the direction it was going.
+						motionX *= 0.96;
+						motionY *= 0.96;
+						motionZ *= 0.96;
+						break;
+					}
+					case DRIP: {
+						//Keep moving until we touch a block, then stop.
+						if(!touching){
+							motionX *= 0.96;
+							motionY = motionY*0.96 - 0.06D;
+							motionZ *= 0.96;
+						}else{
+							motionX = 0;
+							motionY = 0;
+							motionZ = 0;
+						}
+						break;
+					}
+					case BUBBLE: {
+						//Bubbles float up until they break the surface of the water, then they pop.
+						getPoint(positions, index, helperPosition);
+						if(!world.isBlockLiquid(helperPosition)){
+							remove(index);
+							continue;
+						}else{
+							motionX *= 0.85;
+							motionY = motionY*0.85 + 0.002D;
+							motionZ *= 0.85;
+						}
+						break;
+					}
+					case BREAK: {
+						//Breaking just fall down quickly.
+						if(!touching){
+							motionX *= 0.98;
+							motionY = motionY*0.98 - 0.04D;
+							motionZ *= 0.98;
+						}else{
+							motionX = 0;
+							motionY = 0;
+							motionZ = 0;
+						}
+						break;
+					}
+					case GENERIC: {
+						//Generic particles don't do any movement by default.
+						break;
+					}
+				}
+			}
+
+			//Check collision movement.  If we hit a block, don't move.
+			//All particles share one box, as it's only used for this check.
+			getPoint(positions, index, helperBox.globalCenter);
+			helperBox.widthRadius = getSize(definition)/2D;
+			helperBox.heightRadius = helperBox.widthRadius;
+			helperBox.depthRadius = helperBox.widthRadius;
+			helperMotion.set(motionX, motionY, motionZ);
+			touching = helperBox.updateMovingCollisions(world, helperMotion);
+			if(touching){
+				helperMotion.add(-helperBox.currentCollisionDepth.x*Math.signum(helperMotion.x), -helperBox.currentCollisionDepth.y*Math.signum(helperMotion.y), -helperBox.currentCollisionDepth.z*Math.signum(helperMotion.z));
+			}
+			touchingBlocks[index] = touching;
+			setPoint(motions, index, helperMotion);
+			positions[offset] += helperMotion.x;
+			positions[offset + 1] += helperMotion.y;
+			positions[offset + 2] += helperMotion.z;
+
+			//Check age to see if we are on our last tick.
+			if(++ages[index] == maxAges[index]){
+				remove(index);
+			}else{
+				getPoint(positions, index, helperPosition);
+				updateLightmap(index, helperPosition);
+			}
+		}
+	}
+
+	/**
+	 *  Renders all particles.  This should be called on the blended pass after all
+	 *  entities have rendered, with the OpenGL matrix at the camera position.
+	 */
+	public static void render(float partialTicks){
+		if(particleCount == 0){
+			return;
+		}
+
+		//Get where particles are relative to, and where they should face, which is the player's eyes.
+		Point3D renderOrigin = InterfaceManager.clientInterface.getRenderViewEntity().getRenderedPosition(partialTicks);
+		IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
+		cameraPosition.set(player.getPosition()).add(0, player.getEyeHeight(), 0).add(InterfaceManager.clientInterface.getCameraPosition());
+		Integer configDistance = ConfigSystem.client.renderingSettings.renderDistances.value.get(ParticleSystem.class.getSimpleName());
+		double maxDistanceSquared = configDistance != null ? configDistance*configDistance : DEFAULT_RENDER_DISTANCE*DEFAULT_RENDER_DISTANCE;
+
+		String lastTexture = null;
+		FloatBuffer buffer = null;
+		for(int index=0; index<particleCount; ++index){
+			//Don't render on the first tick, as we haven't moved yet.
+			int age = ages[index];
+			if(age == 0){
+				continue;
+			}
+
+			//Get the interpolated position, and the vector to the camera.
+			int offset = index*3;
+			double x = prevPositions[offset] + (positions[offset] - prevPositions[offset])*partialTicks;
+			double y = prevPositions[offset + 1] + (positions[offset + 1] - prevPositions[offset + 1])*partialTicks;
+			double z = prevPositions[offset + 2] + (positions[offset + 2] - prevPositions[offset + 2])*partialTicks;
+			double toCameraX = cameraPosition.x - x;
+			double toCameraY = cameraPosition.y - y;
+			double toCameraZ = cameraPosition.z - z;
+			double distanceSquared = toCameraX*toCameraX + toCameraY*toCameraY + toCameraZ*toCameraZ;
+			if(maxDistanceSquared != 0 && distanceSquared > maxDistanceSquared){
+				continue;
+			}
+
+			//Face the camera.  This is the X and Y axis of a rotation that points Z at the camera.
+			double rightX;
+			double rightZ;
+			double upX;
+			double upY;
+			double upZ;
+			double distance = Math.sqrt(distanceSquared);
+			double horizontalDistance = Math.sqrt(toCameraX*toCameraX + toCameraZ*toCameraZ);
+			if(horizontalDistance > 1.0E-6){
+				rightX = toCameraZ/horizontalDistance;
+				rightZ = -toCameraX/horizontalDistance;
+				upX = -toCameraY*toCameraX/horizontalDistance/distance;
+				upY = horizontalDistance/distance;
+				upZ = -toCameraY*toCameraZ/horizontalDistance/distance;
+			}else{
+				rightX = 1;
+				rightZ = 0;
+				upX = 0;
+				upY = 0;
+				upZ = -Math.signum(toCameraY);
+			}
+
+			//Scale to the particle size.
+			JSONParticle definition = definitions[index];
+			int maxAge = maxAges[index];
+			float progress = (age + partialTicks)/maxAge;
+			double totalScale = getSize(definition)*getScale(definition, index, progress)/2D;
+			double halfWidth = totalScale*scales[index*2];
+			double halfHeight = totalScale*scales[index*2 + 1];
+			rightX *= halfWidth;
+			rightZ *= halfWidth;
+			upX *= halfHeight;
+			upY *= halfHeight;
+			upZ *= halfHeight;
+
+			//Get the UVs, color, and light.
+			setTextureBounds(definition, index, age, maxAge);
+			float red;
+			float green;
+			float blue;
+			if(definition.color != null){
+				if(definition.toColor != null){
+					red = definition.color.red + (definition.toColor.red - definition.color.red)*progress;
+					green = definition.color.green + (definition.toColor.green - definition.color.green)*progress;
+					blue = definition.color.blue + (definition.toColor.blue - definition.color.blue)*progress;
+				}else{
+					red = definition.color.red;
+					green = definition.color.green;
+					blue = definition.color.blue;
+				}
+			}else{
+				red = ColorRGB.WHITE.red;
+				green = ColorRGB.WHITE.green;
+				blue = ColorRGB.WHITE.blue;
+			}
+			float alpha = getAlpha(definition, progress);
+			int lightmap = lightmaps[index];
+
+			//Add the particle to the buffer for its texture.
+			String texture = textures[index];
+			if(!texture.equals(lastTexture)){
+				lastTexture = texture;
+				buffer = textureBuffers.get(texture);
+			}
+			if(buffer == null || buffer.remaining() < 4*VERTEX_SIZE){
+				FloatBuffer newBuffer = FloatBuffer.allocate(Math.max(INITIAL_CAPACITY, buffer != null ? buffer.capacity()/(4*VERTEX_SIZE)*2 : 0)*4*VERTEX_SIZE);
+				if(buffer != null){
+					buffer.flip();
+					newBuffer.put(buffer);
+				}
+				buffer = newBuffer;
+				textureBuffers.put(texture, buffer);
+			}
+			x -= renderOrigin.x;
+			y -= renderOrigin.y;
+			z -= renderOrigin.z;
+			putVertex(buffer, x + rightX - upX, y - upY, z + rightZ - upZ, helperUVs[1], helperUVs[3], red, green, blue, alpha, lightmap);//Bottom-right
+			putVertex(buffer, x + rightX + upX, y + upY, z + rightZ + upZ, helperUVs[1], helperUVs[2], red, green, blue, alpha, lightmap);//Top-right
+			putVertex(buffer, x - rightX + upX, y + upY, z - rightZ + upZ, helperUVs[0], helperUVs[2], red, green, blue, alpha, lightmap);//Top-left
+			putVertex(buffer, x - rightX - upX, y - upY, z - rightZ - upZ, helperUVs[0], helperUVs[3], red, green, blue, alpha, lightmap);//Bottom-left
+		}
+
+		//Now render all buffers that have particles in them.
+		for(Entry<String, FloatBuffer> textureEntry : textureBuffers.entrySet()){
+			FloatBuffer textureBuffer = textureEntry.getValue();
+			if(textureBuffer.position() != 0){
+				textureBuffer.flip();
+				InterfaceManager.renderingInterface.renderParticles(textureEntry.getKey(), textureBuffer);
+				textureBuffer.clear();
+			}
+		}
+	}
+
+	/**
+	 *  Removes all particles.
+	 */
+	public static void clear(){
+		Arrays.fill(definitions, 0, particleCount, null);
+		Arrays.fill(textures, 0, particleCount, null);
+		particleCount = 0;
+		particleWorld = null;
+	}
+
+	/**
+	 *  Removes the particle at the passed-in index, moving the last particle into its place.
+	 */
+	private static void remove(int index){
+		int lastIndex = --particleCount;
+		if(index != lastIndex){
+			definitions[index] = definitions[lastIndex];
+			textures[index] = textures[lastIndex];
+			System.arraycopy(positions, lastIndex*3, positions, index*3, 3);
+			System.arraycopy(prevPositions, lastIndex*3, prevPositions, index*3, 3);
+			System.arraycopy(motions, lastIndex*3, motions, index*3, 3);
+			System.arraycopy(scales, lastIndex*2, scales, index*2, 2);
+			System.arraycopy(breakUVs, lastIndex*4, breakUVs, index*4, 4);
+			ages[index] = ages[lastIndex];
+			maxAges[index] = maxAges[lastIndex];
+			lightmaps[index] = lightmaps[lastIndex];
+			touchingBlocks[index] = touchingBlocks[lastIndex];
+		}
+		definitions[lastIndex] = null;
+		textures[lastIndex] = null;
+	}
+
+	/**
+	 *  Changes the size of the particle arrays to hold the passed-in number of particles.
+	 */
+	private static void setCapacity(int capacity){
+		definitions = Arrays.copyOf(definitions, capacity);
+		textures = Arrays.copyOf(textures, capacity);
+		positions = Arrays.copyOf(positions, capacity*3);
+		prevPositions = Arrays.copyOf(prevPositions, capacity*3);
+		motions = Arrays.copyOf(motions, capacity*3);
+		scales = Arrays.copyOf(scales, capacity*2);
+		breakUVs = Arrays.copyOf(breakUVs, capacity*4);
+		ages = Arrays.copyOf(ages, capacity);
+		maxAges = Arrays.copyOf(maxAges, capacity);
+		lightmaps = Arrays.copyOf(lightmaps, capacity);
+		touchingBlocks = Arrays.copyOf(touchingBlocks, capacity);
+	}
+
+	private static void setPoint(double[] array, int index, Point3D point){
+		array[index*3] = point.x;
+		array[index*3 + 1] = point.y;
+		array[index*3 + 2] = point.z;
+	}
+
+	private static void getPoint(double[] array, int index, Point3D point){
+		point.set(array[index*3], array[index*3 + 1], array[index*3 + 2]);
+	}
+
+	private static double clamp(double motion, double terminalVelocity){
+		return motion > terminalVelocity ? terminalVelocity : (motion < -terminalVelocity ? -terminalVelocity : motion);
+	}
+
+	private static void updateLightmap(int index, Point3D position){
+		lightmaps[index] = definitions[index].type.equals(ParticleType.FLAME) ? -1 : InterfaceManager.renderingInterface.getLightmapAtPosition(position);
+	}
+
+	private static void putVertex(FloatBuffer buffer, double x, double y, double z, float u, float v, float red, float green, float blue, float alpha, int lightmap){
+		buffer.put((float) x);
+		buffer.put((float) y);
+		buffer.put((float) z);
+		buffer.put(u);
+		buffer.put(v);
+		buffer.put(red);
+		buffer.put(green);
+		buffer.put(blue);
+		buffer.put(alpha);
+		buffer.put(lightmap);
+	}
+
+	/**
+	 *  Gets the max age of the particle.  This tries to use the definition's
+	 *  maxAge, but will use Vanilla values if not set.  This should only be
+	 *  called once per particle, as the Vanilla values have a random element
+	 *  that means this function will return different values on each call for them.
+	 */
+	private static int generateMaxAge(JSONParticle definition){
+		if(definition.duration != 0){
+			return definition.duration;
+		}else{
+			switch(definition.type){
+				case SMOKE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case FLAME: return (int)(8.0D / (Math.random() * 0.8D + 0.2D)) + 4;
+				case DRIP: return  (int)(64.0D / (Math.random() * 0.8D + 0.2D));
+				case BUBBLE: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+				case BREAK: return (int)(4.0D / (Math.random() * 0.9D + 0.1D));
+				case GENERIC: return (int)(8.0D / (Math.random() * 0.8D + 0.2D));
+			}
+			//We'll never get here, but it makes the compiler happy.
+			return 0;
+		}
+	}
+
+	/**
+	 *  Gets the size of the particle.  This parameter
+	 *  is used for the particle's bounding box for collision, and
+	 *  does not necessarily need to take the scale of the particle into account.
+	 */
+	private static float getSize(JSONParticle definition){
+		return definition.type.equals(ParticleType.DRIP) || definition.type.equals(ParticleType.BREAK) ? 0.1F : 0.2F;
+	}
+
+	/**
+	 *  Gets the current alpha value of the particle.  This parameter
+	 *  is used to make the particle translucent.
+	 */
+	private static float getAlpha(JSONParticle definition, float progress){
+		if(definition.transparency != 0){
+			if(definition.toTransparency != 0){
+				return definition.transparency + (definition.toTransparency - definition.transparency)*progress;
+			}else{
+				return definition.transparency;
+			}
+		}else{
+			return 1.0F;
+		}
+	}
+
+	/**
+	 *  Gets the current scale of the particle.
+	 *  This is for rendering only; it does not affect collision.
+	 */
+	private static float getScale(JSONParticle definition, int index, float progress){
+		if(definition.scale != 0){
+			if(definition.toScale != 0){
+				return definition.scale + (definition.toScale - definition.scale)*progress;
+			}else{
+				return definition.scale;
+			}
+		}else{
+			switch(definition.type){
+				case FLAME:  return (float) (1.0F - Math.pow(progress, 2)/2F);
+				case DRIP: return touchingBlocks[index] ? 3.0F : 1.0F;
+				default: return 1.0F;
+			}
+		}
+	}
+
+	/**
+	 *  Sets {@link #helperUVs} to the u, U, v, and V texture bounds for the particle.
+	 */
+	private static void setTextureBounds(JSONParticle definition, int index, int age, int maxAge){
+		switch(definition.type){
+			case SMOKE: setParticleTextureBounds(7 - age*8/maxAge, 0); break;//Smoke gets smaller as it ages.
+			case FLAME: setParticleTextureBounds(0, 3); break;
+			case DRIP: setParticleTextureBounds(touchingBlocks[index] ? 1 : 0, 7); break;//Drips become flat when they hit the ground.
+			case BUBBLE: setParticleTextureBounds(0, 2); break;
+			case BREAK: System.arraycopy(breakUVs, index*4, helperUVs, 0, 4); break;//Set when spawned.
+			case GENERIC: {
+				//Generic particles use the whole texture.
+				helperUVs[0] = 0;
+				helperUVs[1] = 1;
+				helperUVs[2] = 0;
+				helperUVs[3] = 1;
+				break;
+			}
+		}
+	}
+
+	private static void setParticleTextureBounds(int uRow, int vCol){
+		helperUVs[0] = uRow/(float)PARTICLES_PER_ROWCOL;
+		helperUVs[1] = (uRow + 1)/(float)PARTICLES_PER_ROWCOL;
+		helperUVs[2] = vCol/(float)PARTICLES_PER_ROWCOL;
+		helperUVs[3] = (vCol + 1)/(float)PARTICLES_PER_ROWCOL;
+	}
+}